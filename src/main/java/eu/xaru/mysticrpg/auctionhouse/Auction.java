@@ -37,6 +37,10 @@ public class Auction {
     @Persist(key = "isBidItem")
     private boolean isBidItem;
 
+    // Set once the seller of an ended bid auction has been paid, so a retried settlement doesn't pay twice
+    @Persist(key = "sellerPaid")
+    private boolean sellerPaid;
+
     @BsonIgnore
     private ItemStack item;
 
@@ -149,6 +153,14 @@ public class Auction {
         isBidItem = bidItem;
     }
 
+    public boolean isSellerPaid() {
+        return sellerPaid;
+    }
+
+    public void setSellerPaid(boolean sellerPaid) {
+        this.sellerPaid = sellerPaid;
+    }
+
     public void setEndTime(long endTime) {
         this.endTime = endTime;
     }
@@ -0,0 +1,265 @@
+package eu.xaru.mysticrpg.auctionhouse;
+
+import eu.xaru.mysticrpg.customs.items.Category;
+import eu.xaru.mysticrpg.customs.items.CustomItemUtils;
+import org.bukkit.ChatColor;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory book of all listed auctions.
+ *
+ * Besides the listings by id, the book keeps them sorted by price per item category (and for
+ * {@link Category#EVERYTHING}), by seller, and ordered by end time for expiry. Each listing's
+ * category and display item are worked out once when it is added, so opening the Buy GUI
+ * reads ready-made, immutable per-category snapshots instead of inspecting every item.
+ *
+ * Expired listings leave the category views when {@link #drainExpired(long)} runs, but stay
+ * in the book under their seller until they are reclaimed. Thread-safe; lookups by id do not lock.
+ */
+public class AuctionBook {
+
+    private static final Comparator<Listing> BY_PRICE = Comparator.comparingInt(Listing::getPrice)
+            .thenComparing(listing -> listing.getAuction().getAuctionId());
+
+    private static final Comparator<Listing> BY_END_TIME = Comparator.comparingLong(Listing::getEndTime)
+            .thenComparing(listing -> listing.getAuction().getAuctionId());
+
+    /**
+     * One auction with what the GUIs need to show it.
+     */
+    public static final class Listing {
+        private final Auction auction;
+        private final boolean customItem;
+        private final Category category;
+        private final long endTime;
+        private int price;
+        private volatile boolean expired;
+        private ItemStack displayItem;
+
+        private Listing(Auction auction) {
+            this.auction = auction;
+            ItemStack item = auction.getItem();
+            this.customItem = item != null && CustomItemUtils.isCustomItem(item);
+            this.category = customItem ? CustomItemUtils.getCategory(item) : null;
+            this.endTime = auction.getEndTime();
+            this.price = auction.getCurrentBid();
+        }
+
+        public Auction getAuction() {
+            return auction;
+        }
+
+        /**
+         * @return The item's category, or null if it is not a custom item or has none.
+         */
+        public Category getCategory() {
+            return category;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+
+        public long getEndTime() {
+            return endTime;
+        }
+
+        public boolean isExpired() {
+            return expired;
+        }
+
+        /**
+         * @return The auctioned item with seller and price added to its lore. Shared between
+         *         viewers, callers must not modify it.
+         */
+        public synchronized ItemStack getDisplayItem() {
+            if (displayItem == null) {
+                displayItem = buildDisplayItem();
+            }
+            return displayItem;
+        }
+
+        private ItemStack buildDisplayItem() {
+            ItemStack display = auction.getItem().clone();
+            ItemMeta meta = display.getItemMeta();
+            if (meta == null) {
+                return display;
+            }
+            List<String> lore = meta.hasLore() ? meta.getLore() : new ArrayList<>();
+            lore.add("");
+            lore.add(ChatColor.GRAY + "Seller: " + ChatColor.YELLOW + auction.getSellerName());
+            lore.add(ChatColor.GRAY + "Price: " + ChatColor.GOLD + price + " coins");
+            lore.add("");
+            lore.add(ChatColor.YELLOW + "Click to purchase!");
+            meta.setLore(lore);
+            display.setItemMeta(meta);
+            return display;
+        }
+    }
+
+    private final Map<UUID, Listing> byId = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<Category, TreeSet<Listing>> byCategory = new EnumMap<>(Category.class);
+    private final Map<UUID, Set<Listing>> bySeller = new HashMap<>();
+    private final TreeSet<Listing> byEndTime = new TreeSet<>(BY_END_TIME);
+    private final Map<Category, List<Listing>> snapshots = new EnumMap<>(Category.class);
+
+    public AuctionBook() {
+        for (Category category : Category.values()) {
+            byCategory.put(category, new TreeSet<>(BY_PRICE));
+        }
+    }
+
+    public synchronized void add(Auction auction) {
+        remove(auction.getAuctionId());
+        Listing listing = new Listing(auction);
+        byId.put(auction.getAuctionId(), listing);
+        bySeller.computeIfAbsent(auction.getSellerUUID(), k -> new LinkedHashSet<>()).add(listing);
+        byEndTime.add(listing);
+        addToCategories(listing);
+    }
+
+    /**
+     * @return The removed auction, or null if it was not in the book.
+     */
+    public synchronized Auction remove(UUID auctionId) {
+        Listing listing = byId.remove(auctionId);
+        if (listing == null) {
+            return null;
+        }
+        Set<Listing> sellerListings = bySeller.get(listing.auction.getSellerUUID());
+        if (sellerListings != null) {
+            sellerListings.remove(listing);
+            if (sellerListings.isEmpty()) {
+                bySeller.remove(listing.auction.getSellerUUID());
+            }
+        }
+        if (!listing.expired) {
+            byEndTime.remove(listing);
+            removeFromCategories(listing);
+        }
+        return listing.auction;
+    }
+
+    /**
+     * Re-sorts a listing after its auction's current bid changed.
+     */
+    public synchronized void updatePrice(UUID auctionId) {
+        Listing listing = byId.get(auctionId);
+        if (listing == null || listing.expired) {
+            return;
+        }
+        removeFromCategories(listing);
+        listing.price = listing.auction.getCurrentBid();
+        synchronized (listing) {
+            listing.displayItem = null;
+        }
+        addToCategories(listing);
+    }
+
+    /**
+     * @return The auction with this id, whether it is still running or expired.
+     */
+    public Auction get(UUID auctionId) {
+        Listing listing = byId.get(auctionId);
+        return listing != null ? listing.auction : null;
+    }
+
+    /**
+     * @return The auction if it is still running, otherwise null.
+     */
+    public Auction getActive(UUID auctionId) {
+        Listing listing = byId.get(auctionId);
+        if (listing == null || listing.expired || listing.endTime <= System.currentTimeMillis()) {
+            return null;
+        }
+        return listing.auction;
+    }
+
+    /**
+     * @return The running custom-item listings of the category, cheapest first.
+     *         {@link Category#EVERYTHING} holds every custom item. The list is immutable and
+     *         the same instance is returned until the category changes.
+     */
+    public synchronized List<Listing> getListings(Category category) {
+        List<Listing> snapshot = snapshots.get(category);
+        if (snapshot == null) {
+            snapshot = List.copyOf(byCategory.get(category));
+            snapshots.put(category, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return All of the seller's auctions, including expired ones not yet reclaimed.
+     */
+    public synchronized List<Auction> getBySeller(UUID sellerId) {
+        Set<Listing> sellerListings = bySeller.get(sellerId);
+        if (sellerListings == null) {
+            return List.of();
+        }
+        List<Auction> auctions = new ArrayList<>(sellerListings.size());
+        for (Listing listing : sellerListings) {
+            auctions.add(listing.auction);
+        }
+        return auctions;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Takes every listing that ended by {@code now} out of the category views.
+     *
+     * @return The auctions that expired since the last call.
+     */
+    public synchronized List<Auction> drainExpired(long now) {
+        List<Auction> expired = new ArrayList<>();
+        while (!byEndTime.isEmpty() && byEndTime.first().endTime <= now) {
+            Listing listing = byEndTime.pollFirst();
+            listing.expired = true;
+            removeFromCategories(listing);
+            expired.add(listing.auction);
+        }
+        return expired;
+    }
+
+    private void addToCategories(Listing listing) {
+        if (!listing.customItem) {
+            return;
+        }
+        byCategory.get(Category.EVERYTHING).add(listing);
+        snapshots.remove(Category.EVERYTHING);
+        if (listing.category != null && listing.category != Category.EVERYTHING) {
+            byCategory.get(listing.category).add(listing);
+            snapshots.remove(listing.category);
+        }
+    }
+
+    private void removeFromCategories(Listing listing) {
+        if (!listing.customItem) {
+            return;
+        }
+        byCategory.get(Category.EVERYTHING).remove(listing);
+        snapshots.remove(Category.EVERYTHING);
+        if (listing.category != null && listing.category != Category.EVERYTHING) {
+            byCategory.get(listing.category).remove(listing);
+            snapshots.remove(listing.category);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package eu.xaru.mysticrpg.auctionhouse;
 
 import eu.xaru.mysticrpg.cores.MysticCore;
+import eu.xaru.mysticrpg.customs.items.Category;
 import eu.xaru.mysticrpg.customs.items.CustomItem;
 import eu.xaru.mysticrpg.economy.EconomyHelper;
 import eu.xaru.mysticrpg.managers.ModuleManager;
@@ -12,24 +13,30 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 public class AuctionHouseHelper {
 
-    private final Map<UUID, Auction> activeAuctions;
+    private final AuctionBook auctionBook;
     private final EconomyHelper economyHelper;
     private final SaveModule saveModule;
     private final PlayerDataCache playerDataCache;
 
     private boolean auctionsLoaded = false;
     private final MysticCore plugin;
+    private final BukkitTask sweepTask;
+
+    // Ended bid auctions with a winner that have not been settled yet; retried on every sweep
+    private final Set<UUID> unsettledAuctions = new LinkedHashSet<>();
+    // Of those, the ones with a settlement step currently being saved
+    private final Set<UUID> settlementsInFlight = new HashSet<>();
 
     public AuctionHouseHelper(EconomyHelper economyHelper) {
         this.economyHelper = economyHelper;
-        this.activeAuctions = new HashMap<>();
+        this.auctionBook = new AuctionBook();
 
         this.saveModule = ModuleManager.getInstance()
                 .getModuleInstance(SaveModule.class);
@@ -38,6 +45,13 @@ public class AuctionHouseHelper {
         this.plugin = JavaPlugin.getPlugin(MysticCore.class);
 
         loadAuctionsFromDatabase();
+
+        long sweepTicks = Math.max(1, plugin.getMysticConfig().getInt("auctionhouse.sweepIntervalSeconds", 30)) * 20L;
+        this.sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sweepExpiredAuctions, sweepTicks, sweepTicks);
+    }
+
+    public void shutdown() {
+        sweepTask.cancel();
     }
 
     public boolean areAuctionsLoaded() {
@@ -51,11 +65,10 @@ public class AuctionHouseHelper {
                 for (Auction auction : auctions) {
                     ItemStack item = SaveHelper.itemStackFromBase64(auction.getItemData());
                     auction.setItem(item);
-                    activeAuctions.put(auction.getAuctionId(), auction);
-                    DebugLogger.getInstance().log(Level.INFO, "Loaded auction with ID: " + auction.getAuctionId(), 0);
+                    auctionBook.add(auction);
                 }
                 auctionsLoaded = true;
-                DebugLogger.getInstance().log(Level.INFO, "Total auctions loaded: " + activeAuctions.size(), 0);
+                DebugLogger.getInstance().log(Level.INFO, "Total auctions loaded: " + auctionBook.size(), 0);
             }
 
             @Override
@@ -70,8 +83,8 @@ public class AuctionHouseHelper {
         long endTime = System.currentTimeMillis() + duration;
         UUID auctionId = UUID.randomUUID();
         Auction auction = new Auction(auctionId, seller, customItem, price, endTime);
-        activeAuctions.put(auctionId, auction);
-        DebugLogger.getInstance().log(Level.INFO, "Auction added to activeAuctions with ID: " + auctionId, 0);
+        auctionBook.add(auction);
+        DebugLogger.getInstance().log(Level.INFO, "Auction added to the auction book with ID: " + auctionId, 0);
 
         saveModule.saveAuction(auction, new Callback<Void>() {
             @Override
@@ -102,8 +115,8 @@ public class AuctionHouseHelper {
         long endTime = System.currentTimeMillis() + duration;
         UUID auctionId = UUID.randomUUID();
         Auction auction = new Auction(auctionId, seller, item, startingPrice, endTime, true);
-        activeAuctions.put(auctionId, auction);
-        DebugLogger.getInstance().log(Level.INFO, "Bid auction added to activeAuctions with ID: " + auctionId, 0);
+        auctionBook.add(auction);
+        DebugLogger.getInstance().log(Level.INFO, "Bid auction added to the auction book with ID: " + auctionId, 0);
 
         saveModule.saveAuction(auction, new Callback<Void>() {
             @Override
@@ -130,7 +143,7 @@ public class AuctionHouseHelper {
     }
 
     public void removeAuction(UUID auctionId) {
-        activeAuctions.remove(auctionId);
+        auctionBook.remove(auctionId);
 
         saveModule.deleteAuction(auctionId, new Callback<Void>() {
             @Override
@@ -146,35 +159,186 @@ public class AuctionHouseHelper {
         });
     }
 
-    public List<Auction> getActiveAuctions() {
-        long currentTime = System.currentTimeMillis();
-        List<Auction> auctions = activeAuctions.values().stream()
-                .filter(a -> {
-                    boolean isActive = a.getEndTime() > currentTime;
-                    DebugLogger.getInstance().log(Level.INFO, "Auction ID: " + a.getAuctionId() + ", End Time: " + a.getEndTime() + ", Is Active: " + isActive, 0);
-                    return isActive;
-                })
-                .collect(Collectors.toList());
-        DebugLogger.getInstance().log(Level.INFO, "getActiveAuctions: Found " + auctions.size() + " active auctions.", 0);
-        return auctions;
+    /**
+     * @return The running custom-item listings of the category, cheapest first. The same
+     *         list instance is returned until the category changes.
+     */
+    public List<AuctionBook.Listing> getListings(Category category) {
+        return auctionBook.getListings(category);
     }
 
+    /**
+     * @return The player's auctions, including expired ones they have not reclaimed yet.
+     */
     public List<Auction> getPlayerAuctions(UUID playerUUID) {
-        long currentTime = System.currentTimeMillis();
-        return activeAuctions.values().stream()
-                .filter(a -> a.getSellerUUID().equals(playerUUID)
-                        && a.getEndTime() > currentTime)
-                .collect(Collectors.toList());
+        return auctionBook.getBySeller(playerUUID);
     }
 
     public Auction getAuctionById(UUID auctionId) {
-        return activeAuctions.get(auctionId);
+        return auctionBook.get(auctionId);
+    }
+
+    /**
+     * Takes ended auctions off the market. A bid auction with a highest bidder is settled: the
+     * seller gets the bid and the winner the item. Other items stay listed under the seller,
+     * who reclaims them from Your Auctions.
+     */
+    private void sweepExpiredAuctions() {
+        for (UUID auctionId : new ArrayList<>(unsettledAuctions)) {
+            Auction auction = auctionBook.get(auctionId);
+            if (auction == null || auction.getHighestBidder() == null) {
+                unsettledAuctions.remove(auctionId);
+            } else if (!settlementsInFlight.contains(auctionId)) {
+                settleBidAuction(auction);
+            }
+        }
+
+        List<Auction> expired = auctionBook.drainExpired(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (Auction auction : expired) {
+            if (auction.isBidItem() && auction.getHighestBidder() != null) {
+                unsettledAuctions.add(auction.getAuctionId());
+                settleBidAuction(auction);
+                continue;
+            }
+            Player seller = Bukkit.getPlayer(auction.getSellerUUID());
+            if (seller != null && seller.isOnline()) {
+                seller.sendMessage(Utils.getInstance().$("Your auction for " + auction.getItem().getType()
+                        + " has expired. Reclaim the item in Your Auctions."));
+            }
+        }
+        DebugLogger.getInstance().log(Level.INFO, "Expired " + expired.size() + " auctions.", 0);
+    }
+
+    /**
+     * Pays the seller of an ended bid auction, then hands the item to the highest bidder and
+     * deletes the auction. Each step is only taken once the previous one is saved; a failed
+     * step is retried on the next sweep, or after a restart since the auction stays stored.
+     */
+    private void settleBidAuction(Auction auction) {
+        UUID auctionId = auction.getAuctionId();
+        settlementsInFlight.add(auctionId);
+        if (auction.isSellerPaid()) {
+            deliverWonItem(auction);
+            return;
+        }
+        UUID sellerId = auction.getSellerUUID();
+        int amount = auction.getHighestBid();
+        Callback<Void> paid = new Callback<>() {
+            @Override
+            public void onSuccess(Void result) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    auction.setSellerPaid(true);
+                    saveModule.saveAuction(auction, new Callback<Void>() {
+                        @Override
+                        public void onSuccess(Void result) {
+                        }
+
+                        @Override
+                        public void onFailure(Throwable throwable) {
+                            DebugLogger.getInstance().log(Level.SEVERE, "Failed to save paid auction " + auctionId + ": ", throwable, throwable);
+                        }
+                    });
+                    deliverWonItem(auction);
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                Bukkit.getScheduler().runTask(plugin, () -> settlementsInFlight.remove(auctionId));
+                DebugLogger.getInstance().log(Level.SEVERE, "Failed to pay seller of auction " + auctionId + ", retrying on the next sweep: ", throwable, throwable);
+            }
+        };
+
+        Player seller = Bukkit.getPlayer(sellerId);
+        if (seller != null && seller.isOnline()) {
+            economyHelper.setBankGold(seller, economyHelper.getBankGold(seller) + amount);
+            seller.sendMessage(Utils.getInstance().$("Your auction for " + auction.getItem().getType()
+                    + " has been won for $" + economyHelper.formatGold(amount) + "."));
+            paid.onSuccess(null);
+        } else {
+            playerDataCache.addPendingBalance(sellerId, amount, paid);
+        }
+    }
+
+    /**
+     * Second half of {@link #settleBidAuction}: the item goes to the winner's inventory, or to
+     * their pending items if they are offline.
+     */
+    private void deliverWonItem(Auction auction) {
+        UUID auctionId = auction.getAuctionId();
+        UUID winnerId = auction.getHighestBidder();
+        Player winner = Bukkit.getPlayer(winnerId);
+        if (winner != null && winner.isOnline()) {
+            winner.getInventory().addItem(auction.getItem());
+            winner.sendMessage(Utils.getInstance().$("You won the auction for " + auction.getItem().getType()
+                    + " with a bid of $" + economyHelper.formatGold(auction.getHighestBid()) + "."));
+            finishSettlement(auctionId);
+            return;
+        }
+        playerDataCache.addPendingItem(winnerId, auction.getItemData(), new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                Bukkit.getScheduler().runTask(plugin, () -> finishSettlement(auctionId));
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                Bukkit.getScheduler().runTask(plugin, () -> settlementsInFlight.remove(auctionId));
+                DebugLogger.getInstance().log(Level.SEVERE, "Failed to deliver item of auction " + auctionId + ", retrying on the next sweep: ", throwable, throwable);
+            }
+        });
+    }
+
+    private void finishSettlement(UUID auctionId) {
+        settlementsInFlight.remove(auctionId);
+        unsettledAuctions.remove(auctionId);
+        removeAuction(auctionId);
+    }
+
+    /**
+     * Gives a bid back to the bidder's bank, or to their pending balance if they are offline.
+     * Offline bidders are loaded from the database if they are not cached.
+     */
+    private void refundBid(UUID bidderId, int amount, Callback<Void> callback) {
+        Player bidder = Bukkit.getPlayer(bidderId);
+        if (bidder != null && bidder.isOnline()) {
+            // Refund by adding back bank gold
+            int balance = economyHelper.getBankGold(bidder);
+            economyHelper.setBankGold(bidder, balance + amount);
+            bidder.sendMessage(Utils.getInstance().$("Your bid of $" + economyHelper.formatGold(amount) + " has been refunded."));
+            DebugLogger.getInstance().log(Level.INFO, "Refunded bidder {0} ${1}", new Object[]{bidder.getName(), amount});
+            callback.onSuccess(null);
+            return;
+        }
+        // Bidder offline: pending balance
+        playerDataCache.addPendingBalance(bidderId, amount, new Callback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                DebugLogger.getInstance().log(Level.INFO, "Bidder {0} is offline. Added ${1} to pending balance.",
+                        new Object[]{bidderId, amount});
+                callback.onSuccess(null);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                DebugLogger.getInstance().log(Level.SEVERE, "Failed to save pending balance for bidder " + bidderId + ": ", throwable, throwable);
+                callback.onFailure(throwable);
+            }
+        });
     }
 
     public void cancelAuction(UUID auctionId, Player player) {
-        Auction auction = activeAuctions.get(auctionId);
+        Auction auction = auctionBook.get(auctionId);
         if (auction != null && auction.getSellerUUID().equals(player.getUniqueId())) {
-            activeAuctions.remove(auctionId);
+            if (auction.isBidItem() && auction.getHighestBidder() != null) {
+                // The item goes to the highest bidder when the auction ends
+                player.sendMessage(Utils.getInstance().$("This auction has a bid and can no longer be cancelled."));
+                return;
+            }
+            auctionBook.remove(auctionId);
 
             saveModule.deleteAuction(auctionId, new Callback<Void>() {
                 @Override
@@ -196,46 +360,25 @@ public class AuctionHouseHelper {
     }
 
     public void placeBid(Player bidder, UUID auctionId, int bidAmount) {
-        Auction auction = activeAuctions.get(auctionId);
+        Auction auction = auctionBook.getActive(auctionId);
         if (auction != null && auction.isBidItem()) {
             if (bidAmount > auction.getHighestBid()) {
                 int bidderBalance = economyHelper.getBankGold(bidder);
                 if (bidderBalance >= bidAmount) {
                     // Refund previous highest bidder
-                    if (auction.getHighestBidder() != null) {
-                        UUID previousBidderId = auction.getHighestBidder();
-                        if (!previousBidderId.equals(bidder.getUniqueId())) {
-                            Player previousBidder = Bukkit.getPlayer(previousBidderId);
-                            if (previousBidder != null && previousBidder.isOnline()) {
-                                // Refund by adding back bank gold
-                                int prevBalance = economyHelper.getBankGold(previousBidder);
-                                economyHelper.setBankGold(previousBidder, prevBalance + auction.getHighestBid());
-                                previousBidder.sendMessage(Utils.getInstance().$("Your bid of $" + economyHelper.formatGold(auction.getHighestBid()) + " has been refunded."));
-                                DebugLogger.getInstance().log(Level.INFO, "Refunded previous highest bidder {0} ${1} for auction ID: {2}",
-                                        new Object[]{previousBidder.getName(), auction.getHighestBid(), auctionId});
-                            } else {
-                                // Previous bidder offline: pending balance
-                                PlayerData previousBidderData = playerDataCache.getCachedPlayerData(previousBidderId);
-                                if (previousBidderData != null) {
-                                    int pendingBalance = previousBidderData.getPendingBalance();
-                                    previousBidderData.setPendingBalance(pendingBalance + auction.getHighestBid());
-                                    DebugLogger.getInstance().log(Level.INFO, "Previous highest bidder {0} is offline. Added ${1} to pending balance.",
-                                            new Object[]{previousBidderId, auction.getHighestBid()});
-
-                                    playerDataCache.savePlayerData(previousBidderId, new Callback<Void>() {
-                                        @Override
-                                        public void onSuccess(Void result) {
-                                            DebugLogger.getInstance().log(Level.INFO, "Successfully saved pending balance for previous bidder {0}", previousBidderId);
-                                        }
-
-                                        @Override
-                                        public void onFailure(Throwable throwable) {
-                                            DebugLogger.getInstance().log(Level.SEVERE, "Failed to save pending balance for previous bidder " + previousBidderId + ": ", throwable, throwable);
-                                        }
-                                    });
-                                }
+                    UUID previousBidderId = auction.getHighestBidder();
+                    if (previousBidderId != null && !previousBidderId.equals(bidder.getUniqueId())) {
+                        int previousBid = auction.getHighestBid();
+                        refundBid(previousBidderId, previousBid, new Callback<Void>() {
+                            @Override
+                            public void onSuccess(Void result) {
                             }
-                        }
+
+                            @Override
+                            public void onFailure(Throwable throwable) {
+                                DebugLogger.getInstance().log(Level.SEVERE, "Outbid refund of $" + previousBid + " to " + previousBidderId + " failed: ", throwable, throwable);
+                            }
+                        });
                     }
 
                     // Deduct the bid amount from the bidder's bank gold
@@ -243,7 +386,7 @@ public class AuctionHouseHelper {
 
                     auction.setHighestBid(bidAmount);
                     auction.setHighestBidder(bidder.getUniqueId());
-                    activeAuctions.put(auctionId, auction);
+                    auctionBook.updatePrice(auctionId);
 
                     bidder.sendMessage(Utils.getInstance().$("You are now the highest bidder on auction " + auctionId));
 
@@ -283,7 +426,7 @@ public class AuctionHouseHelper {
     }
 
     public void buyAuction(Player buyer, UUID auctionId) {
-        Auction auction = activeAuctions.get(auctionId);
+        Auction auction = auctionBook.getActive(auctionId);
         if (auction != null && !auction.isBidItem()) {
             int price = auction.getStartingPrice();
             DebugLogger.getInstance().log(Level.INFO, "Player {0} attempting to purchase auction ID: {1} for ${2}",
@@ -331,7 +474,7 @@ public class AuctionHouseHelper {
             buyer.sendMessage(Utils.getInstance().$("You have purchased " + auction.getItem().getType() + " for $" + economyHelper.formatGold(price)));
             DebugLogger.getInstance().log(Level.INFO, "Player {0} received item: {1}", new Object[]{buyer.getName(), auction.getItem().getType()});
 
-            activeAuctions.remove(auctionId);
+            auctionBook.remove(auctionId);
             DebugLogger.getInstance().log(Level.INFO, "Auction ID {0} removed from active auctions.", auctionId);
 
             saveModule.deleteAuction(auctionId, new Callback<Void>() {
@@ -349,7 +492,7 @@ public class AuctionHouseHelper {
     }
 
     public void purchaseAuction(Player buyer, UUID auctionId) {
-        Auction auction = activeAuctions.get(auctionId);
+        Auction auction = auctionBook.getActive(auctionId);
         if (auction != null && !auction.isBidItem()) {
             int price = auction.getStartingPrice();
 
@@ -393,7 +536,7 @@ public class AuctionHouseHelper {
 
             buyer.sendMessage(Utils.getInstance().$("You have purchased " + auction.getItem().getType() + " for $" + economyHelper.formatGold(price)));
 
-            activeAuctions.remove(auctionId);
+            auctionBook.remove(auctionId);
             saveModule.deleteAuction(auctionId, new Callback<Void>() {
                 @Override
                 public void onSuccess(Void result) {
@@ -37,6 +37,7 @@ public class AuctionHouseModule implements IBaseModule {
     private EventManager eventManager;
     private EconomyHelper economyHelper;
     private SaveModule saveModule;
+    private AuctionHouseHelper auctionHouseHelper;
 
     private MysticCore plugin;
     private CustomItemModule customItemModule;
@@ -65,10 +66,17 @@ public class AuctionHouseModule implements IBaseModule {
     @Override
     public void start() {
         registerEvents();
+        if (economyHelper != null) {
+            // One shared auction book for every GUI
+            auctionHouseHelper = new AuctionHouseHelper(economyHelper);
+        }
     }
 
     @Override
     public void stop() {
+        if (auctionHouseHelper != null) {
+            auctionHouseHelper.shutdown();
+        }
     }
 
     @Override
@@ -85,6 +93,10 @@ public class AuctionHouseModule implements IBaseModule {
         return EModulePriority.NORMAL;
     }
 
+    public AuctionHouseHelper getAuctionHouseHelper() {
+        return auctionHouseHelper;
+    }
+
     public void openAuctionGUI(Player player) {
         // previously AuctionHouseMainMenu usage could be here if needed
         // for demonstration, no code removed.
@@ -5,9 +5,9 @@ import eu.xaru.mysticrpg.utils.DebugLogger;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -17,7 +17,8 @@ import java.util.logging.Level;
 public final class DynamicConfigManager {
 
     private static JavaPlugin plugin;
-    private static final Map<String, DynamicConfig> configs = new HashMap<>();
+    // Modules load their configs from worker threads during startup
+    private static final Map<String, DynamicConfig> configs = new ConcurrentHashMap<>();
     // Alternatively, if using File-based keys, we might keep a second map. We'll keep it simple.
 
     private DynamicConfigManager() {
@@ -52,6 +52,7 @@ public class MysticCore extends JavaPlugin {
 
 
         con = DynamicConfigManager.loadConfig("config.yml");
+        DebugLogger.getInstance().configure(con, getDataFolder());
         // Initialize PacketEvents
         PacketEvents.getAPI().init();
 
@@ -85,6 +86,9 @@ public class MysticCore extends JavaPlugin {
 
         PacketEvents.getAPI().terminate();
         // Save any dynamic config changes
+
+        // Write out queued log messages last
+        DebugLogger.getInstance().shutdown();
     }
 
     /**
@@ -1,6 +1,5 @@
 package eu.xaru.mysticrpg.customs.items;
 
-import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.customs.items.powerstones.PowerStoneManager;
 import eu.xaru.mysticrpg.customs.items.powerstones.PowerStoneModule;
 import eu.xaru.mysticrpg.managers.ModuleManager;
@@ -8,7 +7,6 @@ import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeModifier;
 import org.bukkit.inventory.EquipmentSlot;
@@ -16,7 +14,6 @@ import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.*;
 import java.util.logging.Level;
@@ -165,35 +162,27 @@ public class CustomItem {
         ItemMeta meta = itemStack.getItemMeta();
 
         if (meta != null) {
-            meta.setDisplayName(Utils.getInstance().$(name));
+            meta.setDisplayName(Utils.getInstance().translateTemplate(name));
 
             // Set CustomModelData
             if (customModelData > 0) {
                 meta.setCustomModelData(customModelData);
             }
 
-            NamespacedKey idKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "custom_item_id");
-            meta.getPersistentDataContainer().set(idKey, PersistentDataType.STRING, id);
-
-            NamespacedKey categoryKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "custom_item_category");
-            meta.getPersistentDataContainer().set(categoryKey, PersistentDataType.STRING, category.name());
+            meta.getPersistentDataContainer().set(CustomItemUtils.ID_KEY, PersistentDataType.STRING, id);
+            meta.getPersistentDataContainer().set(CustomItemUtils.CATEGORY_KEY, PersistentDataType.STRING, category.name());
 
             if (useTierSystem) {
-                NamespacedKey tierKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "custom_item_tier");
-                meta.getPersistentDataContainer().set(tierKey, PersistentDataType.INTEGER, currentTier);
-
-                NamespacedKey maxTierKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "custom_item_max_tier");
-                meta.getPersistentDataContainer().set(maxTierKey, PersistentDataType.INTEGER, itemMaxLevel);
+                meta.getPersistentDataContainer().set(CustomItemUtils.TIER_KEY, PersistentDataType.INTEGER, currentTier);
+                meta.getPersistentDataContainer().set(CustomItemUtils.MAX_TIER_KEY, PersistentDataType.INTEGER, itemMaxLevel);
             }
 
             if (usePowerStones) {
-                NamespacedKey powerStoneSlotsKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "power_stone_slots");
-                meta.getPersistentDataContainer().set(powerStoneSlotsKey, PersistentDataType.INTEGER, powerStoneSlots);
+                meta.getPersistentDataContainer().set(CustomItemUtils.POWER_STONE_SLOTS_KEY, PersistentDataType.INTEGER, powerStoneSlots);
             }
 
             if (setId != null && !setId.isEmpty()) {
-                NamespacedKey setKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "custom_item_set");
-                meta.getPersistentDataContainer().set(setKey, PersistentDataType.STRING, setId);
+                meta.getPersistentDataContainer().set(CustomItemUtils.SET_KEY, PersistentDataType.STRING, setId);
             }
 
             Map<String, AttributeData> finalAttributes = useTierSystem ?
@@ -208,8 +197,7 @@ public class CustomItem {
                 sb.append(attr.getKey().toUpperCase()).append(":").append(value);
             }
 
-            NamespacedKey statsKey = new NamespacedKey(JavaPlugin.getPlugin(MysticCore.class), "custom_item_attributes");
-            meta.getPersistentDataContainer().set(statsKey, PersistentDataType.STRING, sb.toString());
+            meta.getPersistentDataContainer().set(CustomItemUtils.ATTRIBUTES_KEY, PersistentDataType.STRING, sb.toString());
 
             if (enchantedEffect) {
                 meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
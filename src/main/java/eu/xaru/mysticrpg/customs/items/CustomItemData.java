@@ -0,0 +1,70 @@
+package eu.xaru.mysticrpg.customs.items;
+
+import eu.xaru.mysticrpg.player.stats.StatType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoded persistent data of a custom item stack. Instances are immutable and shared
+ * between every stack with the same data, see {@link CustomItemDataCache}.
+ */
+public final class CustomItemData {
+
+    private static final StatType[] STAT_TYPES = StatType.values();
+
+    private final String id;
+    private final Integer tier;
+    private final String setId;
+    private final List<String> powerStones;
+    private final double[] stats;
+    private final Map<StatType, Double> statMap;
+
+    CustomItemData(String id, Integer tier, String setId, List<String> powerStones, double[] stats) {
+        this.id = id;
+        this.tier = tier;
+        this.setId = setId;
+        this.powerStones = Collections.unmodifiableList(powerStones);
+        this.stats = stats;
+
+        EnumMap<StatType, Double> map = new EnumMap<>(StatType.class);
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i] != 0) {
+                map.put(STAT_TYPES[i], stats[i]);
+            }
+        }
+        this.statMap = Collections.unmodifiableMap(map);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The tier stored on the stack, or null for items without the tier system.
+     */
+    public Integer getTier() {
+        return tier;
+    }
+
+    public String getSetId() {
+        return setId;
+    }
+
+    public List<String> getPowerStones() {
+        return powerStones;
+    }
+
+    public double getStat(StatType type) {
+        return stats[type.ordinal()];
+    }
+
+    /**
+     * @return The non-zero item stats as a shared, read-only map.
+     */
+    public Map<StatType, Double> getStats() {
+        return statMap;
+    }
+}
@@ -0,0 +1,158 @@
+package eu.xaru.mysticrpg.customs.items;
+
+import eu.xaru.mysticrpg.player.stats.StatType;
+import eu.xaru.mysticrpg.utils.DebugLogger;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Bounded LRU cache of decoded custom item data.
+ *
+ * The key is the item's persistent data container itself: its hash and equality only look at
+ * the stored tags, which are immutable and shared between copies of the same stack, so a lookup
+ * costs the (unavoidable) meta copy and one hash, without re-reading keys or splitting the
+ * attribute string. Stacks with identical custom data share one {@link CustomItemData}.
+ */
+public class CustomItemDataCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 2048;
+
+    private static final StatType[] STAT_TYPES = StatType.values();
+
+    /**
+     * Cached marker for stacks that carry persistent data of other plugins but no custom item id.
+     */
+    private static final CustomItemData NOT_CUSTOM = new CustomItemData(null, null, null, List.of(), new double[0]);
+
+    private static final CustomItemDataCache instance = new CustomItemDataCache(DEFAULT_MAX_ENTRIES);
+
+    private final Map<PersistentDataContainer, CustomItemData> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private CustomItemDataCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(maxEntries * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PersistentDataContainer, CustomItemData> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static CustomItemDataCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the decoded data of a custom item stack.
+     *
+     * @return The data, or null if the stack is not a custom item.
+     */
+    public CustomItemData get(ItemStack itemStack) {
+        if (itemStack == null || itemStack.getType().isAir() || !itemStack.hasItemMeta()) {
+            return null;
+        }
+        ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) {
+            return null;
+        }
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        if (container.isEmpty()) {
+            return null;
+        }
+
+        CustomItemData data;
+        synchronized (entries) {
+            data = entries.get(container);
+        }
+        if (data != null) {
+            hits.incrementAndGet();
+            return data == NOT_CUSTOM ? null : data;
+        }
+
+        misses.incrementAndGet();
+        data = container.has(CustomItemUtils.ID_KEY, PersistentDataType.STRING) ? decode(container) : NOT_CUSTOM;
+        synchronized (entries) {
+            // The container belongs to our private meta copy, so it is never mutated afterwards
+            entries.put(container, data);
+        }
+        return data == NOT_CUSTOM ? null : data;
+    }
+
+    /**
+     * Decodes the item without consulting the cache. Used for comparison by /itemcache bench.
+     */
+    public CustomItemData decodeUncached(ItemStack itemStack) {
+        if (itemStack == null || itemStack.getType().isAir() || !itemStack.hasItemMeta()) {
+            return null;
+        }
+        PersistentDataContainer container = itemStack.getItemMeta().getPersistentDataContainer();
+        if (!container.has(CustomItemUtils.ID_KEY, PersistentDataType.STRING)) {
+            return null;
+        }
+        return decode(container);
+    }
+
+    private static CustomItemData decode(PersistentDataContainer container) {
+        String id = container.get(CustomItemUtils.ID_KEY, PersistentDataType.STRING);
+        Integer tier = container.get(CustomItemUtils.TIER_KEY, PersistentDataType.INTEGER);
+        String setId = container.get(CustomItemUtils.SET_KEY, PersistentDataType.STRING);
+
+        List<String> powerStones = new ArrayList<>();
+        String stonesData = container.get(CustomItemUtils.APPLIED_POWER_STONES_KEY, PersistentDataType.STRING);
+        if (stonesData != null && !stonesData.isEmpty()) {
+            powerStones.addAll(Arrays.asList(stonesData.split(",")));
+        }
+
+        double[] stats = new double[STAT_TYPES.length];
+        String statsData = container.get(CustomItemUtils.ATTRIBUTES_KEY, PersistentDataType.STRING);
+        if (statsData != null && !statsData.isEmpty()) {
+            for (String pair : statsData.split(";")) {
+                String[] kv = pair.split(":");
+                if (kv.length == 2) {
+                    try {
+                        stats[StatType.valueOf(kv[0]).ordinal()] = Double.parseDouble(kv[1]);
+                    } catch (IllegalArgumentException e) {
+                        DebugLogger.getInstance().log(Level.WARNING, "Could not parse stat pair " + pair + " of item " + id, 0);
+                    }
+                }
+            }
+        }
+
+        return new CustomItemData(id, tier, setId, powerStones, stats);
+    }
+
+    /**
+     * Drops all cached entries, e.g. after the item definitions were reloaded.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -11,8 +11,9 @@ import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
 import dev.jorel.commandapi.CommandAPICommand;
 import dev.jorel.commandapi.arguments.ArgumentSuggestions;
+import dev.jorel.commandapi.arguments.IntegerArgument;
 import dev.jorel.commandapi.arguments.StringArgument;
-import org.bukkit.NamespacedKey;
+import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.inventory.InventoryClickEvent;
@@ -22,9 +23,11 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.lang.management.ManagementFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 public class CustomItemModule implements IBaseModule {
@@ -34,12 +37,18 @@ public class CustomItemModule implements IBaseModule {
     private EventManager eventManager;
     private JavaPlugin plugin;
     private PowerStoneManager powerStoneManager;
+    private volatile Object benchmarkSink;
+
+    @Override
+    public void load() {
+        // Parses every item file; nothing here needs the main thread
+        itemManager = new ItemManager();
+    }
 
     @Override
     public void initialize() {
         plugin = JavaPlugin.getPlugin(MysticCore.class);
 
-        itemManager = new ItemManager();
         eventManager = new EventManager(plugin);
 
         // Get PowerStoneManager instance
@@ -140,6 +149,68 @@ public class CustomItemModule implements IBaseModule {
                             sender.sendMessage(Utils.getInstance().$("Custom items reloaded successfully."));
                         }))
                 .register();
+
+        new CommandAPICommand("itemcache")
+                .withPermission("mysticrpg.debug")
+                .executes((sender, args) -> {
+                    CustomItemDataCache cache = CustomItemDataCache.getInstance();
+                    long hits = cache.getHits();
+                    long misses = cache.getMisses();
+                    long total = hits + misses;
+                    sender.sendMessage(ChatColor.GREEN + "=== Custom Item Cache ===");
+                    sender.sendMessage(ChatColor.YELLOW + "Entries: " + ChatColor.WHITE + cache.size());
+                    sender.sendMessage(ChatColor.YELLOW + "Hits: " + ChatColor.WHITE + hits);
+                    sender.sendMessage(ChatColor.YELLOW + "Misses: " + ChatColor.WHITE + misses);
+                    sender.sendMessage(ChatColor.YELLOW + "Hit rate: " + ChatColor.WHITE
+                            + (total == 0 ? "-" : String.format("%.1f%%", hits * 100.0 / total)));
+                })
+                .withSubcommand(new CommandAPICommand("clear")
+                        .executes((sender, args) -> {
+                            CustomItemDataCache.getInstance().clear();
+                            sender.sendMessage(Utils.getInstance().$("Custom item cache cleared."));
+                        }))
+                .withSubcommand(new CommandAPICommand("bench")
+                        .withArguments(new IntegerArgument("iterations", 1))
+                        .executesPlayer((player, args) -> {
+                            ItemStack item = player.getInventory().getItemInMainHand();
+                            if (CustomItemUtils.getItemData(item) == null) {
+                                player.sendMessage(Utils.getInstance().$("Hold a custom item to benchmark."));
+                                return;
+                            }
+                            int iterations = (int) args.get("iterations");
+                            player.sendMessage(Utils.getInstance().$(benchmarkLine("getItemStats (cached)", iterations,
+                                    () -> CustomItemUtils.getItemStats(item))));
+                            player.sendMessage(Utils.getInstance().$(benchmarkLine("decode (uncached)", iterations,
+                                    () -> CustomItemDataCache.getInstance().decodeUncached(item))));
+                        }))
+                .register();
+    }
+
+    /**
+     * Runs the operation after a warm-up pass and reports time and heap allocation per call
+     * of the current thread. The item meta copy made by Bukkit is included in both numbers.
+     */
+    private String benchmarkLine(String label, int iterations, Supplier<Object> operation) {
+        for (int i = 0; i < Math.min(iterations, 10_000); i++) {
+            operation.get();
+        }
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() ? bean : null;
+        long threadId = Thread.currentThread().getId();
+
+        long bytesBefore = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        Object sink = null;
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId);
+        benchmarkSink = sink; // keep the results observable so the JIT cannot drop the calls
+
+        String bytes = allocations == null ? "n/a" : String.valueOf((bytesAfter - bytesBefore) / iterations);
+        return "&e" + label + ": &f" + (elapsed / iterations) + " ns/op, " + bytes + " B/op";
     }
 
     private void registerEventHandlers() {
@@ -218,8 +289,7 @@ public class CustomItemModule implements IBaseModule {
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return false;
 
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(CustomItemUtils.ID_KEY, PersistentDataType.STRING);
 
         return "upgrade_stone".equals(itemId);
     }
@@ -1,13 +1,11 @@
 package eu.xaru.mysticrpg.customs.items;
 
-import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.customs.items.powerstones.PowerStone;
 import eu.xaru.mysticrpg.customs.items.powerstones.PowerStoneManager;
 import eu.xaru.mysticrpg.customs.items.sets.ItemSet;
 import eu.xaru.mysticrpg.customs.items.sets.SetManager;
 import eu.xaru.mysticrpg.managers.ModuleManager;
 import eu.xaru.mysticrpg.player.stats.StatType;
-import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
 import org.bukkit.ChatColor;
 import org.bukkit.NamespacedKey;
@@ -19,7 +17,6 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.*;
-import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public class CustomItemUtils {
@@ -27,13 +24,28 @@ public class CustomItemUtils {
     private static final JavaPlugin plugin = JavaPlugin.getProvidingPlugin(CustomItemUtils.class);
     private static final ItemManager itemManager = new ItemManager(); // Ensure this is properly initialized
 
+    // Persistent data keys, built once instead of on every lookup
+    public static final NamespacedKey ID_KEY = new NamespacedKey(plugin, "custom_item_id");
+    public static final NamespacedKey CATEGORY_KEY = new NamespacedKey(plugin, "custom_item_category");
+    public static final NamespacedKey ATTRIBUTES_KEY = new NamespacedKey(plugin, "custom_item_attributes");
+    public static final NamespacedKey TIER_KEY = new NamespacedKey(plugin, "custom_item_tier");
+    public static final NamespacedKey MAX_TIER_KEY = new NamespacedKey(plugin, "custom_item_max_tier");
+    public static final NamespacedKey SET_KEY = new NamespacedKey(plugin, "custom_item_set");
+    public static final NamespacedKey POWER_STONE_SLOTS_KEY = new NamespacedKey(plugin, "power_stone_slots");
+    public static final NamespacedKey APPLIED_POWER_STONES_KEY = new NamespacedKey(plugin, "applied_power_stones");
+
     public static boolean isCustomItem(ItemStack itemStack) {
-        if (itemStack == null || itemStack.getType().isAir()) return false;
-        ItemMeta meta = itemStack.getItemMeta();
-        if (meta == null) return false;
+        return getItemData(itemStack) != null;
+    }
 
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        return meta.getPersistentDataContainer().has(idKey, PersistentDataType.STRING);
+    /**
+     * Returns the decoded persistent data of a custom item, shared through {@link CustomItemDataCache}.
+     * Prefer this over separate isCustomItem/getItemStats calls, each of which copies the item meta.
+     *
+     * @return The item data, or null if the stack is not a custom item.
+     */
+    public static CustomItemData getItemData(ItemStack itemStack) {
+        return CustomItemDataCache.getInstance().get(itemStack);
     }
 
     public static Category getCategory(ItemStack itemStack) {
@@ -42,8 +54,7 @@ public class CustomItemUtils {
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return null;
 
-        NamespacedKey categoryKey = new NamespacedKey(plugin, "custom_item_category");
-        String categoryName = meta.getPersistentDataContainer().get(categoryKey, PersistentDataType.STRING);
+        String categoryName = meta.getPersistentDataContainer().get(CATEGORY_KEY, PersistentDataType.STRING);
         if (categoryName == null) return null;
 
         try {
@@ -53,47 +64,19 @@ public class CustomItemUtils {
         }
     }
 
+    /**
+     * @return The item's stats as a shared, read-only map; empty if the stack is not a custom item.
+     */
     public static Map<StatType, Double> getItemStats(ItemStack item) {
-        EnumMap<StatType, Double> stats = new EnumMap<>(StatType.class);
-        if (!isCustomItem(item)) {
-            DebugLogger.getInstance().log(Level.INFO, "getItemStats: Not a custom item.");
-            return stats;
-        }
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) {
-            DebugLogger.getInstance().log(Level.INFO, "getItemStats: Meta is null.");
-            return stats;
-        }
-
-        NamespacedKey statsKey = new NamespacedKey(plugin, "custom_item_attributes");
-        String statsData = meta.getPersistentDataContainer().get(statsKey, PersistentDataType.STRING);
-        if (statsData != null && !statsData.isEmpty()) {
-            String[] pairs = statsData.split(";");
-            for (String pair : pairs) {
-                String[] kv = pair.split(":");
-                if (kv.length == 2) {
-                    try {
-                        StatType type = StatType.valueOf(kv[0]);
-                        double val = Double.parseDouble(kv[1]);
-                        stats.put(type, val);
-                    } catch (Exception e) {
-                        DebugLogger.getInstance().log(Level.WARNING, "getItemStats: Could not parse stat pair " + pair);
-                    }
-                }
-            }
-        } else {
-            DebugLogger.getInstance().log(Level.INFO, "getItemStats: No attribute data found for item " + item.getType());
-        }
-
-        return stats;
+        CustomItemData data = getItemData(item);
+        return data == null ? Collections.emptyMap() : data.getStats();
     }
 
     public static boolean canApplyPowerStone(ItemStack itemStack) {
         if (!isCustomItem(itemStack)) return false;
 
         ItemMeta meta = itemStack.getItemMeta();
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(ID_KEY, PersistentDataType.STRING);
 
         CustomItem customItem = itemManager.getCustomItem(itemId);
         return customItem != null && customItem.isUsePowerStones();
@@ -105,16 +88,14 @@ public class CustomItemUtils {
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return false;
 
-        NamespacedKey appliedPowerStonesKey = new NamespacedKey(plugin, "applied_power_stones");
-        String appliedPowerStonesStr = meta.getPersistentDataContainer().get(appliedPowerStonesKey, PersistentDataType.STRING);
+        String appliedPowerStonesStr = meta.getPersistentDataContainer().get(APPLIED_POWER_STONES_KEY, PersistentDataType.STRING);
 
         Set<String> appliedPowerStones = new HashSet<>();
         if (appliedPowerStonesStr != null && !appliedPowerStonesStr.isEmpty()) {
             appliedPowerStones.addAll(Arrays.asList(appliedPowerStonesStr.split(",")));
         }
 
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(ID_KEY, PersistentDataType.STRING);
 
         CustomItem customItem = itemManager.getCustomItem(itemId);
         if (customItem == null) return false;
@@ -128,7 +109,7 @@ public class CustomItemUtils {
         }
 
         appliedPowerStones.add(powerStone.getId());
-        meta.getPersistentDataContainer().set(appliedPowerStonesKey, PersistentDataType.STRING, String.join(",", appliedPowerStones));
+        meta.getPersistentDataContainer().set(APPLIED_POWER_STONES_KEY, PersistentDataType.STRING, String.join(",", appliedPowerStones));
 
         updateItemLore(meta, customItem, appliedPowerStones, getCurrentTier(meta, customItem), powerStoneManager);
 
@@ -140,16 +121,14 @@ public class CustomItemUtils {
         if (!isCustomItem(itemStack)) return false;
 
         ItemMeta meta = itemStack.getItemMeta();
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(ID_KEY, PersistentDataType.STRING);
 
         CustomItem customItem = itemManager.getCustomItem(itemId);
         if (customItem == null) return false;
 
         if (!customItem.isUseTierSystem()) return false;
 
-        NamespacedKey tierKey = new NamespacedKey(plugin, "custom_item_tier");
-        Integer currentTier = meta.getPersistentDataContainer().get(tierKey, PersistentDataType.INTEGER);
+        Integer currentTier = meta.getPersistentDataContainer().get(TIER_KEY, PersistentDataType.INTEGER);
         if (currentTier == null) currentTier = customItem.getItemLevel();
 
         int maxTier = customItem.getItemMaxLevel();
@@ -162,22 +141,20 @@ public class CustomItemUtils {
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return false;
 
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(ID_KEY, PersistentDataType.STRING);
         if (itemId == null) return false;
 
         CustomItem customItem = itemManager.getCustomItem(itemId);
         if (customItem == null) return false;
 
-        NamespacedKey tierKey = new NamespacedKey(plugin, "custom_item_tier");
-        Integer currentTier = meta.getPersistentDataContainer().get(tierKey, PersistentDataType.INTEGER);
+        Integer currentTier = meta.getPersistentDataContainer().get(TIER_KEY, PersistentDataType.INTEGER);
         if (currentTier == null) currentTier = customItem.getItemLevel();
 
         int maxTier = customItem.getItemMaxLevel();
         if (currentTier >= maxTier) return false; // Already at max tier
 
         int newTier = currentTier + 1;
-        meta.getPersistentDataContainer().set(tierKey, PersistentDataType.INTEGER, newTier);
+        meta.getPersistentDataContainer().set(TIER_KEY, PersistentDataType.INTEGER, newTier);
 
         Map<String, AttributeData> attributesForTier = customItem.getTierAttributes().get(newTier);
         if (attributesForTier == null) attributesForTier = customItem.getAttributes();
@@ -202,17 +179,15 @@ public class CustomItemUtils {
         }
 
         // **Important**: Update the persistent data "custom_item_attributes" to reflect the new tier
-        NamespacedKey statsKey = new NamespacedKey(plugin, "custom_item_attributes");
         StringBuilder sb = new StringBuilder();
         for (Map.Entry<String, AttributeData> attr : attributesForTier.entrySet()) {
             double value = attr.getValue().getValue();
             if (sb.length() > 0) sb.append(";");
             sb.append(attr.getKey().toUpperCase()).append(":").append(value);
         }
-        meta.getPersistentDataContainer().set(statsKey, PersistentDataType.STRING, sb.toString());
+        meta.getPersistentDataContainer().set(ATTRIBUTES_KEY, PersistentDataType.STRING, sb.toString());
 
-        NamespacedKey appliedPowerStonesKey = new NamespacedKey(plugin, "applied_power_stones");
-        String appliedPowerStonesStr = meta.getPersistentDataContainer().get(appliedPowerStonesKey, PersistentDataType.STRING);
+        String appliedPowerStonesStr = meta.getPersistentDataContainer().get(APPLIED_POWER_STONES_KEY, PersistentDataType.STRING);
 
         Set<String> appliedPowerStones = new HashSet<>();
         if (appliedPowerStonesStr != null && !appliedPowerStonesStr.isEmpty()) {
@@ -231,17 +206,15 @@ public class CustomItemUtils {
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return false;
 
-        NamespacedKey appliedPowerStonesKey = new NamespacedKey(plugin, "applied_power_stones");
-        String appliedPowerStonesStr = meta.getPersistentDataContainer().get(appliedPowerStonesKey, PersistentDataType.STRING);
+        String appliedPowerStonesStr = meta.getPersistentDataContainer().get(APPLIED_POWER_STONES_KEY, PersistentDataType.STRING);
 
         if (appliedPowerStonesStr == null || appliedPowerStonesStr.isEmpty()) {
             return false;
         }
 
-        meta.getPersistentDataContainer().remove(appliedPowerStonesKey);
+        meta.getPersistentDataContainer().remove(APPLIED_POWER_STONES_KEY);
 
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(ID_KEY, PersistentDataType.STRING);
         CustomItem customItem = itemManager.getCustomItem(itemId);
         if (customItem == null) return false;
 
@@ -306,7 +279,7 @@ public class CustomItemUtils {
 
         if (customItem.getLore() != null && !customItem.getLore().isEmpty()) {
             finalLore.addAll(customItem.getLore().stream()
-                    .map(line -> Utils.getInstance().$(line))
+                    .map(line -> Utils.getInstance().translateTemplate(line))
                     .collect(Collectors.toList()));
         }
 
@@ -316,7 +289,7 @@ public class CustomItemUtils {
             for (String psId : appliedPowerStones) {
                 PowerStone ps = powerStoneManager.getPowerStone(psId);
                 if (ps != null) {
-                    finalLore.add(Utils.getInstance().$("- " + Utils.getInstance().$(ps.getName())));
+                    finalLore.add(Utils.getInstance().$("- " + Utils.getInstance().translateTemplate(ps.getName())));
                 }
             }
         }
@@ -397,8 +370,7 @@ public class CustomItemUtils {
     }
 
     private static int getCurrentTier(ItemMeta meta, CustomItem customItem) {
-        NamespacedKey tierKey = new NamespacedKey(plugin, "custom_item_tier");
-        Integer currentTier = meta.getPersistentDataContainer().get(tierKey, PersistentDataType.INTEGER);
+        Integer currentTier = meta.getPersistentDataContainer().get(TIER_KEY, PersistentDataType.INTEGER);
         if (currentTier == null) currentTier = customItem.getItemLevel();
         return currentTier;
     }
@@ -408,8 +380,7 @@ public class CustomItemUtils {
         ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return false;
 
-        NamespacedKey idKey = new NamespacedKey(plugin, "custom_item_id");
-        String itemId = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
+        String itemId = meta.getPersistentDataContainer().get(ID_KEY, PersistentDataType.STRING);
 
         return "upgrade_stone".equals(itemId);
     }
@@ -434,12 +405,10 @@ public class CustomItemUtils {
     }
 
     public static CustomItem fromItemStack(ItemStack itemStack) {
-        NamespacedKey idKey = new NamespacedKey(MysticCore.getInstance(), "custom_item_id");
-        ItemMeta meta = itemStack.getItemMeta();
-        if (meta != null && meta.getPersistentDataContainer().has(idKey, PersistentDataType.STRING)) {
-            String id = meta.getPersistentDataContainer().get(idKey, PersistentDataType.STRING);
-            return ModuleManager.getInstance().getModuleInstance(CustomItemModule.class).getCustomItemById(id);
+        CustomItemData data = getItemData(itemStack);
+        if (data == null) {
+            return null;
         }
-        return null;
+        return ModuleManager.getInstance().getModuleInstance(CustomItemModule.class).getCustomItemById(data.getId());
     }
 }
@@ -61,13 +61,13 @@ public class PowerStone {
         ItemMeta meta = itemStack.getItemMeta();
 
         if (meta != null) {
-            meta.setDisplayName(Utils.getInstance().$(name));
+            meta.setDisplayName(Utils.getInstance().translateTemplate(name));
 
             // Lore
             List<String> loreList = new ArrayList<>();
             loreList.add(rarity.getColor() + rarity.name());
             loreList.add("");
-            loreList.add(Utils.getInstance().$( description));
+            loreList.add(Utils.getInstance().translateTemplate(description));
 
             meta.setLore(loreList);
 
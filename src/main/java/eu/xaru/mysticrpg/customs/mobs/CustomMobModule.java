@@ -42,6 +42,12 @@ public class CustomMobModule implements IBaseModule, Listener {
         this.plugin = JavaPlugin.getPlugin(MysticCore.class);
     }
 
+    @Override
+    public void load() {
+        // Load from standard YAML approach
+        loadMobConfigurations();
+    }
+
     @Override
     public void initialize() {
         // Check dependencies
@@ -57,9 +63,6 @@ public class CustomMobModule implements IBaseModule, Listener {
         }
         EconomyHelper economyHelper = econMod.getEconomyHelper();
 
-        // Load from standard YAML approach
-        loadMobConfigurations();
-
         // Create manager
         mobManager = new MobManager(plugin, mobConfigurations, economyHelper);
         registerCommands();
@@ -73,7 +76,11 @@ public class CustomMobModule implements IBaseModule, Listener {
     public void start() { }
 
     @Override
-    public void stop()  { }
+    public void stop()  {
+        if (mobManager != null) {
+            mobManager.stop();
+        }
+    }
 
     @Override
     public void unload(){ }
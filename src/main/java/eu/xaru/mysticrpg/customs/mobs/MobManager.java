@@ -23,6 +23,7 @@ import eu.xaru.mysticrpg.social.party.PartyModule;
 import eu.xaru.mysticrpg.economy.EconomyHelper;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
+import eu.xaru.mysticrpg.world.PlayerProximityService;
 import org.bukkit.*;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
@@ -37,6 +38,7 @@ import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.projectiles.ProjectileSource;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
 import java.util.*;
@@ -59,10 +61,29 @@ public class MobManager implements Listener {
      */
     private final Map<UUID, CustomMobInstance> activeMobs = new HashMap<>();
 
+    private static final int COMBAT_CHECK_PERIOD = 20;
+    private static final int BOSS_BAR_PERIOD = 10; // must divide COMBAT_CHECK_PERIOD
+
+    /**
+     * The active mobs split into one slot per tick of {@link #COMBAT_CHECK_PERIOD} by entity UUID,
+     * so each tick only visits the mobs that are due.
+     */
+    private final List<Map<UUID, CustomMobInstance>> tickSlots = new ArrayList<>(COMBAT_CHECK_PERIOD);
+    private BukkitTask tickTask;
+    private long tick;
+    private static final double COMBAT_RANGE = 20.0;
+
     private final Random random = new Random();
     private final ItemManager itemManager;
     private final EconomyHelper economyHelper;
     private final PartyHelper partyHelper;
+    private final PlayerProximityService proximity;
+
+    /**
+     * Reused by {@link #updateBossBar} so boss bar updates don't allocate per mob.
+     */
+    private final List<Player> nearbyScratch = new ArrayList<>();
+    private final List<Player> departedScratch = new ArrayList<>();
 
     /**
      * Constructs a new MobManager.
@@ -96,9 +117,24 @@ public class MobManager implements Listener {
         // Register events
         Bukkit.getPluginManager().registerEvents(this, plugin);
 
-        // Repeating tasks for animations, checks, etc.
-        Bukkit.getScheduler().runTaskTimer(plugin, this::checkCombatStatus, 0L, 20L);
-        Bukkit.getScheduler().runTaskTimer(plugin, this::updateBossBars, 0L, 10L);
+        // Combat checks and boss bars run every tick on a slice of the active mobs
+        this.proximity = PlayerProximityService.getInstance();
+        proximity.start(plugin);
+        for (int i = 0; i < COMBAT_CHECK_PERIOD; i++) {
+            tickSlots.add(new HashMap<>());
+        }
+        tickTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tickMobs, 1L, 1L);
+    }
+
+    /**
+     * Stops the combat / boss bar ticks and the proximity service they use.
+     */
+    public void stop() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        proximity.stop();
     }
 
     /**
@@ -160,7 +196,7 @@ public class MobManager implements Listener {
                 new CustomMobInstance(customMob, location, mob, modeledEntity);
 
         // Put in active map
-        activeMobs.put(mob.getUniqueId(), mobInstance);
+        addActiveMob(mob.getUniqueId(), mobInstance);
 
         // Optionally run spawn-trigger actions (if you keep those)
         // executeActions(mobInstance, ActionTriggers.ON_SPAWN);
@@ -274,7 +310,7 @@ public class MobManager implements Listener {
         // If lethal
         if (newHp <= 0) {
             // Remove from active map
-            activeMobs.remove(livingEntity.getUniqueId());
+            removeActiveMob(livingEntity.getUniqueId());
             handleMobDeath(mobInstance);
             // remove entity
             livingEntity.remove();
@@ -504,65 +540,89 @@ public class MobManager implements Listener {
         return finalGold;
     }
 
+    private void addActiveMob(UUID id, CustomMobInstance mobInst) {
+        activeMobs.put(id, mobInst);
+        tickSlots.get(slotOf(id)).put(id, mobInst);
+    }
+
+    private void removeActiveMob(UUID id) {
+        if (activeMobs.remove(id) != null) {
+            tickSlots.get(slotOf(id)).remove(id);
+        }
+    }
+
+    private static int slotOf(UUID id) {
+        return Math.floorMod(id.hashCode(), COMBAT_CHECK_PERIOD);
+    }
+
     /**
-     * Periodically checks if mobs are in combat range or not.
+     * Runs every tick. Each mob is combat-checked once per {@link #COMBAT_CHECK_PERIOD} ticks
+     * and has its boss bar updated once per {@link #BOSS_BAR_PERIOD} ticks, spread over the
+     * ticks by entity UUID so large spawns don't all land on the same tick. Only the slots that
+     * are due this tick are visited.
      */
-    private void checkCombatStatus() {
-        for (CustomMobInstance mobInst : activeMobs.values()) {
-            boolean hasNearbyPlayer = hasNearbyPlayer(mobInst);
-            if (mobInst.isInCombat() && !hasNearbyPlayer) {
-                mobInst.setInCombat(false);
-                mobInst.setTarget(null);
-                DebugLogger.getInstance().log("Mob " + mobInst.getCustomMob().getName() + " left combat.");
+    private void tickMobs() {
+        int combatSlot = (int) (tick++ % COMBAT_CHECK_PERIOD);
+        for (CustomMobInstance mobInst : tickSlots.get(combatSlot).values()) {
+            checkCombatStatus(mobInst);
+        }
+        // A slot's boss bars are due every BOSS_BAR_PERIOD ticks, i.e. in several slots per period
+        for (int slot = combatSlot % BOSS_BAR_PERIOD; slot < COMBAT_CHECK_PERIOD; slot += BOSS_BAR_PERIOD) {
+            for (CustomMobInstance mobInst : tickSlots.get(slot).values()) {
+                MobBossBarHandler bbh = mobInst.getBossBarHandler();
+                if (bbh != null) {
+                    updateBossBar(mobInst, bbh);
+                }
             }
         }
     }
 
-    private boolean hasNearbyPlayer(CustomMobInstance mobInst) {
-        double rangeSq = 20.0 * 20.0;
-        Location mobLoc = mobInst.getEntity().getLocation();
-        for (Player pl : mobLoc.getWorld().getPlayers()) {
-            if (pl.getLocation().distanceSquared(mobLoc) < rangeSq) {
-                return true;
-            }
+    /**
+     * Takes the mob out of combat once no player is near it any more.
+     */
+    private void checkCombatStatus(CustomMobInstance mobInst) {
+        if (mobInst.isInCombat() && !proximity.hasPlayerWithin(mobInst.getEntity().getLocation(), COMBAT_RANGE)) {
+            mobInst.setInCombat(false);
+            mobInst.setTarget(null);
+            DebugLogger.getInstance().log("Mob " + mobInst.getCustomMob().getName() + " left combat.");
         }
-        return false;
     }
 
     /**
-     * If using a bossbar, update its health % and which players can see it.
+     * Updates the boss bar's health % and which players can see it.
      */
-    private void updateBossBars() {
-        for (CustomMobInstance mobInst : activeMobs.values()) {
-            MobBossBarHandler bbh = mobInst.getBossBarHandler();
-            if (bbh != null) {
-                bbh.updateBossBar();
-
-                double rangeSq = bbh.getRange() * bbh.getRange();
-                Location mobLoc = mobInst.getEntity().getLocation();
-
-                Set<Player> inRangePlayers = new HashSet<>();
-                for (Player p : Bukkit.getOnlinePlayers()) {
-                    if (p.getWorld().equals(mobLoc.getWorld())) {
-                        if (p.getLocation().distanceSquared(mobLoc) <= rangeSq) {
-                            inRangePlayers.add(p);
-                        }
-                    }
-                }
+    private void updateBossBar(CustomMobInstance mobInst, MobBossBarHandler bbh) {
+        bbh.updateBossBar();
 
-                // Add any new players
-                for (Player pl : inRangePlayers) {
-                    if (!bbh.getPlayersInRange().contains(pl)) {
-                        bbh.addPlayer(pl);
-                    }
-                }
-                // Remove those who left range
-                for (Player oldP : new HashSet<>(bbh.getPlayersInRange())) {
-                    if (!inRangePlayers.contains(oldP)) {
-                        bbh.removePlayer(oldP);
-                    }
-                }
+        double range = bbh.getRange();
+        Location mobLoc = mobInst.getEntity().getLocation();
+        Set<Player> viewers = bbh.getPlayersInRange();
+
+        // Add any new players
+        nearbyScratch.clear();
+        proximity.playersWithin(mobLoc, range, nearbyScratch);
+        for (Player pl : nearbyScratch) {
+            if (!viewers.contains(pl)) {
+                bbh.addPlayer(pl);
             }
         }
+        nearbyScratch.clear();
+
+        // Remove those who left range
+        if (viewers.isEmpty()) {
+            return;
+        }
+        double rangeSq = range * range;
+        departedScratch.clear();
+        for (Player viewer : viewers) {
+            if (!viewer.isOnline() || !viewer.getWorld().equals(mobLoc.getWorld())
+                    || viewer.getLocation().distanceSquared(mobLoc) > rangeSq) {
+                departedScratch.add(viewer);
+            }
+        }
+        for (Player departed : departedScratch) {
+            bbh.removePlayer(departed);
+        }
+        departedScratch.clear();
     }
 }
@@ -8,6 +8,8 @@ import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.enums.EModulePriority;
 import eu.xaru.mysticrpg.interfaces.IBaseModule;
 import eu.xaru.mysticrpg.managers.ModuleManager;
+import eu.xaru.mysticrpg.player.leaderboards.LeaderBoardsModule;
+import eu.xaru.mysticrpg.player.leaderboards.LeaderboardIndex;
 import eu.xaru.mysticrpg.player.leaderboards.LeaderboardType;
 import eu.xaru.mysticrpg.storage.Callback;
 import eu.xaru.mysticrpg.storage.PlayerData;
@@ -26,7 +28,6 @@ import java.awt.*;
 import java.util.*;
 import java.util.List;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * Main Discord module that orchestrates linking logic, leaderboard updates, etc.
@@ -158,7 +159,7 @@ public class DiscordModule implements IBaseModule, Listener {
     /**
      * Called by a background job or something to update the embed if it exists.
      */
-    public void updateLeaderboardEmbed(LeaderboardType type, List<PlayerData> topPlayers) {
+    public void updateLeaderboardEmbed(LeaderboardType type, List<LeaderboardIndex.Entry> topPlayers) {
         LeaderboardMessageData msgData = leaderboardEmbeds.get(type);
         if (msgData == null) return; // no existing embed
 
@@ -181,12 +182,16 @@ public class DiscordModule implements IBaseModule, Listener {
     public void createLeaderboardEmbed(LeaderboardType type, SlashCommandInteractionEvent event) {
         event.deferReply(true).queue(); // ephemeral "thinking"
 
-        databaseManager.getPlayerRepository().loadAll(new Callback<List<PlayerData>>() {
-            @Override
-            public void onSuccess(List<PlayerData> allPlayers) {
-                List<PlayerData> sortedPlayers = sortPlayers(allPlayers, type);
+        LeaderBoardsModule leaderBoardsModule = ModuleManager.getInstance().getModuleInstance(LeaderBoardsModule.class);
+        if (leaderBoardsModule == null || leaderBoardsModule.getLeaderBoardsHelper() == null) {
+            event.getHook().editOriginal("Leaderboards are currently unavailable.").queue();
+            return;
+        }
 
-                EmbedBuilder embed = buildLeaderboardEmbed(type, sortedPlayers);
+        leaderBoardsModule.getLeaderBoardsHelper().getTopPlayers(type, 5, new Callback<List<LeaderboardIndex.Entry>>() {
+            @Override
+            public void onSuccess(List<LeaderboardIndex.Entry> topPlayers) {
+                EmbedBuilder embed = buildLeaderboardEmbed(type, topPlayers);
 
                 // Send to the channel
                 event.getChannel().sendMessageEmbeds(embed.build()).queue(message -> {
@@ -213,37 +218,21 @@ public class DiscordModule implements IBaseModule, Listener {
         });
     }
 
-    private List<PlayerData> sortPlayers(List<PlayerData> allPlayers, LeaderboardType type) {
-        if (type == LeaderboardType.LEVEL) {
-            return allPlayers.stream()
-                    .sorted(Comparator.comparingInt(PlayerData::getLevel).reversed())
-                    .limit(5)
-                    .collect(Collectors.toList());
-        } else {
-            // RICH => sort by bankGold
-            return allPlayers.stream()
-                    .sorted((p1, p2) -> Integer.compare(p2.getBankGold(), p1.getBankGold()))
-                    .limit(5)
-                    .collect(Collectors.toList());
-        }
-    }
-
-    private EmbedBuilder buildLeaderboardEmbed(LeaderboardType type, List<PlayerData> topPlayers) {
+    private EmbedBuilder buildLeaderboardEmbed(LeaderboardType type, List<LeaderboardIndex.Entry> topPlayers) {
         EmbedBuilder embed = new EmbedBuilder();
         embed.setTitle(type == LeaderboardType.LEVEL ? "Top Level Players" : "Top Rich Players");
         embed.setColor(Color.GREEN);
 
         int rank = 1;
-        for (PlayerData pd : topPlayers) {
-            UUID playerUUID = UUID.fromString(pd.getUuid());
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerUUID);
+        for (LeaderboardIndex.Entry entry : topPlayers) {
+            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(entry.uuid());
             String playerName = (offlinePlayer.hasPlayedBefore() && offlinePlayer.getName() != null)
                     ? offlinePlayer.getName() : "Unknown";
 
             if (type == LeaderboardType.LEVEL) {
-                embed.addField("#" + rank, playerName + " - Level " + pd.getLevel(), false);
+                embed.addField("#" + rank, playerName + " - Level " + entry.score(), false);
             } else {
-                embed.addField("#" + rank, playerName + " - Gold " + pd.getBankGold(), false);
+                embed.addField("#" + rank, playerName + " - Gold " + entry.score(), false);
             }
             rank++;
         }
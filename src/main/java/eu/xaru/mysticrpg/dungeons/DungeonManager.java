@@ -32,10 +32,17 @@ public class DungeonManager {
     private final DungeonLobbyGUI lobbyGUI;
 
     public DungeonManager(JavaPlugin plugin, DungeonModule dungeonModule) {
+        this(plugin, dungeonModule, new DungeonConfigManager(plugin));
+    }
+
+    /**
+     * @param configManager A config manager whose files may already have been read.
+     */
+    public DungeonManager(JavaPlugin plugin, DungeonModule dungeonModule, DungeonConfigManager configManager) {
         this.plugin = plugin;
         this.dungeonModule = dungeonModule;
         this.activeInstances = new ConcurrentHashMap<>();
-        this.configManager = new DungeonConfigManager(plugin);
+        this.configManager = configManager;
         this.lobbyManager = new LobbyManager(this);
         this.setupManager = new DungeonSetupManager(plugin, configManager);
         this.lobbyGUI = new DungeonLobbyGUI(lobbyManager);
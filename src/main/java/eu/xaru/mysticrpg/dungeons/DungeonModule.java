@@ -2,6 +2,7 @@
 package eu.xaru.mysticrpg.dungeons;
 
 import eu.xaru.mysticrpg.cores.MysticCore;
+import eu.xaru.mysticrpg.dungeons.config.DungeonConfigManager;
 import eu.xaru.mysticrpg.enums.EModulePriority;
 import eu.xaru.mysticrpg.interfaces.IBaseModule;
 import eu.xaru.mysticrpg.managers.ModuleManager;
@@ -19,15 +20,23 @@ public class DungeonModule implements IBaseModule {
 
     private JavaPlugin plugin;
     private DungeonManager dungeonManager;
+    private DungeonConfigManager configManager;
 
     @Override
-    public void initialize() {
+    public void load() {
         plugin = JavaPlugin.getPlugin(MysticCore.class);
 
+        // Loot tables and dungeon files; the configs are parsed in start() since that loads worlds
+        configManager = new DungeonConfigManager(plugin);
+        configManager.readConfigFiles();
+    }
+
+    @Override
+    public void initialize() {
         // Clean leftover instance worlds
         cleanUpInstanceWorlds();
 
-        dungeonManager = new DungeonManager(plugin, this);
+        dungeonManager = new DungeonManager(plugin, this, configManager);
 
      //   DebugLogger.getInstance().log(Level.INFO, "DungeonModule initialized successfully.", 0);
     }
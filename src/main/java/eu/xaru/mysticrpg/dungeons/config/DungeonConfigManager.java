@@ -21,6 +21,8 @@ public class DungeonConfigManager {
     private final JavaPlugin plugin;
     private final Map<String, DungeonConfig> dungeonConfigs;
     private final LootTableManager lootTableManager;
+    // Files read by readConfigFiles() that the next loadConfigs() parses
+    private List<DynamicConfig> preloadedFiles;
 
     public DungeonConfigManager(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -28,18 +30,42 @@ public class DungeonConfigManager {
         this.lootTableManager = new LootTableManager(plugin);
     }
 
+    /**
+     * Reads the dungeon files without parsing them, so it may run off the main thread.
+     * The next {@link #loadConfigs()} parses these instead of reading the files again.
+     */
+    public void readConfigFiles() {
+        preloadedFiles = readFiles();
+    }
+
     /**
      * Loads all .yml files from /dungeons, building a path string "dungeons/<filename>",
      * calling DynamicConfigManager.loadConfig(...) with that path, then parsing into a DungeonConfig.
+     * Parsing loads the dungeon worlds, so this must run on the main thread.
      */
     public void loadConfigs() {
+        List<DynamicConfig> files = preloadedFiles != null ? preloadedFiles : readFiles();
+        preloadedFiles = null;
+
+        for (DynamicConfig dcfg : files) {
+            DungeonConfig dungeonConfig = parseConfig(dcfg);
+            if (dungeonConfig != null) {
+                dungeonConfigs.put(dungeonConfig.getId(), dungeonConfig);
+                DebugLogger.getInstance().log(Level.INFO,
+                        "Loaded dungeon config: " + dungeonConfig.getId(), 0);
+            }
+        }
+    }
+
+    private List<DynamicConfig> readFiles() {
+        List<DynamicConfig> files = new ArrayList<>();
         File configDir = new File(plugin.getDataFolder(), "dungeons");
         if (!configDir.exists()) {
             configDir.mkdirs();
         }
 
         File[] configFiles = configDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".yml"));
-        if (configFiles == null) return;
+        if (configFiles == null) return files;
 
         for (File file : configFiles) {
             // This single string is the path used both on disk and (optionally) in jar resources
@@ -52,14 +78,9 @@ public class DungeonConfigManager {
                         "Could not load dynamic config for: " + path, 0);
                 continue;
             }
-
-            DungeonConfig dungeonConfig = parseConfig(dcfg);
-            if (dungeonConfig != null) {
-                dungeonConfigs.put(dungeonConfig.getId(), dungeonConfig);
-                DebugLogger.getInstance().log(Level.INFO,
-                        "Loaded dungeon config: " + dungeonConfig.getId(), 0);
-            }
+            files.add(dcfg);
         }
+        return files;
     }
 
     /**
@@ -128,21 +128,17 @@ public class PetGUI {
     }
 
     /**
-     * Load from file each time, so we see the up-to-date level/xp for each pet.
+     * Apply the player's stored progress each time, so we see the up-to-date level/xp for each pet.
      */
     private Item createPetItem(Player player, String petId, Pet pet) {
 
-        // 1) read from file
-        Map<String, PetFileStorage.PetProgress> fileData = PetFileStorage.loadPlayerPets(player);
-        PetFileStorage.PetProgress progress = fileData.get(petId);
-        if (progress != null) {
-            pet.setLevel(progress.getLevel());
-            pet.setCurrentXp(progress.getXp());
-        } else {
-            // If no entry => default from constructor
+        // 1) apply the stored level/xp
+        PlayerData data = PlayerDataCache.getInstance().getCachedPlayerData(player.getUniqueId());
+        if (data != null) {
+            petHelper.loadProgress(player.getUniqueId(), data, pet);
         }
 
-        // Now 'pet' object has the correct level & xp from the file
+        // Now 'pet' object has the correct level & xp
         List<String> loreLines = new ArrayList<>();
 
         // Show color-coded rarity
@@ -55,7 +55,7 @@ public final class AuctionHouseMainMenu {
         this.questModule = ModuleManager.getInstance().getModuleInstance(QuestModule.class);
         this.friendsModule = ModuleManager.getInstance().getModuleInstance(FriendsModule.class);
         this.partyModule = ModuleManager.getInstance().getModuleInstance(PartyModule.class);
-        this.auctionHouseHelper = new AuctionHouseHelper(ModuleManager.getInstance().getModuleInstance(EconomyModule.class).getEconomyHelper());
+        this.auctionHouseHelper = auctionHouse.getAuctionHouseHelper();
         this.economyHelper = ModuleManager.getInstance().getModuleInstance(EconomyModule.class).getEconomyHelper();
         this.auctionHouseMainMenu = this;
 
@@ -1,9 +1,8 @@
 package eu.xaru.mysticrpg.guis.auctionhouse;
 
-import eu.xaru.mysticrpg.auctionhouse.Auction;
+import eu.xaru.mysticrpg.auctionhouse.AuctionBook;
 import eu.xaru.mysticrpg.auctionhouse.AuctionHouseModule;
 import eu.xaru.mysticrpg.customs.items.Category;
-import eu.xaru.mysticrpg.customs.items.CustomItemUtils;
 import eu.xaru.mysticrpg.guis.ChangePageItem;
 import eu.xaru.mysticrpg.guis.globalbuttons.CategoryTabItem;
 import eu.xaru.mysticrpg.managers.ModuleManager;
@@ -14,8 +13,6 @@ import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import xyz.xenondevs.invui.gui.Gui;
 import xyz.xenondevs.invui.gui.PagedGui;
@@ -27,7 +24,6 @@ import xyz.xenondevs.invui.item.impl.SimpleItem;
 import xyz.xenondevs.invui.window.Window;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This example places the pagination controls (next/prev page) in the outer TabGui,
@@ -42,6 +38,14 @@ import java.util.stream.Collectors;
  */
 public class BuyGUI {
 
+    /**
+     * Display items per category tab, kept while the category's listings are unchanged. Main thread only.
+     */
+    private static final Map<Category, CachedTab> TAB_CACHE = new EnumMap<>(Category.class);
+
+    private record CachedTab(List<AuctionBook.Listing> listings, List<Item> items) {
+    }
+
     private AuctionHouseMainMenu mainGUI = null;
 
     public BuyGUI(AuctionHouseMainMenu mainGUI) {
@@ -147,23 +151,7 @@ public class BuyGUI {
     }
 
     private PagedGui<Item> createPagedGuiForCategory(Category category) {
-        List<Auction> allAuctions = mainGUI.getAuctionHouseHelper().getActiveAuctions();
-        List<Item> auctionItems = new ArrayList<>();
-
-        // Filter auctions by category
-        for (Auction auction : allAuctions) {
-            ItemStack auctionItem = auction.getItem();
-            
-            // Skip if not a custom item
-            if (!CustomItemUtils.isCustomItem(auctionItem)) continue;
-            
-            Category itemCategory = CustomItemUtils.getCategory(auctionItem);
-            
-            // If category is EVERYTHING or matches the current category
-            if (category == Category.EVERYTHING || category == itemCategory) {
-                auctionItems.add(createAuctionDisplayItem(auction));
-            }
-        }
+        List<Item> auctionItems = getDisplayItems(category);
 
         return PagedGui.items()
                 .setStructure(
@@ -177,26 +165,31 @@ public class BuyGUI {
                 .build();
     }
 
-    private Item createAuctionDisplayItem(Auction auction) {
-        ItemStack originalItem = auction.getItem().clone();
-        ItemMeta meta = originalItem.getItemMeta();
-        List<String> lore = meta.hasLore() ? meta.getLore() : new ArrayList<>();
-
-        // Add auction information to lore
-        lore.add("");
-        lore.add(ChatColor.GRAY + "Seller: " + ChatColor.YELLOW + auction.getSellerName());
-        lore.add(ChatColor.GRAY + "Price: " + ChatColor.GOLD + auction.getCurrentBid() + " coins");
-        lore.add("");
-        lore.add(ChatColor.YELLOW + "Click to purchase!");
-
-        meta.setLore(lore);
-        originalItem.setItemMeta(meta);
+    /**
+     * Returns the display items of a category tab. They are built once per version of the
+     * category's listings and shared by every player opening the Buy GUI in between.
+     */
+    private List<Item> getDisplayItems(Category category) {
+        List<AuctionBook.Listing> listings = mainGUI.getAuctionHouseHelper().getListings(category);
+        CachedTab cached = TAB_CACHE.get(category);
+        if (cached == null || cached.listings() != listings) {
+            List<Item> items = new ArrayList<>(listings.size());
+            for (AuctionBook.Listing listing : listings) {
+                items.add(createAuctionDisplayItem(listing));
+            }
+            cached = new CachedTab(listings, items);
+            TAB_CACHE.put(category, cached);
+        }
+        return cached.items();
+    }
 
-        return new SimpleItem(new ItemBuilder(originalItem)) {
+    private Item createAuctionDisplayItem(AuctionBook.Listing listing) {
+        UUID auctionId = listing.getAuction().getAuctionId();
+        return new SimpleItem(new ItemBuilder(listing.getDisplayItem())) {
             @Override
             public void handleClick(@NotNull ClickType clickType, @NotNull Player player, @NotNull InventoryClickEvent event) {
                 // Handle purchase
-                mainGUI.getAuctionHouseHelper().purchaseAuction(player, auction.getAuctionId());
+                mainGUI.getAuctionHouseHelper().purchaseAuction(player, auctionId);
                 
                 // Refresh the GUI to show updated auctions
                 Window window = event.getView().getTopInventory().getHolder() instanceof Window ?
@@ -76,7 +76,9 @@ public class YourAuctionsGUI {
                             ChatColor.YELLOW + "Time Left: " + formatTimeLeft(auction.getEndTime() - System.currentTimeMillis()),
                             ChatColor.AQUA + "Auction ID: " + auction.getAuctionId(),
                             "",
-                            ChatColor.RED + "Right-click to cancel this auction"
+                            ChatColor.RED + (auction.getEndTime() <= System.currentTimeMillis()
+                                    ? "Right-click to reclaim the item"
+                                    : "Right-click to cancel this auction")
                     );
 
             Item auctionItem = new SimpleItem(builder) {
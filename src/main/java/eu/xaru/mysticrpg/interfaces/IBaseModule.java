@@ -6,8 +6,20 @@ import java.util.List;
 
 public interface IBaseModule {
 
+    /**
+     * Called before {@link #initialize()} to read files and parse configuration.
+     * Runs on a worker thread, in parallel with other modules' load phases, once the load
+     * phases of all dependencies have finished. Must not touch the Bukkit API (worlds,
+     * entities, events, commands, schedulers) or other modules; do that in initialize().
+     *
+     * @throws Exception if loading fails; the module is then not initialized
+     */
+    default void load() throws Exception {
+    }
+
     /**
      * Called when the module is initialized.
+     * Runs on the main thread after {@link #load()} has finished.
      * Perform setup or configuration here.
      *
      * @throws Exception if initialization fails
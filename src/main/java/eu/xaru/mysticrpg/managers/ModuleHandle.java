@@ -0,0 +1,46 @@
+package eu.xaru.mysticrpg.managers;
+
+import eu.xaru.mysticrpg.interfaces.IBaseModule;
+
+/**
+ * A cached, typed reference to a module for code that needs it on hot paths.
+ *
+ * Resolve the handle once (usually when the owning module starts) with
+ * {@link ModuleManager#handle(Class)} and call {@link #get()} wherever the module is needed.
+ * The module is only looked up again after the registry was republished, so steady-state
+ * calls are a single volatile read and neither lock nor allocate.
+ *
+ * @param <T> the type of the module
+ */
+public final class ModuleHandle<T extends IBaseModule> {
+
+    private record Resolved<T>(int generation, T module) {
+    }
+
+    private final ModuleManager manager;
+    private final Class<T> moduleClass;
+    // Replaced as a whole, so readers never see a module paired with the wrong generation
+    private Resolved<T> resolved;
+
+    ModuleHandle(ModuleManager manager, Class<T> moduleClass) {
+        this.manager = manager;
+        this.moduleClass = moduleClass;
+    }
+
+    /**
+     * @return the module instance, or null if it is not loaded
+     */
+    public T get() {
+        int generation = manager.getGeneration();
+        Resolved<T> current = resolved;
+        if (current == null || current.generation() != generation) {
+            current = new Resolved<>(generation, manager.findModule(moduleClass));
+            resolved = current;
+        }
+        return current.module();
+    }
+
+    public Class<T> getModuleClass() {
+        return moduleClass;
+    }
+}
@@ -0,0 +1,55 @@
+package eu.xaru.mysticrpg.managers;
+
+import eu.xaru.mysticrpg.interfaces.IBaseModule;
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.ScanResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build step that scans the compiled classes for modules and writes their names to
+ * {@link ModuleManager#MODULE_INDEX}, so the plugin can skip the ClassGraph scan on startup.
+ * Run by Maven in the process-classes phase with the classes directory as its only argument.
+ * Classes are only inspected, never loaded, so the Bukkit API does not need to be present.
+ */
+public final class ModuleIndexGenerator {
+
+    private ModuleIndexGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ModuleIndexGenerator <classes directory>");
+        }
+        Path classesDir = Path.of(args[0]);
+
+        List<String> modules = new ArrayList<>();
+        try (ScanResult scanResult = new ClassGraph()
+                .overrideClasspath(classesDir.toString())
+                .enableClassInfo()
+                .acceptPackages("eu.xaru.mysticrpg")
+                .scan()) {
+            for (ClassInfo classInfo : scanResult.getClassesImplementing(IBaseModule.class.getName())) {
+                if (!classInfo.isAbstract() && !classInfo.isInterface()) {
+                    modules.add(classInfo.getName());
+                }
+            }
+        }
+        modules.sort(null);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Generated by " + ModuleIndexGenerator.class.getSimpleName() + ", do not edit");
+        lines.addAll(modules);
+
+        Path index = classesDir.resolve(ModuleManager.MODULE_INDEX);
+        Files.createDirectories(index.getParent());
+        Files.write(index, lines, StandardCharsets.UTF_8);
+        System.out.println("Wrote " + modules.size() + " modules to " + index);
+    }
+}
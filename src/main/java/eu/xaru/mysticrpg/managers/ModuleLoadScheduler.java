@@ -0,0 +1,125 @@
+package eu.xaru.mysticrpg.managers;
+
+import eu.xaru.mysticrpg.interfaces.IBaseModule;
+import eu.xaru.mysticrpg.utils.DebugLogger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link IBaseModule#load()} phases of a set of modules on a worker pool.
+ *
+ * A module's load phase starts as soon as the load phases of its dependencies have finished
+ * (successfully or not), so independent modules read their files at the same time. The
+ * caller keeps initializing modules on the main thread in loading order and only waits, via
+ * {@link #awaitLoad(Class)}, for the module it is about to initialize.
+ */
+final class ModuleLoadScheduler implements AutoCloseable {
+
+    private final ExecutorService pool;
+    private final Map<Class<? extends IBaseModule>, CompletableFuture<Long>> loads = new HashMap<>();
+
+    ModuleLoadScheduler(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "MysticRPG-ModuleLoader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), factory);
+    }
+
+    /**
+     * Schedules the load phases of all modules.
+     *
+     * @param order     the modules in loading order
+     * @param instances the module instances
+     */
+    void schedule(List<Class<? extends IBaseModule>> order,
+                  Map<Class<? extends IBaseModule>, IBaseModule> instances) {
+        Set<Class<? extends IBaseModule>> visiting = new HashSet<>();
+        for (Class<? extends IBaseModule> moduleClass : order) {
+            scheduleLoad(moduleClass, instances, visiting);
+        }
+    }
+
+    /**
+     * Schedules a module after its dependencies. Priority sorting can put a dependency after
+     * its dependent in the loading order, so dependencies are scheduled first here.
+     */
+    private CompletableFuture<Long> scheduleLoad(Class<? extends IBaseModule> moduleClass,
+                                                 Map<Class<? extends IBaseModule>, IBaseModule> instances,
+                                                 Set<Class<? extends IBaseModule>> visiting) {
+        CompletableFuture<Long> scheduled = loads.get(moduleClass);
+        if (scheduled != null) {
+            return scheduled;
+        }
+        IBaseModule module = instances.get(moduleClass);
+        if (module == null || !visiting.add(moduleClass)) {
+            // Not part of this batch, or a dependency cycle the loading order already broke up
+            return null;
+        }
+        List<CompletableFuture<?>> dependencyLoads = new ArrayList<>();
+        for (Class<? extends IBaseModule> dependency : module.getDependencies()) {
+            CompletableFuture<Long> dependencyLoad = scheduleLoad(dependency, instances, visiting);
+            if (dependencyLoad != null) {
+                // A failed dependency is reported by its own initialize step, not here
+                dependencyLoads.add(dependencyLoad.exceptionally(t -> 0L));
+            }
+        }
+        visiting.remove(moduleClass);
+        CompletableFuture<Long> load = CompletableFuture
+                .allOf(dependencyLoads.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> runLoad(moduleClass, module), pool);
+        loads.put(moduleClass, load);
+        return load;
+    }
+
+    private long runLoad(Class<? extends IBaseModule> moduleClass, IBaseModule module) {
+        long start = System.nanoTime();
+        try {
+            module.load();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        long nanos = System.nanoTime() - start;
+        DebugLogger.getInstance().debug("Module {} loaded on {}.", moduleClass.getSimpleName(), Thread.currentThread().getName());
+        return nanos;
+    }
+
+    /**
+     * Blocks until the module's load phase has finished.
+     *
+     * @return the time the load phase took in nanoseconds
+     * @throws Exception the exception thrown by the module's load phase
+     */
+    long awaitLoad(Class<? extends IBaseModule> moduleClass) throws Exception {
+        CompletableFuture<Long> load = loads.get(moduleClass);
+        if (load == null) {
+            return 0L;
+        }
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
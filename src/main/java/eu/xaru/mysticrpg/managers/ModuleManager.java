@@ -8,7 +8,11 @@ import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
 import io.github.classgraph.ScanResult;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -33,6 +37,37 @@ public class ModuleManager {
     // Set to track modules that are lazy-loaded and not yet loaded
     private final Set<Class<? extends IBaseModule>> lazyModules = ConcurrentHashMap.newKeySet();
 
+    // Immutable copy of loadedModules that lookups read without locking; republished on every change
+    private volatile Map<Class<? extends IBaseModule>, IBaseModule> registry = Map.of();
+
+    // Bumped after every publish so ModuleHandles know to resolve again
+    private volatile int generation;
+
+    // Set once startModules() has run; the registry only changes again for lazy loads and unloads
+    private volatile boolean frozen;
+
+    /**
+     * Module classes listed at build time by {@link ModuleIndexGenerator}, so startup does not
+     * have to scan the plugin jar.
+     */
+    static final String MODULE_INDEX = "META-INF/mysticrpg/modules.idx";
+
+    /**
+     * Time a module spent in each startup phase, in nanoseconds. Load runs on a worker thread.
+     */
+    public record StartupTiming(long loadNanos, long initializeNanos, long startNanos) {
+        StartupTiming withInitialize(long nanos) {
+            return new StartupTiming(loadNanos, nanos, startNanos);
+        }
+
+        StartupTiming withStart(long nanos) {
+            return new StartupTiming(loadNanos, initializeNanos, nanos);
+        }
+    }
+
+    // Timings of the last startup, in loading order
+    private final Map<Class<? extends IBaseModule>, StartupTiming> startupTimings = new LinkedHashMap<>();
+
     // Singleton instance
     private static volatile ModuleManager instance;
 
@@ -97,26 +132,148 @@ public class ModuleManager {
                 .map(Class::getSimpleName)
                 .collect(Collectors.joining(", ")));
 
-        // Load and initialize eager modules in the determined order
-        for (Class<? extends IBaseModule> moduleClass : orderedEagerModules) {
-            try {
-                loadModule(moduleClass);
-                DebugLogger.getInstance().log("Module {} loaded successfully.", moduleClass.getSimpleName());
-            } catch (Exception e) {
-                DebugLogger.getInstance().error("Failed to load module {}: {}", moduleClass.getSimpleName(), e.getMessage(), e);
-            }
-        }
+        // Load eager modules in parallel along the dependency graph, initialize them in order on this thread
+        long startupBegin = System.nanoTime();
+        loadModulesInParallel(orderedEagerModules);
 
         // Start all eager modules
         startModules();
+        reportStartupTimings(System.nanoTime() - startupBegin);
     }
 
     /**
-     * Uses ClassGraph to discover all classes implementing IBaseModule within the eu.xaru.mysticrpg package and its subpackages.
+     * Runs the modules' load phases on a worker pool and initializes each module on the
+     * calling thread as soon as its own load phase has finished.
+     *
+     * @param orderedModules the modules in loading order
+     */
+    private void loadModulesInParallel(List<Class<? extends IBaseModule>> orderedModules) {
+        int threads = MysticCore.getInstance().getMysticConfig().getInt("modules.loadThreads",
+                Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+        Map<Class<? extends IBaseModule>, IBaseModule> batch = new HashMap<>();
+        for (Class<? extends IBaseModule> moduleClass : orderedModules) {
+            IBaseModule module = instantiateModule(moduleClass);
+            if (module != null) {
+                batch.put(moduleClass, module);
+            }
+        }
+
+        try (ModuleLoadScheduler scheduler = new ModuleLoadScheduler(threads)) {
+            scheduler.schedule(orderedModules, batch);
+
+            for (Class<? extends IBaseModule> moduleClass : orderedModules) {
+                long loadNanos;
+                try {
+                    loadNanos = scheduler.awaitLoad(moduleClass);
+                } catch (Exception e) {
+                    DebugLogger.getInstance().error("Failed to load module {}: {}", moduleClass.getSimpleName(), e.getMessage(), e);
+                    continue;
+                }
+                startupTimings.put(moduleClass, new StartupTiming(loadNanos, 0L, 0L));
+                try {
+                    initializeModule(moduleClass);
+                    DebugLogger.getInstance().log("Module {} loaded successfully.", moduleClass.getSimpleName());
+                } catch (Exception e) {
+                    DebugLogger.getInstance().error("Failed to load module {}: {}", moduleClass.getSimpleName(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Logs how long every module took to load, initialize and start, slowest first.
+     *
+     * @param wallNanos the time the whole startup took
+     */
+    private void reportStartupTimings(long wallNanos) {
+        long mainThreadNanos = 0L;
+        long loadNanos = 0L;
+        List<Map.Entry<Class<? extends IBaseModule>, StartupTiming>> entries = new ArrayList<>(startupTimings.entrySet());
+        for (Map.Entry<Class<? extends IBaseModule>, StartupTiming> entry : entries) {
+            mainThreadNanos += entry.getValue().initializeNanos() + entry.getValue().startNanos();
+            loadNanos += entry.getValue().loadNanos();
+        }
+        entries.sort(Comparator.comparingLong((Map.Entry<Class<? extends IBaseModule>, StartupTiming> e) ->
+                e.getValue().loadNanos() + e.getValue().initializeNanos() + e.getValue().startNanos()).reversed());
+
+        DebugLogger.getInstance().log("Started {} modules in {} ms ({} ms on the main thread, {} ms of loading on workers).",
+                entries.size(), millis(wallNanos), millis(mainThreadNanos), millis(loadNanos));
+        for (Map.Entry<Class<? extends IBaseModule>, StartupTiming> entry : entries) {
+            StartupTiming timing = entry.getValue();
+            DebugLogger.getInstance().log("  {}: load {} ms, initialize {} ms, start {} ms",
+                    entry.getKey().getSimpleName(), millis(timing.loadNanos()),
+                    millis(timing.initializeNanos()), millis(timing.startNanos()));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Returns the per-module timings of the last startup.
+     *
+     * @return an unmodifiable map in loading order
+     */
+    public synchronized Map<Class<? extends IBaseModule>, StartupTiming> getStartupTimings() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(startupTimings));
+    }
+
+    /**
+     * Discovers all module classes, from the index written at build time if the jar has one,
+     * otherwise by scanning the eu.xaru.mysticrpg package with ClassGraph.
      *
      * @return a set of module classes
      */
     private Set<Class<? extends IBaseModule>> discoverModules() {
+        Set<Class<? extends IBaseModule>> indexed = readModuleIndex();
+        if (indexed != null) {
+            DebugLogger.getInstance().log("Discovered {} modules from the build-time module index.", indexed.size());
+            return indexed;
+        }
+        return scanModules();
+    }
+
+    /**
+     * Reads the module classes listed in {@link #MODULE_INDEX}.
+     *
+     * @return the module classes, or null if there is no usable index
+     */
+    private Set<Class<? extends IBaseModule>> readModuleIndex() {
+        ClassLoader classLoader = ModuleManager.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(MODULE_INDEX)) {
+            if (in == null) {
+                return null;
+            }
+            Set<Class<? extends IBaseModule>> modules = new HashSet<>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                Class<?> cls = Class.forName(line, false, classLoader);
+                if (!IBaseModule.class.isAssignableFrom(cls)) {
+                    DebugLogger.getInstance().warn("Module index lists {}, which is not a module. Falling back to a scan.", line);
+                    return null;
+                }
+                modules.add(cls.asSubclass(IBaseModule.class));
+            }
+            return modules;
+        } catch (Exception e) {
+            DebugLogger.getInstance().warn("Could not read the module index ({}). Falling back to a scan.", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Uses ClassGraph to discover all classes implementing IBaseModule within the eu.xaru.mysticrpg package and its subpackages.
+     *
+     * @return a set of module classes
+     */
+    private Set<Class<? extends IBaseModule>> scanModules() {
         Set<Class<? extends IBaseModule>> modules = new HashSet<>();
         try (ScanResult scanResult = new ClassGraph()
                 .enableClassInfo()
@@ -378,7 +535,7 @@ public class ModuleManager {
     }
 
     /**
-     * Loads and initializes a single module.
+     * Loads and initializes a single module on the calling thread.
      *
      * @param moduleClass the class of the module to load
      * @throws Exception if loading fails
@@ -389,6 +546,26 @@ public class ModuleManager {
             return;
         }
 
+        IBaseModule module = instantiateModule(moduleClass);
+        if (module == null) {
+            throw new Exception("Module instantiation failed.");
+        }
+        module.load();
+        initializeModule(moduleClass);
+    }
+
+    /**
+     * Initializes a single module whose load phase has already run.
+     *
+     * @param moduleClass the class of the module to initialize
+     * @throws Exception if initialization fails
+     */
+    private void initializeModule(Class<? extends IBaseModule> moduleClass) throws Exception {
+        if (loadedModules.containsKey(moduleClass)) {
+            DebugLogger.getInstance().warn("Module {} is already loaded.", moduleClass.getSimpleName());
+            return;
+        }
+
         IBaseModule module = moduleInstanceCache.get(moduleClass);
         if (module == null) {
             module = instantiateModule(moduleClass);
@@ -398,9 +575,13 @@ public class ModuleManager {
         }
 
         // Initialize the module
+        long initializeBegin = System.nanoTime();
         module.initialize();
+        long initializeNanos = System.nanoTime() - initializeBegin;
+        startupTimings.computeIfPresent(moduleClass, (cls, timing) -> timing.withInitialize(initializeNanos));
         loadedModules.put(moduleClass, module);
         loadingOrder.add(moduleClass);
+        publishRegistry();
         DebugLogger.getInstance().log("Module {} initialized.", moduleClass.getSimpleName());
     }
 
@@ -411,6 +592,18 @@ public class ModuleManager {
         for (Class<? extends IBaseModule> moduleClass : loadingOrder) {
             startModule(moduleClass);
         }
+        frozen = true;
+        publishRegistry();
+        DebugLogger.getInstance().log("Module registry frozen with {} modules.", registry.size());
+    }
+
+    /**
+     * Publishes an immutable snapshot of the loaded modules for lock-free lookups.
+     * Must be called while holding the manager's lock.
+     */
+    private void publishRegistry() {
+        registry = Map.copyOf(loadedModules);
+        generation++;
     }
 
     /**
@@ -425,7 +618,10 @@ public class ModuleManager {
             return;
         }
         try {
+            long startBegin = System.nanoTime();
             module.start();
+            long startNanos = System.nanoTime() - startBegin;
+            startupTimings.computeIfPresent(moduleClass, (cls, timing) -> timing.withStart(startNanos));
             DebugLogger.getInstance().log("Module {} started.", moduleClass.getSimpleName());
         } catch (Exception e) {
             DebugLogger.getInstance().error("Failed to start module {}: {}", moduleClass.getSimpleName(), e.getMessage(), e);
@@ -444,6 +640,8 @@ public class ModuleManager {
             return;
         }
 
+        publishRegistry();
+
         try {
             module.stop();
             module.unload();
@@ -469,24 +667,60 @@ public class ModuleManager {
         loadedModules.clear();
         moduleInstanceCache.clear();
         lazyModules.clear();
+        startupTimings.clear();
+        frozen = false;
+        publishRegistry();
 
         DebugLogger.getInstance().log("All modules have been unloaded.");
     }
 
     /**
      * Retrieves an instance of a loaded module.
+     * Reads the published registry and does not lock. Code that looks a module up on a hot
+     * path should resolve a {@link ModuleHandle} once instead.
      *
      * @param moduleClass the class of the module to retrieve
      * @param <T>         the type of the module
      * @return the module instance, or null if not loaded
      */
-    public synchronized <T extends IBaseModule> T getModuleInstance(Class<T> moduleClass) {
-        IBaseModule module = loadedModules.get(moduleClass);
+    public <T extends IBaseModule> T getModuleInstance(Class<T> moduleClass) {
+        T module = findModule(moduleClass);
         if (module == null) {
             DebugLogger.getInstance().warn("Module {} is not loaded.", moduleClass.getSimpleName());
-            return null;
         }
-        return moduleClass.cast(module);
+        return module;
+    }
+
+    /**
+     * Creates a cached handle to a module. The handle can be created before the module is
+     * loaded and follows it across reloads.
+     *
+     * @param moduleClass the class of the module
+     * @param <T>         the type of the module
+     * @return a handle whose {@link ModuleHandle#get()} returns the module or null
+     */
+    public <T extends IBaseModule> ModuleHandle<T> handle(Class<T> moduleClass) {
+        return new ModuleHandle<>(this, moduleClass);
+    }
+
+    /**
+     * Looks a module up in the published registry without logging.
+     */
+    <T extends IBaseModule> T findModule(Class<T> moduleClass) {
+        IBaseModule module = registry.get(moduleClass);
+        return module != null ? moduleClass.cast(module) : null;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return true once startModules() has run and the registry is only republished for
+     *         lazy loads and unloads
+     */
+    public boolean isFrozen() {
+        return frozen;
     }
 
     /**
@@ -587,6 +821,6 @@ public class ModuleManager {
      * @return an unmodifiable set of loaded module classes
      */
     public Set<Class<? extends IBaseModule>> getLoadedModules() {
-        return Collections.unmodifiableSet(loadedModules.keySet());
+        return registry.keySet();
     }
 }
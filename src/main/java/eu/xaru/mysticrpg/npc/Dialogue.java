@@ -15,7 +15,6 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -99,10 +98,7 @@ public class Dialogue {
                 if (quest != null) {
                     if (!data.getActiveQuests().contains(questId) && !data.getCompletedQuests().contains(questId)) {
                         // start quest
-                        data.getActiveQuests().add(questId);
-                        data.getQuestProgress().put(questId, new HashMap<>());
-                        data.getQuestPhaseIndex().put(questId,0);
-                        data.getQuestStartTime().put(questId,System.currentTimeMillis());
+                        questManager.startQuestForPlayer(data, questId);
                         player.sendMessage(Utils.getInstance().$("You have received a new quest: " + quest.getName()));
                     } else {
                         player.sendMessage(Utils.getInstance().$("You have already received this quest."));
@@ -33,6 +33,13 @@ public class CustomNPCModule implements IBaseModule {
         this.npcManager = new CustomNPCManager();
     }
 
+    @Override
+    public void load() {
+        // Load dialogues from folder
+        File dialoguesFolder = new File(plugin.getDataFolder(), "customnpcs/dialogues");
+        DialogueManager.getInstance().loadAllDialogues(dialoguesFolder);
+    }
+
     @Override
     public void initialize() {
         SaveModule saveModule = ModuleManager.getInstance().getModuleInstance(SaveModule.class);
@@ -47,14 +54,10 @@ public class CustomNPCModule implements IBaseModule {
 
     @Override
     public void start() {
-        // 1) Load existing NPC data
+        // 1) Load existing NPC data (resolves worlds, so not in load())
         npcManager.loadAllFromDisk();
 
-        // 2) Load dialogues from folder
-        File dialoguesFolder = new File(plugin.getDataFolder(), "customnpcs/dialogues");
-        DialogueManager.getInstance().loadAllDialogues(dialoguesFolder);
-
-        // 3) Register event
+        // 2) Register event
         registerEventHandlers();
 
         DebugLogger.getInstance().log(Level.INFO, "CustomNPCModule started", 0);
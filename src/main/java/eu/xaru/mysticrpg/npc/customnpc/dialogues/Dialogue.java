@@ -12,7 +12,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 
@@ -142,10 +141,7 @@ public class Dialogue {
                     if (!pd.getActiveQuests().contains(questId)
                             && !pd.getCompletedQuests().contains(questId)) {
 
-                        pd.getActiveQuests().add(questId);
-                        pd.getQuestProgress().put(questId, new HashMap<>());
-                        pd.getQuestPhaseIndex().put(questId, 0);
-                        pd.getQuestStartTime().put(questId, System.currentTimeMillis());
+                        questManager.startQuestForPlayer(pd, questId);
                         player.sendMessage(Utils.getInstance().$("You have received a new quest: " + quest.getName()));
                     } else {
                         player.sendMessage(Utils.getInstance().$("You have already received this quest."));
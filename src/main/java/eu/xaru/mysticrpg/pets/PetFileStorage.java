@@ -1,20 +1,21 @@
 package eu.xaru.mysticrpg.pets;
 
 import eu.xaru.mysticrpg.utils.DebugLogger;
-import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.logging.Level;
 
 /**
- * Handles reading/writing each player's pet level/xp to local .yml files.
+ * Reads the pet level/xp files pets used to be stored in (pets/playerdata/player_<uuid>.yml).
+ *
+ * Pet progress now lives in PlayerData; these files are only read to migrate them, and renamed
+ * to .migrated once the migrated progress has been saved, so they are never read again.
  */
 public class PetFileStorage {
 
@@ -25,28 +26,26 @@ public class PetFileStorage {
      */
     public static void init(JavaPlugin plugin) {
         playerDataFolder = new File(plugin.getDataFolder(), "pets/playerdata");
-        if (!playerDataFolder.exists()) {
-            playerDataFolder.mkdirs();
-        }
     }
 
     /**
-     * Loads the player's pet data from the local file.
-     * Returns a map: petId -> [level, xp].
+     * Loads the player's legacy pet file, if they still have one.
+     *
+     * @return The pet progress by pet id, or null if there is nothing to migrate.
      */
-    public static Map<String, PetProgress> loadPlayerPets(Player player) {
-        Map<String, PetProgress> result = new HashMap<>();
-
-        File file = getPlayerFile(player.getUniqueId());
+    public static Map<String, PetProgress> loadLegacyPets(UUID uuid) {
+        File file = getPlayerFile(uuid);
         if (!file.exists()) {
-            return result; // empty if no file
+            return null;
         }
 
+        Map<String, PetProgress> result = new HashMap<>();
         YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
-        if (yaml.contains("pets")) {
-            for (String petId : yaml.getConfigurationSection("pets").getKeys(false)) {
-                int level = yaml.getInt("pets." + petId + ".level", 1);
-                int xp    = yaml.getInt("pets." + petId + ".xp", 0);
+        ConfigurationSection pets = yaml.getConfigurationSection("pets");
+        if (pets != null) {
+            for (String petId : pets.getKeys(false)) {
+                int level = pets.getInt(petId + ".level", 1);
+                int xp    = pets.getInt(petId + ".xp", 0);
                 result.put(petId, new PetProgress(level, xp));
             }
         }
@@ -54,28 +53,17 @@ public class PetFileStorage {
     }
 
     /**
-     * Saves the player's pet data to local file:
-     *  pets:
-     *    <petId>:
-     *       level: <level>
-     *       xp: <xp>
+     * Renames the player's legacy pet file to .migrated. Only call this once the migrated
+     * progress has been saved.
      */
-    public static void savePlayerPets(Player player, Map<String, PetProgress> data) {
-        File file = getPlayerFile(player.getUniqueId());
-        YamlConfiguration yaml = new YamlConfiguration();
-
-        for (Map.Entry<String, PetProgress> entry : data.entrySet()) {
-            String petId = entry.getKey();
-            PetProgress prog = entry.getValue();
-            yaml.set("pets." + petId + ".level", prog.getLevel());
-            yaml.set("pets." + petId + ".xp",    prog.getXp());
+    public static void markMigrated(UUID uuid) {
+        File file = getPlayerFile(uuid);
+        if (!file.exists()) {
+            return;
         }
-
-        try {
-            yaml.save(file);
-        } catch (IOException e) {
-            DebugLogger.getInstance().log(Level.SEVERE, "Failed to save pet data for " + player.getName(), 0);
-            e.printStackTrace();
+        File migrated = new File(playerDataFolder, file.getName() + ".migrated");
+        if (!file.renameTo(migrated)) {
+            DebugLogger.getInstance().log(Level.WARNING, "Could not rename migrated pet file " + file.getName(), 0);
         }
     }
 
@@ -1,6 +1,9 @@
 package eu.xaru.mysticrpg.pets;
 
 import eu.xaru.mysticrpg.customs.mobs.ModelHandler;
+import eu.xaru.mysticrpg.managers.ModuleHandle;
+import eu.xaru.mysticrpg.managers.ModuleManager;
+import eu.xaru.mysticrpg.player.stats.StatsModule;
 import eu.xaru.mysticrpg.pets.content.PetRegistry;
 import eu.xaru.mysticrpg.storage.Callback;
 import eu.xaru.mysticrpg.storage.PlayerData;
@@ -17,6 +20,7 @@ import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityTargetEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.util.Vector;
 
@@ -24,17 +28,30 @@ import java.util.*;
 import java.util.logging.Level;
 
 /**
- * PetHelper that ALWAYS reads/writes level/XP from file,
- * ignoring any leftover in-memory version.
+ * PetHelper keeps each player's pet level/XP in their PlayerData, so leveling a pet
+ * never touches the disk; the data is written by the regular PlayerData flush.
+ * Old per-player pet files are migrated the first time a player's pets are used.
  */
 public class PetHelper implements Listener {
 
     private final JavaPlugin plugin;
     private final Map<String, Pet> petConfigurations = new HashMap<>();
     private final Map<UUID, PetInstance> playerEquippedPets = new HashMap<>();
+    // Same instances, keyed by the pet entity's UUID, so entity events need no scan
+    private final Map<UUID, PetInstance> petsByEntity = new HashMap<>();
+    // Set on every pet entity to the owner's UUID
+    private final NamespacedKey petOwnerKey;
+    private final PetNameplates nameplates = new PetNameplates();
+    private final ModuleHandle<StatsModule> statsModule = ModuleManager.getInstance().handle(StatsModule.class);
+    // Players whose legacy pet file has been checked this session
+    private final Set<UUID> migratedPlayers = new HashSet<>();
+
+    private static final String LEVEL_KEY = "level";
+    private static final String XP_KEY = "xp";
 
     public PetHelper(JavaPlugin plugin) {
         this.plugin = plugin;
+        this.petOwnerKey = new NamespacedKey(plugin, "pet_owner");
         PetFileStorage.init(plugin);
 
         // Load known pet definitions from PetRegistry
@@ -43,8 +60,15 @@ public class PetHelper implements Listener {
             DebugLogger.getInstance().log(Level.INFO, "Registered pet: " + p.getId(), 0);
         }
 
-        // Update pets each tick (for overhead name holograms, etc.)
-        Bukkit.getScheduler().runTaskTimer(plugin, this::updatePets, 0L, 1L);
+        // Overhead names are client-side displays riding the pet, so nothing runs per tick
+        nameplates.register();
+    }
+
+    /**
+     * Removes all pet nameplates and stops sending them.
+     */
+    public void shutdown() {
+        nameplates.unregister();
     }
 
     /**
@@ -54,6 +78,16 @@ public class PetHelper implements Listener {
         return playerEquippedPets.get(player.getUniqueId());
     }
 
+    /**
+     * Returns the PetInstance the entity belongs to, or null if it is not an equipped pet.
+     * Anything that is not a tagged wolf is rejected without a map lookup.
+     */
+    public PetInstance getPetByEntity(Entity entity) {
+        if (!(entity instanceof Wolf) || petsByEntity.isEmpty()) return null;
+        if (!entity.getPersistentDataContainer().has(petOwnerKey, PersistentDataType.STRING)) return null;
+        return petsByEntity.get(entity.getUniqueId());
+    }
+
     /**
      * Give a pet by ID to a player, if not owned already.
      * This does not do any file-based XP logic; it just adds ownership to PlayerData.
@@ -88,8 +122,7 @@ public class PetHelper implements Listener {
     }
 
     /**
-     * Equip a pet by ID, ignoring any in-memory data.
-     * We always read its level/xp from file to ensure correctness.
+     * Equip a pet by ID, restoring its level/xp from the player's stored progress.
      */
     public void equipPet(Player player, String petId) {
         Pet basePet = petConfigurations.get(petId);
@@ -110,26 +143,20 @@ public class PetHelper implements Listener {
         // Unequip any previously equipped pet
         unequipPet(player);
 
-        // 1) Read the player's pet data from file
-        var fileData = PetFileStorage.loadPlayerPets(player);
-        // 2) Overwrite the basePet's level/xp with what's in the file
-        var storedProgress = fileData.get(petId);
-        if (storedProgress != null) {
-            basePet.setLevel(storedProgress.getLevel());
-            basePet.setCurrentXp(storedProgress.getXp());
-        } else {
-            // If never saved before, presumably level=1 xp=0 from constructor
-        }
+        // 1) Overwrite the basePet's level/xp with the stored progress
+        loadProgress(player.getUniqueId(), data, basePet);
 
-        // 3) Apply stats/effects to the player
+        // 2) Apply stats/effects to the player
         PetStatManager.applyPetBonuses(player, basePet);
 
-        // 4) Spawn the Wolf
+        // 3) Spawn the Wolf
         PetInstance instance = spawnPetEntity(player, basePet);
         playerEquippedPets.put(player.getUniqueId(), instance);
+        petsByEntity.put(instance.getPetEntity().getUniqueId(), instance);
 
-        // 5) Mark in PlayerData which pet is equipped
+        // 4) Mark in PlayerData which pet is equipped
         data.setEquippedPet(petId);
+        invalidateStats(player);
         PlayerDataCache.getInstance().savePlayerData(player.getUniqueId(), null);
 
         player.sendMessage(Utils.getInstance().$("You have equipped pet: " + basePet.getName()));
@@ -137,7 +164,7 @@ public class PetHelper implements Listener {
 
     /**
      * Unequip the player's current pet, removing stats/effects,
-     * then saving the final level/XP to file.
+     * then storing the final level/XP.
      */
     public void unequipPet(Player player) {
         PlayerData data = PlayerDataCache.getInstance().getCachedPlayerData(player.getUniqueId());
@@ -149,43 +176,45 @@ public class PetHelper implements Listener {
         // 1) Remove from our internal map
         PetInstance instance = playerEquippedPets.remove(player.getUniqueId());
         if (instance != null) {
+            petsByEntity.remove(instance.getPetEntity().getUniqueId());
             // remove model
             if (instance.getModeledEntity() != null) {
                 instance.getModeledEntity().destroy();
             }
-            // remove hologram
-            if (instance.getNameHologram() != null) {
-                instance.getNameHologram().remove();
-            }
+            // remove nameplate
+            nameplates.remove(instance.getPetEntity());
             // remove entity
             instance.getPetEntity().remove();
         }
 
-        // 2) Overwrite the file data with the final level/xp from the in-memory Pet
+        // 2) Progress was stored as XP was gained; the shared Pet may hold another player's by now
         Pet oldPet = petConfigurations.get(eqPetId);
         if (oldPet != null) {
-            // read file to ensure we don’t lose other pets’ data
-            var fileData = PetFileStorage.loadPlayerPets(player);
-            // update just eqPetId in that file
-            fileData.put(eqPetId, new PetFileStorage.PetProgress(oldPet.getLevel(), oldPet.getCurrentXp()));
-            // save back
-            PetFileStorage.savePlayerPets(player, fileData);
-
             // remove stats/effects
             PetStatManager.removePetBonuses(player, oldPet);
         }
 
         // 3) Clear from PlayerData
         data.setEquippedPet(null);
+        invalidateStats(player);
         PlayerDataCache.getInstance().savePlayerData(player.getUniqueId(), null);
 
         player.sendMessage(Utils.getInstance().$("You have unequipped your pet."));
     }
 
+    /**
+     * The equipped pet's stats are part of the player's cached stats.
+     */
+    private void invalidateStats(Player player) {
+        StatsModule statsModule = this.statsModule.get();
+        if (statsModule != null) {
+            statsModule.invalidateStats(player);
+        }
+    }
+
     /**
      * Add XP to the player's equipped pet.
-     * ALWAYS re-read from file first, apply the XP, then rewrite to file
-     * so we never trust the old in-memory data.
+     * The stored progress is applied first, since pet definitions are shared between players.
      */
     public void addPetXp(Player player, int amount) {
         if (amount <= 0) return;
@@ -199,31 +228,81 @@ public class PetHelper implements Listener {
         PetInstance inst = playerEquippedPets.get(player.getUniqueId());
         if (inst == null) return; // no Wolf? => do nothing
 
-        // 1) Re-read from file, to get the "true" current xp/level
-        var fileData = PetFileStorage.loadPlayerPets(player);
-
-        // 2) Overwrite the in-memory Pet with the file data
+        // 1) Overwrite the in-memory Pet with the stored progress
         Pet pet = inst.getPet();
-        PetFileStorage.PetProgress prior = fileData.get(eqPetId);
-        if (prior != null) {
-            pet.setLevel(prior.getLevel());
-            pet.setCurrentXp(prior.getXp());
-        }
-        // else if there's no prior entry, we keep the constructor's level=1 xp=0
+        loadProgress(player.getUniqueId(), data, pet);
 
         int oldLvl = pet.getLevel();
 
-        // 3) Actually add XP
+        // 2) Actually add XP
         pet.addXp(amount);
 
-        // 4) Save it back to file
-        fileData.put(eqPetId, new PetFileStorage.PetProgress(pet.getLevel(), pet.getCurrentXp()));
-        PetFileStorage.savePlayerPets(player, fileData);
+        // 3) Store it; written with the next PlayerData flush
+        storeProgress(player.getUniqueId(), data, pet);
+
+        // 4) If level changed => update overhead name
+        if (pet.getLevel() != oldLvl) {
+            nameplates.setName(inst.getPetEntity(), pet.getFancyName(player.getName()));
+        }
+    }
+
+    /**
+     * Copies the player's stored level/xp for the pet into it.
+     * A pet without stored progress keeps its current level/xp.
+     */
+    public void loadProgress(UUID playerId, PlayerData data, Pet pet) {
+        Map<String, Integer> stored = getPetProgress(playerId, data).get(pet.getId());
+        if (stored != null) {
+            pet.setLevel(stored.getOrDefault(LEVEL_KEY, 1));
+            pet.setCurrentXp(stored.getOrDefault(XP_KEY, 0));
+        }
+    }
+
+    private void storeProgress(UUID playerId, PlayerData data, Pet pet) {
+        Map<String, Integer> stored = getPetProgress(playerId, data)
+                .computeIfAbsent(pet.getId(), id -> new HashMap<>(4));
+        stored.put(LEVEL_KEY, pet.getLevel());
+        stored.put(XP_KEY, pet.getCurrentXp());
+        data.markFieldDirty("petProgress");
+        PlayerDataCache.getInstance().markDirty(playerId);
+    }
 
-        // 5) If level changed => update overhead hologram name
-        if (pet.getLevel() != oldLvl && inst.getNameHologram() != null) {
-            inst.getNameHologram().setCustomName(pet.getFancyName(player.getName()));
+    /**
+     * The player's pet progress. On first use in a session the player's old pet file,
+     * if any, is migrated into it; progress already in PlayerData wins. The file is only
+     * retired once the migrated progress has been saved, so a failed save migrates it again.
+     */
+    private Map<String, Map<String, Integer>> getPetProgress(UUID playerId, PlayerData data) {
+        Map<String, Map<String, Integer>> progress = data.getPetProgress();
+        if (progress == null) {
+            progress = new HashMap<>();
+            data.setPetProgress(progress);
         }
+        if (migratedPlayers.add(playerId)) {
+            Map<String, PetFileStorage.PetProgress> legacy = PetFileStorage.loadLegacyPets(playerId);
+            if (legacy != null) {
+                for (Map.Entry<String, PetFileStorage.PetProgress> entry : legacy.entrySet()) {
+                    Map<String, Integer> migrated = new HashMap<>(4);
+                    migrated.put(LEVEL_KEY, entry.getValue().getLevel());
+                    migrated.put(XP_KEY, entry.getValue().getXp());
+                    progress.putIfAbsent(entry.getKey(), migrated);
+                }
+                data.markFieldDirty("petProgress");
+                PlayerDataCache.getInstance().savePlayerData(playerId, new Callback<>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        PetFileStorage.markMigrated(playerId);
+                        DebugLogger.getInstance().log(Level.INFO, "Migrated " + legacy.size() + " pets of " + playerId + " from their pet file.", 0);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        DebugLogger.getInstance().error("Failed to save migrated pets of " + playerId + ", keeping their pet file", throwable);
+                    }
+                });
+            }
+        }
+        return progress;
     }
 
     /**
@@ -239,6 +318,7 @@ public class PetHelper implements Listener {
         wolf.setCollarColor(DyeColor.ORANGE);
         wolf.setInvulnerable(true);
         wolf.setCanPickupItems(false);
+        wolf.getPersistentDataContainer().set(petOwnerKey, PersistentDataType.STRING, owner.getUniqueId().toString());
 
         // If server version supports setCollidable(false):
         try {
@@ -264,25 +344,12 @@ public class PetHelper implements Listener {
         }
 
         // overhead name
-        ArmorStand holo = spawnNameHologram(pet.getFancyName(owner.getName()), wolf.getLocation(), 0.7);
-        instance.setNameHologram(holo);
+        double offsetY = pet.getId().equalsIgnoreCase("phoenix") ? 1.0 : 0.2;
+        nameplates.create(wolf, pet.getFancyName(owner.getName()), offsetY);
 
         return instance;
     }
 
-    private ArmorStand spawnNameHologram(String name, Location loc, double offsetY) {
-        return loc.getWorld().spawn(loc.clone().add(0, offsetY, 0), ArmorStand.class, a -> {
-            a.setCustomName(name);
-            a.setCustomNameVisible(true);
-            a.setMarker(true);
-            a.setInvisible(true);
-            a.setSmall(true);
-            a.setBasePlate(false);
-            a.setArms(false);
-            a.setGravity(false);
-        });
-    }
-
     /**
      * Example logic for "firetick" or "phoenixwill" effects.
      */
@@ -313,11 +380,8 @@ public class PetHelper implements Listener {
      */
     @EventHandler
     public void onPetDamage(EntityDamageEvent e) {
-        for (PetInstance pi : playerEquippedPets.values()) {
-            if (pi.getPetEntity().equals(e.getEntity())) {
-                e.setCancelled(true);
-                return;
-            }
+        if (getPetByEntity(e.getEntity()) != null) {
+            e.setCancelled(true);
         }
     }
 
@@ -326,15 +390,11 @@ public class PetHelper implements Listener {
      */
     @EventHandler
     public void onPetTarget(EntityTargetEvent e) {
-        if (!(e.getEntity() instanceof Wolf wolf)) return;
-        for (PetInstance pi : playerEquippedPets.values()) {
-            if (pi.getPetEntity().equals(wolf)) {
-                e.setCancelled(true);
-                wolf.setAngry(false);
-                wolf.setTarget(null);
-                break;
-            }
-        }
+        if (getPetByEntity(e.getEntity()) == null) return;
+        Wolf wolf = (Wolf) e.getEntity();
+        e.setCancelled(true);
+        wolf.setAngry(false);
+        wolf.setTarget(null);
     }
 
     /**
@@ -343,6 +403,8 @@ public class PetHelper implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         unequipPet(event.getPlayer());
+        migratedPlayers.remove(event.getPlayer().getUniqueId());
+        nameplates.forgetViewer(event.getPlayer().getUniqueId());
     }
 
     /**
@@ -353,29 +415,6 @@ public class PetHelper implements Listener {
         unequipPet(event.getEntity());
     }
 
-    /**
-     * Called every tick. We only reposition the overhead name if it exists.
-     * No custom AI (since all are normal Wolves).
-     */
-    private void updatePets() {
-        for (UUID playerId : playerEquippedPets.keySet()) {
-            Player p = Bukkit.getPlayer(playerId);
-            if (p == null || !p.isOnline()) continue;
-
-            PetInstance pi = playerEquippedPets.get(playerId);
-            if (pi == null) continue;
-
-            LivingEntity ent = pi.getPetEntity();
-            if (ent.isDead()) continue;
-
-            ArmorStand holo = pi.getNameHologram();
-            if (holo != null && !holo.isDead()) {
-                double offsetY = pi.getPet().getId().equalsIgnoreCase("phoenix") ? 1.5 : 0.7;
-                holo.teleport(ent.getLocation().clone().add(0, offsetY, 0));
-            }
-        }
-    }
-
     // Utility methods:
 
     public Pet getPetById(String petId) {
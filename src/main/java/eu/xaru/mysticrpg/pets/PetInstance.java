@@ -1,7 +1,6 @@
 package eu.xaru.mysticrpg.pets;
 
 import com.ticxo.modelengine.api.model.ModeledEntity;
-import org.bukkit.entity.ArmorStand;
 import org.bukkit.entity.LivingEntity;
 
 public class PetInstance {
@@ -10,7 +9,6 @@ public class PetInstance {
     private ModeledEntity modeledEntity;
     private String currentAnimation;
     private double animationPhase;
-    private ArmorStand nameHologram;
 
     public PetInstance(Pet pet, LivingEntity petEntity) {
         this.pet = pet;
@@ -48,12 +46,4 @@ public class PetInstance {
     public void setAnimationPhase(double animationPhase) {
         this.animationPhase = animationPhase;
     }
-
-    public ArmorStand getNameHologram() {
-        return nameHologram;
-    }
-
-    public void setNameHologram(ArmorStand nameHologram) {
-        this.nameHologram = nameHologram;
-    }
 }
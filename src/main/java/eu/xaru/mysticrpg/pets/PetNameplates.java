@@ -0,0 +1,220 @@
+package eu.xaru.mysticrpg.pets;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetPassengers;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pet nameplates made of client-side text displays that ride the pet.
+ *
+ * The displays only exist in packets: no server entity is spawned and nothing is teleported,
+ * since the client moves a passenger along with its vehicle. A nameplate is sent to a player
+ * right after the server sends them the pet itself and removed together with it, so it is only
+ * shown to players that can see the pet. Name changes send one metadata packet to those players.
+ * Passenger updates the server sends for the pet get the nameplate added, since they replace the
+ * whole passenger list on the client.
+ *
+ * Metadata indices are those of 1.20.2 and newer.
+ */
+public class PetNameplates extends PacketListenerAbstract {
+
+    // Display / text display metadata indices
+    private static final int TRANSLATION_INDEX = 11;
+    private static final int BILLBOARD_INDEX = 15;
+    private static final int TEXT_INDEX = 23;
+    private static final byte BILLBOARD_CENTER = 3;
+
+    private static final class Nameplate {
+        final int entityId = SpigotReflectionUtil.generateEntityId();
+        final UUID entityUuid = UUID.randomUUID();
+        final int vehicleId;
+        final float offsetY;
+        final Vector3d spawnPosition;
+        final Set<User> viewers = ConcurrentHashMap.newKeySet();
+        volatile String name;
+        // The pet's own passengers as last sent by the server
+        volatile int[] passengers = new int[0];
+
+        Nameplate(int vehicleId, float offsetY, Vector3d spawnPosition, String name) {
+            this.vehicleId = vehicleId;
+            this.offsetY = offsetY;
+            this.spawnPosition = spawnPosition;
+            this.name = name;
+        }
+    }
+
+    // By the entity id of the pet; read on netty threads
+    private final Map<Integer, Nameplate> nameplates = new ConcurrentHashMap<>();
+
+    public PetNameplates() {
+        // Not MONITOR: passenger packets are rewritten, and later listeners should see the result
+        super(PacketListenerPriority.NORMAL);
+    }
+
+    public void register() {
+        PacketEvents.getAPI().getEventManager().registerListener(this);
+    }
+
+    /**
+     * Removes every nameplate from its viewers and stops listening for packets.
+     */
+    public void unregister() {
+        PacketEvents.getAPI().getEventManager().unregisterListener(this);
+        for (Integer petId : List.copyOf(nameplates.keySet())) {
+            remove(petId);
+        }
+    }
+
+    /**
+     * Gives the pet a nameplate. It appears for players as soon as the pet is sent to them.
+     *
+     * @param offsetY How far above the pet's passenger seat the name is shown
+     */
+    public void create(Entity pet, String name, double offsetY) {
+        Location loc = pet.getLocation();
+        nameplates.put(pet.getEntityId(), new Nameplate(pet.getEntityId(), (float) offsetY,
+                new Vector3d(loc.getX(), loc.getY(), loc.getZ()), name));
+    }
+
+    /**
+     * Changes the pet's name; nothing is sent if it did not change.
+     */
+    public void setName(Entity pet, String name) {
+        Nameplate nameplate = nameplates.get(pet.getEntityId());
+        if (nameplate == null || name.equals(nameplate.name)) {
+            return;
+        }
+        nameplate.name = name;
+        WrapperPlayServerEntityMetadata metadata = new WrapperPlayServerEntityMetadata(nameplate.entityId,
+                List.of(new EntityData(TEXT_INDEX, EntityDataTypes.ADV_COMPONENT, toComponent(name))));
+        for (User viewer : nameplate.viewers) {
+            viewer.sendPacket(metadata);
+        }
+    }
+
+    public void remove(Entity pet) {
+        remove(pet.getEntityId());
+    }
+
+    private void remove(int petId) {
+        Nameplate nameplate = nameplates.remove(petId);
+        if (nameplate == null) {
+            return;
+        }
+        WrapperPlayServerDestroyEntities destroy = new WrapperPlayServerDestroyEntities(nameplate.entityId);
+        for (User viewer : nameplate.viewers) {
+            viewer.sendPacket(destroy);
+        }
+        nameplate.viewers.clear();
+    }
+
+    /**
+     * Forgets a player that left, so nameplates do not hold on to their connection.
+     */
+    public void forgetViewer(UUID playerId) {
+        for (Nameplate nameplate : nameplates.values()) {
+            nameplate.viewers.removeIf(user -> playerId.equals(user.getUUID()));
+        }
+    }
+
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (nameplates.isEmpty()) {
+            return;
+        }
+        if (event.getPacketType() == PacketType.Play.Server.SPAWN_ENTITY) {
+            Nameplate nameplate = nameplates.get(new WrapperPlayServerSpawnEntity(event).getEntityId());
+            if (nameplate != null) {
+                User user = event.getUser();
+                // The pet has to exist on the client before something can ride it
+                event.getTasksAfterSend().add(() -> show(nameplate, user));
+            }
+        } else if (event.getPacketType() == PacketType.Play.Server.SET_PASSENGERS) {
+            WrapperPlayServerSetPassengers packet = new WrapperPlayServerSetPassengers(event);
+            Nameplate nameplate = nameplates.get(packet.getEntityId());
+            if (nameplate == null) {
+                return;
+            }
+            int[] passengers = packet.getPassengers();
+            if (contains(passengers, nameplate.entityId)) {
+                // Sent by show()
+                return;
+            }
+            nameplate.passengers = passengers;
+            if (nameplate.viewers.contains(event.getUser())) {
+                packet.setPassengers(withNameplate(passengers, nameplate.entityId));
+                event.markForReEncode(true);
+            }
+        } else if (event.getPacketType() == PacketType.Play.Server.DESTROY_ENTITIES) {
+            for (int entityId : new WrapperPlayServerDestroyEntities(event).getEntityIds()) {
+                Nameplate nameplate = nameplates.get(entityId);
+                if (nameplate != null && nameplate.viewers.remove(event.getUser())) {
+                    event.getUser().sendPacket(new WrapperPlayServerDestroyEntities(nameplate.entityId));
+                }
+            }
+        }
+    }
+
+    private void show(Nameplate nameplate, User user) {
+        if (!nameplate.viewers.add(user)) {
+            return;
+        }
+        user.sendPacket(new WrapperPlayServerSpawnEntity(nameplate.entityId, Optional.of(nameplate.entityUuid),
+                EntityTypes.TEXT_DISPLAY, nameplate.spawnPosition, 0f, 0f, 0f, 0, Optional.empty()));
+        user.sendPacket(new WrapperPlayServerEntityMetadata(nameplate.entityId, List.of(
+                new EntityData(TRANSLATION_INDEX, EntityDataTypes.VECTOR3F, new Vector3f(0f, nameplate.offsetY, 0f)),
+                new EntityData(BILLBOARD_INDEX, EntityDataTypes.BYTE, BILLBOARD_CENTER),
+                new EntityData(TEXT_INDEX, EntityDataTypes.ADV_COMPONENT, toComponent(nameplate.name))
+        )));
+        user.sendPacket(new WrapperPlayServerSetPassengers(nameplate.vehicleId,
+                withNameplate(nameplate.passengers, nameplate.entityId)));
+        if (nameplates.get(nameplate.vehicleId) != nameplate && nameplate.viewers.remove(user)) {
+            // Removed while it was being shown
+            user.sendPacket(new WrapperPlayServerDestroyEntities(nameplate.entityId));
+        }
+    }
+
+    private static int[] withNameplate(int[] passengers, int nameplateId) {
+        int[] result = Arrays.copyOf(passengers, passengers.length + 1);
+        result[passengers.length] = nameplateId;
+        return result;
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int other : ids) {
+            if (other == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Component toComponent(String name) {
+        return LegacyComponentSerializer.legacySection().deserialize(name);
+    }
+}
@@ -58,6 +58,9 @@ public class PetsModule implements IBaseModule, Listener {
 
     @Override
     public void stop() {
+        if (petHelper != null) {
+            petHelper.shutdown();
+        }
     }
 
     @Override
@@ -112,16 +115,12 @@ public class PetsModule implements IBaseModule, Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
-        // This loads the pet's level/XP from file into memory,
-        // so if you do `equipPet(...)` or check data, it won't be reset to 1/0.
-        PetFileStorage.loadPlayerPets(player);
-
         // If you also want to re-equip automatically:
         PlayerData data = PlayerDataCache.getInstance().getCachedPlayerData(player.getUniqueId());
         if (data != null) {
             String equippedPetId = data.getEquippedPet();
             if (equippedPetId != null) {
-                // This will re-equip the same pet, restoring its level & XP from PetFileStorage
+                // This will re-equip the same pet, restoring its level & XP from PlayerData
                 petHelper.equipPet(player, equippedPetId);
                 player.sendMessage(Utils.getInstance().$("Re-equipped your pet: " + equippedPetId));
             }
@@ -1,15 +1,19 @@
 package eu.xaru.mysticrpg.player;
 
+import eu.xaru.mysticrpg.config.DynamicConfig;
 import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.economy.EconomyHelper;
 import eu.xaru.mysticrpg.economy.EconomyModule;
 import eu.xaru.mysticrpg.enums.EModulePriority;
 import eu.xaru.mysticrpg.interfaces.IBaseModule;
 import eu.xaru.mysticrpg.managers.EventManager;
+import eu.xaru.mysticrpg.managers.ModuleHandle;
 import eu.xaru.mysticrpg.managers.ModuleManager;
-import eu.xaru.mysticrpg.player.stats.PlayerStats;
+import eu.xaru.mysticrpg.player.metrics.CombatMetrics;
+import eu.xaru.mysticrpg.player.metrics.CombatMetricsCommand;
 import eu.xaru.mysticrpg.player.stats.PlayerStatsManager;
 import eu.xaru.mysticrpg.player.stats.StatCalculations;
+import eu.xaru.mysticrpg.player.stats.StatSnapshot;
 import eu.xaru.mysticrpg.player.stats.StatType;
 import eu.xaru.mysticrpg.player.stats.StatsModule;
 import eu.xaru.mysticrpg.player.stats.events.PlayerStatsChangedEvent;
@@ -18,15 +22,19 @@ import eu.xaru.mysticrpg.storage.PlayerDataCache;
 import eu.xaru.mysticrpg.storage.SaveModule;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
+import eu.xaru.mysticrpg.world.RegionFlag;
 import eu.xaru.mysticrpg.world.WorldModule;
 import eu.xaru.mysticrpg.pets.PetEffectTracker;
 import eu.xaru.mysticrpg.pets.PetHelper;
 import eu.xaru.mysticrpg.pets.PetInstance;
+import eu.xaru.mysticrpg.pets.PetsModule;
 import org.bukkit.*;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
@@ -46,6 +54,11 @@ public class CustomDamageHandler implements IBaseModule {
     private JavaPlugin plugin;
     private StatsModule statsModule;
 
+    // Looked up per hit, death and regen tick, so resolved through cached handles
+    private final ModuleHandle<WorldModule> worldModule = ModuleManager.getInstance().handle(WorldModule.class);
+    private final ModuleHandle<EconomyModule> economyModule = ModuleManager.getInstance().handle(EconomyModule.class);
+    private final ModuleHandle<PetsModule> petsModule = ModuleManager.getInstance().handle(PetsModule.class);
+
     // PhoenixWill tracking (already existed)
     private final Set<UUID> phoenixUsed = new HashSet<>();
     private final Map<UUID, Long> phoenixImmortalUntil = new HashMap<>();
@@ -53,6 +66,17 @@ public class CustomDamageHandler implements IBaseModule {
     // New: Attack cooldown tracking
     private final Map<UUID, Long> lastAttackTime = new HashMap<>();
 
+    // Regen runs per player once per second, base regen only 5s after the last damage
+    private static final int REGEN_INTERVAL_TICKS = 20;
+    private static final long REGEN_DAMAGE_DELAY_MS = 5000L;
+
+    private final HealthRegenScheduler regenScheduler = new HealthRegenScheduler(this::regenerateHealth);
+
+    // Players whose HP changed this tick; one PlayerStatsChangedEvent each at the end of the tick
+    private final Set<UUID> pendingStatsChanged = new LinkedHashSet<>();
+
+    private final CombatMetrics metrics = CombatMetrics.getInstance();
+
     @Override
     public void initialize() {
         SaveModule saveModule = ModuleManager.getInstance().getModuleInstance(SaveModule.class);
@@ -78,58 +102,82 @@ public class CustomDamageHandler implements IBaseModule {
 
         this.statsManager = statsModule.getStatsManager();
 
+        DynamicConfig config = MysticCore.getInstance().getMysticConfig();
+        metrics.setEnabled(config.getBoolean("metrics.combat.enabled", false));
+        metrics.startSnapshots(plugin,
+                config.getInt("metrics.combat.snapshotIntervalSeconds", 60),
+                config.getString("metrics.combat.snapshotFormat", "json"));
+        CombatMetricsCommand.register();
+
         // DebugLogger.getInstance().log(Level.INFO, "CustomDamageHandler initialized", 0);
     }
 
     @Override
     public void start() {
+        // Resolve now so the first hit does not pay for the lookup
+        worldModule.get();
+        economyModule.get();
+        petsModule.get();
 
         // 1) Handle direct attacks
         eventManager.registerEvent(EntityDamageByEntityEvent.class, event -> {
-            if (event.isCancelled()) return;
+            long eventStart = metrics.start();
+            try {
+                if (event.isCancelled()) return;
+
+                Entity victim = event.getEntity();
+                Entity damager = event.getDamager();
+
+                // If the damager is a Player, enforce custom cooldown
+                if (damager instanceof Player attacker) {
+                    // If the victim is a Player, optionally check region for PvP
+                    if (victim instanceof Player victimPlayer) {
+                        long regionStart = metrics.start();
+                        WorldModule wm = worldModule.get();
+                        boolean pvpAllowed = wm == null || wm.getWorldManager().isAllowed(RegionFlag.PVP, victim.getLocation());
+                        metrics.stop(CombatMetrics.Stage.PVP_REGION_CHECK, regionStart);
+                        if (!pvpAllowed) {
+                            metrics.increment(CombatMetrics.Counter.PVP_DENIED);
+                            event.setCancelled(true);
+                            return;
+                        }
+                    }
 
-            Entity victim = event.getEntity();
-            Entity damager = event.getDamager();
+                    long now = System.currentTimeMillis();
+                    long lastTime = lastAttackTime.getOrDefault(attacker.getUniqueId(), 0L);
+                    // 500ms cooldown (adjust as needed)
+                    if (now - lastTime < 500) {
+                        // Cancel event if attacking too quickly
+                        metrics.increment(CombatMetrics.Counter.ATTACK_COOLDOWN_CANCELLED);
+                        event.setCancelled(true);
+                        return;
+                    }
+                    // Update attacker’s last hit time
+                    lastAttackTime.put(attacker.getUniqueId(), now);
+                }
 
-            // If the damager is a Player, enforce custom cooldown
-            if (damager instanceof Player attacker) {
-                // If the victim is a Player, optionally check region for PvP
+                // If the victim is a Player, use our custom HP system; if not, let vanilla handle
                 if (victim instanceof Player victimPlayer) {
-                    WorldModule wm = ModuleManager.getInstance().getModuleInstance(WorldModule.class);
-                    if (wm != null && !wm.getWorldManager().isAllowed("pvp", victim.getLocation())) {
+                    // If PhoenixWill is active => skip damage
+                    if (isPhoenixImmortal(victimPlayer)) {
                         event.setCancelled(true);
                         return;
                     }
-                }
 
-                long now = System.currentTimeMillis();
-                long lastTime = lastAttackTime.getOrDefault(attacker.getUniqueId(), 0L);
-                // 500ms cooldown (adjust as needed)
-                if (now - lastTime < 500) {
-                    // Cancel event if attacking too quickly
-                    event.setCancelled(true);
-                    return;
-                }
-                // Update attacker’s last hit time
-                lastAttackTime.put(attacker.getUniqueId(), now);
-            }
+                    metrics.increment(CombatMetrics.Counter.PLAYER_HITS);
+                    double rawDamage = event.getFinalDamage();
+                    long calcStart = metrics.start();
+                    double finalDamage = calculateDamage(damager, victimPlayer, rawDamage);
+                    metrics.stop(CombatMetrics.Stage.DAMAGE_CALCULATION, calcStart);
 
-            // If the victim is a Player, use our custom HP system; if not, let vanilla handle
-            if (victim instanceof Player victimPlayer) {
-                // If PhoenixWill is active => skip damage
-                if (isPhoenixImmortal(victimPlayer)) {
+                    // Apply the damage to our custom HP system, cancel normal damage
+                    applyDamageAndEffects(victimPlayer, finalDamage, damager);
                     event.setCancelled(true);
-                    return;
                 }
-
-                double rawDamage = event.getFinalDamage();
-                double finalDamage = calculateDamage(damager, victimPlayer, rawDamage);
-
-                // Apply the damage to our custom HP system, cancel normal damage
-                applyDamageAndEffects(victimPlayer, finalDamage, damager);
-                event.setCancelled(true);
+                // else do nothing: non-player mobs take normal MC damage
+            } finally {
+                metrics.stop(CombatMetrics.Stage.DAMAGE_EVENT, eventStart);
             }
-            // else do nothing: non-player mobs take normal MC damage
         });
 
         // 2) Handle environment damage (fall, lava, etc.)
@@ -148,25 +196,49 @@ public class CustomDamageHandler implements IBaseModule {
             EntityDamageEvent.DamageCause cause = event.getCause();
             switch (cause) {
                 case FALL, FIRE, FIRE_TICK, LAVA, DROWNING, SUFFOCATION, VOID, LIGHTNING, HOT_FLOOR -> {
+                    long envStart = metrics.start();
                     double finalDamage = event.getFinalDamage();
                     applyDamageAndEffects(victim, finalDamage, null);
+                    metrics.stop(CombatMetrics.Stage.ENVIRONMENT_DAMAGE, envStart);
                     event.setCancelled(true);
                 }
                 default -> event.setCancelled(true);
             }
         });
 
-        // Health regeneration loop, runs every second
+        // 3) Keep the regen wheel in sync with players whose HP or max HP may have changed
+        eventManager.registerEvent(PlayerJoinEvent.class, event ->
+                regenScheduler.schedule(event.getPlayer().getUniqueId(), REGEN_INTERVAL_TICKS));
+        eventManager.registerEvent(PlayerQuitEvent.class, event -> {
+            UUID uuid = event.getPlayer().getUniqueId();
+            regenScheduler.remove(uuid);
+            pendingStatsChanged.remove(uuid);
+            lastDamageTime.remove(uuid);
+            lastAttackTime.remove(uuid);
+        });
+        if (statsModule != null) {
+            statsModule.getStatCache().addInvalidationListener(uuid ->
+                    regenScheduler.schedule(uuid, REGEN_INTERVAL_TICKS));
+        }
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            regenScheduler.schedule(online.getUniqueId(), REGEN_INTERVAL_TICKS);
+        }
+
+        // Health regeneration wheel and coalesced stat notifications, every tick
         new BukkitRunnable() {
             @Override
             public void run() {
-                regenerateHealth();
+                long regenStart = metrics.start();
+                regenScheduler.tick();
+                metrics.stop(CombatMetrics.Stage.REGEN_TICK, regenStart);
+                flushStatsChanged();
             }
-        }.runTaskTimer(plugin, 20, 20);
+        }.runTaskTimer(plugin, 1, 1);
     }
 
     @Override
     public void stop() {
+        metrics.stopSnapshots();
     }
 
     @Override
@@ -203,20 +275,18 @@ public class CustomDamageHandler implements IBaseModule {
      * Calculate final damage factoring in stats (strength, crit, defense, etc.).
      */
     private double calculateDamage(Entity damager, Player victim, double baseDamage) {
-        PlayerStats victimStats = statsModule.recalculatePlayerStatsFor(victim);
-
         double finalDamage = baseDamage;
         if (damager instanceof Player attacker) {
-            PlayerStats attackerStats = statsModule.recalculatePlayerStatsFor(attacker);
-            double strength = attackerStats.getEffectiveStat(StatType.STRENGTH);
-            double critChance = attackerStats.getEffectiveStat(StatType.CRIT_CHANCE);
-            double critDamage = attackerStats.getEffectiveStat(StatType.CRIT_DAMAGE);
+            StatSnapshot attackerStats = statsModule.getCachedStats(attacker);
+            double strength = attackerStats.get(StatType.STRENGTH);
+            double critChance = attackerStats.get(StatType.CRIT_CHANCE);
+            double critDamage = attackerStats.get(StatType.CRIT_DAMAGE);
 
             finalDamage = StatCalculations.calculatePhysicalDamage(finalDamage, strength);
             finalDamage = StatCalculations.calculateCritDamage(finalDamage, critChance, critDamage);
         }
 
-        double defense = victimStats.getEffectiveStat(StatType.DEFENSE);
+        double defense = statsModule.getCachedStats(victim).get(StatType.DEFENSE);
         finalDamage = StatCalculations.calculateDamageTaken(finalDamage, defense);
 
         return finalDamage;
@@ -226,6 +296,15 @@ public class CustomDamageHandler implements IBaseModule {
      * Applies damage to the player's custom HP, and checks for PhoenixWill logic.
      */
     private void applyDamageAndEffects(Player victim, double damage, Entity damager) {
+        long applyStart = metrics.start();
+        try {
+            applyDamage(victim, damage, damager);
+        } finally {
+            metrics.stop(CombatMetrics.Stage.APPLY_DAMAGE, applyStart);
+        }
+    }
+
+    private void applyDamage(Player victim, double damage, Entity damager) {
         UUID victimUUID = victim.getUniqueId();
         PlayerData victimData = playerDataCache.getCachedPlayerData(victimUUID);
         if (victimData == null) {
@@ -233,8 +312,7 @@ public class CustomDamageHandler implements IBaseModule {
             return;
         }
 
-        PlayerStats victimStats = statsModule.recalculatePlayerStatsFor(victim);
-        int maxHp = (int) victimStats.getEffectiveStat(StatType.HEALTH);
+        int maxHp = (int) statsModule.getCachedStats(victim).get(StatType.HEALTH);
 
         int currentHp = victimData.getCurrentHp();
         int dealtDamage = (int) Math.round(damage);
@@ -243,28 +321,39 @@ public class CustomDamageHandler implements IBaseModule {
         if (newHp > maxHp) newHp = maxHp;
 
         // PhoenixWill check: if lethal and not used yet => set HP=1 & 2s immortality.
+        long petStart = metrics.start();
         boolean hasPhoenix = PetEffectTracker.hasEffect(victim, "phoenixwill");
         boolean usedAlready = phoenixUsed.contains(victimUUID);
+        metrics.stop(CombatMetrics.Stage.PET_EFFECTS, petStart);
 
         if (hasPhoenix && !usedAlready && newHp <= 0) {
             newHp = 1;
             phoenixImmortalUntil.put(victimUUID, System.currentTimeMillis() + 2000L); // 2s from now
             phoenixUsed.add(victimUUID);
+            metrics.increment(CombatMetrics.Counter.PHOENIX_SAVES);
             victim.sendMessage(ChatColor.GOLD + "[Phoenix Will] You survived a lethal blow! 2s invincibility.");
         }
 
         victimData.setCurrentHp(newHp);
 
-        DebugLogger.getInstance().log("Player " + victim.getName() + " took " + damage + " damage. Current HP: " + newHp);
+        long logStart = metrics.start();
+        int hpAfterDamage = newHp;
+        DebugLogger.getInstance().debug("combat", () ->
+                "Player " + victim.getName() + " took " + damage + " damage. Current HP: " + hpAfterDamage);
+        metrics.stop(CombatMetrics.Stage.DEBUG_LOG, logStart);
 
         if (newHp <= 0) {
+            metrics.increment(CombatMetrics.Counter.DEATHS);
             handleDeath(victim);
         } else {
+            long hurtStart = metrics.start();
             triggerHurtEffects(victim, damager);
+            metrics.stop(CombatMetrics.Stage.HURT_EFFECTS, hurtStart);
         }
 
         lastDamageTime.put(victimUUID, System.currentTimeMillis());
-        Bukkit.getPluginManager().callEvent(new PlayerStatsChangedEvent(victim));
+        regenScheduler.schedule(victimUUID, REGEN_INTERVAL_TICKS);
+        markStatsChanged(victim);
     }
 
     /**
@@ -278,19 +367,18 @@ public class CustomDamageHandler implements IBaseModule {
         PlayerData data = playerDataCache.getCachedPlayerData(player.getUniqueId());
         if (data == null) return;
 
-        PlayerStats stats = statsModule.recalculatePlayerStatsFor(player);
-        int maxHp = (int) stats.getEffectiveStat(StatType.HEALTH);
+        int maxHp = (int) statsModule.getCachedStats(player).get(StatType.HEALTH);
 
         // Teleport to spawn, e.g.
         Location spawnLocation = player.getWorld().getSpawnLocation();
         player.teleport(spawnLocation);
         player.sendMessage(Utils.getInstance().$("You Died"));
-        DebugLogger.getInstance().log("Player " + player.getName() + " died and was teleported to spawn.");
+        DebugLogger.getInstance().debug("combat", () -> "Player " + player.getName() + " died and was teleported to spawn.");
 
         data.setCurrentHp(maxHp);
 
         // 50% gold penalty on death.
-        EconomyModule econModule = ModuleManager.getInstance().getModuleInstance(EconomyModule.class);
+        EconomyModule econModule = economyModule.get();
         if (econModule != null) {
             EconomyHelper economyHelper = econModule.getEconomyHelper();
             int held = economyHelper.getHeldGold(player);
@@ -301,7 +389,32 @@ public class CustomDamageHandler implements IBaseModule {
             }
         }
 
-        Bukkit.getPluginManager().callEvent(new PlayerStatsChangedEvent(player));
+        markStatsChanged(player);
+    }
+
+    /**
+     * Queues a PlayerStatsChangedEvent for the end of the tick; several HP changes in one tick
+     * (multi-hits, regen and damage together) result in a single event.
+     */
+    private void markStatsChanged(Player player) {
+        pendingStatsChanged.add(player.getUniqueId());
+    }
+
+    private void flushStatsChanged() {
+        if (pendingStatsChanged.isEmpty()) {
+            return;
+        }
+        List<UUID> changed = new ArrayList<>(pendingStatsChanged);
+        pendingStatsChanged.clear();
+        for (UUID uuid : changed) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                long dispatchStart = metrics.start();
+                Bukkit.getPluginManager().callEvent(new PlayerStatsChangedEvent(player));
+                metrics.stop(CombatMetrics.Stage.STATS_CHANGED_DISPATCH, dispatchStart);
+                metrics.increment(CombatMetrics.Counter.STATS_CHANGED_EVENTS);
+            }
+        }
     }
 
     /**
@@ -320,60 +433,75 @@ public class CustomDamageHandler implements IBaseModule {
     }
 
     /**
-     * Periodic HP regeneration. Also includes immediate ShamanBlessing logic.
+     * HP regeneration of one player, run by the regen wheel once per second while they are below max HP.
+     * Also includes immediate ShamanBlessing logic.
      * If "shamanblessing" is present, the player regenerates 2/3/5 HP each second
      * (depending on pet level) regardless of last damage time, stacking with normal regen.
+     *
+     * @return Ticks until the next regen, or 0 if the player is at full HP (or gone) and leaves the wheel.
      */
-    private void regenerateHealth() {
-        Set<UUID> playerUUIDs = playerDataCache.getAllCachedPlayerUUIDs();
-        for (UUID pid : playerUUIDs) {
-            PlayerData pData = playerDataCache.getCachedPlayerData(pid);
-            if (pData == null) continue;
+    private int regenerateHealth(UUID pid) {
+        metrics.increment(CombatMetrics.Counter.REGEN_RUNS);
+        Player player = Bukkit.getPlayer(pid);
+        if (player == null || !player.isOnline()) return 0;
 
-            Player player = Bukkit.getPlayer(pid);
-            if (player == null || !player.isOnline()) continue;
+        PlayerData pData = playerDataCache.getCachedPlayerData(pid);
+        if (pData == null) return REGEN_INTERVAL_TICKS; // still loading
 
-            PlayerStats stats = statsModule.recalculatePlayerStatsFor(player);
-            int maxHp = (int) stats.getEffectiveStat(StatType.HEALTH);
+        StatSnapshot stats = statsModule.getCachedStats(player);
+        int maxHp = (int) stats.get(StatType.HEALTH);
 
-            int currentHp = pData.getCurrentHp();
+        int currentHp = pData.getCurrentHp();
+        if (currentHp >= maxHp) {
             if (currentHp > maxHp) {
-                currentHp = maxHp;
-                pData.setCurrentHp(currentHp);
+                pData.setCurrentHp(maxHp);
+                markStatsChanged(player);
             }
+            return 0;
+        }
 
-            // 1) ShamanBlessing immediate HP each second (bypass 5s wait)
-            if (PetEffectTracker.hasEffect(player, "shamanblessing")) {
-                // We'll find the level of the shaman pet, so we know how much to heal.
-                int shamanLevel = getEquippedPetLevel(player, "shaman");
-                if (shamanLevel > 0 && currentHp < maxHp) {
-                    int bonusHeal = 2;
-                    if (shamanLevel >= 10) bonusHeal = 5;
-                    else if (shamanLevel >= 5) bonusHeal = 3;
-
-                    currentHp += bonusHeal;
-                    if (currentHp > maxHp) currentHp = maxHp;
-                    pData.setCurrentHp(currentHp);
-
-                    DebugLogger.getInstance().log("ShamanBlessing healed " + bonusHeal + " HP for " + player.getName() + ". HP: " + currentHp);
-                    Bukkit.getPluginManager().callEvent(new PlayerStatsChangedEvent(player));
-                }
-            }
+        // 1) ShamanBlessing immediate HP each second (bypass 5s wait)
+        boolean shamanBlessing = PetEffectTracker.hasEffect(player, "shamanblessing");
+        if (shamanBlessing) {
+            // We'll find the level of the shaman pet, so we know how much to heal.
+            int shamanLevel = getEquippedPetLevel(player, "shaman");
+            if (shamanLevel > 0) {
+                int bonusHeal = 2;
+                if (shamanLevel >= 10) bonusHeal = 5;
+                else if (shamanLevel >= 5) bonusHeal = 3;
+
+                currentHp += bonusHeal;
+                if (currentHp > maxHp) currentHp = maxHp;
+                pData.setCurrentHp(currentHp);
 
-            // 2) Then do normal base regen if 5s passed since last damage.
-            if (currentHp < maxHp) {
-                long lastDmgTime = lastDamageTime.getOrDefault(pid, 0L);
-                if (System.currentTimeMillis() - lastDmgTime >= 5000) {
-                    double regen = stats.getEffectiveStat(StatType.HEALTH_REGEN);
-                    int newHp = currentHp + (int) Math.round(regen);
-                    if (newHp > maxHp) newHp = maxHp;
-                    pData.setCurrentHp(newHp);
-
-                    DebugLogger.getInstance().log("Regenerated " + regen + " HP for player " + player.getName() + ". HP: " + newHp);
-                    Bukkit.getPluginManager().callEvent(new PlayerStatsChangedEvent(player));
-                }
+                int healed = bonusHeal;
+                int hpAfterHeal = currentHp;
+                DebugLogger.getInstance().debug("combat", () ->
+                        "ShamanBlessing healed " + healed + " HP for " + player.getName() + ". HP: " + hpAfterHeal);
+                markStatsChanged(player);
             }
         }
+
+        // 2) Then do normal base regen if 5s passed since last damage.
+        long sinceDamage = System.currentTimeMillis() - lastDamageTime.getOrDefault(pid, 0L);
+        if (currentHp < maxHp && sinceDamage >= REGEN_DAMAGE_DELAY_MS) {
+            double regen = stats.get(StatType.HEALTH_REGEN);
+            currentHp += (int) Math.round(regen);
+            if (currentHp > maxHp) currentHp = maxHp;
+            pData.setCurrentHp(currentHp);
+
+            int hpAfterRegen = currentHp;
+            DebugLogger.getInstance().debug("combat", () ->
+                    "Regenerated " + regen + " HP for player " + player.getName() + ". HP: " + hpAfterRegen);
+            markStatsChanged(player);
+        }
+
+        if (currentHp >= maxHp) return 0;
+        if (shamanBlessing || sinceDamage >= REGEN_DAMAGE_DELAY_MS) return REGEN_INTERVAL_TICKS;
+
+        // Sleep until base regen is allowed again, but keep the once-per-second rhythm
+        long waitMs = REGEN_DAMAGE_DELAY_MS - sinceDamage;
+        return Math.max(REGEN_INTERVAL_TICKS, (int) ((waitMs + 49) / 50));
     }
 
     /**
@@ -381,9 +509,9 @@ public class CustomDamageHandler implements IBaseModule {
      */
     private int getEquippedPetLevel(Player player, String petId) {
         // Access PetHelper to find the actual PetInstance, if any.
-        eu.xaru.mysticrpg.pets.PetsModule petsModule = ModuleManager.getInstance().getModuleInstance(eu.xaru.mysticrpg.pets.PetsModule.class);
-        if (petsModule == null) return 0;
-        PetHelper helper = petsModule.getPetHelper();
+        PetsModule pets = petsModule.get();
+        if (pets == null) return 0;
+        PetHelper helper = pets.getPetHelper();
 
         // Check if the player has that pet equipped.
         PlayerData data = playerDataCache.getCachedPlayerData(player.getUniqueId());
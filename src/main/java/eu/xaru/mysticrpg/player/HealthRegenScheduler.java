@@ -0,0 +1,87 @@
+package eu.xaru.mysticrpg.player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+/**
+ * Timing wheel of the players that need HP regeneration.
+ *
+ * Only players below max HP are in the wheel, each in the slot of the tick their next regen is
+ * due, so a player at full HP costs nothing per tick. The regen action returns the delay until
+ * the player's next regen, or 0 to drop them once healed (or offline). Main thread only.
+ */
+class HealthRegenScheduler {
+
+    /**
+     * Slot count, a power of two larger than any delay the regen action may return.
+     */
+    static final int WHEEL_SIZE = 128;
+
+    private final ToIntFunction<UUID> regenAction;
+    private final List<Set<UUID>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final Map<UUID, Long> dueTicks = new HashMap<>();
+    private long currentTick;
+
+    HealthRegenScheduler(ToIntFunction<UUID> regenAction) {
+        this.regenAction = regenAction;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Schedules a check for the player after the given delay, unless one is already pending.
+     */
+    void schedule(UUID uuid, int delayTicks) {
+        if (!dueTicks.containsKey(uuid)) {
+            place(uuid, delayTicks);
+        }
+    }
+
+    void remove(UUID uuid) {
+        Long due = dueTicks.remove(uuid);
+        if (due != null) {
+            slot(due).remove(uuid);
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the regen action for every player due now.
+     */
+    void tick() {
+        currentTick++;
+        Set<UUID> slot = slot(currentTick);
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<UUID> due = new ArrayList<>(slot);
+        slot.clear();
+        for (UUID uuid : due) {
+            dueTicks.remove(uuid);
+            int next = regenAction.applyAsInt(uuid);
+            if (next > 0) {
+                place(uuid, next);
+            }
+        }
+    }
+
+    int size() {
+        return dueTicks.size();
+    }
+
+    private void place(UUID uuid, int delayTicks) {
+        long due = currentTick + Math.max(1, Math.min(delayTicks, WHEEL_SIZE - 1));
+        dueTicks.put(uuid, due);
+        slot(due).add(uuid);
+    }
+
+    private Set<UUID> slot(long tick) {
+        return wheel.get((int) (tick & (WHEEL_SIZE - 1)));
+    }
+}
@@ -13,7 +13,6 @@ import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
@@ -33,12 +32,21 @@ public class LeaderBoardsHelper {
 
     private DiscordUpdateHandler discordUpdateHandler;
 
+    private final LeaderboardIndex leaderboardIndex;
+    /**
+     * The snapshot each leaderboard type's holograms currently show.
+     */
+    private final Map<LeaderboardType, List<LeaderboardIndex.Entry>> shownTop = new EnumMap<>(LeaderboardType.class);
+    private BukkitTask refreshTask;
+
     public LeaderBoardsHelper(DatabaseManager databaseManager) {
         if (databaseManager == null) {
             throw new IllegalArgumentException("DatabaseManager cannot be null.");
         }
 
         this.databaseManager = databaseManager;
+        this.leaderboardIndex = new LeaderboardIndex(databaseManager.getPlayerRepository(),
+                MysticCore.getInstance().getMysticConfig().getInt("leaderboards.size", 10));
 
         File leaderboardsFolder = new File(MysticCore.getInstance().getDataFolder(), "leaderboards");
         if (!leaderboardsFolder.exists()) {
@@ -66,50 +74,79 @@ public class LeaderBoardsHelper {
         this.discordUpdateHandler = handler;
     }
 
-    public void getTopLevelPlayers(int limit, Callback<List<PlayerData>> callback) {
-        databaseManager.getPlayerRepository().loadAll(new Callback<List<PlayerData>>() {
+    /**
+     * Starts following score changes and refreshing the holograms. All holograms share one
+     * snapshot per leaderboard type and are only redrawn when the ranking changed.
+     */
+    public void start() {
+        leaderboardIndex.start();
+        long interval = Math.max(20L, MysticCore.getInstance().getMysticConfig()
+                .getInt("leaderboards.refreshIntervalTicks", 100));
+        refreshTask = Bukkit.getScheduler().runTaskTimer(MysticCore.getInstance(), this::refreshHolograms, interval, interval);
+    }
+
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        leaderboardIndex.stop();
+    }
+
+    public LeaderboardIndex getLeaderboardIndex() {
+        return leaderboardIndex;
+    }
+
+    /**
+     * Gets the best players of a leaderboard, highest first. Served from the in-memory index
+     * when it is ready and holds enough places, otherwise with a sorted query.
+     */
+    public void getTopPlayers(LeaderboardType type, int limit, Callback<List<LeaderboardIndex.Entry>> callback) {
+        if (limit <= leaderboardIndex.getSize() && leaderboardIndex.isReady(type)) {
+            List<LeaderboardIndex.Entry> top = leaderboardIndex.getTop(type);
+            callback.onSuccess(top.size() > limit ? top.subList(0, limit) : top);
+            return;
+        }
+        databaseManager.getPlayerRepository().loadTop(type.getField(), limit, new Callback<List<PlayerData>>() {
             @Override
-            public void onSuccess(List<PlayerData> allPlayers) {
-                if (allPlayers.isEmpty()) {
-                    callback.onSuccess(List.of());
-                    return;
-                }
-                List<PlayerData> sortedPlayers = allPlayers.stream()
-                        .sorted(Comparator.comparingInt(PlayerData::getLevel).reversed())
+            public void onSuccess(List<PlayerData> loaded) {
+                List<LeaderboardIndex.Entry> top = loaded.stream()
+                        .filter(pd -> pd.getUuid() != null)
+                        .map(pd -> new LeaderboardIndex.Entry(UUID.fromString(pd.getUuid()), type.scoreOf(pd)))
+                        .sorted(Comparator.comparingInt(LeaderboardIndex.Entry::score).reversed())
                         .limit(limit)
                         .collect(Collectors.toList());
-                callback.onSuccess(sortedPlayers);
+                callback.onSuccess(top);
             }
 
             @Override
             public void onFailure(Throwable throwable) {
-                DebugLogger.getInstance().error("Failed to load players for level leaderboards: ", throwable);
+                DebugLogger.getInstance().error("Failed to load players for " + type + " leaderboards: ", throwable);
                 callback.onFailure(throwable);
             }
         });
     }
 
-    public void getTopRichPlayers(int limit, Callback<List<PlayerData>> callback) {
-        databaseManager.getPlayerRepository().loadAll(new Callback<List<PlayerData>>() {
-            @Override
-            public void onSuccess(List<PlayerData> allPlayers) {
-                if (allPlayers.isEmpty()) {
-                    callback.onSuccess(List.of());
-                    return;
+    private void refreshHolograms() {
+        for (LeaderboardType type : LeaderboardType.values()) {
+            if (!leaderboardIndex.isReady(type)) {
+                continue;
+            }
+            List<LeaderboardIndex.Entry> top = leaderboardIndex.getTop(type);
+            if (top == shownTop.get(type)) {
+                continue;
+            }
+            shownTop.put(type, top);
+            for (HologramData data : holograms.values()) {
+                if (data.type == type) {
+                    updateHologramContent(data.id, data.hologram, type, top);
                 }
-                List<PlayerData> sortedPlayers = allPlayers.stream()
-                        .sorted((p1, p2) -> Integer.compare(p2.getBankGold(), p1.getBankGold()))
-                        .limit(limit)
-                        .collect(Collectors.toList());
-                callback.onSuccess(sortedPlayers);
             }
-
-            @Override
-            public void onFailure(Throwable throwable) {
-                DebugLogger.getInstance().error("Failed to load players for rich leaderboards: ", throwable);
-                callback.onFailure(throwable);
+            // Update Discord embed if available
+            if (discordUpdateHandler != null) {
+                discordUpdateHandler.updateDiscordEmbed(type, top);
             }
-        });
+        }
     }
 
     public void spawnHologram(String id, Location location, LeaderboardType type, boolean applyOffset) {
@@ -130,16 +167,11 @@ public class LeaderBoardsHelper {
         }
 
         initializeHologramLines(id, hologram);
-        updateHologramContent(id, hologram, type);
-
-        BukkitTask updateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                updateHologramContent(id, hologram, type);
-            }
-        }.runTaskTimer(MysticCore.getInstance(), 600L, 600L);
+        if (leaderboardIndex.isReady(type)) {
+            updateHologramContent(id, hologram, type, leaderboardIndex.getTop(type));
+        }
 
-        HologramData hologramData = new HologramData(id, hologram, updateTask, type, spawnLocation);
+        HologramData hologramData = new HologramData(id, hologram, type, spawnLocation);
         holograms.put(id, hologramData);
         DebugLogger.getInstance().log(Level.INFO, "Hologram spawned with ID: " + id + " at " + spawnLocation, 0);
 
@@ -154,7 +186,6 @@ public class LeaderBoardsHelper {
             throw new IllegalArgumentException("No hologram found with ID: " + id);
         }
 
-        hologramData.cancelUpdateTask();
         DHAPI.removeHologram(id);
         holograms.remove(id);
 
@@ -182,71 +213,40 @@ public class LeaderBoardsHelper {
         DebugLogger.getInstance().log(Level.INFO, "Initialized hologram '" + id + "' with 7 lines.", 0);
     }
 
-    private void updateHologramContent(String id, Hologram hologram, LeaderboardType type) {
-        Callback<List<PlayerData>> callback = new Callback<List<PlayerData>>() {
-            @Override
-            public void onSuccess(List<PlayerData> topPlayers) {
-                try {
-                    String title = (type == LeaderboardType.LEVEL) ? "=== Top Level ===" : "=== Top Rich ===";
-                    DHAPI.setHologramLine(hologram, 0, ChatColor.GREEN + title);
-                    DHAPI.setHologramLine(hologram, 6, ChatColor.GREEN + "==================");
-                } catch (IllegalArgumentException e) {
-                    DebugLogger.getInstance().error("Failed to set static lines for hologram '" + id + "':", e);
-                }
-
-                for (int i = 0; i < 5; i++) {
-                    if (i < topPlayers.size()) {
-                        PlayerData pd = topPlayers.get(i);
-                        UUID playerUUID = UUID.fromString(pd.getUuid());
-                        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerUUID);
-                        String playerName = (offlinePlayer.hasPlayedBefore() && offlinePlayer.getName() != null) ? offlinePlayer.getName() : "Unknown";
-
-                        String lineContent;
-                        if (type == LeaderboardType.LEVEL) {
-                            lineContent = ChatColor.YELLOW + "#" + (i + 1) + ": " + playerName + " - Level " + pd.getLevel();
-                        } else {
-                            lineContent = ChatColor.YELLOW + "#" + (i + 1) + ": " + playerName + " - Gold " + pd.getBankGold();
-                        }
-
-                        try {
-                            DHAPI.setHologramLine(hologram, i + 1, lineContent);
-                        } catch (IllegalArgumentException e) {
-                            DebugLogger.getInstance().error("Failed to set hologram line " + (i + 1) + " for hologram '" + id + "':", e);
-                        }
-                    } else {
-                        try {
-                            DHAPI.setHologramLine(hologram, i + 1, ChatColor.YELLOW + "#" + (i + 1) + ": N/A");
-                        } catch (IllegalArgumentException e) {
-                            DebugLogger.getInstance().error("Failed to set hologram line " + (i + 1) + " for hologram '" + id + "':", e);
-                        }
-                    }
-                }
-
-                DebugLogger.getInstance().log(Level.INFO, "Hologram with ID: " + id + " has been updated.", 0);
+    private void updateHologramContent(String id, Hologram hologram, LeaderboardType type,
+                                       List<LeaderboardIndex.Entry> topPlayers) {
+        try {
+            String title = (type == LeaderboardType.LEVEL) ? "=== Top Level ===" : "=== Top Rich ===";
+            DHAPI.setHologramLine(hologram, 0, ChatColor.GREEN + title);
+            DHAPI.setHologramLine(hologram, 6, ChatColor.GREEN + "==================");
+        } catch (IllegalArgumentException e) {
+            DebugLogger.getInstance().error("Failed to set static lines for hologram '" + id + "':", e);
+        }
 
-                // Update Discord embed if available
-                if (discordUpdateHandler != null) {
-                    discordUpdateHandler.updateDiscordEmbed(type, topPlayers);
+        for (int i = 0; i < 5; i++) {
+            String lineContent;
+            if (i < topPlayers.size()) {
+                LeaderboardIndex.Entry entry = topPlayers.get(i);
+                OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(entry.uuid());
+                String playerName = (offlinePlayer.hasPlayedBefore() && offlinePlayer.getName() != null) ? offlinePlayer.getName() : "Unknown";
+
+                if (type == LeaderboardType.LEVEL) {
+                    lineContent = ChatColor.YELLOW + "#" + (i + 1) + ": " + playerName + " - Level " + entry.score();
+                } else {
+                    lineContent = ChatColor.YELLOW + "#" + (i + 1) + ": " + playerName + " - Gold " + entry.score();
                 }
+            } else {
+                lineContent = ChatColor.YELLOW + "#" + (i + 1) + ": N/A";
             }
 
-            @Override
-            public void onFailure(Throwable throwable) {
-                try {
-                    DHAPI.setHologramLine(hologram, 1, ChatColor.RED + "Error fetching data.");
-                } catch (IllegalArgumentException e) {
-                    DebugLogger.getInstance().error("Failed to set error message for hologram '" + id + "':", e);
-                }
-
-                DebugLogger.getInstance().error("Failed to update hologram with ID: " + id + ". ", throwable);
+            try {
+                DHAPI.setHologramLine(hologram, i + 1, lineContent);
+            } catch (IllegalArgumentException e) {
+                DebugLogger.getInstance().error("Failed to set hologram line " + (i + 1) + " for hologram '" + id + "':", e);
             }
-        };
-
-        if (type == LeaderboardType.LEVEL) {
-            getTopLevelPlayers(5, callback);
-        } else {
-            getTopRichPlayers(5, callback);
         }
+
+        DebugLogger.getInstance().log(Level.INFO, "Hologram with ID: " + id + " has been updated.", 0);
     }
 
     public List<String> getAllHologramIds() {
@@ -328,28 +328,20 @@ public class LeaderBoardsHelper {
     }
 
     public interface DiscordUpdateHandler {
-        void updateDiscordEmbed(LeaderboardType type, List<PlayerData> topPlayers);
+        void updateDiscordEmbed(LeaderboardType type, List<LeaderboardIndex.Entry> topPlayers);
     }
 
     private static class HologramData {
         private final String id;
         private final Hologram hologram;
-        private final BukkitTask updateTask;
         private final LeaderboardType type;
         private final Location location;
 
-        public HologramData(String id, Hologram hologram, BukkitTask updateTask, LeaderboardType type, Location location) {
+        public HologramData(String id, Hologram hologram, LeaderboardType type, Location location) {
             this.id = id;
             this.hologram = hologram;
-            this.updateTask = updateTask;
             this.type = type;
             this.location = location;
         }
-
-        public void cancelUpdateTask() {
-            if (updateTask != null && !updateTask.isCancelled()) {
-                updateTask.cancel();
-            }
-        }
     }
 }
@@ -10,7 +10,6 @@ import eu.xaru.mysticrpg.interfaces.IBaseModule;
 import eu.xaru.mysticrpg.managers.EventManager;
 import eu.xaru.mysticrpg.managers.ModuleManager;
 import eu.xaru.mysticrpg.storage.Callback;
-import eu.xaru.mysticrpg.storage.PlayerData;
 import eu.xaru.mysticrpg.storage.SaveModule;
 import eu.xaru.mysticrpg.storage.database.DatabaseManager;
 import eu.xaru.mysticrpg.utils.DebugLogger;
@@ -24,7 +23,6 @@ import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
 import java.util.logging.Level;
 
 public class LeaderBoardsModule implements IBaseModule {
@@ -72,6 +70,10 @@ public class LeaderBoardsModule implements IBaseModule {
     public void start() {
         registerCommands();
 
+        if (leaderBoardsHelper != null) {
+            leaderBoardsHelper.start();
+        }
+
         // Delay hologram loading to ensure DecentHolograms is ready
         Bukkit.getScheduler().runTaskLater(plugin, () -> {
             if (leaderBoardsHelper != null) {
@@ -89,6 +91,9 @@ public class LeaderBoardsModule implements IBaseModule {
 
     @Override
     public void stop() {
+        if (leaderBoardsHelper != null) {
+            leaderBoardsHelper.stop();
+        }
     }
 
     @Override
@@ -114,20 +119,19 @@ public class LeaderBoardsModule implements IBaseModule {
                 .executesPlayer((player, args) -> {
                     player.sendMessage(ChatColor.GOLD + "Fetching top level players. Please wait...");
                     if (leaderBoardsHelper != null) {
-                        leaderBoardsHelper.getTopLevelPlayers(10, new Callback<List<PlayerData>>() {
+                        leaderBoardsHelper.getTopPlayers(LeaderboardType.LEVEL, 10, new Callback<List<LeaderboardIndex.Entry>>() {
                             @Override
-                            public void onSuccess(List<PlayerData> topPlayers) {
+                            public void onSuccess(List<LeaderboardIndex.Entry> topPlayers) {
                                 if (topPlayers.isEmpty()) {
                                     player.sendMessage(Utils.getInstance().$("No player data available."));
                                     return;
                                 }
                                 player.sendMessage(ChatColor.GREEN + "=== Top " + topPlayers.size() + " Players by Level ===");
                                 int rank = 1;
-                                for (PlayerData pd : topPlayers) {
-                                    UUID playerUUID = UUID.fromString(pd.getUuid());
-                                    OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerUUID);
+                                for (LeaderboardIndex.Entry entry : topPlayers) {
+                                    OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(entry.uuid());
                                     String playerName = (offlinePlayer.hasPlayedBefore() && offlinePlayer.getName() != null) ? offlinePlayer.getName() : "Unknown";
-                                    player.sendMessage(ChatColor.YELLOW + "#" + rank + ": " + playerName + " - Level " + pd.getLevel());
+                                    player.sendMessage(ChatColor.YELLOW + "#" + rank + ": " + playerName + " - Level " + entry.score());
                                     rank++;
                                 }
                                 player.sendMessage(ChatColor.GREEN + "=== End of Leaderboards ===");
@@ -195,6 +199,10 @@ public class LeaderBoardsModule implements IBaseModule {
         DebugLogger.getInstance().log(Level.INFO, "LeaderBoardsModule commands registered.", 0);
     }
 
+    public LeaderBoardsHelper getLeaderBoardsHelper() {
+        return leaderBoardsHelper;
+    }
+
     public void cleanup() {
         if (leaderBoardsHelper != null) {
             leaderBoardsHelper.saveHologramsToFile();
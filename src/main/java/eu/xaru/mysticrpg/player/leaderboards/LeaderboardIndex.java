@@ -0,0 +1,217 @@
+package eu.xaru.mysticrpg.player.leaderboards;
+
+import eu.xaru.mysticrpg.storage.Callback;
+import eu.xaru.mysticrpg.storage.PlayerData;
+import eu.xaru.mysticrpg.storage.PlayerDataCache;
+import eu.xaru.mysticrpg.storage.database.IRepository;
+import eu.xaru.mysticrpg.utils.DebugLogger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Keeps the best players of every {@link LeaderboardType} in memory, so leaderboards never
+ * have to load the whole player table.
+ *
+ * Each board is seeded once with a sorted, limited query ({@link IRepository#loadTop}) and
+ * then follows level and bank gold changes through {@link PlayerData.FieldChangeListener}.
+ * A board tracks twice as many players as it serves, and remembers a floor score that no
+ * untracked player exceeds. Players rising above the floor are added, players dropping below
+ * it are let go; only when fewer players than served are left tracked is the board reseeded.
+ */
+public class LeaderboardIndex {
+
+    public record Entry(UUID uuid, int score) {
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::uuid);
+
+    private final IRepository<PlayerData> repository;
+    private final int size;
+    private final int capacity;
+    private final Map<LeaderboardType, Board> boards = new EnumMap<>(LeaderboardType.class);
+    private final PlayerData.FieldChangeListener listener = this::onFieldChanged;
+
+    private final class Board {
+        final LeaderboardType type;
+        final Map<UUID, Entry> byPlayer = new HashMap<>();
+        final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+        /**
+         * No untracked player scores above this. MIN_VALUE while every player is tracked.
+         */
+        int floor = Integer.MIN_VALUE;
+        boolean seeded;
+        boolean seeding;
+        List<Entry> top = List.of();
+        boolean topDirty;
+
+        Board(LeaderboardType type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * @param size The number of places served per leaderboard.
+     */
+    public LeaderboardIndex(IRepository<PlayerData> repository, int size) {
+        this.repository = repository;
+        this.size = Math.max(1, size);
+        this.capacity = this.size * 2;
+        for (LeaderboardType type : LeaderboardType.values()) {
+            boards.put(type, new Board(type));
+        }
+    }
+
+    public void start() {
+        PlayerData.addFieldChangeListener(listener);
+        for (Board board : boards.values()) {
+            seed(board);
+        }
+    }
+
+    public void stop() {
+        PlayerData.removeFieldChangeListener(listener);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return False until the board's first seed query has completed.
+     */
+    public boolean isReady(LeaderboardType type) {
+        Board board = boards.get(type);
+        synchronized (board) {
+            return board.seeded;
+        }
+    }
+
+    /**
+     * @return The best players of the board, highest first, at most {@link #getSize()} of them.
+     *         The list is immutable and only replaced when the ranking changes, so callers can
+     *         compare it by identity to skip redrawing.
+     */
+    public List<Entry> getTop(LeaderboardType type) {
+        Board board = boards.get(type);
+        synchronized (board) {
+            if (board.topDirty) {
+                List<Entry> top = new ArrayList<>(size);
+                Iterator<Entry> it = board.ranked.iterator();
+                while (it.hasNext() && top.size() < size) {
+                    top.add(it.next());
+                }
+                top = List.copyOf(top);
+                if (!top.equals(board.top)) {
+                    board.top = top;
+                }
+                board.topDirty = false;
+            }
+            return board.top;
+        }
+    }
+
+    private void onFieldChanged(PlayerData data, String key) {
+        for (Board board : boards.values()) {
+            if (board.type.getField().equals(key) && data.getUuid() != null) {
+                update(board, UUID.fromString(data.getUuid()), board.type.scoreOf(data));
+            }
+        }
+    }
+
+    private void update(Board board, UUID uuid, int score) {
+        boolean reseed;
+        synchronized (board) {
+            Entry old = board.byPlayer.get(uuid);
+            if (old != null) {
+                if (old.score() == score) {
+                    return;
+                }
+                board.ranked.remove(old);
+                board.byPlayer.remove(uuid);
+                board.topDirty = true;
+            }
+            // At or below the floor an untracked player could outrank this one, so let it go
+            if (score > board.floor || board.floor == Integer.MIN_VALUE) {
+                Entry entry = new Entry(uuid, score);
+                board.ranked.add(entry);
+                board.byPlayer.put(uuid, entry);
+                board.topDirty = true;
+                if (board.ranked.size() > capacity) {
+                    Entry evicted = board.ranked.pollLast();
+                    board.byPlayer.remove(evicted.uuid());
+                    board.floor = Math.max(board.floor, evicted.score());
+                }
+            }
+            reseed = board.seeded && board.floor != Integer.MIN_VALUE && board.ranked.size() < size;
+        }
+        if (reseed) {
+            seed(board);
+        }
+    }
+
+    private void seed(Board board) {
+        synchronized (board) {
+            if (board.seeding) {
+                return;
+            }
+            board.seeding = true;
+        }
+        repository.loadTop(board.type.getField(), capacity, new Callback<List<PlayerData>>() {
+            @Override
+            public void onSuccess(List<PlayerData> loaded) {
+                List<Entry> entries = new ArrayList<>(loaded.size());
+                for (PlayerData data : loaded) {
+                    if (data.getUuid() != null) {
+                        entries.add(new Entry(UUID.fromString(data.getUuid()), board.type.scoreOf(data)));
+                    }
+                }
+                // Repositories without a sorted query return everything unsorted
+                entries.sort(RANKING);
+                synchronized (board) {
+                    board.ranked.clear();
+                    board.byPlayer.clear();
+                    board.floor = Integer.MIN_VALUE;
+                    for (int i = 0; i < entries.size() && i < capacity; i++) {
+                        Entry entry = entries.get(i);
+                        board.ranked.add(entry);
+                        board.byPlayer.put(entry.uuid(), entry);
+                    }
+                    if (entries.size() >= capacity) {
+                        board.floor = board.ranked.last().score();
+                    }
+                    board.topDirty = true;
+                    board.seeded = true;
+                    board.seeding = false;
+                }
+                // Online players may be ahead of what was last saved
+                PlayerDataCache cache = PlayerDataCache.getInstance();
+                for (UUID uuid : cache.getAllCachedPlayerUUIDs()) {
+                    PlayerData data = cache.getCachedPlayerData(uuid);
+                    if (data != null) {
+                        update(board, uuid, board.type.scoreOf(data));
+                    }
+                }
+                DebugLogger.getInstance().log(Level.INFO, "Leaderboard " + board.type + " seeded with "
+                        + Math.min(entries.size(), capacity) + " players.", 0);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                synchronized (board) {
+                    board.seeding = false;
+                }
+                DebugLogger.getInstance().error("Failed to seed " + board.type + " leaderboard: ", throwable);
+            }
+        });
+    }
+}
@@ -1,6 +1,29 @@
 package eu.xaru.mysticrpg.player.leaderboards;
 
+import eu.xaru.mysticrpg.storage.PlayerData;
+
+import java.util.function.ToIntFunction;
+
 public enum LeaderboardType {
-    LEVEL,
-    RICH
+    LEVEL("level", PlayerData::getLevel),
+    RICH("bankGold", PlayerData::getBankGold);
+
+    private final String field;
+    private final ToIntFunction<PlayerData> score;
+
+    LeaderboardType(String field, ToIntFunction<PlayerData> score) {
+        this.field = field;
+        this.score = score;
+    }
+
+    /**
+     * @return The @Persist key of the PlayerData field players are ranked by.
+     */
+    public String getField() {
+        return field;
+    }
+
+    public int scoreOf(PlayerData data) {
+        return score.applyAsInt(data);
+    }
 }
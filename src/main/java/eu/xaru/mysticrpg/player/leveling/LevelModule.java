@@ -8,6 +8,7 @@ import eu.xaru.mysticrpg.enums.EModulePriority;
 import eu.xaru.mysticrpg.interfaces.IBaseModule;
 import eu.xaru.mysticrpg.managers.EventManager;
 import eu.xaru.mysticrpg.managers.ModuleManager;
+import eu.xaru.mysticrpg.player.stats.StatsModule;
 import eu.xaru.mysticrpg.player.stats.events.PlayerStatsChangedEvent;
 import eu.xaru.mysticrpg.storage.*;
 import eu.xaru.mysticrpg.utils.DebugLogger;
@@ -154,6 +155,12 @@ public class LevelModule implements IBaseModule {
                     }
                 }
 
+                // Level scaling and rewards changed base attributes
+                StatsModule statsModule = ModuleManager.getInstance().getModuleInstance(StatsModule.class);
+                if (statsModule != null) {
+                    statsModule.invalidateStats(player);
+                }
+
                 // Notify listeners
                 if (levelUpListener != null) {
                     levelUpListener.onPlayerLevelUp(player);
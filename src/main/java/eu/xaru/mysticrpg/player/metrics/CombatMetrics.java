@@ -0,0 +1,276 @@
+package eu.xaru.mysticrpg.player.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import eu.xaru.mysticrpg.utils.DebugLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+
+/**
+ * Per-stage timers and counters for the combat hot path (damage listeners, regen wheel,
+ * stat notifications).
+ *
+ * Disabled by default; while disabled {@link #start()} returns 0 without reading the clock and
+ * every record call returns immediately, so the instrumentation can stay in place. Toggle with
+ * /combatmetrics on|off. While enabled, a snapshot is written periodically to the plugin folder.
+ */
+public final class CombatMetrics {
+
+    public enum Stage {
+        DAMAGE_EVENT,
+        PVP_REGION_CHECK,
+        DAMAGE_CALCULATION,
+        APPLY_DAMAGE,
+        PET_EFFECTS,
+        DEBUG_LOG,
+        HURT_EFFECTS,
+        ENVIRONMENT_DAMAGE,
+        REGEN_TICK,
+        STATS_CHANGED_DISPATCH
+    }
+
+    public enum Counter {
+        PLAYER_HITS,
+        ATTACK_COOLDOWN_CANCELLED,
+        PVP_DENIED,
+        PHOENIX_SAVES,
+        DEATHS,
+        REGEN_RUNS,
+        STATS_CHANGED_EVENTS
+    }
+
+    private static final CombatMetrics instance = new CombatMetrics();
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final StageHistogram[] histograms = new StageHistogram[Stage.values().length];
+    private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+
+    private volatile boolean enabled;
+    private volatile long since = System.currentTimeMillis();
+
+    private BukkitTask snapshotTask;
+    private File snapshotFolder;
+    private String snapshotFormat = "json";
+
+    private CombatMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new StageHistogram();
+        }
+    }
+
+    public static CombatMetrics getInstance() {
+        return instance;
+    }
+
+    /* ===========================
+       ========= RECORDING ========
+       =========================== */
+
+    /**
+     * @return A start timestamp for {@link #stop(Stage, long)}, or 0 while metrics are disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void stop(Stage stage, long start) {
+        if (start != 0L) {
+            histograms[stage.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    public void increment(Counter counter) {
+        if (enabled) {
+            counters.incrementAndGet(counter.ordinal());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            reset();
+        }
+        this.enabled = enabled;
+    }
+
+    public void reset() {
+        for (StageHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        since = System.currentTimeMillis();
+    }
+
+    public StageHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    public long getCounter(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    /* ===========================
+       ========= SNAPSHOTS ========
+       =========================== */
+
+    /**
+     * Starts writing a snapshot every interval while metrics are enabled.
+     *
+     * @param format "json" to overwrite combat-metrics.json with the latest totals,
+     *               "csv" to append one row per stage to combat-metrics.csv.
+     */
+    public void startSnapshots(JavaPlugin plugin, int intervalSeconds, String format) {
+        stopSnapshots();
+        this.snapshotFolder = new File(plugin.getDataFolder(), "metrics");
+        this.snapshotFormat = format.toLowerCase(Locale.ROOT);
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        long period = intervalSeconds * 20L;
+        snapshotTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            if (enabled) {
+                writeSnapshot();
+            }
+        }, period, period);
+    }
+
+    public void stopSnapshots() {
+        if (snapshotTask != null) {
+            snapshotTask.cancel();
+            snapshotTask = null;
+        }
+    }
+
+    /**
+     * Writes the current totals in the configured format.
+     *
+     * @return The written file, or null if writing failed.
+     */
+    public synchronized File writeSnapshot() {
+        if (snapshotFolder == null) {
+            return null;
+        }
+        if (!snapshotFolder.exists() && !snapshotFolder.mkdirs()) {
+            DebugLogger.getInstance().log(Level.WARNING, "Could not create metrics folder " + snapshotFolder, 0);
+            return null;
+        }
+        boolean csv = snapshotFormat.equals("csv");
+        File file = new File(snapshotFolder, csv ? "combat-metrics.csv" : "combat-metrics.json");
+        try {
+            if (csv) {
+                appendCsv(file);
+            } else {
+                try (Writer writer = new FileWriter(file, StandardCharsets.UTF_8)) {
+                    GSON.toJson(toMap(), writer);
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            DebugLogger.getInstance().error("Failed to write combat metrics snapshot", e);
+            return null;
+        }
+    }
+
+    private void appendCsv(File file) throws IOException {
+        boolean header = !file.exists();
+        long now = System.currentTimeMillis();
+        try (Writer writer = new FileWriter(file, StandardCharsets.UTF_8, true)) {
+            if (header) {
+                writer.write("timestamp,stage,count,mean_us,p50_us,p90_us,p99_us,max_us\n");
+            }
+            for (Stage stage : Stage.values()) {
+                StageHistogram histogram = getHistogram(stage);
+                writer.write(now + "," + stage.name() + "," + histogram.getCount()
+                        + "," + micros(histogram.getMeanNanos())
+                        + "," + micros(histogram.percentile(50))
+                        + "," + micros(histogram.percentile(90))
+                        + "," + micros(histogram.percentile(99))
+                        + "," + micros(histogram.getMaxNanos()) + "\n");
+            }
+            for (Counter counter : Counter.values()) {
+                writer.write(now + "," + counter.name() + "," + getCounter(counter) + ",,,,,\n");
+            }
+        }
+    }
+
+    private Map<String, Object> toMap() {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("timestamp", System.currentTimeMillis());
+        root.put("since", since);
+
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            StageHistogram histogram = getHistogram(stage);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("count", histogram.getCount());
+            entry.put("meanUs", micros(histogram.getMeanNanos()));
+            entry.put("p50Us", micros(histogram.percentile(50)));
+            entry.put("p90Us", micros(histogram.percentile(90)));
+            entry.put("p99Us", micros(histogram.percentile(99)));
+            entry.put("maxUs", micros(histogram.getMaxNanos()));
+            entry.put("totalMs", histogram.getTotalNanos() / 1_000_000.0);
+            stages.put(stage.name(), entry);
+        }
+        root.put("stages", stages);
+
+        Map<String, Object> counterValues = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            counterValues.put(counter.name(), getCounter(counter));
+        }
+        root.put("counters", counterValues);
+        return root;
+    }
+
+    /**
+     * @return One human-readable line per stage with samples and one per non-zero counter, for /combatmetrics.
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            StageHistogram histogram = getHistogram(stage);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            lines.add(stage.name() + ": n=" + histogram.getCount()
+                    + " mean=" + micros(histogram.getMeanNanos())
+                    + " p50=" + micros(histogram.percentile(50))
+                    + " p99=" + micros(histogram.percentile(99))
+                    + " max=" + micros(histogram.getMaxNanos()) + " µs");
+        }
+        for (Counter counter : Counter.values()) {
+            long value = getCounter(counter);
+            if (value > 0) {
+                lines.add(counter.name() + ": " + value);
+            }
+        }
+        return lines;
+    }
+
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+}
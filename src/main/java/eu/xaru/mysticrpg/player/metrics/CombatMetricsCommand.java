@@ -0,0 +1,54 @@
+package eu.xaru.mysticrpg.player.metrics;
+
+import dev.jorel.commandapi.CommandAPICommand;
+import eu.xaru.mysticrpg.utils.Utils;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Registers /combatmetrics command to toggle, dump, reset and snapshot the combat hot-path metrics.
+ */
+public class CombatMetricsCommand {
+
+    public static void register() {
+        CombatMetrics metrics = CombatMetrics.getInstance();
+        new CommandAPICommand("combatmetrics")
+                .withPermission("mysticrpg.debug")
+                .executes((sender, args) -> {
+                    long seconds = (System.currentTimeMillis() - metrics.getSince()) / 1000;
+                    sender.sendMessage(Utils.getInstance().$("&eCombat metrics "
+                            + (metrics.isEnabled() ? "enabled" : "disabled") + ", last " + seconds + "s:"));
+                    List<String> lines = metrics.describe();
+                    if (lines.isEmpty()) {
+                        sender.sendMessage(Utils.getInstance().$("No samples recorded."));
+                    }
+                    for (String line : lines) {
+                        sender.sendMessage(Utils.getInstance().$(line));
+                    }
+                })
+                .withSubcommand(new CommandAPICommand("on")
+                        .executes((sender, args) -> {
+                            metrics.setEnabled(true);
+                            sender.sendMessage(Utils.getInstance().$("Combat metrics enabled."));
+                        }))
+                .withSubcommand(new CommandAPICommand("off")
+                        .executes((sender, args) -> {
+                            metrics.setEnabled(false);
+                            sender.sendMessage(Utils.getInstance().$("Combat metrics disabled."));
+                        }))
+                .withSubcommand(new CommandAPICommand("reset")
+                        .executes((sender, args) -> {
+                            metrics.reset();
+                            sender.sendMessage(Utils.getInstance().$("Combat metrics reset."));
+                        }))
+                .withSubcommand(new CommandAPICommand("snapshot")
+                        .executes((sender, args) -> {
+                            File file = metrics.writeSnapshot();
+                            sender.sendMessage(Utils.getInstance().$(file == null
+                                    ? "Failed to write combat metrics snapshot."
+                                    : "Combat metrics written to " + file.getPath()));
+                        }))
+                .register();
+    }
+}
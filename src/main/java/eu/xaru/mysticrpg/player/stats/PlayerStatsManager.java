@@ -13,9 +13,11 @@ import java.util.logging.Level;
 
 public class PlayerStatsManager {
     private final PlayerDataCache playerDataCache;
+    private final StatCache statCache;
 
-    public PlayerStatsManager(PlayerDataCache playerDataCache) {
+    public PlayerStatsManager(PlayerDataCache playerDataCache, StatCache statCache) {
         this.playerDataCache = playerDataCache;
+        this.statCache = statCache;
     }
 
     public PlayerStats loadStats(Player player) {
@@ -46,6 +48,7 @@ public class PlayerStatsManager {
         for (StatType type : StatType.values()) {
             data.getAttributes().put(type.name(), (int) stats.getBaseStat(type));
         }
+        statCache.invalidate(player.getUniqueId());
     }
 
     public void applyTempModifier(Player player, StatType stat, double amount) {
@@ -98,6 +101,7 @@ public class PlayerStatsManager {
         int newVal = attrs.getOrDefault(attributeName, 0) + 1;
         attrs.put(attributeName, newVal);
         data.setAttributePoints(points - 1);
+        statCache.invalidate(player.getUniqueId());
 
         // If we increased HEALTH, ensure currentHp <= new HEALTH
         if (statType == StatType.HEALTH) {
@@ -0,0 +1,244 @@
+package eu.xaru.mysticrpg.player.stats;
+
+import eu.xaru.mysticrpg.cores.MysticCore;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockDispenseArmorEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.*;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Per-player cache of effective stats, so combat, regen and the action bar don't
+ * re-read every equipment PDC on each access.
+ *
+ * Every player has a version counter. Equipment changes, held-slot changes, pet equips,
+ * attribute spending and level-ups bump it; a read only recalculates when the cached
+ * snapshot was built for an older version. Main thread only.
+ */
+public class StatCache implements Listener {
+
+    static final StatType[] STAT_TYPES = StatType.values();
+
+    private final Function<Player, PlayerStats> calculator;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final List<Consumer<UUID>> invalidationListeners = new ArrayList<>();
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    private static final class Entry {
+        private final StatSnapshot snapshot = new StatSnapshot();
+        private long version;
+        private long snapshotVersion = -1;
+    }
+
+    public StatCache(Function<Player, PlayerStats> calculator) {
+        this.calculator = calculator;
+    }
+
+    /**
+     * @return The player's current effective stats, recalculated only if invalidated since the last read.
+     */
+    public StatSnapshot get(Player player) {
+        Entry entry = entries.computeIfAbsent(player.getUniqueId(), id -> new Entry());
+        if (entry.snapshotVersion == entry.version) {
+            hits++;
+            return entry.snapshot;
+        }
+        misses++;
+        long version = entry.version;
+        entry.snapshot.fill(calculator.apply(player));
+        entry.snapshotVersion = version;
+        return entry.snapshot;
+    }
+
+    public void invalidate(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry != null) {
+            entry.version++;
+            invalidations++;
+        }
+        notifyInvalidated(uuid);
+    }
+
+    /**
+     * Invalidates now and again next tick, for events fired before the inventory actually changes.
+     */
+    public void invalidateNowAndNextTick(Player player) {
+        UUID uuid = player.getUniqueId();
+        invalidate(uuid);
+        Bukkit.getScheduler().runTask(MysticCore.getInstance(), () -> invalidate(uuid));
+    }
+
+    public void invalidateAll() {
+        for (Entry entry : entries.values()) {
+            entry.version++;
+        }
+        invalidations += entries.size();
+        for (UUID uuid : new ArrayList<>(entries.keySet())) {
+            notifyInvalidated(uuid);
+        }
+    }
+
+    /**
+     * Registers a callback run whenever a player's stats may have changed, e.g. so the
+     * regen scheduler can pick up players whose max HP changed.
+     */
+    public void addInvalidationListener(Consumer<UUID> listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private void notifyInvalidated(UUID uuid) {
+        for (Consumer<UUID> listener : invalidationListeners) {
+            listener.accept(uuid);
+        }
+    }
+
+    public void remove(UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /* ===========================
+       ======= INVALIDATION =======
+       =========================== */
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            invalidateNowAndNextTick(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            invalidateNowAndNextTick(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (event.getPlayer() instanceof Player player) {
+            invalidateNowAndNextTick(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        invalidateNowAndNextTick(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        invalidateNowAndNextTick(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        invalidateNowAndNextTick(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            invalidateNowAndNextTick(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        invalidateNowAndNextTick(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        // Right-clicking armor equips it without opening an inventory
+        if (event.getAction() != Action.RIGHT_CLICK_AIR && event.getAction() != Action.RIGHT_CLICK_BLOCK) {
+            return;
+        }
+        if (event.useItemInHand() != Event.Result.DENY && equipsArmor(event.getPlayer(), event.getItem())) {
+            invalidateNowAndNextTick(event.getPlayer());
+        }
+    }
+
+    /**
+     * Whether right-clicking with the item changes an armor slot: it has to be armor, and the
+     * slot must not already hold an identical item. A different piece is swapped out, which
+     * changes the slot too.
+     */
+    private static boolean equipsArmor(Player player, ItemStack item) {
+        if (item == null || item.getType().isAir()) {
+            return false;
+        }
+        EquipmentSlot slot = item.getType().getEquipmentSlot();
+        if (slot != EquipmentSlot.HEAD && slot != EquipmentSlot.CHEST
+                && slot != EquipmentSlot.LEGS && slot != EquipmentSlot.FEET) {
+            return false;
+        }
+        ItemStack worn = player.getInventory().getItem(slot);
+        return worn == null || !worn.isSimilar(item);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDispenseArmor(BlockDispenseArmorEvent event) {
+        if (event.getTargetEntity() instanceof Player player) {
+            invalidateNowAndNextTick(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        invalidateNowAndNextTick(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        invalidateNowAndNextTick(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        remove(event.getPlayer().getUniqueId());
+    }
+}
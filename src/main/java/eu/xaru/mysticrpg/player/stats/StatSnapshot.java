@@ -0,0 +1,24 @@
+package eu.xaru.mysticrpg.player.stats;
+
+/**
+ * Effective stats (base + items + set bonus + pet) of one player, indexed by {@link StatType#ordinal()}.
+ * Snapshots are reused by {@link StatCache} and refilled in place after an invalidation,
+ * so read the values you need right away instead of keeping the snapshot around.
+ */
+public final class StatSnapshot {
+
+    private final double[] values = new double[StatType.values().length];
+
+    StatSnapshot() {
+    }
+
+    public double get(StatType stat) {
+        return values[stat.ordinal()];
+    }
+
+    void fill(PlayerStats stats) {
+        for (StatType stat : StatCache.STAT_TYPES) {
+            values[stat.ordinal()] = stats.getEffectiveStat(stat);
+        }
+    }
+}
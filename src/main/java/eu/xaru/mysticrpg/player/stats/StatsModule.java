@@ -4,12 +4,14 @@ import dev.jorel.commandapi.CommandAPICommand;
 import dev.jorel.commandapi.arguments.ArgumentSuggestions;
 import dev.jorel.commandapi.arguments.IntegerArgument;
 import dev.jorel.commandapi.arguments.StringArgument;
-import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.customs.items.CustomItem;
+import eu.xaru.mysticrpg.customs.items.CustomItemData;
+import eu.xaru.mysticrpg.customs.items.CustomItemModule;
 import eu.xaru.mysticrpg.customs.items.CustomItemUtils;
 import eu.xaru.mysticrpg.customs.items.sets.SetManager;
 import eu.xaru.mysticrpg.enums.EModulePriority;
 import eu.xaru.mysticrpg.interfaces.IBaseModule;
+import eu.xaru.mysticrpg.managers.ModuleHandle;
 import eu.xaru.mysticrpg.managers.ModuleManager;
 import eu.xaru.mysticrpg.pets.Pet;
 import eu.xaru.mysticrpg.pets.PetHelper;
@@ -20,14 +22,11 @@ import eu.xaru.mysticrpg.storage.SaveModule;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
@@ -36,10 +35,16 @@ import java.util.logging.Level;
 
 /**
  * Manages the player stats system. We also re-apply pet stats in recalculatePlayerStatsFor(Player).
+ * Hot paths read through {@link StatCache} via getCachedStats(Player) instead of recalculating.
  */
 public class StatsModule implements IBaseModule, Listener {
 
     private PlayerStatsManager statsManager;
+    private StatCache statCache;
+
+    // Used on every stat recalculation, so resolved through cached handles
+    private final ModuleHandle<CustomItemModule> customItemModule = ModuleManager.getInstance().handle(CustomItemModule.class);
+    private final ModuleHandle<PetsModule> petsModule = ModuleManager.getInstance().handle(PetsModule.class);
 
     @Override
     public void initialize() {
@@ -50,9 +55,11 @@ public class StatsModule implements IBaseModule, Listener {
         }
 
         PlayerDataCache dataCache = PlayerDataCache.getInstance();
-        statsManager = new PlayerStatsManager(dataCache);
+        statCache = new StatCache(this::recalculatePlayerStatsFor);
+        statsManager = new PlayerStatsManager(dataCache, statCache);
 
         Bukkit.getPluginManager().registerEvents(this, JavaPlugin.getProvidingPlugin(getClass()));
+        Bukkit.getPluginManager().registerEvents(statCache, JavaPlugin.getProvidingPlugin(getClass()));
         registerCommands();
 
        // DebugLogger.getInstance().log(Level.INFO, "StatsModule initialized successfully.", 0);
@@ -60,6 +67,9 @@ public class StatsModule implements IBaseModule, Listener {
 
     @Override
     public void start() {
+        // Resolve now so the first recalculation does not pay for the lookup
+        customItemModule.get();
+        petsModule.get();
     }
 
     @Override
@@ -154,6 +164,37 @@ public class StatsModule implements IBaseModule, Listener {
                     }
                 })
                 .register();
+
+        new CommandAPICommand("statcache")
+                .withPermission("mysticrpg.debug")
+                .executes((sender, args) -> {
+                    long hits = statCache.getHits();
+                    long misses = statCache.getMisses();
+                    long total = hits + misses;
+                    sender.sendMessage(ChatColor.GREEN + "=== Stat Cache ===");
+                    sender.sendMessage(ChatColor.YELLOW + "Players: " + ChatColor.WHITE + statCache.size());
+                    sender.sendMessage(ChatColor.YELLOW + "Hits: " + ChatColor.WHITE + hits);
+                    sender.sendMessage(ChatColor.YELLOW + "Misses: " + ChatColor.WHITE + misses);
+                    sender.sendMessage(ChatColor.YELLOW + "Invalidations: " + ChatColor.WHITE + statCache.getInvalidations());
+                    sender.sendMessage(ChatColor.YELLOW + "Hit rate: " + ChatColor.WHITE
+                            + (total == 0 ? "-" : String.format("%.1f%%", hits * 100.0 / total)));
+                })
+                .register();
+    }
+
+    /**
+     * Returns the player's effective stats from the cache. Use this on hot paths (combat, regen, UI);
+     * it only recalculates after equipment, held slot, pet, attributes or level changed.
+     */
+    public StatSnapshot getCachedStats(Player player) {
+        return statCache.get(player);
+    }
+
+    /**
+     * Forces the next {@link #getCachedStats(Player)} to recalculate, for stat sources changed outside the known events.
+     */
+    public void invalidateStats(Player player) {
+        statCache.invalidate(player.getUniqueId());
     }
 
     /**
@@ -180,24 +221,15 @@ public class StatsModule implements IBaseModule, Listener {
 
         // 2) Armor items in armor slots
         for (ItemStack piece : armor) {
-            applyItemAttributesIfAppropriate(piece, stats, true);
+            CustomItemData data = applyItemAttributesIfAppropriate(piece, stats, true);
             // Check sets
-            if (piece != null && piece.getType() != Material.AIR) {
-                if (CustomItemUtils.isCustomItem(piece)) {
-                    NamespacedKey setKey = new NamespacedKey(MysticCore.getInstance(), "custom_item_set");
-                    if (piece.getItemMeta() != null
-                            && piece.getItemMeta().getPersistentDataContainer().has(setKey, PersistentDataType.STRING)) {
-
-                        String sId = piece.getItemMeta().getPersistentDataContainer().get(setKey, PersistentDataType.STRING);
-                        if (sId != null) {
-                            if (setId == null) {
-                                setId = sId;
-                                setCount = 1;
-                            } else if (setId.equals(sId)) {
-                                setCount++;
-                            }
-                        }
-                    }
+            if (data != null && data.getSetId() != null) {
+                String sId = data.getSetId();
+                if (setId == null) {
+                    setId = sId;
+                    setCount = 1;
+                } else if (setId.equals(sId)) {
+                    setCount++;
                 }
             }
         }
@@ -235,29 +267,28 @@ public class StatsModule implements IBaseModule, Listener {
      * Applies item attributes if appropriate.
      * If isArmorSlot==true, only apply if item is armor.
      * If isArmorSlot==false, only apply if item is not armor.
+     *
+     * @return The item's decoded data, or null if it is not a custom item.
      */
-    private void applyItemAttributesIfAppropriate(ItemStack item, PlayerStats stats, boolean isArmorSlot) {
-        if (item == null || item.getType() == Material.AIR) return;
-
-        if (!CustomItemUtils.isCustomItem(item)) {
-            return;
+    private CustomItemData applyItemAttributesIfAppropriate(ItemStack item, PlayerStats stats, boolean isArmorSlot) {
+        CustomItemData data = CustomItemUtils.getItemData(item);
+        if (data == null) {
+            return null;
         }
 
-        CustomItem customItem = CustomItemUtils.fromItemStack(item);
+        CustomItemModule items = customItemModule.get();
+        CustomItem customItem = items != null ? items.getCustomItemById(data.getId()) : null;
         if (customItem == null) {
-            return;
+            return data;
         }
 
         boolean isArmor = (customItem.getArmorType() != null);
         if (isArmor == isArmorSlot) {
-            Map<StatType, Double> itemStats = CustomItemUtils.getItemStats(item);
-            for (Map.Entry<StatType, Double> entry : itemStats.entrySet()) {
+            for (Map.Entry<StatType, Double> entry : data.getStats().entrySet()) {
                 stats.addTempStat(entry.getKey(), entry.getValue());
             }
-        } else {
-            DebugLogger.getInstance().log(Level.INFO, "Item " + customItem.getId() + " is "
-                    + (isArmor ? "armor" : "not armor") + ", but isArmorSlot=" + isArmorSlot + "; skipping.");
         }
+        return data;
     }
 
     /**
@@ -274,10 +305,10 @@ public class StatsModule implements IBaseModule, Listener {
         }
 
         // Grab the Pet from PetHelper
-        PetsModule petsModule = ModuleManager.getInstance().getModuleInstance(PetsModule.class);
-        if (petsModule == null) return;
+        PetsModule pets = petsModule.get();
+        if (pets == null) return;
 
-        PetHelper petHelper = petsModule.getPetHelper();
+        PetHelper petHelper = pets.getPetHelper();
         Pet pet = petHelper.getPetById(equippedPetId);
         if (pet == null) return;
 
@@ -318,4 +349,8 @@ public class StatsModule implements IBaseModule, Listener {
     public PlayerStatsManager getStatsManager() {
         return statsManager;
     }
+
+    public StatCache getStatCache() {
+        return statCache;
+    }
 }
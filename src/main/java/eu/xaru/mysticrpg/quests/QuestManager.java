@@ -7,11 +7,11 @@ import eu.xaru.mysticrpg.storage.PlayerData;
 import eu.xaru.mysticrpg.storage.PlayerDataCache;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
+import eu.xaru.mysticrpg.world.TriggerGrid;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Sound;
-import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
@@ -34,31 +34,46 @@ public class QuestManager {
     private final JavaPlugin plugin;
     private final PlayerDataCache playerDataCache;
     private final ItemManager itemManager;
+    private final QuestObjectiveIndex objectiveIndex = new QuestObjectiveIndex(this);
+
+    // go_to_location objectives are triggers in the shared grid, one per distinct target
+    static final String LOCATION_TRIGGER_PREFIX = "quest:";
+    private final TriggerGrid triggerGrid = TriggerGrid.getInstance();
+    private final TriggerGrid.SubscriptionSource subscriptionSource = this::resolveLocationSubscriptions;
 
     public QuestManager(JavaPlugin plugin, PlayerDataCache playerDataCache, ItemManager itemManager) {
+        // Load all quest .yml files from /quests folder using normal Bukkit YAML
+        this(plugin, playerDataCache, itemManager, loadQuestsFromFolder(plugin));
+    }
+
+    /**
+     * @param loadedQuests Quests read beforehand with {@link #loadQuestsFromFolder(JavaPlugin)}.
+     */
+    public QuestManager(JavaPlugin plugin, PlayerDataCache playerDataCache, ItemManager itemManager,
+                        Map<String, Quest> loadedQuests) {
         this.plugin = plugin;
         this.playerDataCache = playerDataCache;
         this.itemManager = itemManager;
-
-        // Load all quest .yml files from /quests folder using normal Bukkit YAML
-        loadQuestsFromFolder();
+        this.quests.putAll(loadedQuests);
     }
 
     /**
      * Replaces the dynamic config approach. We do standard YamlConfiguration now.
      * Reads each .yml from "plugins/<pluginName>/quests" => builds Quest objects.
+     * Only reads files, so it may run off the main thread.
      */
-    private void loadQuestsFromFolder() {
+    public static Map<String, Quest> loadQuestsFromFolder(JavaPlugin plugin) {
+        Map<String, Quest> quests = new HashMap<>();
         File questsFolder = new File(plugin.getDataFolder(), "quests");
         if (!questsFolder.exists() && !questsFolder.mkdirs()) {
             DebugLogger.getInstance().severe("Failed to create quests folder: " + questsFolder.getPath());
-            return;
+            return quests;
         }
 
         File[] files = questsFolder.listFiles((dir, name) -> name.toLowerCase().endsWith(".yml"));
         if (files == null || files.length == 0) {
             DebugLogger.getInstance().log(Level.INFO, "No quest files found in " + questsFolder.getPath(), 0);
-            return;
+            return quests;
         }
 
         for (File file : files) {
@@ -166,6 +181,7 @@ public class QuestManager {
                 e.printStackTrace();
             }
         }
+        return quests;
     }
 
     // All your original quest management methods remain below
@@ -192,6 +208,7 @@ public class QuestManager {
         data.getQuestProgress().put(questId, new HashMap<>());
         data.getQuestPhaseIndex().put(questId, 0);
         data.getQuestStartTime().put(questId, System.currentTimeMillis());
+        onQuestsChanged(data);
     }
 
     public void resetQuestForPlayer(PlayerData data, String questId) {
@@ -203,50 +220,165 @@ public class QuestManager {
         if (questId.equals(data.getPinnedQuest())) {
             data.setPinnedQuest(null);
         }
+        onQuestsChanged(data);
     }
 
+    /**
+     * Advances the objectives an event string stands for, such as "collect_item:OAK_LOG:",
+     * "kill_mob:forest_wolf:" or a complete "talk_to_npc:..." / "go_to_location:..." objective.
+     * Event handlers should prefer the typed {@link #advanceObjectives} to skip the parsing.
+     */
     public void updateObjectiveProgress(PlayerData data, String objectivePrefix, int amount) {
-        for (String questId : new ArrayList<>(data.getActiveQuests())) {
-            Quest quest = getQuest(questId);
-            if (quest == null) continue;
-            int phaseIndex = data.getQuestPhaseIndex().getOrDefault(questId, 0);
-            if (phaseIndex >= quest.getPhases().size()) continue;
-            QuestPhase phase = quest.getPhases().get(phaseIndex);
-
-            Map<String,Integer> progressMap = data.getQuestProgress().getOrDefault(questId, new HashMap<>());
-            boolean updated = false;
-            for (String obj : phase.getObjectives()) {
-                if (obj.startsWith("collect_item:") && objectivePrefix.startsWith("collect_item:")) {
-                    String requiredMat = obj.split(":")[1];
-                    if (objectivePrefix.contains(requiredMat)) {
-                        int current = progressMap.getOrDefault(obj,0);
-                        int required = Integer.parseInt(obj.split(":")[2]);
-                        int newVal = Math.min(current + amount, required);
-                        progressMap.put(obj, newVal);
-                        updated = true;
-                    }
-                } else if (obj.startsWith("kill_mob:") && objectivePrefix.startsWith("kill_mob:")) {
-                    String requiredMob = obj.split(":")[1];
-                    if (objectivePrefix.contains(requiredMob)) {
-                        int current = progressMap.getOrDefault(obj,0);
-                        int required = Integer.parseInt(obj.split(":")[2]);
-                        int newVal = Math.min(current + amount, required);
-                        progressMap.put(obj, newVal);
-                        updated = true;
-                    }
-                } else if ((obj.startsWith("talk_to_npc:") && objectivePrefix.startsWith("talk_to_npc:"))
-                        || (obj.startsWith("go_to_location:") && objectivePrefix.startsWith("go_to_location:"))) {
-                    if (obj.equals(objectivePrefix)) {
-                        progressMap.put(obj,1);
-                        updated = true;
-                    }
+        int colon = objectivePrefix.indexOf(':');
+        if (colon < 0) return;
+        QuestObjective.Type type = QuestObjective.Type.fromPrefix(objectivePrefix.substring(0, colon));
+        String key = objectivePrefix.substring(colon + 1);
+        if (type == QuestObjective.Type.COLLECT_ITEM || type == QuestObjective.Type.KILL_MOB) {
+            int end = key.indexOf(':');
+            if (end >= 0) key = key.substring(0, end);
+        }
+        if (type == QuestObjective.Type.UNKNOWN || data.getUuid() == null) return;
+
+        UUID uuid = UUID.fromString(data.getUuid());
+        List<QuestObjectiveIndex.Slot> slots = objectivesFor(uuid, data)
+                .get(type, QuestObjective.normalizeKey(type, key));
+        if (!slots.isEmpty()) {
+            advance(data, slots, amount);
+        }
+    }
+
+    /**
+     * Advances the player's objectives of the given type and key, for example
+     * (COLLECT_ITEM, "OAK_LOG") or (KILL_MOB, mob id). Players without such an objective only
+     * cost an index lookup; their data is not even fetched.
+     *
+     * @param key The material, mob id or NPC id, already in {@link QuestObjective#normalizeKey} form
+     */
+    public void advanceObjectives(UUID uuid, QuestObjective.Type type, String key, int amount) {
+        QuestObjectiveIndex.PlayerObjectives objectives = objectiveIndex.getIfPresent(uuid);
+        PlayerData data = null;
+        if (objectives == null) {
+            data = playerDataCache.getCachedPlayerData(uuid);
+            if (data == null) return;
+            objectives = objectivesFor(uuid, data);
+        }
+        List<QuestObjectiveIndex.Slot> slots = objectives.get(type, key);
+        if (slots.isEmpty()) return;
+        if (data == null) {
+            data = playerDataCache.getCachedPlayerData(uuid);
+            if (data == null) return;
+        }
+        advance(data, slots, amount);
+    }
+
+    private void advance(PlayerData data, List<QuestObjectiveIndex.Slot> slots, int amount) {
+        boolean updated = false;
+        for (int i = 0; i < slots.size(); i++) {
+            QuestObjectiveIndex.Slot slot = slots.get(i);
+            if (!isCurrent(data, slot)) continue;
+            QuestObjective objective = slot.objective();
+            Map<String, Integer> progressMap = data.getQuestProgress()
+                    .computeIfAbsent(slot.quest().getId(), k -> new HashMap<>());
+            int current = progressMap.getOrDefault(objective.getRaw(), 0);
+            progressMap.put(objective.getRaw(), Math.min(current + amount, objective.getRequired()));
+            updated = true;
+        }
+        if (!updated) return;
+
+        // Once per quest, after all of its objectives were advanced
+        for (int i = 0; i < slots.size(); i++) {
+            QuestObjectiveIndex.Slot slot = slots.get(i);
+            if (isCheckedEarlier(slots, i) || !isCurrent(data, slot)) continue;
+            checkPhaseCompletion(data, slot.quest(), slot.phaseIndex());
+        }
+    }
+
+    private static boolean isCheckedEarlier(List<QuestObjectiveIndex.Slot> slots, int index) {
+        Quest quest = slots.get(index).quest();
+        for (int i = 0; i < index; i++) {
+            if (slots.get(i).quest() == quest) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Guards against an index entry that has not caught up with the player's quests yet.
+     */
+    private boolean isCurrent(PlayerData data, QuestObjectiveIndex.Slot slot) {
+        String questId = slot.quest().getId();
+        return data.getActiveQuests().contains(questId)
+                && data.getQuestPhaseIndex().getOrDefault(questId, 0) == slot.phaseIndex();
+    }
+
+    /**
+     * Must be called whenever a player's active quests or current phases change.
+     */
+    public void onQuestsChanged(PlayerData data) {
+        if (data.getUuid() == null) return;
+        UUID uuid = UUID.fromString(data.getUuid());
+        objectiveIndex.invalidate(uuid);
+        triggerGrid.unsubscribeAll(uuid, LOCATION_TRIGGER_PREFIX);
+        // Rebuilt right away so the player is subscribed to the new phase's locations
+        objectivesFor(uuid, data);
+    }
+
+    /**
+     * Forgets a player's indexed objectives, e.g. when they leave.
+     */
+    public void forgetPlayer(UUID uuid) {
+        objectiveIndex.invalidate(uuid);
+    }
+
+    private QuestObjectiveIndex.PlayerObjectives objectivesFor(UUID uuid, PlayerData data) {
+        QuestObjectiveIndex.PlayerObjectives objectives = objectiveIndex.getIfPresent(uuid);
+        if (objectives == null) {
+            objectives = objectiveIndex.get(uuid, data);
+            subscribeLocations(uuid, objectives);
+        }
+        return objectives;
+    }
+
+    private void subscribeLocations(UUID uuid, QuestObjectiveIndex.PlayerObjectives objectives) {
+        List<QuestObjectiveIndex.Slot> locations = objectives.getLocations();
+        for (int i = 0; i < locations.size(); i++) {
+            triggerGrid.subscribe(uuid, LOCATION_TRIGGER_PREFIX + locations.get(i).objective().getKey());
+        }
+    }
+
+    private boolean resolveLocationSubscriptions(Player player) {
+        PlayerData data = playerDataCache.getCachedPlayerData(player.getUniqueId());
+        if (data == null) return false;
+        subscribeLocations(player.getUniqueId(), objectivesFor(player.getUniqueId(), data));
+        return true;
+    }
+
+    /**
+     * Registers a trigger for every go_to_location target of the loaded quests. Players are
+     * subscribed to the targets of their current phases, so walking only costs a grid lookup
+     * per block and reaching a target advances the objective.
+     */
+    public void registerLocationTriggers() {
+        Set<String> registered = new HashSet<>();
+        for (Quest quest : quests.values()) {
+            for (QuestPhase phase : quest.getPhases()) {
+                for (QuestObjective objective : phase.getCompiledObjectives()) {
+                    if (objective.getType() != QuestObjective.Type.GO_TO_LOCATION
+                            || !registered.add(objective.getKey())) continue;
+                    String key = objective.getKey();
+                    triggerGrid.addRadiusTrigger(LOCATION_TRIGGER_PREFIX + key, objective.getWorldName(),
+                            objective.getX(), objective.getY(), objective.getZ(), QuestObjective.LOCATION_RADIUS, false,
+                            (player, trigger) -> advanceObjectives(player.getUniqueId(),
+                                    QuestObjective.Type.GO_TO_LOCATION, key, 1));
                 }
             }
-            if (updated) {
-                data.getQuestProgress().put(questId, progressMap);
-                checkPhaseCompletion(data, quest, phaseIndex);
-            }
         }
+        triggerGrid.addSubscriptionSource(subscriptionSource);
+        DebugLogger.getInstance().log(Level.INFO, "Registered " + registered.size() + " quest location triggers.", 0);
+    }
+
+    public void unregisterLocationTriggers() {
+        triggerGrid.removeSubscriptionSource(subscriptionSource);
+        triggerGrid.removeTriggers(LOCATION_TRIGGER_PREFIX);
     }
 
     private void checkPhaseCompletion(PlayerData data, Quest quest, int phaseIndex) {
@@ -297,6 +429,7 @@ public class QuestManager {
                 int nextIndex = getPhaseIndexByName(quest, phase.getNextPhase());
                 data.getQuestPhaseIndex().put(quest.getId(), nextIndex);
                 data.getQuestStartTime().put(quest.getId(), System.currentTimeMillis());
+                onQuestsChanged(data);
                 Player p = Bukkit.getPlayer(UUID.fromString(data.getUuid()));
                 if (p != null && !quest.getPhases().get(nextIndex).getDialogueStart().isEmpty()) {
                     p.sendMessage(Utils.getInstance().$(quest.getPhases().get(nextIndex).getDialogueStart()));
@@ -323,6 +456,7 @@ public class QuestManager {
         if (quest.getId().equals(data.getPinnedQuest())) {
             data.setPinnedQuest(null);
         }
+        onQuestsChanged(data);
 
         Map<String, Object> rewards = quest.getRewards();
         if (rewards != null) {
@@ -373,6 +507,7 @@ public class QuestManager {
             int idx = getPhaseIndexByName(quest, nextPhaseName);
             data.getQuestPhaseIndex().put(questId, idx);
             data.getQuestStartTime().put(questId, System.currentTimeMillis());
+            onQuestsChanged(data);
 
             if (!quest.getPhases().get(idx).getDialogueStart().isEmpty()) {
                 player.sendMessage(Utils.getInstance().$(quest.getPhases().get(idx).getDialogueStart()));
@@ -380,36 +515,6 @@ public class QuestManager {
         }
     }
 
-    public void checkLocationObjectives(PlayerData data, Location loc) {
-        for (String questId : new ArrayList<>(data.getActiveQuests())) {
-            Quest quest = getQuest(questId);
-            if (quest == null) continue;
-
-            int phaseIndex = data.getQuestPhaseIndex().getOrDefault(questId, 0);
-            if (phaseIndex >= quest.getPhases().size()) continue;
-
-            QuestPhase phase = quest.getPhases().get(phaseIndex);
-            for (String obj : phase.getObjectives()) {
-                if (obj.startsWith("go_to_location:")) {
-                    String[] parts = obj.split(":");
-                    if (parts.length == 5) {
-                        String worldName = parts[1];
-                        double x = Double.parseDouble(parts[2]);
-                        double y = Double.parseDouble(parts[3]);
-                        double z = Double.parseDouble(parts[4]);
-                        World w = Bukkit.getWorld(worldName);
-                        if (w != null) {
-                            Location requiredLoc = new Location(w, x, y, z);
-                            if (loc.getWorld().equals(w) && loc.distance(requiredLoc) < 3) {
-                                updateObjectiveProgress(data, obj, 1);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
-
     public String getFormattedCurrentObjective(UUID playerUUID) {
         PlayerData data = playerDataCache.getCachedPlayerData(playerUUID);
         if (data == null) {
@@ -437,16 +542,10 @@ public class QuestManager {
         Map<String, Integer> progressMap = data.getQuestProgress().getOrDefault(pinnedQuestId, new HashMap<>());
 
         // Return the first incomplete objective
-        for (String objective : currentPhase.getObjectives()) {
-            int required = 1;
-            String[] parts = objective.split(":");
-            if (parts[0].equals("collect_item") || parts[0].equals("kill_mob")) {
-                if (parts.length < 3) continue;
-                required = Integer.parseInt(parts[2]);
-            }
-            int current = progressMap.getOrDefault(objective, 0);
-            if (current < required) {
-                return ObjectiveFormatter.formatObjective(objective, current);
+        for (QuestObjective objective : currentPhase.getCompiledObjectives()) {
+            int current = progressMap.getOrDefault(objective.getRaw(), 0);
+            if (current < objective.getRequired()) {
+                return ObjectiveFormatter.formatObjective(objective.getRaw(), current);
             }
         }
 
@@ -480,15 +579,9 @@ public class QuestManager {
         Map<String, Integer> progressMap = data.getQuestProgress().getOrDefault(pinnedQuestId, new HashMap<>());
         List<String> formattedObjectives = new ArrayList<>();
 
-        for (String objective : currentPhase.getObjectives()) {
-            int required = 1;
-            String[] parts = objective.split(":");
-            if (parts[0].equals("collect_item") || parts[0].equals("kill_mob")) {
-                if (parts.length < 3) continue;
-                required = Integer.parseInt(parts[2]);
-            }
-            int current = progressMap.getOrDefault(objective, 0);
-            formattedObjectives.add(ObjectiveFormatter.formatObjective(objective, current));
+        for (QuestObjective objective : currentPhase.getCompiledObjectives()) {
+            int current = progressMap.getOrDefault(objective.getRaw(), 0);
+            formattedObjectives.add(ObjectiveFormatter.formatObjective(objective.getRaw(), current));
         }
 
         return formattedObjectives;
@@ -536,14 +629,9 @@ public class QuestManager {
             sender.sendMessage(Utils.getInstance().$("Phase: " + quest.getPhases().get(phaseIndex).getName()));
             sender.sendMessage(Utils.getInstance().$("Objectives:"));
             Map<String,Integer> progress = data.getQuestProgress().getOrDefault(questId, new HashMap<>());
-            for (String obj : quest.getPhases().get(phaseIndex).getObjectives()) {
-                int required = 1;
-                String[] parts = obj.split(":");
-                if (parts[0].equals("collect_item") || parts[0].equals("kill_mob")) {
-                    required = Integer.parseInt(parts[2]);
-                }
-                int current = progress.getOrDefault(obj,0);
-                sender.sendMessage(Utils.getInstance().$(" - " + obj + " [" + current + "/" + required + "]"));
+            for (QuestObjective obj : quest.getPhases().get(phaseIndex).getCompiledObjectives()) {
+                int current = progress.getOrDefault(obj.getRaw(),0);
+                sender.sendMessage(Utils.getInstance().$(" - " + obj.getRaw() + " [" + current + "/" + obj.getRequired() + "]"));
             }
         }
     }
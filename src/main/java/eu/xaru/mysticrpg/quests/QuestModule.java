@@ -22,6 +22,7 @@ import eu.xaru.mysticrpg.storage.PlayerDataCache;
 import eu.xaru.mysticrpg.storage.SaveModule;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
+import eu.xaru.mysticrpg.world.TriggerGrid;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -30,7 +31,7 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -48,12 +49,18 @@ public class QuestModule implements IBaseModule {
     private final JavaPlugin plugin;
     private ItemManager itemManager;
     private CustomMobModule customMobModule;
+    private Map<String, Quest> loadedQuests;
     private MobManager mobManager;
 
     public QuestModule() {
         this.plugin = JavaPlugin.getPlugin(MysticCore.class);
     }
 
+    @Override
+    public void load() {
+        loadedQuests = QuestManager.loadQuestsFromFolder(plugin);
+    }
+
     @Override
     public void initialize() {
         SaveModule saveModule = ModuleManager.getInstance().getModuleInstance(SaveModule.class);
@@ -76,11 +83,15 @@ public class QuestModule implements IBaseModule {
 
         eventManager = new EventManager(plugin);
 
-        questManager = new QuestManager(plugin, playerDataCache, itemManager);
+        questManager = new QuestManager(plugin, playerDataCache, itemManager, loadedQuests);
+        loadedQuests = null;
 
         registerCommands();
         registerEventHandlers();
 
+        TriggerGrid.getInstance().start(plugin);
+        questManager.registerLocationTriggers();
+
         //DebugLogger.getInstance().log(Level.INFO, "QuestModule initialized successfully.", 0);
     }
 
@@ -90,6 +101,9 @@ public class QuestModule implements IBaseModule {
 
     @Override
     public void stop() {
+        if (questManager != null) {
+            questManager.unregisterLocationTriggers();
+        }
     }
 
     @Override
@@ -163,16 +177,13 @@ public class QuestModule implements IBaseModule {
 
     private void registerEventHandlers() {
         eventManager.registerEvent(PlayerPickupItemEvent.class, event -> {
-            Player player = event.getPlayer();
-            PlayerData data = playerDataCache.getCachedPlayerData(player.getUniqueId());
-            if (data == null) return;
             ItemStack pickedUp = event.getItem().getItemStack();
-            Material mat = pickedUp.getType();
-
-            questManager.updateObjectiveProgress(data, "collect_item:" + mat.name() + ":", pickedUp.getAmount());
+            questManager.advanceObjectives(event.getPlayer().getUniqueId(), QuestObjective.Type.COLLECT_ITEM,
+                    pickedUp.getType().name(), pickedUp.getAmount());
         });
 
         eventManager.registerEvent(EntityDamageEvent.class, event -> {
+            if (!(event instanceof EntityDamageByEntityEvent edbe) || !(edbe.getDamager() instanceof Player player)) return;
             if (!(event.getEntity() instanceof LivingEntity livingEntity)) return;
             CustomMobInstance mobInstance = mobManager.findMobInstance(livingEntity);
             if (mobInstance == null) return;
@@ -181,22 +192,13 @@ public class QuestModule implements IBaseModule {
             double damage = event.getFinalDamage();
             double currentHp = mobInstance.getCurrentHp() - damage;
 
-            if (currentHp <= 0 && event instanceof EntityDamageByEntityEvent edbe) {
-                if (edbe.getDamager() instanceof Player player) {
-                    PlayerData data = playerDataCache.getCachedPlayerData(player.getUniqueId());
-                    if (data == null) return;
-                    questManager.updateObjectiveProgress(data, "kill_mob:" + customMob.getId() + ":", 1);
-                }
+            if (currentHp <= 0) {
+                questManager.advanceObjectives(player.getUniqueId(), QuestObjective.Type.KILL_MOB, customMob.getId(), 1);
             }
         });
 
-        eventManager.registerEvent(PlayerMoveEvent.class, event -> {
-            Player player = event.getPlayer();
-            PlayerData data = playerDataCache.getCachedPlayerData(player.getUniqueId());
-            if (data == null) return;
-
-            Location loc = player.getLocation();
-            questManager.checkLocationObjectives(data, loc);
+        eventManager.registerEvent(PlayerQuitEvent.class, event -> {
+            questManager.forgetPlayer(event.getPlayer().getUniqueId());
         });
     }
 
@@ -0,0 +1,169 @@
+package eu.xaru.mysticrpg.quests;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One objective of a quest phase, parsed once when the quest is loaded.
+ *
+ * Objectives are written as strings such as "collect_item:OAK_LOG:16", "kill_mob:forest_wolf:5",
+ * "talk_to_npc:lumberjack" or "go_to_location:world:100:64:200". The original string stays the
+ * key of the objective in the player's quest progress.
+ */
+public final class QuestObjective {
+
+    public enum Type {
+        COLLECT_ITEM("collect_item"),
+        KILL_MOB("kill_mob"),
+        TALK_TO_NPC("talk_to_npc"),
+        GO_TO_LOCATION("go_to_location"),
+        /** Not tracked by the quest system (for example "submit_items_to_npc"), never completes. */
+        UNKNOWN("");
+
+        private final String prefix;
+
+        Type(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        static Type fromPrefix(String prefix) {
+            for (Type type : values()) {
+                if (type != UNKNOWN && type.prefix.equals(prefix)) {
+                    return type;
+                }
+            }
+            return UNKNOWN;
+        }
+    }
+
+    /** Players within this many blocks of a go_to_location target reach it. */
+    public static final double LOCATION_RADIUS = 3.0;
+
+    private final String raw;
+    private final Type type;
+    private final String key;
+    private final int required;
+
+    // Only set for GO_TO_LOCATION
+    private final String worldName;
+    private final double x;
+    private final double y;
+    private final double z;
+
+    private QuestObjective(String raw, Type type, String key, int required,
+                           String worldName, double x, double y, double z) {
+        this.raw = raw;
+        this.type = type;
+        this.key = key;
+        this.required = required;
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Parses an objective string. Malformed objectives are returned as {@link Type#UNKNOWN}.
+     */
+    public static QuestObjective parse(String raw) {
+        String[] parts = raw.split(":");
+        Type type = Type.fromPrefix(parts[0]);
+        try {
+            switch (type) {
+                case COLLECT_ITEM:
+                case KILL_MOB:
+                    if (parts.length >= 3) {
+                        return new QuestObjective(raw, type, normalizeKey(type, parts[1]),
+                                Integer.parseInt(parts[2].trim()), null, 0, 0, 0);
+                    }
+                    break;
+                case TALK_TO_NPC:
+                    if (parts.length >= 2) {
+                        return new QuestObjective(raw, type, normalizeKey(type, parts[1]), 1, null, 0, 0, 0);
+                    }
+                    break;
+                case GO_TO_LOCATION:
+                    if (parts.length == 5) {
+                        return new QuestObjective(raw, type, raw.substring(type.prefix.length() + 1), 1, parts[1],
+                                Double.parseDouble(parts[2]), Double.parseDouble(parts[3]), Double.parseDouble(parts[4]));
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException ignored) {
+            // Falls through to UNKNOWN
+        }
+        return new QuestObjective(raw, Type.UNKNOWN, raw, 1, null, 0, 0, 0);
+    }
+
+    /**
+     * Brings an event's key into the form objectives of the type are indexed by: item
+     * materials are upper case, NPC ids lower case, mob ids and locations unchanged.
+     */
+    public static String normalizeKey(Type type, String key) {
+        return switch (type) {
+            case COLLECT_ITEM -> key.toUpperCase(Locale.ROOT);
+            case TALK_TO_NPC -> key.toLowerCase(Locale.ROOT);
+            default -> key;
+        };
+    }
+
+    /**
+     * @return The objective as written in the quest file; the key of its progress.
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return What an event has to match: the material, mob id, NPC id, or "world:x:y:z".
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The progress needed to complete the objective, 1 for one-off objectives.
+     */
+    public int getRequired() {
+        return required;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public boolean isComplete(Map<String, Integer> progress) {
+        if (type == Type.UNKNOWN) {
+            return false;
+        }
+        int current = progress != null ? progress.getOrDefault(raw, 0) : 0;
+        return current >= required;
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
@@ -0,0 +1,134 @@
+package eu.xaru.mysticrpg.quests;
+
+import eu.xaru.mysticrpg.storage.PlayerData;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per player, the objectives of the current phases of their active quests, keyed by objective
+ * type and key, so an event only looks at the objectives it can advance.
+ *
+ * A player's entry is built on first use and dropped whenever their quests change (start,
+ * phase change, branch choice, completion, reset) or they leave. Players without a matching
+ * objective cost one map lookup per event. Main thread only.
+ */
+public class QuestObjectiveIndex {
+
+    /**
+     * An objective of the phase a player is currently in.
+     */
+    public record Slot(Quest quest, int phaseIndex, QuestObjective objective) {
+    }
+
+    /**
+     * The indexed objectives of one player.
+     */
+    public static final class PlayerObjectives {
+        private final Map<QuestObjective.Type, Map<String, List<Slot>>> byKey = new EnumMap<>(QuestObjective.Type.class);
+        private final List<Slot> locations = new ArrayList<>();
+
+        private void add(Slot slot) {
+            QuestObjective objective = slot.objective();
+            if (objective.getType() == QuestObjective.Type.UNKNOWN) {
+                return;
+            }
+            byKey.computeIfAbsent(objective.getType(), t -> new HashMap<>())
+                    .computeIfAbsent(objective.getKey(), k -> new ArrayList<>(2))
+                    .add(slot);
+            if (objective.getType() == QuestObjective.Type.GO_TO_LOCATION) {
+                locations.add(slot);
+            }
+        }
+
+        /**
+         * @return The slots waiting for this type and key; empty if none.
+         */
+        public List<Slot> get(QuestObjective.Type type, String key) {
+            Map<String, List<Slot>> byType = byKey.get(type);
+            if (byType == null) {
+                return List.of();
+            }
+            List<Slot> slots = byType.get(key);
+            return slots != null ? slots : List.of();
+        }
+
+        public boolean hasAny(QuestObjective.Type type) {
+            return byKey.containsKey(type);
+        }
+
+        /**
+         * @return The go_to_location objectives of the player's current phases.
+         */
+        public List<Slot> getLocations() {
+            return locations;
+        }
+
+        public boolean isEmpty() {
+            return byKey.isEmpty();
+        }
+    }
+
+    private static final PlayerObjectives NONE = new PlayerObjectives();
+
+    private final QuestManager questManager;
+    private final Map<UUID, PlayerObjectives> players = new HashMap<>();
+
+    public QuestObjectiveIndex(QuestManager questManager) {
+        this.questManager = questManager;
+    }
+
+    /**
+     * @return The player's indexed objectives, built from their data if not yet indexed.
+     */
+    public PlayerObjectives get(UUID uuid, PlayerData data) {
+        PlayerObjectives objectives = players.get(uuid);
+        if (objectives == null) {
+            objectives = build(data);
+            players.put(uuid, objectives);
+        }
+        return objectives;
+    }
+
+    /**
+     * @return The player's indexed objectives, or null if they have not been built yet.
+     */
+    public PlayerObjectives getIfPresent(UUID uuid) {
+        return players.get(uuid);
+    }
+
+    /**
+     * Drops the player's entry; it is rebuilt on the next event.
+     */
+    public void invalidate(UUID uuid) {
+        players.remove(uuid);
+    }
+
+    public void clear() {
+        players.clear();
+    }
+
+    private PlayerObjectives build(PlayerData data) {
+        PlayerObjectives objectives = null;
+        for (String questId : data.getActiveQuests()) {
+            Quest quest = questManager.getQuest(questId);
+            if (quest == null) continue;
+            int phaseIndex = data.getQuestPhaseIndex().getOrDefault(questId, 0);
+            QuestPhase phase = quest.getPhase(phaseIndex);
+            if (phase == null) continue;
+
+            for (QuestObjective objective : phase.getCompiledObjectives()) {
+                if (objective.getType() == QuestObjective.Type.UNKNOWN) continue;
+                if (objectives == null) {
+                    objectives = new PlayerObjectives();
+                }
+                objectives.add(new Slot(quest, phaseIndex, objective));
+            }
+        }
+        return objectives != null ? objectives : NONE;
+    }
+}
@@ -41,8 +41,8 @@ public class QuestObjectivesHelper {
     }
 
     public static boolean areAllObjectivesComplete(QuestPhase phase, Map<String, Integer> progress) {
-        for (String obj : phase.getObjectives()) {
-            if (!isObjectiveComplete(obj, progress)) {
+        for (QuestObjective obj : phase.getCompiledObjectives()) {
+            if (!obj.isComplete(progress)) {
                 return false;
             }
         }
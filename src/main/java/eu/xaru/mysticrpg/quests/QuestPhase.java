@@ -1,5 +1,6 @@
 package eu.xaru.mysticrpg.quests;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +10,8 @@ public class QuestPhase {
     private String dialogueEnd;
     // Objectives are represented as a list of strings like "collect_item:OAK_LOG:16"
     private List<String> objectives;
+    // The same objectives, parsed once
+    private final List<QuestObjective> compiledObjectives;
     private long timeLimit; // in milliseconds, 0 = no limit
     private Map<String, String> branches;
     // branches can map a choice key to the next phase index or next quest ID. For simplicity, we store them as strings referencing the next phase ID or final quest completion scenario.
@@ -25,6 +28,11 @@ public class QuestPhase {
         this.dialogueStart = dialogueStart;
         this.dialogueEnd = dialogueEnd;
         this.objectives = objectives;
+        List<QuestObjective> compiled = new ArrayList<>(objectives.size());
+        for (String objective : objectives) {
+            compiled.add(QuestObjective.parse(objective));
+        }
+        this.compiledObjectives = List.copyOf(compiled);
         this.timeLimit = timeLimit;
         this.branches = branches;
         this.showChoices = showChoices;
@@ -35,6 +43,7 @@ public class QuestPhase {
     public String getDialogueStart() { return dialogueStart; }
     public String getDialogueEnd() { return dialogueEnd; }
     public List<String> getObjectives() { return objectives; }
+    public List<QuestObjective> getCompiledObjectives() { return compiledObjectives; }
     public long getTimeLimit() { return timeLimit; }
     public Map<String, String> getBranches() { return branches; }
     public boolean isShowChoices() { return showChoices; }
@@ -4,6 +4,7 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public record MutableFieldRef(
+        String key,             // the @Persist key of the field
         Supplier<Object> getter,
         Consumer<Object> setter,
         CollectionKind collectionKind // an enum we define below
@@ -3,15 +3,33 @@ package eu.xaru.mysticrpg.storage;
 import eu.xaru.mysticrpg.storage.annotations.Persist;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-/**
- * Represents a player's data with fields marked for persistence.
- */
 /**
  * Represents a player's data with fields marked for persistence.
  */
 public class PlayerData {
 
+    /**
+     * Notified whenever a persisted field of any PlayerData changes, through its setter or, for
+     * collections, in place; on the thread that changed it. Used to keep derived data such as
+     * leaderboards current.
+     */
+    public interface FieldChangeListener {
+        void onFieldChanged(PlayerData data, String key);
+    }
+
+    private static final List<FieldChangeListener> fieldChangeListeners = new CopyOnWriteArrayList<>();
+
+    public static void addFieldChangeListener(FieldChangeListener listener) {
+        fieldChangeListeners.add(listener);
+    }
+
+    public static void removeFieldChangeListener(FieldChangeListener listener) {
+        fieldChangeListeners.remove(listener);
+    }
+
     @Persist(key = "uuid")
     private String uuid;
 
@@ -96,6 +114,12 @@ public class PlayerData {
     @Persist
     private String equippedPet;
 
+    /**
+     * Level and xp of every pet the player has leveled, keyed by pet id, then "level"/"xp".
+     */
+    @Persist
+    private Map<String, Map<String, Integer>> petProgress;
+
     @Persist
     private List<String> unlockedTitles;
 
@@ -105,89 +129,127 @@ public class PlayerData {
     public PlayerData() {
         // Default constructor required for deserialization
     }
-    private static List<MutableFieldRef> fieldRefs;
+    /**
+     * Registry of all persisted collection fields. Collections are mutated in place through
+     * their getters; {@link #ensureMutableCollections()} replaces them with tracked collections
+     * ({@link TrackedCollections}) that mark their field dirty on every change.
+     */
+    private final transient List<MutableFieldRef> fieldRefs = new ArrayList<>();
+
+    /**
+     * Keys of fields changed since the last flush, through a setter or in a tracked collection.
+     */
+    private final transient Set<String> dirtyFields = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Fallback for collections that are not tracked, e.g. one handed to a setter and then
+     * changed by the caller: copies as of the last flush, keyed by @Persist key, compared with
+     * equals on the next flush. Tracked collections have no copy here.
+     */
+    private final transient Map<String, Object> flushedCollections = new ConcurrentHashMap<>();
+
+    /**
+     * True until this data has been written (or loaded) as a whole document at least once.
+     */
+    private transient volatile boolean fullSaveRequired = true;
 
     {
-        fieldRefs = new ArrayList<>();
         fieldRefs.add(new MutableFieldRef(
+                "unlockedTitles",
                 () -> this.unlockedTitles,
                 x -> this.unlockedTitles = (List<String>) x,
                 CollectionKind.LIST
         ));
         fieldRefs.add(new MutableFieldRef(
+                "activeQuests",
                 () -> this.activeQuests,
                 x -> this.activeQuests = (List<String>) x,
                 CollectionKind.LIST
         ));
         fieldRefs.add(new MutableFieldRef(
+                "completedQuests",
                 () -> this.completedQuests,
                 x -> this.completedQuests = (List<String>) x,
                 CollectionKind.LIST
         ));
         fieldRefs.add(new MutableFieldRef(
+                "pendingItems",
                 () -> this.pendingItems,
                 x -> this.pendingItems = (List<String>) x,
                 CollectionKind.LIST
         ));
         fieldRefs.add(new MutableFieldRef(
+                "completedDialogues",
                 () -> this.completedDialogues,
                 x -> this.completedDialogues = (List<String>) x,
                 CollectionKind.LIST
         ));
         fieldRefs.add(new MutableFieldRef(
+                "friends",
                 () -> this.friends,
                 x -> this.friends = (Set<String>) x,
                 CollectionKind.SET
         ));
         fieldRefs.add(new MutableFieldRef(
+                "friendRequests",
                 () -> this.friendRequests,
                 x -> this.friendRequests = (Set<String>) x,
                 CollectionKind.SET
         ));
         fieldRefs.add(new MutableFieldRef(
+                "blockedPlayers",
                 () -> this.blockedPlayers,
                 x -> this.blockedPlayers = (Set<String>) x,
                 CollectionKind.SET
         ));
         fieldRefs.add(new MutableFieldRef(
+                "attributes",
                 () -> this.attributes,
                 x -> this.attributes = (Map<String, Integer>) x,
                 CollectionKind.MAP
         ));
         fieldRefs.add(new MutableFieldRef(
+                "unlockedRecipes",
                 () -> this.unlockedRecipes,
                 x -> this.unlockedRecipes = (Map<String, Boolean>) x,
                 CollectionKind.MAP
         ));
         fieldRefs.add(new MutableFieldRef(
+                "questProgress",
                 () -> this.questProgress,
                 x -> this.questProgress = (Map<String, Map<String, Integer>>) x,
                 CollectionKind.MAP
         ));
         fieldRefs.add(new MutableFieldRef(
+                "equipment",
                 () -> this.equipment,
                 x -> this.equipment = (Map<String, String>) x,
                 CollectionKind.MAP
         ));
         fieldRefs.add(new MutableFieldRef(
+                "questPhaseIndex",
                 () -> this.questPhaseIndex,
                 x -> this.questPhaseIndex = (Map<String, Integer>) x,
                 CollectionKind.MAP
         ));
         fieldRefs.add(new MutableFieldRef(
+                "questStartTime",
                 () -> this.questStartTime,
                 x -> this.questStartTime = (Map<String, Long>) x,
                 CollectionKind.MAP
         ));
         fieldRefs.add(new MutableFieldRef(
+                "ownedPets",
                 () -> this.ownedPets,
                 x -> this.ownedPets = (Set<String>) x,
                 CollectionKind.SET
         ));
-
-
-
+        fieldRefs.add(new MutableFieldRef(
+                "petProgress",
+                () -> this.petProgress,
+                x -> this.petProgress = (Map<String, Map<String, Integer>>) x,
+                CollectionKind.MAP
+        ));
     }
 
     public PlayerData(String uuid,
@@ -300,44 +362,148 @@ public class PlayerData {
     }
 
     /**
-     * Ensures that collections are mutable after deserialization.
+     * Ensures that collections are mutable after deserialization, and tracked, so in-place
+     * changes mark their field dirty.
      */
     public void ensureMutableCollections() {
         for (MutableFieldRef ref : fieldRefs) {
             Object val = ref.getter().get(); // read the field
-            if (val == null) {
-                // If it's null, create a new empty collection
-                switch (ref.collectionKind()) {
-                    case LIST ->
-                            ref.setter().accept(new ArrayList<>());
-                    case SET ->
-                            ref.setter().accept(new HashSet<>());
-                    case MAP ->
-                            ref.setter().accept(new HashMap<>());
-                }
-            } else {
-                // It's non-null, we check if it's an instance of the correct *mutable* class
-                switch (ref.collectionKind()) {
-                    case LIST -> {
-                        if (!(val instanceof ArrayList)) {
-                            // Re-wrap
-                            ref.setter().accept(new ArrayList<>((Collection<?>) val));
-                        }
-                    }
-                    case SET -> {
-                        if (!(val instanceof HashSet)) {
-                            ref.setter().accept(new HashSet<>((Collection<?>) val));
-                        }
-                    }
-                    case MAP -> {
-                        if (!(val instanceof HashMap)) {
-                            ref.setter().accept(new HashMap<>((Map<?, ?>) val));
-                        }
-                    }
+            if (!TrackedCollections.isTracked(val)) {
+                String key = ref.key();
+                ref.setter().accept(TrackedCollections.track(ref.collectionKind(), val, () -> markFieldDirty(key)));
+                flushedCollections.remove(key);
+            }
+        }
+    }
+
+    /* ===========================
+       ===== DIRTY TRACKING ======
+       =========================== */
+
+    /**
+     * Marks a single persisted field as changed since the last flush.
+     *
+     * @param key The @Persist key of the field.
+     */
+    public void markFieldDirty(String key) {
+        dirtyFields.add(key);
+        for (FieldChangeListener listener : fieldChangeListeners) {
+            listener.onFieldChanged(this, key);
+        }
+    }
+
+    /**
+     * Re-queues fields whose partial write failed so the next flush retries them.
+     */
+    public void markFieldsDirty(Collection<String> keys) {
+        dirtyFields.addAll(keys);
+    }
+
+    /**
+     * Whether the next write must be a full document (new player, or a failed full save).
+     */
+    public boolean isFullSaveRequired() {
+        return fullSaveRequired;
+    }
+
+    public void requireFullSave() {
+        this.fullSaveRequired = true;
+    }
+
+    /**
+     * Declares the in-memory state equal to what is stored: clears all dirty fields
+     * and snapshots the collections. Called after a load and before a full save.
+     */
+    public void markClean() {
+        dirtyFields.clear();
+        for (MutableFieldRef ref : fieldRefs) {
+            Object value = ref.getter().get();
+            if (TrackedCollections.isTracked(value)) {
+                flushedCollections.remove(ref.key());
+                continue;
+            }
+            try {
+                snapshotCollection(ref.key(), value);
+            } catch (ConcurrentModificationException e) {
+                flushedCollections.remove(ref.key());
+            }
+        }
+        fullSaveRequired = false;
+    }
+
+    /**
+     * Returns the keys of every field changed since the last flush and resets tracking for them.
+     * Fields mark themselves, through their setters or their tracked collections; only
+     * collections that are not tracked are compared with their last flushed copy.
+     *
+     * @return The changed @Persist keys, empty if nothing changed.
+     */
+    public Set<String> drainDirtyFields() {
+        Set<String> changed = new HashSet<>();
+        for (MutableFieldRef ref : fieldRefs) {
+            String key = ref.key();
+            Object current = ref.getter().get();
+            if (TrackedCollections.isTracked(current)) {
+                continue;
+            }
+            try {
+                Object previous = flushedCollections.get(key);
+                if (previous == null || !Objects.equals(unwrapSnapshot(previous), current)) {
+                    snapshotCollection(key, current);
+                    changed.add(key);
                 }
+            } catch (ConcurrentModificationException e) {
+                // Being modified right now; write it and re-check on the next flush
+                flushedCollections.remove(key);
+                changed.add(key);
             }
         }
+        for (Iterator<String> it = dirtyFields.iterator(); it.hasNext(); ) {
+            changed.add(it.next());
+            it.remove();
+        }
+        return changed;
+    }
+
+    // Stands in for a null collection, since the snapshot map cannot hold null
+    private static final Object NULL_SNAPSHOT = new Object();
+
+    private void snapshotCollection(String key, Object value) {
+        flushedCollections.put(key, value == null ? NULL_SNAPSHOT : deepCopy(value));
     }
+
+    private static Object unwrapSnapshot(Object snapshot) {
+        return snapshot == NULL_SNAPSHOT ? null : snapshot;
+    }
+
+    /**
+     * Copies nested maps and collections so later in-place edits don't reach the snapshot.
+     */
+    private static Object deepCopy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new HashMap<>(map.size() * 2);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new HashSet<>(set.size() * 2);
+            for (Object element : set) {
+                copy.add(deepCopy(element));
+            }
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(deepCopy(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     // Getters and setters
 
 
@@ -347,6 +513,7 @@ public class PlayerData {
 
     public void setUnlockedTitles(List<String> unlockedTitles) {
         this.unlockedTitles = unlockedTitles;
+        markFieldDirty("unlockedTitles");
     }
 
     public String getCurrentTitle() {
@@ -355,6 +522,7 @@ public class PlayerData {
 
     public void setCurrentTitle(String currentTitle) {
         this.currentTitle = currentTitle;
+        markFieldDirty("currentTitle");
     }
 
 
@@ -364,6 +532,7 @@ public class PlayerData {
 
     public void setUuid(String uuid) {
         this.uuid = uuid;
+        markFieldDirty("uuid");
     }
 
     public int getHeldGold() {
@@ -372,6 +541,7 @@ public class PlayerData {
 
     public void setHeldGold(int heldGold) {
         this.heldGold = heldGold;
+        markFieldDirty("heldGold");
     }
 
     public int getBankGold() {
@@ -380,6 +550,7 @@ public class PlayerData {
 
     public void setBankGold(int bankGold) {
         this.bankGold = bankGold;
+        markFieldDirty("bankGold");
     }
 
     public int getXp() {
@@ -388,6 +559,7 @@ public class PlayerData {
 
     public void setXp(int xp) {
         this.xp = xp;
+        markFieldDirty("xp");
     }
 
     public int getLevel() {
@@ -399,16 +571,26 @@ public class PlayerData {
     }
     public void setOwnedPets(Set<String> ownedPets) {
         this.ownedPets = ownedPets;
+        markFieldDirty("ownedPets");
     }
     public String getEquippedPet() {
         return equippedPet;
     }
     public void setEquippedPet(String equippedPet) {
         this.equippedPet = equippedPet;
+        markFieldDirty("equippedPet");
+    }
+    public Map<String, Map<String, Integer>> getPetProgress() {
+        return petProgress;
+    }
+    public void setPetProgress(Map<String, Map<String, Integer>> petProgress) {
+        this.petProgress = petProgress;
+        markFieldDirty("petProgress");
     }
 
     public void setLevel(int level) {
         this.level = level;
+        markFieldDirty("level");
     }
 
     public int getNextLevelXP() {
@@ -417,6 +599,7 @@ public class PlayerData {
 
     public void setNextLevelXP(int nextLevelXP) {
         this.nextLevelXP = nextLevelXP;
+        markFieldDirty("nextLevelXP");
     }
 
     public int getCurrentHp() {
@@ -425,6 +608,7 @@ public class PlayerData {
 
     public void setCurrentHp(int currentHp) {
         this.currentHp = currentHp;
+        markFieldDirty("currentHp");
     }
 
     public Map<String, Integer> getAttributes() {
@@ -433,6 +617,7 @@ public class PlayerData {
 
     public void setAttributes(Map<String, Integer> attributes) {
         this.attributes = attributes;
+        markFieldDirty("attributes");
     }
 
     public Map<String, Boolean> getUnlockedRecipes() {
@@ -441,6 +626,7 @@ public class PlayerData {
 
     public void setUnlockedRecipes(Map<String, Boolean> unlockedRecipes) {
         this.unlockedRecipes = unlockedRecipes;
+        markFieldDirty("unlockedRecipes");
     }
 
     public Set<String> getFriendRequests() {
@@ -449,6 +635,7 @@ public class PlayerData {
 
     public void setFriendRequests(Set<String> friendRequests) {
         this.friendRequests = friendRequests;
+        markFieldDirty("friendRequests");
     }
 
     public Set<String> getFriends() {
@@ -457,6 +644,7 @@ public class PlayerData {
 
     public void setFriends(Set<String> friends) {
         this.friends = friends;
+        markFieldDirty("friends");
     }
 
     public Set<String> getBlockedPlayers() {
@@ -465,6 +653,7 @@ public class PlayerData {
 
     public void setBlockedPlayers(Set<String> blockedPlayers) {
         this.blockedPlayers = blockedPlayers;
+        markFieldDirty("blockedPlayers");
     }
 
     public boolean isBlockingRequests() {
@@ -473,6 +662,7 @@ public class PlayerData {
 
     public void setBlockingRequests(boolean blockingRequests) {
         this.blockingRequests = blockingRequests;
+        markFieldDirty("blockingRequests");
     }
 
     public int getAttributePoints() {
@@ -481,6 +671,7 @@ public class PlayerData {
 
     public void setAttributePoints(int attributePoints) {
         this.attributePoints = attributePoints;
+        markFieldDirty("attributePoints");
     }
 
     public List<String> getActiveQuests() {
@@ -489,6 +680,7 @@ public class PlayerData {
 
     public void setActiveQuests(List<String> activeQuests) {
         this.activeQuests = activeQuests;
+        markFieldDirty("activeQuests");
     }
 
     public Map<String, Map<String, Integer>> getQuestProgress() {
@@ -497,6 +689,7 @@ public class PlayerData {
 
     public void setQuestProgress(Map<String, Map<String, Integer>> questProgress) {
         this.questProgress = questProgress;
+        markFieldDirty("questProgress");
     }
 
     public List<String> getCompletedQuests() {
@@ -505,6 +698,7 @@ public class PlayerData {
 
     public void setCompletedQuests(List<String> completedQuests) {
         this.completedQuests = completedQuests;
+        markFieldDirty("completedQuests");
     }
 
     public String getPinnedQuest() {
@@ -513,6 +707,7 @@ public class PlayerData {
 
     public void setPinnedQuest(String pinnedQuest) {
         this.pinnedQuest = pinnedQuest;
+        markFieldDirty("pinnedQuest");
     }
 
     public int getPendingBalance() {
@@ -521,6 +716,7 @@ public class PlayerData {
 
     public void setPendingBalance(int pendingBalance) {
         this.pendingBalance = pendingBalance;
+        markFieldDirty("pendingBalance");
     }
 
     public List<String> getPendingItems() {
@@ -529,6 +725,7 @@ public class PlayerData {
 
     public void setPendingItems(List<String> pendingItems) {
         this.pendingItems = pendingItems;
+        markFieldDirty("pendingItems");
     }
 
     public boolean isRemindersEnabled() {
@@ -537,6 +734,7 @@ public class PlayerData {
 
     public void setRemindersEnabled(boolean remindersEnabled) {
         this.remindersEnabled = remindersEnabled;
+        markFieldDirty("remindersEnabled");
     }
 
     public Map<String, String> getEquipment() {
@@ -545,6 +743,7 @@ public class PlayerData {
 
     public void setEquipment(Map<String, String> equipment) {
         this.equipment = equipment;
+        markFieldDirty("equipment");
     }
 
     public List<String> getCompletedDialogues() {
@@ -553,6 +752,7 @@ public class PlayerData {
 
     public void setCompletedDialogues(List<String> completedDialogues) {
         this.completedDialogues = completedDialogues;
+        markFieldDirty("completedDialogues");
     }
 
     public Long getDiscordId() {
@@ -561,6 +761,7 @@ public class PlayerData {
 
     public void setDiscordId(Long discordId) {
         this.discordId = discordId;
+        markFieldDirty("discordId");
     }
 
     public Map<String, Integer> getQuestPhaseIndex() {
@@ -569,6 +770,7 @@ public class PlayerData {
 
     public void setQuestPhaseIndex(Map<String, Integer> questPhaseIndex) {
         this.questPhaseIndex = questPhaseIndex;
+        markFieldDirty("questPhaseIndex");
     }
 
     public Map<String, Long> getQuestStartTime() {
@@ -577,5 +779,6 @@ public class PlayerData {
 
     public void setQuestStartTime(Map<String, Long> questStartTime) {
         this.questStartTime = questStartTime;
+        markFieldDirty("questStartTime");
     }
 }
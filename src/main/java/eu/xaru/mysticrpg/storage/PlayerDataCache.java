@@ -1,12 +1,15 @@
 package eu.xaru.mysticrpg.storage;
 
 import eu.xaru.mysticrpg.storage.database.DatabaseManager;
+import eu.xaru.mysticrpg.storage.database.PendingSave;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
 import org.bukkit.Bukkit;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 /**
@@ -75,6 +78,7 @@ public class PlayerDataCache {
             @Override
             public void onSuccess(PlayerData playerData) {
                 playerData.ensureMutableCollections();
+                playerData.markClean();
                 cache.put(playerUUID, playerData);
                 DebugLogger.getInstance().log(Level.INFO, "Player data loaded/cached for: " + playerUUID, 0);
                 callback.onSuccess(playerData);
@@ -115,6 +119,76 @@ public class PlayerDataCache {
         dirtyPlayers.add(playerUUID);
     }
 
+    /**
+     * Adds gold to a player's pending balance, paid out when they next join. The callback
+     * fires once the new balance has been saved.
+     */
+    public void addPendingBalance(UUID playerUUID, int amount, Callback<Void> callback) {
+        updateCachedOrStored(playerUUID,
+                data -> data.setPendingBalance(data.getPendingBalance() + amount),
+                "pendingBalance", callback);
+    }
+
+    /**
+     * Adds a (base64) item to a player's pending items, handed out when they next join. The
+     * callback fires once the item has been saved.
+     */
+    public void addPendingItem(UUID playerUUID, String itemData, Callback<Void> callback) {
+        updateCachedOrStored(playerUUID, data -> {
+            List<String> items = new ArrayList<>(data.getPendingItems());
+            items.add(itemData);
+            data.setPendingItems(items);
+        }, "pendingItems", callback);
+    }
+
+    /**
+     * Applies a change to the player's data and saves it. Cached players are changed in the
+     * cache. For players that are not cached (offline) the stored data is updated as one
+     * read-modify-write on the player's lane, so a login load queued meanwhile sees the change.
+     * If the player got cached before the update ran, the change goes to the cached data instead.
+     */
+    private void updateCachedOrStored(UUID playerUUID, Consumer<PlayerData> change, String field,
+                                      Callback<Void> callback) {
+        PlayerData cached = cache.get(playerUUID);
+        if (cached != null) {
+            change.accept(cached);
+            savePlayerData(playerUUID, callback);
+            return;
+        }
+        AtomicReference<PlayerData> appliedTo = new AtomicReference<>();
+        databaseManager.getPlayerRepository().update(playerUUID, (stored, fields) -> {
+            PlayerData current = cache.get(playerUUID);
+            if (current != null) {
+                change.accept(current);
+                appliedTo.set(current);
+                fields.onSuccess(List.of());
+                return;
+            }
+            stored.ensureMutableCollections();
+            stored.markClean();
+            change.accept(stored);
+            fields.onSuccess(List.of(field));
+        }, new Callback<>() {
+            @Override
+            public void onSuccess(Void result) {
+                PlayerData applied = appliedTo.get();
+                if (applied == null) {
+                    callback.onSuccess(null);
+                } else if (cache.get(playerUUID) == applied) {
+                    savePlayerData(playerUUID, callback);
+                } else {
+                    // That copy was dropped unsaved (e.g. a refused login), apply the change again
+                    updateCachedOrStored(playerUUID, change, field, callback);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
     /**
      * Immediately save data for the given player, plus callback on success/failure.
      */
@@ -129,7 +203,11 @@ public class PlayerDataCache {
         doSave(data, callback);
     }
 
+    /**
+     * Full-document save. Everything in memory is written, so field tracking is reset first.
+     */
     private void doSave(PlayerData data, Callback<Void> callback) {
+        data.markClean();
         databaseManager.getPlayerRepository().save(data, new Callback<>() {
             @Override
             public void onSuccess(Void result) {
@@ -142,6 +220,7 @@ public class PlayerDataCache {
 
             @Override
             public void onFailure(Throwable throwable) {
+                data.requireFullSave();
                 DebugLogger.getInstance().error("Failed to save data for: " + data.getUuid(), throwable);
                 if (callback != null) {
                     callback.onFailure(throwable);
@@ -151,7 +230,51 @@ public class PlayerDataCache {
     }
 
     /**
-     * Periodic flush of all dirty data to DB.
+     * Builds the pending write for one dirty player: a partial write of only the fields that
+     * changed since the last flush, or a full save for data that was never written as a whole.
+     *
+     * @return The pending write, or null if nothing actually changed.
+     */
+    private PendingSave<PlayerData> buildPendingSave(UUID uuid, PlayerData data) {
+        dirtyPlayers.remove(uuid);
+
+        if (data.isFullSaveRequired()) {
+            data.markClean();
+            return PendingSave.full(data, new Callback<>() {
+                @Override
+                public void onSuccess(Void result) {
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    data.requireFullSave();
+                    markDirty(uuid);
+                    DebugLogger.getInstance().error("Failed to save data for: " + uuid, throwable);
+                }
+            });
+        }
+
+        Set<String> changed = data.drainDirtyFields();
+        if (changed.isEmpty()) {
+            return null;
+        }
+        return PendingSave.partial(data, changed, new Callback<>() {
+            @Override
+            public void onSuccess(Void result) {
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                // Re-queue so the next flush retries these fields
+                data.markFieldsDirty(changed);
+                markDirty(uuid);
+                DebugLogger.getInstance().error("Failed to save fields " + changed + " for: " + uuid, throwable);
+            }
+        });
+    }
+
+    /**
+     * Periodic flush of all dirty data to DB as a single batch. Only changed fields are written.
      */
     private void flushDirtyData() {
         if (dirtyPlayers.isEmpty()) {
@@ -159,13 +282,59 @@ public class PlayerDataCache {
         }
         DebugLogger.getInstance().log(Level.INFO, "Flushing " + dirtyPlayers.size() + " dirty entries...", 0);
 
-        List<UUID> snapshot = new ArrayList<>(dirtyPlayers);
-        for (UUID uuid : snapshot) {
+        List<PendingSave<PlayerData>> batch = new ArrayList<>();
+        for (UUID uuid : new ArrayList<>(dirtyPlayers)) {
             PlayerData data = cache.get(uuid);
-            if (data != null) {
-                doSave(data, null);
+            if (data == null) {
+                continue;
+            }
+            PendingSave<PlayerData> pending = buildPendingSave(uuid, data);
+            if (pending != null) {
+                batch.add(pending);
             }
         }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        databaseManager.getPlayerRepository().saveBatch(batch, new Callback<>() {
+            @Override
+            public void onSuccess(Void result) {
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                DebugLogger.getInstance().log(Level.INFO, "Flushed " + batch.size() + " entries in " + millis + " ms", 0);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                DebugLogger.getInstance().error("Flush batch of " + batch.size() + " entries had failures", throwable);
+            }
+        });
+    }
+
+    /**
+     * Cache many entries and write them as full documents in one batch.
+     */
+    public void cacheAndSaveAll(Map<UUID, PlayerData> entries, Callback<Void> callback) {
+        for (Map.Entry<UUID, PlayerData> entry : entries.entrySet()) {
+            cache.put(entry.getKey(), entry.getValue());
+            entry.getValue().markClean();
+        }
+        databaseManager.getPlayerRepository().saveAll(entries.values(), new Callback<>() {
+            @Override
+            public void onSuccess(Void result) {
+                callback.onSuccess(result);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                for (Map.Entry<UUID, PlayerData> entry : entries.entrySet()) {
+                    entry.getValue().requireFullSave();
+                    markDirty(entry.getKey());
+                }
+                callback.onFailure(throwable);
+            }
+        });
     }
 
     /**
@@ -177,6 +346,17 @@ public class PlayerDataCache {
         DebugLogger.getInstance().log(Level.INFO, "Cleared cache for " + playerUUID, 0);
     }
 
+    /**
+     * Clear a player's data only if the cache still holds this exact instance.
+     * Saves complete asynchronously, so a quick rejoin may already have loaded a newer copy.
+     */
+    public void clearPlayerData(UUID playerUUID, PlayerData expected) {
+        if (cache.remove(playerUUID, expected)) {
+            dirtyPlayers.remove(playerUUID);
+            DebugLogger.getInstance().log(Level.INFO, "Cleared cache for " + playerUUID, 0);
+        }
+    }
+
     /**
      * Retrieve cached data if present, else null.
      */
@@ -192,6 +372,7 @@ public class PlayerDataCache {
             @Override
             public void onSuccess(PlayerData playerData) {
                 playerData.ensureMutableCollections();
+                playerData.markClean();
                 UUID uuid = UUID.fromString(playerData.getUuid());
                 cache.put(uuid, playerData);
                 callback.onSuccess(playerData);
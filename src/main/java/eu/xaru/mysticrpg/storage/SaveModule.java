@@ -9,18 +9,27 @@ import eu.xaru.mysticrpg.interfaces.IBaseModule;
 import eu.xaru.mysticrpg.managers.EventManager;
 import eu.xaru.mysticrpg.managers.ModuleManager;
 import eu.xaru.mysticrpg.storage.benchmark.DbBenchmarkCommand;
+import eu.xaru.mysticrpg.storage.benchmark.DbQueueCommand;
 import eu.xaru.mysticrpg.storage.database.DatabaseManager;
 import eu.xaru.mysticrpg.storage.database.SaveHelper;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -32,7 +41,21 @@ public class SaveModule implements IBaseModule {
     private PlayerDataCache playerDataCache;
     private EconomyHelper economyHelper;
 
-    private final EventManager eventManager = new EventManager(JavaPlugin.getPlugin(MysticCore.class));
+    private final MysticCore plugin = JavaPlugin.getPlugin(MysticCore.class);
+    private final EventManager eventManager = new EventManager(plugin);
+
+    /**
+     * How long the async login thread waits for a player's data before letting them in anyway.
+     */
+    private static final long PRELOAD_TIMEOUT_SECONDS = 10L;
+
+    /**
+     * How long preloaded data waits for its player to join before it is dropped from the cache.
+     */
+    private static final long PRELOAD_EXPIRY_TICKS = 60L * 20L;
+
+    // Data loaded at pre-login whose player has not joined yet
+    private final Map<UUID, PlayerData> preloaded = new ConcurrentHashMap<>();
 
     @Override
     public void initialize() {
@@ -52,6 +75,8 @@ public class SaveModule implements IBaseModule {
 
         // Register /dbbench command for DB benchmarking
         DbBenchmarkCommand.register();
+        // Register /dbqueue command for I/O executor metrics
+        DbQueueCommand.register();
 
         // Acquire EconomyHelper
         EconomyModule econModule = ModuleManager.getInstance().getModuleInstance(EconomyModule.class);
@@ -62,36 +87,65 @@ public class SaveModule implements IBaseModule {
             return;
         }
 
-        // Register PlayerJoinEvent to load data
+        // Preload data before the player joins. Repository calls run on the I/O executor,
+        // so waiting here only blocks the async login thread, never the main thread.
+        eventManager.registerEvent(AsyncPlayerPreLoginEvent.class, event -> {
+            if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+                return;
+            }
+            UUID uuid = event.getUniqueId();
+            CountDownLatch loaded = new CountDownLatch(1);
+            playerDataCache.loadPlayerData(uuid, new Callback<>() {
+                @Override
+                public void onSuccess(PlayerData data) {
+                    preloaded.put(uuid, data);
+                    // If the login is cancelled without a PlayerLoginEvent (e.g. the connection drops)
+                    Bukkit.getScheduler().runTaskLater(plugin, () -> evictPreloaded(uuid, data), PRELOAD_EXPIRY_TICKS);
+                    loaded.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    // Join retries the load and reports the failure to the player
+                    loaded.countDown();
+                }
+            });
+            try {
+                if (!loaded.await(PRELOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    DebugLogger.getInstance().log(Level.WARNING, "Preloading data for " + uuid + " timed out", 0);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, EventPriority.MONITOR);
+
+        // A login rejected after pre-login (whitelist, ban, full server) never joins or quits
+        eventManager.registerEvent(PlayerLoginEvent.class, event -> {
+            if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+                PlayerData data = preloaded.get(event.getPlayer().getUniqueId());
+                if (data != null) {
+                    evictPreloaded(event.getPlayer().getUniqueId(), data);
+                }
+            }
+        }, EventPriority.MONITOR);
+
+        // Register PlayerJoinEvent to apply pending deliveries (and load data if preloading failed)
         eventManager.registerEvent(PlayerJoinEvent.class, event -> {
             Player player = event.getPlayer();
             UUID uuid = player.getUniqueId();
+            preloaded.remove(uuid);
+
+            PlayerData cached = playerDataCache.getCachedPlayerData(uuid);
+            if (cached != null) {
+                onDataLoaded(player, cached);
+                return;
+            }
 
             DebugLogger.getInstance().log(Level.INFO, "Load data for: " + player.getName(), 0);
             playerDataCache.loadPlayerData(uuid, new Callback<>() {
                 @Override
                 public void onSuccess(PlayerData data) {
-                    DebugLogger.getInstance().log(Level.INFO, "Data loaded for " + player.getName(), 0);
-
-                    // Check pending balance/items
-                    if (data.getPendingBalance() > 0) {
-                        int pending = data.getPendingBalance();
-                        data.setBankGold(data.getBankGold() + pending);
-                        data.setPendingBalance(0);
-                        player.sendMessage(Utils.getInstance().$("You received $" + pending + " from sold auctions."));
-                    }
-                    if (!data.getPendingItems().isEmpty()) {
-                        for (String base64 : data.getPendingItems()) {
-                            ItemStack item = SaveHelper.itemStackFromBase64(base64);
-                            if (item != null) {
-                                player.getInventory().addItem(item);
-                            }
-                        }
-                        data.getPendingItems().clear();
-                        player.sendMessage(Utils.getInstance().$("You received items from expired auctions."));
-                    }
-                    // Mark dirty so it eventually flushes
-                    playerDataCache.markDirty(uuid);
+                    onDataLoaded(player, data);
                 }
 
                 @Override
@@ -106,13 +160,14 @@ public class SaveModule implements IBaseModule {
         eventManager.registerEvent(PlayerQuitEvent.class, event -> {
             Player player = event.getPlayer();
             UUID uuid = player.getUniqueId();
+            PlayerData data = playerDataCache.getCachedPlayerData(uuid);
 
             DebugLogger.getInstance().log(Level.INFO, "Saving data for: " + player.getName(), 0);
             playerDataCache.savePlayerData(uuid, new Callback<>() {
                 @Override
                 public void onSuccess(Void result) {
                     DebugLogger.getInstance().log(Level.INFO, "Data saved for " + player.getName(), 0);
-                    playerDataCache.clearPlayerData(uuid);
+                    playerDataCache.clearPlayerData(uuid, data);
                     DebugLogger.getInstance().log(Level.INFO, "Cache cleared for " + player.getName(), 0);
                 }
 
@@ -124,10 +179,47 @@ public class SaveModule implements IBaseModule {
         });
     }
 
+    /**
+     * Drops preloaded data whose player never joined, unless they are online by now.
+     */
+    private void evictPreloaded(UUID uuid, PlayerData data) {
+        if (!preloaded.remove(uuid, data) || Bukkit.getPlayer(uuid) != null) {
+            return;
+        }
+        playerDataCache.clearPlayerData(uuid, data);
+        DebugLogger.getInstance().log(Level.INFO, "Dropped preloaded data of " + uuid + ", the player did not join", 0);
+    }
+
+    private void onDataLoaded(Player player, PlayerData data) {
+        DebugLogger.getInstance().log(Level.INFO, "Data loaded for " + player.getName(), 0);
 
+        // Check pending balance/items
+        if (data.getPendingBalance() > 0) {
+            int pending = data.getPendingBalance();
+            data.setBankGold(data.getBankGold() + pending);
+            data.setPendingBalance(0);
+            player.sendMessage(Utils.getInstance().$("You received $" + pending + " from sold auctions."));
+        }
+        if (!data.getPendingItems().isEmpty()) {
+            for (String base64 : data.getPendingItems()) {
+                ItemStack item = SaveHelper.itemStackFromBase64(base64);
+                if (item != null) {
+                    player.getInventory().addItem(item);
+                }
+            }
+            data.getPendingItems().clear();
+            player.sendMessage(Utils.getInstance().$("You received items from expired auctions."));
+        }
+        // Mark dirty so it eventually flushes
+        playerDataCache.markDirty(player.getUniqueId());
+    }
 
     @Override
     public void stop() {
+        // Let queued saves (e.g. from players kicked on shutdown) reach the database
+        if (databaseManager != null) {
+            databaseManager.shutdown();
+        }
     }
 
     @Override
@@ -0,0 +1,503 @@
+package eu.xaru.mysticrpg.storage;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * ArrayList / HashSet / HashMap variants that run a callback after every in-place change,
+ * including changes through iterators, entries and map views. PlayerData puts its persisted
+ * collections in these so a change marks the field dirty where it happens, and a flush never
+ * has to compare collections to find out what changed.
+ *
+ * The callback runs after the change, so a flush that sees the mark also sees the new contents.
+ */
+final class TrackedCollections {
+
+    private TrackedCollections() {
+    }
+
+    /**
+     * @return A tracked copy of the collection, or the collection itself if it already is one.
+     *         Map values that are maps themselves (e.g. quest progress per quest) are tracked too.
+     */
+    @SuppressWarnings("unchecked")
+    static Object track(CollectionKind kind, Object value, Runnable onChange) {
+        if (isTracked(value)) {
+            return value;
+        }
+        return switch (kind) {
+            case LIST -> new TrackedList<>(value == null ? List.of() : (Collection<Object>) value, onChange);
+            case SET -> new TrackedSet<>(value == null ? Set.of() : (Collection<Object>) value, onChange);
+            case MAP -> new TrackedMap<>(value == null ? Map.of() : (Map<Object, Object>) value, onChange);
+        };
+    }
+
+    static boolean isTracked(Object value) {
+        return value instanceof TrackedList<?> || value instanceof TrackedSet<?> || value instanceof TrackedMap<?, ?>;
+    }
+
+    static final class TrackedList<E> extends ArrayList<E> {
+
+        private final transient Runnable onChange;
+
+        TrackedList(Collection<? extends E> source, Runnable onChange) {
+            super(source);
+            this.onChange = onChange;
+        }
+
+        private <R> R changed(R result) {
+            onChange.run();
+            return result;
+        }
+
+        @Override
+        public boolean add(E e) {
+            return changed(super.add(e));
+        }
+
+        @Override
+        public void add(int index, E element) {
+            super.add(index, element);
+            onChange.run();
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return changed(super.addAll(c));
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> c) {
+            return changed(super.addAll(index, c));
+        }
+
+        @Override
+        public E set(int index, E element) {
+            return changed(super.set(index, element));
+        }
+
+        @Override
+        public E remove(int index) {
+            return changed(super.remove(index));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            boolean removed = super.remove(o);
+            if (removed) {
+                onChange.run();
+            }
+            return removed;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return changed(super.removeAll(c));
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            return changed(super.retainAll(c));
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            return changed(super.removeIf(filter));
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<E> operator) {
+            super.replaceAll(operator);
+            onChange.run();
+        }
+
+        @Override
+        public void sort(Comparator<? super E> c) {
+            super.sort(c);
+            onChange.run();
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            onChange.run();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new TrackedListIterator<>(super.listIterator(), onChange);
+        }
+
+        @Override
+        public ListIterator<E> listIterator() {
+            return new TrackedListIterator<>(super.listIterator(), onChange);
+        }
+
+        @Override
+        public ListIterator<E> listIterator(int index) {
+            return new TrackedListIterator<>(super.listIterator(index), onChange);
+        }
+
+        @Override
+        public List<E> subList(int fromIndex, int toIndex) {
+            // The view writes straight through; assume it is written
+            onChange.run();
+            return super.subList(fromIndex, toIndex);
+        }
+    }
+
+    static final class TrackedSet<E> extends HashSet<E> {
+
+        private final transient Runnable onChange;
+
+        TrackedSet(Collection<? extends E> source, Runnable onChange) {
+            super(Math.max((int) (source.size() / .75f) + 1, 16));
+            this.onChange = onChange;
+            for (E e : source) {
+                super.add(e);
+            }
+        }
+
+        @Override
+        public boolean add(E e) {
+            boolean added = super.add(e);
+            if (added) {
+                onChange.run();
+            }
+            return added;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            boolean removed = super.remove(o);
+            if (removed) {
+                onChange.run();
+            }
+            return removed;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            boolean removed = super.removeIf(filter);
+            if (removed) {
+                onChange.run();
+            }
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            onChange.run();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new TrackedIterator<>(super.iterator(), onChange);
+        }
+    }
+
+    static final class TrackedMap<K, V> extends HashMap<K, V> {
+
+        private final transient Runnable onChange;
+
+        TrackedMap(Map<? extends K, ? extends V> source, Runnable onChange) {
+            super(Math.max((int) (source.size() / .75f) + 1, 16));
+            this.onChange = onChange;
+            for (Map.Entry<? extends K, ? extends V> entry : source.entrySet()) {
+                super.put(entry.getKey(), wrap(entry.getValue()));
+            }
+        }
+
+        /**
+         * Nested maps report their changes as changes of this map.
+         */
+        @SuppressWarnings("unchecked")
+        private V wrap(V value) {
+            if (value instanceof Map<?, ?> map && !(value instanceof TrackedMap<?, ?>)) {
+                return (V) new TrackedMap<>((Map<Object, Object>) map, onChange);
+            }
+            return value;
+        }
+
+        private <R> R changed(R result) {
+            onChange.run();
+            return result;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            return changed(super.put(key, wrap(value)));
+        }
+
+        @Override
+        public void putAll(Map<? extends K, ? extends V> m) {
+            for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+                super.put(entry.getKey(), wrap(entry.getValue()));
+            }
+            onChange.run();
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            return changed(super.putIfAbsent(key, wrap(value)));
+        }
+
+        @Override
+        public V remove(Object key) {
+            if (!containsKey(key)) {
+                return null;
+            }
+            return changed(super.remove(key));
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            boolean removed = super.remove(key, value);
+            if (removed) {
+                onChange.run();
+            }
+            return removed;
+        }
+
+        @Override
+        public V replace(K key, V value) {
+            return changed(super.replace(key, wrap(value)));
+        }
+
+        @Override
+        public boolean replace(K key, V oldValue, V newValue) {
+            return changed(super.replace(key, oldValue, wrap(newValue)));
+        }
+
+        @Override
+        public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+            if (containsKey(key) && get(key) != null) {
+                return get(key);
+            }
+            return changed(super.computeIfAbsent(key, k -> wrap(mappingFunction.apply(k))));
+        }
+
+        @Override
+        public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            return changed(super.computeIfPresent(key, (k, v) -> wrap(remappingFunction.apply(k, v))));
+        }
+
+        @Override
+        public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            return changed(super.compute(key, (k, v) -> wrap(remappingFunction.apply(k, v))));
+        }
+
+        @Override
+        public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+            return changed(super.merge(key, wrap(value), (a, b) -> wrap(remappingFunction.apply(a, b))));
+        }
+
+        @Override
+        public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+            super.replaceAll((k, v) -> wrap(function.apply(k, v)));
+            onChange.run();
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            onChange.run();
+        }
+
+        @Override
+        public Set<K> keySet() {
+            Set<K> keys = super.keySet();
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<K> iterator() {
+                    return new TrackedIterator<>(keys.iterator(), onChange);
+                }
+
+                @Override
+                public int size() {
+                    return TrackedMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    if (!containsKey(o)) {
+                        return false;
+                    }
+                    TrackedMap.this.remove(o);
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    TrackedMap.this.clear();
+                }
+            };
+        }
+
+        @Override
+        public Collection<V> values() {
+            Collection<V> values = super.values();
+            return new AbstractCollection<>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new TrackedIterator<>(values.iterator(), onChange);
+                }
+
+                @Override
+                public int size() {
+                    return TrackedMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsValue(o);
+                }
+
+                @Override
+                public void clear() {
+                    TrackedMap.this.clear();
+                }
+            };
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            Set<Map.Entry<K, V>> entries = super.entrySet();
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    Iterator<Map.Entry<K, V>> it = entries.iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<K, V> next() {
+                            Map.Entry<K, V> entry = it.next();
+                            return new AbstractMap.SimpleEntry<>(entry) {
+                                @Override
+                                public V setValue(V value) {
+                                    V wrapped = wrap(value);
+                                    super.setValue(wrapped);
+                                    return changed(entry.setValue(wrapped));
+                                }
+                            };
+                        }
+
+                        @Override
+                        public void remove() {
+                            it.remove();
+                            onChange.run();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return TrackedMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return entries.contains(o);
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    boolean removed = entries.remove(o);
+                    if (removed) {
+                        onChange.run();
+                    }
+                    return removed;
+                }
+
+                @Override
+                public void clear() {
+                    TrackedMap.this.clear();
+                }
+            };
+        }
+    }
+
+    private static class TrackedIterator<E> implements Iterator<E> {
+
+        private final Iterator<E> delegate;
+        private final Runnable onChange;
+
+        TrackedIterator(Iterator<E> delegate, Runnable onChange) {
+            this.delegate = delegate;
+            this.onChange = onChange;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public E next() {
+            return delegate.next();
+        }
+
+        @Override
+        public void remove() {
+            delegate.remove();
+            onChange.run();
+        }
+    }
+
+    private static final class TrackedListIterator<E> extends TrackedIterator<E> implements ListIterator<E> {
+
+        private final ListIterator<E> listDelegate;
+        private final Runnable onChange;
+
+        TrackedListIterator(ListIterator<E> delegate, Runnable onChange) {
+            super(delegate, onChange);
+            this.listDelegate = delegate;
+            this.onChange = onChange;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return listDelegate.hasPrevious();
+        }
+
+        @Override
+        public E previous() {
+            return listDelegate.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return listDelegate.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            return listDelegate.previousIndex();
+        }
+
+        @Override
+        public void set(E e) {
+            listDelegate.set(e);
+            onChange.run();
+        }
+
+        @Override
+        public void add(E e) {
+            listDelegate.add(e);
+            onChange.run();
+        }
+    }
+}
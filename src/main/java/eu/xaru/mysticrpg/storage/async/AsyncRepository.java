@@ -0,0 +1,338 @@
+package eu.xaru.mysticrpg.storage.async;
+
+import eu.xaru.mysticrpg.cores.MysticCore;
+import eu.xaru.mysticrpg.storage.Callback;
+import eu.xaru.mysticrpg.storage.annotations.Persist;
+import eu.xaru.mysticrpg.storage.database.IRepository;
+import eu.xaru.mysticrpg.storage.database.PendingSave;
+import eu.xaru.mysticrpg.utils.DebugLogger;
+import org.bukkit.Bukkit;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Decorator that moves every call of the wrapped repository (SQLite, Mongo or Redis)
+ * onto a dedicated I/O executor, so a slow disk or network never stalls the tick.
+ *
+ * Calls for the same id share a serial lane: a save queued before a load of the same
+ * player is always visible to that load, and two saves never reorder. The number of
+ * queued operations is bounded; background callers block for a while when it is full,
+ * the main thread never blocks. Callbacks are delivered back on the main thread.
+ *
+ * @param <T> The data model type
+ */
+public class AsyncRepository<T> implements IRepository<T> {
+
+    /**
+     * How long a background caller may wait for queue space before the call is rejected.
+     */
+    private static final long ACQUIRE_TIMEOUT_MS = 5000L;
+
+    private final IRepository<T> delegate;
+    private final String name;
+    private final Field idField;
+    private final ExecutorService executor;
+    private final boolean callbacksOnMainThread;
+
+    private final KeyedSerialQueue lanes = new KeyedSerialQueue();
+    private final Semaphore permits;
+    private final int maxQueued;
+
+    // Metrics
+    private final LatencyRecorder latency = new LatencyRecorder(2048);
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong overLimit = new AtomicLong();
+
+    public AsyncRepository(Class<T> type,
+                           IRepository<T> delegate,
+                           String idKey,
+                           ExecutorService executor,
+                           int maxQueued,
+                           boolean callbacksOnMainThread) {
+        this.delegate = delegate;
+        this.name = type.getSimpleName();
+        this.idField = findIdField(type, idKey);
+        this.executor = executor;
+        this.maxQueued = maxQueued;
+        this.permits = new Semaphore(maxQueued);
+        this.callbacksOnMainThread = callbacksOnMainThread;
+    }
+
+    private static Field findIdField(Class<?> type, String idKey) {
+        for (Field field : type.getDeclaredFields()) {
+            Persist persist = field.getAnnotation(Persist.class);
+            if (persist == null) {
+                continue;
+            }
+            String key = persist.key().isEmpty() ? field.getName() : persist.key();
+            if (key.equals(idKey)) {
+                field.setAccessible(true);
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("No @Persist field '" + idKey + "' on " + type.getName());
+    }
+
+    private String idOf(T entity) {
+        try {
+            Object id = idField.get(entity);
+            return id == null ? null : id.toString();
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /* ===========================
+       ====== REPOSITORY API ======
+       =========================== */
+
+    @Override
+    public void save(T entity, Callback<Void> callback) {
+        submit(List.of(laneKey(idOf(entity))), callback, cb -> delegate.save(entity, cb));
+    }
+
+    @Override
+    public void saveFields(T entity, Collection<String> fields, Callback<Void> callback) {
+        submit(List.of(laneKey(idOf(entity))), callback, cb -> delegate.saveFields(entity, fields, cb));
+    }
+
+    @Override
+    public void saveBatch(Collection<PendingSave<T>> saves, Callback<Void> callback) {
+        List<String> keys = new ArrayList<>(saves.size());
+        List<PendingSave<T>> routed = new ArrayList<>(saves.size());
+        for (PendingSave<T> pending : saves) {
+            keys.add(laneKey(idOf(pending.entity())));
+            // Per-entity callbacks hop threads like every other callback
+            Callback<Void> each = pending.callback() == null ? null : deliverOnMainThread(pending.callback());
+            routed.add(new PendingSave<>(pending.entity(), pending.fields(), each));
+        }
+        submit(keys, callback, cb -> delegate.saveBatch(routed, cb));
+    }
+
+    @Override
+    public void load(UUID uuid, Callback<T> callback) {
+        submit(List.of(laneKey(uuid.toString())), callback, cb -> delegate.load(uuid, cb));
+    }
+
+    /**
+     * Holds the id's lane from the load until the write is done. {@code change} is delivered
+     * like any callback; the write it asks for goes back to the I/O executor.
+     */
+    @Override
+    public void update(UUID uuid, BiConsumer<T, Callback<Collection<String>>> change, Callback<Void> callback) {
+        submit(List.of(laneKey(uuid.toString())), callback, cb -> delegate.update(uuid,
+                (entity, fields) -> deliver(() -> change.accept(entity, onExecutor(fields))), cb));
+    }
+
+    @Override
+    public void delete(UUID uuid, Callback<Void> callback) {
+        submit(List.of(laneKey(uuid.toString())), callback, cb -> delegate.delete(uuid, cb));
+    }
+
+    @Override
+    public void loadAll(Callback<List<T>> callback) {
+        submit(List.of(), callback, delegate::loadAll);
+    }
+
+    @Override
+    public void loadTop(String field, int limit, Callback<List<T>> callback) {
+        submit(List.of(), callback, cb -> delegate.loadTop(field, limit, cb));
+    }
+
+    @Override
+    public void loadByDiscordId(long discordId, Callback<T> callback) {
+        submit(List.of(), callback, cb -> delegate.loadByDiscordId(discordId, cb));
+    }
+
+    private String laneKey(String id) {
+        // Entities without an id still get serialized among themselves
+        return id == null ? "" : id;
+    }
+
+    /* ===========================
+       ======== EXECUTION =========
+       =========================== */
+
+    /**
+     * Queues one operation on the lanes of the given keys (none for id-less reads) and runs it
+     * on the I/O executor. The lanes stay held until the wrapped repository calls back.
+     */
+    private <R> void submit(Collection<String> keys, Callback<R> callback, Consumer<Callback<R>> call) {
+        boolean acquired = acquirePermit();
+        if (!acquired && !Bukkit.isPrimaryThread()) {
+            rejected.incrementAndGet();
+            deliver(() -> callback.onFailure(new RejectedExecutionException(
+                    name + " I/O queue is full (" + maxQueued + " operations)")));
+            return;
+        }
+        if (!acquired) {
+            // Never block or drop main-thread writes such as quit saves; just count them
+            overLimit.incrementAndGet();
+        }
+        queued.incrementAndGet();
+        long enqueuedAt = System.nanoTime();
+
+        lanes.submitAll(keys, done -> {
+            AtomicBoolean finished = new AtomicBoolean();
+            Runnable finish = () -> {
+                if (finished.compareAndSet(false, true)) {
+                    latency.record((System.nanoTime() - enqueuedAt) / 1000);
+                    completed.incrementAndGet();
+                    queued.decrementAndGet();
+                    if (acquired) {
+                        permits.release();
+                    }
+                    done.run();
+                }
+            };
+            Callback<R> wrapped = new Callback<>() {
+                @Override
+                public void onSuccess(R result) {
+                    finish.run();
+                    deliver(() -> callback.onSuccess(result));
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    finish.run();
+                    deliver(() -> callback.onFailure(throwable));
+                }
+            };
+            try {
+                executor.execute(() -> {
+                    try {
+                        call.accept(wrapped);
+                    } catch (Throwable t) {
+                        DebugLogger.getInstance().error(name + " repository call failed", t);
+                        wrapped.onFailure(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Executor already shut down
+                wrapped.onFailure(e);
+            }
+        });
+    }
+
+    private boolean acquirePermit() {
+        if (Bukkit.isPrimaryThread()) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(ACQUIRE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void deliver(Runnable task) {
+        MysticCore plugin = MysticCore.getInstance();
+        if (!callbacksOnMainThread || Bukkit.isPrimaryThread() || plugin == null || !plugin.isEnabled()) {
+            task.run();
+            return;
+        }
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    private <R> Callback<R> deliverOnMainThread(Callback<R> callback) {
+        return new Callback<>() {
+            @Override
+            public void onSuccess(R result) {
+                deliver(() -> callback.onSuccess(result));
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                deliver(() -> callback.onFailure(throwable));
+            }
+        };
+    }
+
+    private <R> Callback<R> onExecutor(Callback<R> callback) {
+        return new Callback<>() {
+            @Override
+            public void onSuccess(R result) {
+                runOnExecutor(() -> callback.onSuccess(result));
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                runOnExecutor(() -> callback.onFailure(throwable));
+            }
+        };
+    }
+
+    private void runOnExecutor(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Executor already shut down
+            task.run();
+        }
+    }
+
+    /**
+     * Waits for all queued operations to finish, e.g. on shutdown.
+     *
+     * @return true if the queue drained within the timeout.
+     */
+    public boolean awaitIdle(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (queued.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                DebugLogger.getInstance().log(Level.WARNING, name + " repository still has " + queued.get() + " queued operations", 0);
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* ===========================
+       ========= METRICS ==========
+       =========================== */
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getActiveLanes() {
+        return lanes.activeLanes();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getOverLimit() {
+        return overLimit.get();
+    }
+
+    public LatencyRecorder getLatency() {
+        return latency;
+    }
+}
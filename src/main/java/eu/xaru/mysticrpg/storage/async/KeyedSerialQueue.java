@@ -0,0 +1,115 @@
+package eu.xaru.mysticrpg.storage.async;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serial lanes keyed by entity id. Steps in the same lane run one after another,
+ * in submission order; different lanes run independently. A step signals completion
+ * through the {@code done} runnable, so asynchronous work (e.g. a reactive Mongo call)
+ * keeps its lane busy until it actually finishes, without holding a thread.
+ */
+class KeyedSerialQueue {
+
+    /**
+     * A unit of work in a lane. Must call {@code done} exactly once when finished.
+     */
+    interface Step {
+        void run(Runnable done);
+    }
+
+    /**
+     * Busy lanes and their waiting steps. A key is present only while its lane is busy.
+     */
+    private final Map<String, ArrayDeque<Step>> lanes = new HashMap<>();
+
+    /**
+     * Queues a step in the lane of the given key.
+     */
+    void submit(String key, Step step) {
+        synchronized (lanes) {
+            ArrayDeque<Step> waiting = lanes.get(key);
+            if (waiting != null) {
+                waiting.add(step);
+                return;
+            }
+            lanes.put(key, new ArrayDeque<>());
+        }
+        start(key, step);
+    }
+
+    /**
+     * Queues a step that runs once it is at the head of every given lane, and holds all
+     * of them until done. All lanes are joined atomically, so two multi-key steps are
+     * ordered the same way in every lane they share and can never wait on each other.
+     */
+    void submitAll(Collection<String> keys, Step step) {
+        Set<String> unique = new LinkedHashSet<>(keys);
+        if (unique.isEmpty()) {
+            step.run(() -> {
+            });
+            return;
+        }
+        if (unique.size() == 1) {
+            submit(unique.iterator().next(), step);
+            return;
+        }
+
+        AtomicInteger waitingFor = new AtomicInteger(unique.size());
+        List<Runnable> heldLanes = Collections.synchronizedList(new ArrayList<>(unique.size()));
+        Step member = done -> {
+            heldLanes.add(done);
+            if (waitingFor.decrementAndGet() == 0) {
+                step.run(() -> {
+                    List<Runnable> release;
+                    synchronized (heldLanes) {
+                        release = new ArrayList<>(heldLanes);
+                    }
+                    release.forEach(Runnable::run);
+                });
+            }
+        };
+
+        List<String> idle = new ArrayList<>();
+        synchronized (lanes) {
+            for (String key : unique) {
+                ArrayDeque<Step> waiting = lanes.get(key);
+                if (waiting != null) {
+                    waiting.add(member);
+                } else {
+                    lanes.put(key, new ArrayDeque<>());
+                    idle.add(key);
+                }
+            }
+        }
+        for (String key : idle) {
+            start(key, member);
+        }
+    }
+
+    /**
+     * @return Number of lanes that currently have a running step.
+     */
+    int activeLanes() {
+        synchronized (lanes) {
+            return lanes.size();
+        }
+    }
+
+    private void start(String key, Step step) {
+        step.run(() -> next(key));
+    }
+
+    private void next(String key) {
+        Step step;
+        synchronized (lanes) {
+            ArrayDeque<Step> waiting = lanes.get(key);
+            step = waiting == null ? null : waiting.poll();
+            if (step == null) {
+                lanes.remove(key);
+                return;
+            }
+        }
+        start(key, step);
+    }
+}
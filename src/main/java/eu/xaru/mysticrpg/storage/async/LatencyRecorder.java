@@ -0,0 +1,54 @@
+package eu.xaru.mysticrpg.storage.async;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latency samples in a fixed ring buffer and computes
+ * percentiles on demand. Recording is O(1) and allocation-free.
+ */
+public class LatencyRecorder {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+    private long max;
+
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long micros) {
+        samples[next] = micros;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+        if (micros > max) {
+            max = micros;
+        }
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     * @return The latency in microseconds at that percentile of the recent window, 0 if empty.
+     */
+    public long percentile(double percentile) {
+        long[] copy;
+        synchronized (this) {
+            if (size == 0) {
+                return 0;
+            }
+            copy = Arrays.copyOf(samples, size);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile / 100.0 * copy.length) - 1;
+        return copy[Math.max(0, Math.min(index, copy.length - 1))];
+    }
+
+    /**
+     * @return The highest latency seen since start, in microseconds.
+     */
+    public synchronized long max() {
+        return max;
+    }
+}
@@ -1,16 +1,26 @@
 package eu.xaru.mysticrpg.storage.benchmark;
 
 import dev.jorel.commandapi.CommandAPICommand;
+import dev.jorel.commandapi.arguments.ArgumentSuggestions;
 import dev.jorel.commandapi.arguments.IntegerArgument;
+import dev.jorel.commandapi.arguments.StringArgument;
 import eu.xaru.mysticrpg.storage.Callback;
 import eu.xaru.mysticrpg.storage.PlayerData;
 import eu.xaru.mysticrpg.storage.PlayerDataCache;
+import eu.xaru.mysticrpg.storage.codec.BinaryEntityCodec;
+import eu.xaru.mysticrpg.storage.codec.EntityCodec;
+import eu.xaru.mysticrpg.storage.codec.JsonEntityCodec;
+import eu.xaru.mysticrpg.storage.codec.PersistMapper;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import eu.xaru.mysticrpg.utils.Utils;
 import org.bukkit.command.CommandSender;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicLong;
@@ -18,6 +28,8 @@ import java.util.logging.Level;
 
 /**
  * Registers /dbbench command that performs a DB stress test.
+ * Mode "single" saves each entry on its own, "batch" writes them all through one saveAll call,
+ * "codec" compares encode/decode time and blob size of the JSON and binary entity codecs.
  */
 public class DbBenchmarkCommand {
 
@@ -27,9 +39,18 @@ public class DbBenchmarkCommand {
         new CommandAPICommand("dbbench")
                 .withPermission("mysticrpg.debug")
                 .withArguments(new IntegerArgument("count", 1, 100_000))
+                .withOptionalArguments(new StringArgument("mode")
+                        .replaceSuggestions(ArgumentSuggestions.strings("single", "batch", "codec")))
                 .executes((sender, args) -> {
                     int count = (int) args.args()[0];
-                    runBenchmark(sender, count);
+                    String mode = (String) args.getOrDefault("mode", "single");
+                    if (mode.equalsIgnoreCase("batch")) {
+                        runBatchBenchmark(sender, count);
+                    } else if (mode.equalsIgnoreCase("codec")) {
+                        runCodecBenchmark(sender, count);
+                    } else {
+                        runBenchmark(sender, count);
+                    }
                 })
                 .register();
     }
@@ -42,55 +63,158 @@ public class DbBenchmarkCommand {
         AtomicLong successes = new AtomicLong(0);
         AtomicLong failures = new AtomicLong(0);
 
-        // Insert random PlayerData
+        // Submit and wait off main thread, so a full I/O queue applies backpressure here
+        new Thread(() -> {
+            // Insert random PlayerData
+            for (int i = 0; i < count; i++) {
+                UUID uuid = UUID.randomUUID();
+                PlayerData data = PlayerData.defaultData(uuid.toString());
+                data.setXp(i);
+                data.setBankGold(i * 10);
+
+                PlayerDataCache.getInstance().cacheAndMarkDirty(uuid, data, new Callback<>() {
+                    @Override
+                    public void onSuccess(Void result) {
+                        successes.incrementAndGet();
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        DebugLogger.getInstance().error("Benchmark insert fail for " + uuid, throwable);
+                        failures.incrementAndGet();
+                        latch.countDown();
+                    }
+                });
+            }
+
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long endTime = System.currentTimeMillis();
+            report(sender, "single", count, successes.get(), failures.get(), endTime - startTime);
+
+        }, "DbBenchmarkThread").start();
+    }
+
+    private static void runBatchBenchmark(CommandSender sender, int count) {
+        sender.sendMessage(Utils.getInstance().$("Starting batched DB benchmark with " + count + " inserts..."));
+
+        Map<UUID, PlayerData> entries = new LinkedHashMap<>();
         for (int i = 0; i < count; i++) {
             UUID uuid = UUID.randomUUID();
             PlayerData data = PlayerData.defaultData(uuid.toString());
             data.setXp(i);
             data.setBankGold(i * 10);
+            entries.put(uuid, data);
+        }
 
-            PlayerDataCache.getInstance().cacheAndMarkDirty(uuid, data, new Callback<>() {
+        // Off main thread, the whole batch runs in one transaction
+        new Thread(() -> {
+            long startTime = System.currentTimeMillis();
+            PlayerDataCache.getInstance().cacheAndSaveAll(entries, new Callback<>() {
                 @Override
                 public void onSuccess(Void result) {
-                    successes.incrementAndGet();
-                    latch.countDown();
+                    report(sender, "batch", count, count, 0, System.currentTimeMillis() - startTime);
                 }
 
                 @Override
                 public void onFailure(Throwable throwable) {
-                    DebugLogger.getInstance().error("Benchmark insert fail for " + uuid, throwable);
-                    failures.incrementAndGet();
-                    latch.countDown();
+                    DebugLogger.getInstance().error("Batched benchmark insert failed", throwable);
+                    report(sender, "batch", count, 0, count, System.currentTimeMillis() - startTime);
                 }
             });
-        }
+        }, "DbBenchmarkThread").start();
+    }
+
+    private static void runCodecBenchmark(CommandSender sender, int count) {
+        sender.sendMessage(Utils.getInstance().$("Starting codec benchmark with " + count + " iterations..."));
+        PlayerData sample = codecSample();
+        List<EntityCodec<PlayerData>> codecs = List.of(
+                new JsonEntityCodec<>(new PersistMapper<>(PlayerData.class)),
+                new BinaryEntityCodec<>(PlayerData.class));
 
-        // Wait off main thread
         new Thread(() -> {
+            StringBuilder summary = new StringBuilder("Codec Benchmark done!\nIterations: " + count);
             try {
-                latch.await();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                for (EntityCodec<PlayerData> codec : codecs) {
+                    byte[] blob = codec.encode(sample);
+                    // Warm up so the JIT has compiled both paths before timing
+                    for (int i = 0; i < Math.max(1000, count / 10); i++) {
+                        codec.decode(codec.encode(sample));
+                    }
+
+                    long start = System.nanoTime();
+                    for (int i = 0; i < count; i++) {
+                        blob = codec.encode(sample);
+                    }
+                    long encodeNs = (System.nanoTime() - start) / count;
+
+                    start = System.nanoTime();
+                    for (int i = 0; i < count; i++) {
+                        codec.decode(blob);
+                    }
+                    long decodeNs = (System.nanoTime() - start) / count;
+
+                    summary.append("\n").append(codec.getName()).append(": encode ").append(encodeNs)
+                            .append(" ns/op, decode ").append(decodeNs)
+                            .append(" ns/op, ").append(blob.length).append(" bytes");
+                }
+            } catch (IOException e) {
+                DebugLogger.getInstance().error("Codec benchmark failed", e);
+                sender.sendMessage(Utils.getInstance().$("Codec benchmark failed: " + e.getMessage()));
+                return;
             }
-            long endTime = System.currentTimeMillis();
-            long duration = endTime - startTime;
-
-            String summary = "DB Benchmark done!"
-                    + "\nCount: " + count
-                    + "\nSuccess: " + successes.get()
-                    + "\nFail: " + failures.get()
-                    + "\nTime: " + duration + " ms";
 
             synchronized (BENCHMARK_LOG) {
-                BENCHMARK_LOG.add(summary);
+                BENCHMARK_LOG.add(summary.toString());
             }
-
-            sender.sendMessage(Utils.getInstance().$(summary));
+            sender.sendMessage(Utils.getInstance().$(summary.toString()));
             DebugLogger.getInstance().log(Level.INFO, "[Benchmark] " + summary, 0);
-
         }, "DbBenchmarkThread").start();
     }
 
+    /**
+     * A mid-game player: some quests, friends, recipes and pets, so collections aren't empty.
+     */
+    private static PlayerData codecSample() {
+        PlayerData data = PlayerData.defaultData(UUID.randomUUID().toString());
+        data.setXp(12_345);
+        data.setLevel(27);
+        data.setBankGold(98_765);
+        data.setDiscordId(123_456_789_012_345_678L);
+        for (int i = 0; i < 10; i++) {
+            data.getActiveQuests().add("quest_" + i);
+            data.getCompletedQuests().add("done_quest_" + i);
+            data.getQuestProgress().put("quest_" + i, new HashMap<>(Map.of("kill_zombie", i, "collect_wood", i * 2)));
+            data.getQuestStartTime().put("quest_" + i, System.currentTimeMillis());
+            data.getUnlockedRecipes().put("recipe_" + i, true);
+            data.getFriends().add(UUID.randomUUID().toString());
+            data.getOwnedPets().add("pet_" + i);
+        }
+        return data;
+    }
+
+    private static void report(CommandSender sender, String mode, int count, long successes, long failures, long duration) {
+        long perSecond = duration > 0 ? successes * 1000L / duration : successes;
+        String summary = "DB Benchmark done!"
+                + "\nMode: " + mode
+                + "\nCount: " + count
+                + "\nSuccess: " + successes
+                + "\nFail: " + failures
+                + "\nTime: " + duration + " ms"
+                + "\nInserts/sec: " + perSecond;
+
+        synchronized (BENCHMARK_LOG) {
+            BENCHMARK_LOG.add(summary);
+        }
+
+        sender.sendMessage(Utils.getInstance().$(summary));
+        DebugLogger.getInstance().log(Level.INFO, "[Benchmark] " + summary, 0);
+    }
+
     public static List<String> getBenchmarkLogs() {
         synchronized (BENCHMARK_LOG) {
             return new ArrayList<>(BENCHMARK_LOG);
@@ -0,0 +1,47 @@
+package eu.xaru.mysticrpg.storage.benchmark;
+
+import dev.jorel.commandapi.CommandAPICommand;
+import eu.xaru.mysticrpg.storage.async.AsyncRepository;
+import eu.xaru.mysticrpg.storage.async.LatencyRecorder;
+import eu.xaru.mysticrpg.storage.database.DatabaseManager;
+import eu.xaru.mysticrpg.storage.redis.RedisRepository;
+import eu.xaru.mysticrpg.utils.Utils;
+
+/**
+ * Registers /dbqueue command that shows the I/O executor queue depth, latency percentiles
+ * and the Redis write-behind backlog.
+ */
+public class DbQueueCommand {
+
+    public static void register() {
+        new CommandAPICommand("dbqueue")
+                .withPermission("mysticrpg.debug")
+                .executes((sender, args) -> {
+                    if (DatabaseManager.getInstance().getAsyncRepositories().isEmpty()) {
+                        sender.sendMessage(Utils.getInstance().$("The database I/O executor is disabled."));
+                    }
+                    for (AsyncRepository<?> repository : DatabaseManager.getInstance().getAsyncRepositories()) {
+                        LatencyRecorder latency = repository.getLatency();
+                        sender.sendMessage(Utils.getInstance().$("&e" + repository.getName() + " repository:"
+                                + "\nQueued: " + repository.getQueueDepth()
+                                + " (" + repository.getActiveLanes() + " active lanes)"
+                                + "\nCompleted: " + repository.getCompleted()
+                                + "\nRejected: " + repository.getRejected()
+                                + "\nOver limit (main thread): " + repository.getOverLimit()
+                                + "\nLatency p50/p95/p99/max: "
+                                + latency.percentile(50) + " / "
+                                + latency.percentile(95) + " / "
+                                + latency.percentile(99) + " / "
+                                + latency.max() + " µs"));
+                    }
+                    for (RedisRepository<?> repository : DatabaseManager.getInstance().getRedisRepositories()) {
+                        sender.sendMessage(Utils.getInstance().$("&eRedis write-behind:"
+                                + "\nUnflushed: " + repository.getDirtyCount()
+                                + " (oldest " + repository.getOldestDirtyAgeMs() + " ms)"
+                                + "\nFlushed: " + repository.getFlushedEntries()
+                                + "\nFailed: " + repository.getFailedFlushes()));
+                    }
+                })
+                .register();
+    }
+}
@@ -0,0 +1,207 @@
+package eu.xaru.mysticrpg.storage.codec;
+
+import com.google.gson.Gson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Compact, versioned binary format for @Persist entities.
+ *
+ * Layout: magic byte, format version, varint field count, then per field its key and a
+ * tagged value (see {@link BinaryValues}). Keys are written so fields can be added, removed
+ * or reordered without breaking old blobs; unknown keys are skipped on decode.
+ * Field access goes through precompiled MethodHandles instead of reflection.
+ *
+ * @param <T> The data model type
+ */
+public class BinaryEntityCodec<T> implements EntityCodec<T> {
+
+    /**
+     * First byte of every binary blob. Never '{', so JSON blobs are told apart by their first byte.
+     */
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final Gson GSON = new Gson();
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final List<FieldAccessor> accessors;
+    private final Map<String, FieldAccessor> accessorsByKey = new HashMap<>();
+
+    public BinaryEntityCodec(Class<T> type) {
+        this.type = type;
+        this.accessors = FieldAccessor.forType(type);
+        for (FieldAccessor accessor : accessors) {
+            accessorsByKey.put(accessor.key, accessor);
+        }
+        try {
+            this.constructor = MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(type.getName() + " needs a no-args constructor", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public byte[] encode(T entity) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out);
+        BinaryValues.writeVarInt(out, accessors.size());
+        for (FieldAccessor accessor : accessors) {
+            BinaryValues.writeString(out, accessor.key);
+            try {
+                BinaryValues.write(out, accessor.get(entity));
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IOException("Failed to read field " + accessor.key + " of " + type.getSimpleName(), t);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        readHeader(in);
+        T entity;
+        try {
+            entity = (T) (Object) constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new IOException("Failed to create " + type.getSimpleName(), t);
+        }
+        int count = BinaryValues.readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            String key = BinaryValues.readString(in);
+            FieldAccessor accessor = accessorsByKey.get(key);
+            // Unknown keys (removed fields) are read and dropped
+            Object value = BinaryValues.read(in, accessor == null ? null : accessor.genericType);
+            if (accessor == null) {
+                continue;
+            }
+            try {
+                accessor.set(entity, coerce(accessor.rawType, accessor.genericType, value));
+            } catch (Throwable t) {
+                throw new IOException("Failed to set field " + key + " of " + type.getSimpleName(), t);
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * @return True if the blob was written by this codec (as opposed to legacy JSON).
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+
+    /**
+     * Encodes a single value, e.g. a collection column of a SQLite row.
+     */
+    public static byte[] encodeValue(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out);
+        BinaryValues.write(out, value);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a value written by {@link #encodeValue(Object)} into the given field type.
+     */
+    public static Object decodeValue(byte[] data, Type fieldType) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        readHeader(in);
+        Object value = BinaryValues.read(in, fieldType);
+        Class<?> rawType = fieldType instanceof Class<?> cls ? cls
+                : fieldType instanceof ParameterizedType parameterized
+                ? (Class<?>) parameterized.getRawType() : Object.class;
+        return coerce(rawType, fieldType, value);
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+    }
+
+    private static void readHeader(DataInputStream in) throws IOException {
+        if (in.readByte() != MAGIC) {
+            throw new IOException("Not a binary blob");
+        }
+        int version = in.readUnsignedByte();
+        if (version > FORMAT_VERSION) {
+            throw new IOException("Unsupported binary format version " + version);
+        }
+    }
+
+    /**
+     * Converts a decoded value to the field type when the tags don't match it exactly,
+     * e.g. after a field was changed from int to long.
+     */
+    private static Object coerce(Class<?> rawType, Type genericType, Object value) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> boxed = box(rawType);
+        if (boxed.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number number) {
+            if (boxed == Integer.class) {
+                return number.intValue();
+            } else if (boxed == Long.class) {
+                return number.longValue();
+            } else if (boxed == Double.class) {
+                return number.doubleValue();
+            } else if (boxed == Float.class) {
+                return number.floatValue();
+            }
+        }
+        if (rawType == String.class) {
+            return value.toString();
+        }
+        // Collection kind changed (e.g. List to Set) or nested types differ
+        return GSON.fromJson(GSON.toJson(value), genericType);
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        }
+        return Character.class;
+    }
+}
@@ -0,0 +1,199 @@
+package eu.xaru.mysticrpg.storage.codec;
+
+import com.google.gson.Gson;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Tagged value encoding shared by the entity and column formats.
+ *
+ * Every value starts with a one-byte tag. Integers use zigzag varints, strings are
+ * varint-length UTF-8, collections and maps are a varint size followed by their elements.
+ * Types without a dedicated tag fall back to JSON text.
+ */
+final class BinaryValues {
+
+    static final int TAG_NULL = 0;
+    static final int TAG_FALSE = 1;
+    static final int TAG_TRUE = 2;
+    static final int TAG_INT = 3;
+    static final int TAG_LONG = 4;
+    static final int TAG_DOUBLE = 5;
+    static final int TAG_FLOAT = 6;
+    static final int TAG_STRING = 7;
+    static final int TAG_UUID = 8;
+    static final int TAG_LIST = 9;
+    static final int TAG_SET = 10;
+    static final int TAG_MAP = 11;
+    static final int TAG_JSON = 12;
+
+    private static final Gson GSON = new Gson();
+
+    private BinaryValues() {
+    }
+
+    static void write(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(bool ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(TAG_INT);
+            writeVarLong(out, ((Number) value).intValue());
+        } else if (value instanceof Long number) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, number);
+        } else if (value instanceof Double number) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(number);
+        } else if (value instanceof Float number) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat(number);
+        } else if (value instanceof String string) {
+            out.writeByte(TAG_STRING);
+            writeString(out, string);
+        } else if (value instanceof UUID uuid) {
+            out.writeByte(TAG_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Collection<?> collection) {
+            out.writeByte(value instanceof Set ? TAG_SET : TAG_LIST);
+            writeVarInt(out, collection.size());
+            for (Object element : collection) {
+                write(out, element);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(TAG_MAP);
+            writeVarInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else {
+            out.writeByte(TAG_JSON);
+            writeString(out, GSON.toJson(value));
+        }
+    }
+
+    /**
+     * Reads one value. The type hint (the field's generic type, may be null) is only
+     * needed for JSON fallbacks and to pick element types of nested JSON values.
+     */
+    static Object read(DataInputStream in, Type hint) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_INT:
+                return (int) readVarLong(in);
+            case TAG_LONG:
+                return readVarLong(in);
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_STRING:
+                return readString(in);
+            case TAG_UUID:
+                return new UUID(in.readLong(), in.readLong());
+            case TAG_LIST:
+            case TAG_SET: {
+                int size = readVarInt(in);
+                Type elementType = typeArgument(hint, 0);
+                Collection<Object> collection = tag == TAG_SET ? new HashSet<>(size * 2) : new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(read(in, elementType));
+                }
+                return collection;
+            }
+            case TAG_MAP: {
+                int size = readVarInt(in);
+                Type keyType = typeArgument(hint, 0);
+                Type valueType = typeArgument(hint, 1);
+                Map<Object, Object> map = new HashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in, keyType), read(in, valueType));
+                }
+                return map;
+            }
+            case TAG_JSON:
+                return GSON.fromJson(readString(in), hint != null ? hint : Object.class);
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType parameterized) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            return index < arguments.length ? arguments[index] : null;
+        }
+        return null;
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * Zigzag-encoded so small negative numbers stay short.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long zigzag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Malformed varlong");
+    }
+}
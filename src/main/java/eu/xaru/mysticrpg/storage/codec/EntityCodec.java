@@ -0,0 +1,20 @@
+package eu.xaru.mysticrpg.storage.codec;
+
+import java.io.IOException;
+
+/**
+ * Turns a @Persist entity into a self-contained blob and back, e.g. for Redis values.
+ *
+ * @param <T> The data model type
+ */
+public interface EntityCodec<T> {
+
+    /**
+     * @return A short name for logs and benchmarks.
+     */
+    String getName();
+
+    byte[] encode(T entity) throws IOException;
+
+    T decode(byte[] data) throws IOException;
+}
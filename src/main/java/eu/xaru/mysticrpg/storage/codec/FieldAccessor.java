@@ -0,0 +1,69 @@
+package eu.xaru.mysticrpg.storage.codec;
+
+import eu.xaru.mysticrpg.storage.annotations.Persist;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Precompiled getter/setter pair for one @Persist field, resolved once per type
+ * so encoding and decoding skip reflective access checks.
+ */
+final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    final String key;
+    final Class<?> rawType;
+    final Type genericType;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private FieldAccessor(String key, Field field, MethodHandles.Lookup lookup) throws IllegalAccessException {
+        this.key = key;
+        this.rawType = field.getType();
+        this.genericType = field.getGenericType();
+        this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+    }
+
+    /**
+     * Builds accessors for every @Persist field of the type, sorted by key for a stable layout.
+     */
+    static List<FieldAccessor> forType(Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            List<FieldAccessor> accessors = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                Persist persist = field.getAnnotation(Persist.class);
+                if (persist != null) {
+                    String key = persist.key().isEmpty() ? field.getName() : persist.key();
+                    accessors.add(new FieldAccessor(key, field, lookup));
+                }
+            }
+            accessors.sort(Comparator.comparing(accessor -> accessor.key));
+            return accessors;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access @Persist fields of " + type.getName(), e);
+        }
+    }
+
+    Object get(Object entity) throws Throwable {
+        return (Object) getter.invokeExact(entity);
+    }
+
+    void set(Object entity, Object value) throws Throwable {
+        if (value == null && rawType.isPrimitive()) {
+            // Keep the constructor default
+            return;
+        }
+        setter.invokeExact(entity, value);
+    }
+}
@@ -0,0 +1,44 @@
+package eu.xaru.mysticrpg.storage.codec;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * The original blob format: the @Persist map written as JSON text.
+ * Kept to read blobs written by older versions and as the benchmark baseline.
+ *
+ * @param <T> The data model type
+ */
+public class JsonEntityCodec<T> implements EntityCodec<T> {
+
+    private final Gson gson = new Gson();
+    private final PersistMapper<T> mapper;
+
+    public JsonEntityCodec(PersistMapper<T> mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public byte[] encode(T entity) {
+        return gson.toJson(mapper.serialize(entity)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T decode(byte[] data) throws IOException {
+        Map<String, Object> map = gson.fromJson(new String(data, StandardCharsets.UTF_8), Map.class);
+        T entity = map == null ? null : mapper.deserialize(map);
+        if (entity == null) {
+            throw new IOException("Invalid " + mapper.getType().getSimpleName() + " JSON blob");
+        }
+        return entity;
+    }
+}
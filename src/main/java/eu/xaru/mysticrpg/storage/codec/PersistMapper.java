@@ -0,0 +1,123 @@
+package eu.xaru.mysticrpg.storage.codec;
+
+import com.google.gson.Gson;
+import eu.xaru.mysticrpg.storage.annotations.Persist;
+import eu.xaru.mysticrpg.utils.DebugLogger;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts fields annotated with @Persist to a key/value map and back.
+ * This is the representation the SQLite and Mongo repositories work with.
+ *
+ * @param <T> The data model type
+ */
+public class PersistMapper<T> {
+
+    private final Gson gson = new Gson();
+    private final Class<T> type;
+    private final Map<String, Field> persistFields = new ConcurrentHashMap<>();
+
+    public PersistMapper(Class<T> type) {
+        this.type = type;
+        for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Persist.class)) {
+                field.setAccessible(true);
+                Persist persist = field.getAnnotation(Persist.class);
+                String key = persist.key().isEmpty() ? field.getName() : persist.key();
+                persistFields.put(key, field);
+            }
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return The @Persist fields by key.
+     */
+    public Map<String, Field> getPersistFields() {
+        return persistFields;
+    }
+
+    public Map<String, Object> serialize(T entity) {
+        Map<String, Object> data = new HashMap<>();
+        for (Map.Entry<String, Field> entry : persistFields.entrySet()) {
+            String key = entry.getKey();
+            Field field = entry.getValue();
+            try {
+                Object value = field.get(entity);
+                data.put(key, value);
+            } catch (IllegalAccessException e) {
+                DebugLogger.getInstance().error("Failed to serialize field: " + field.getName(), e);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Serializes only the given keys, used for partial writes.
+     * Unknown keys are ignored.
+     */
+    public Map<String, Object> serializeFields(T entity, Collection<String> keys) {
+        Map<String, Object> data = new HashMap<>();
+        for (String key : keys) {
+            Field field = persistFields.get(key);
+            if (field == null) {
+                continue;
+            }
+            try {
+                data.put(key, field.get(entity));
+            } catch (IllegalAccessException e) {
+                DebugLogger.getInstance().error("Failed to serialize field: " + field.getName(), e);
+            }
+        }
+        return data;
+    }
+
+    public T deserialize(Map<String, Object> data) {
+        try {
+            T entity = type.getDeclaredConstructor().newInstance();
+            for (Map.Entry<String, Field> entry : persistFields.entrySet()) {
+                String key = entry.getKey();
+                Field field = entry.getValue();
+                if (data.containsKey(key)) {
+                    Object value = data.get(key);
+                    if (value != null) {
+                        Class<?> fieldType = field.getType();
+                        if (fieldType.isAssignableFrom(value.getClass())) {
+                            field.set(entity, value);
+                        } else {
+                            // basic conversions
+                            if (fieldType == int.class || fieldType == Integer.class) {
+                                field.set(entity, ((Number) value).intValue());
+                            } else if (fieldType == long.class || fieldType == Long.class) {
+                                field.set(entity, ((Number) value).longValue());
+                            } else if (fieldType == double.class || fieldType == Double.class) {
+                                field.set(entity, ((Number) value).doubleValue());
+                            } else if (fieldType == boolean.class || fieldType == Boolean.class) {
+                                field.set(entity, value);
+                            } else if (fieldType == String.class) {
+                                field.set(entity, value.toString());
+                            } else {
+                                // attempt complex type with gson
+                                String json = gson.toJson(value);
+                                Object deserialized = gson.fromJson(json, fieldType);
+                                field.set(entity, deserialized);
+                            }
+                        }
+                    }
+                }
+            }
+            return entity;
+        } catch (Exception e) {
+            DebugLogger.getInstance().error("Failed to deserialize entity: " + type.getName(), e);
+            return null;
+        }
+    }
+}
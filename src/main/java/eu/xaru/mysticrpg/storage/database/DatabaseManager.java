@@ -9,6 +9,7 @@ import eu.xaru.mysticrpg.auctionhouse.Auction;
 import eu.xaru.mysticrpg.config.DynamicConfig;
 import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.storage.PlayerData;
+import eu.xaru.mysticrpg.storage.async.AsyncRepository;
 import eu.xaru.mysticrpg.storage.redis.RedisManager;
 import eu.xaru.mysticrpg.storage.redis.RedisRepository;
 import eu.xaru.mysticrpg.utils.DebugLogger;
@@ -17,15 +18,20 @@ import org.bson.UuidRepresentation;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import static org.bson.codecs.configuration.CodecRegistries.*;
 
 /**
  * DatabaseManager manages the database repositories (MongoDB or SQLite),
- * optionally wrapping them in Redis if enabled.
+ * optionally wrapping them in Redis if enabled, and runs them on a dedicated I/O executor.
  */
 public class DatabaseManager {
 
@@ -33,6 +39,10 @@ public class DatabaseManager {
     private IRepository<PlayerData> playerRepository;
     private IRepository<Auction> auctionRepository;
 
+    private ExecutorService ioExecutor;
+    private final List<AsyncRepository<?>> asyncRepositories = new ArrayList<>();
+    private final List<RedisRepository<?>> redisRepositories = new ArrayList<>();
+
     private DatabaseManager() {
         initializeRepositories();
     }
@@ -61,33 +71,121 @@ public class DatabaseManager {
         DebugLogger.getInstance().log(Level.INFO, "Using DB type: " + dbType, 0);
 
         boolean redisEnabled = config.getBoolean("database.redis.enabled", false);
+        boolean binaryCodec = config.getString("database.codec", "binary").equalsIgnoreCase("binary");
 
         if (dbType.equals("mongo")) {
             String connStr = config.getString("database.mongo.connectionString", "mongodb://localhost:27017");
             String dbName = config.getString("database.mongo.databaseName", "xarumystic");
-            initializeMongoDB(connStr, dbName);
+            int bulkBatchSize = config.getInt("database.mongo.bulkBatchSize", 500);
+            int maxInFlightBatches = config.getInt("database.mongo.maxInFlightBatches", 4);
+            initializeMongoDB(connStr, dbName, bulkBatchSize, maxInFlightBatches);
         } else {
             String dbPath = config.getString("database.sqlite.path", "plugins/MysticRPG/database.db");
-            initializeSQLite(dbPath);
+            String journalMode = config.getString("database.sqlite.journalMode", "WAL");
+            String synchronous = config.getString("database.sqlite.synchronous", "NORMAL");
+            initializeSQLite(dbPath, journalMode, synchronous, binaryCodec);
         }
 
-        // If redis is enabled, wrap repositories
+        // If redis is enabled, wrap repositories in a write-behind cache
         if (redisEnabled) {
-            this.playerRepository = new RedisRepository<>(
+            long maxStalenessMs = config.getInt("database.redis.writeBehind.maxStalenessMs", 5000);
+            int batchSize = config.getInt("database.redis.writeBehind.batchSize", 500);
+            RedisRepository<PlayerData> redisPlayers = new RedisRepository<>(
                     PlayerData.class,
                     this.playerRepository,
-                    "uuid"
+                    "uuid",
+                    maxStalenessMs,
+                    batchSize,
+                    binaryCodec
             );
-            this.auctionRepository = new RedisRepository<>(
+            RedisRepository<Auction> redisAuctions = new RedisRepository<>(
                     Auction.class,
                     this.auctionRepository,
-                    "auctionId"
+                    "auctionId",
+                    maxStalenessMs,
+                    batchSize,
+                    binaryCodec
             );
-            DebugLogger.getInstance().log(Level.INFO, "DatabaseManager: Repositories wrapped in RedisRepository", 0);
+            this.playerRepository = redisPlayers;
+            this.auctionRepository = redisAuctions;
+            redisRepositories.add(redisPlayers);
+            redisRepositories.add(redisAuctions);
+            DebugLogger.getInstance().log(Level.INFO, "DatabaseManager: Repositories wrapped in RedisRepository (max staleness "
+                    + maxStalenessMs + " ms)", 0);
+        }
+
+        // Outermost layer: move all repository calls off the calling thread
+        if (config.getBoolean("database.executor.enabled", true)) {
+            initializeExecutor(config);
         }
     }
 
-    private void initializeMongoDB(String connectionString, String dbName) {
+    private void initializeExecutor(DynamicConfig config) {
+        boolean virtualThreads = config.getBoolean("database.executor.virtualThreads", false);
+        int threads = Math.max(1, config.getInt("database.executor.threads", 4));
+        int maxQueued = Math.max(1, config.getInt("database.executor.maxQueued", 10000));
+        boolean mainThreadCallbacks = config.getBoolean("database.executor.callbacksOnMainThread", true);
+
+        if (virtualThreads) {
+            ioExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("MysticRPG-DB-", 1).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            ioExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "MysticRPG-DB-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        AsyncRepository<PlayerData> asyncPlayers = new AsyncRepository<>(
+                PlayerData.class, this.playerRepository, "uuid", ioExecutor, maxQueued, mainThreadCallbacks);
+        AsyncRepository<Auction> asyncAuctions = new AsyncRepository<>(
+                Auction.class, this.auctionRepository, "auctionId", ioExecutor, maxQueued, mainThreadCallbacks);
+        this.playerRepository = asyncPlayers;
+        this.auctionRepository = asyncAuctions;
+        asyncRepositories.add(asyncPlayers);
+        asyncRepositories.add(asyncAuctions);
+
+        DebugLogger.getInstance().log(Level.INFO, "DatabaseManager: I/O executor started ("
+                + (virtualThreads ? "virtual threads" : threads + " threads") + ", max " + maxQueued + " queued)", 0);
+    }
+
+    /**
+     * Drains queued repository operations, flushes the Redis write-behind cache
+     * and stops the I/O executor.
+     */
+    public void shutdown() {
+        for (AsyncRepository<?> repository : asyncRepositories) {
+            repository.awaitIdle(10_000L);
+        }
+        // Redis saves only become durable once flushed to the final repository
+        for (RedisRepository<?> repository : redisRepositories) {
+            repository.shutdown();
+        }
+        if (ioExecutor == null) {
+            return;
+        }
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        DebugLogger.getInstance().log(Level.INFO, "DatabaseManager: I/O executor stopped", 0);
+    }
+
+    public List<AsyncRepository<?>> getAsyncRepositories() {
+        return asyncRepositories;
+    }
+
+    public List<RedisRepository<?>> getRedisRepositories() {
+        return redisRepositories;
+    }
+
+    private void initializeMongoDB(String connectionString, String dbName, int bulkBatchSize, int maxInFlightBatches) {
         try {
             CodecRegistry pojoCodecRegistry = fromRegistries(
                     MongoClientSettings.getDefaultCodecRegistry(),
@@ -105,12 +203,16 @@ public class DatabaseManager {
             this.playerRepository = new MongoRepository<>(
                     PlayerData.class,
                     db.getCollection("playerData"),
-                    "uuid"
+                    "uuid",
+                    bulkBatchSize,
+                    maxInFlightBatches
             );
             this.auctionRepository = new MongoRepository<>(
                     Auction.class,
                     db.getCollection("auctions"),
-                    "auctionId"
+                    "auctionId",
+                    bulkBatchSize,
+                    maxInFlightBatches
             );
 
             DebugLogger.getInstance().log(Level.INFO, "DatabaseManager: MongoDB repositories initialized", 0);
@@ -120,19 +222,25 @@ public class DatabaseManager {
         }
     }
 
-    private void initializeSQLite(String databasePath) {
+    private void initializeSQLite(String databasePath, String journalMode, String synchronous, boolean binaryColumns) {
         try {
             this.playerRepository = new SQLiteRepository<>(
                     PlayerData.class,
                     databasePath,
                     "playerData",
-                    "uuid"
+                    "uuid",
+                    journalMode,
+                    synchronous,
+                    binaryColumns
             );
             this.auctionRepository = new SQLiteRepository<>(
                     Auction.class,
                     databasePath,
                     "auctions",
-                    "auctionId"
+                    "auctionId",
+                    journalMode,
+                    synchronous,
+                    binaryColumns
             );
 
             DebugLogger.getInstance().log(Level.INFO, "DatabaseManager: SQLite repositories initialized", 0);
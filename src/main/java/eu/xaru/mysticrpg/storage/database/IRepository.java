@@ -2,8 +2,13 @@ package eu.xaru.mysticrpg.storage.database;
 
 import eu.xaru.mysticrpg.storage.Callback;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 /**
  * Generic repository interface for CRUD operations.
@@ -12,9 +17,142 @@ import java.util.UUID;
  */
 public interface IRepository<T> {
     void save(T entity, Callback<Void> callback);
+
+    /**
+     * Writes only the given persisted keys of an already stored entity.
+     * Repositories without partial-write support fall back to a full save.
+     *
+     * @param entity   The entity to write.
+     * @param fields   The @Persist keys that changed.
+     * @param callback Completion callback.
+     */
+    default void saveFields(T entity, Collection<String> fields, Callback<Void> callback) {
+        save(entity, callback);
+    }
+
+    /**
+     * Saves many entities as full documents in one batch.
+     *
+     * @param entities The entities to write.
+     * @param callback Called once the whole batch is done; fails if any entity failed.
+     */
+    default void saveAll(Collection<T> entities, Callback<Void> callback) {
+        List<PendingSave<T>> saves = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            saves.add(PendingSave.full(entity, null));
+        }
+        saveBatch(saves, callback);
+    }
+
+    /**
+     * Saves a mix of full and partial writes in one batch. Every entry's own callback
+     * (if any) is notified, then the batch callback once all entries are done.
+     * The default implementation simply issues one save per entry.
+     *
+     * @param saves    The pending writes.
+     * @param callback Called once the whole batch is done; fails with the first error.
+     */
+    default void saveBatch(Collection<PendingSave<T>> saves, Callback<Void> callback) {
+        if (saves.isEmpty()) {
+            callback.onSuccess(null);
+            return;
+        }
+        AtomicInteger remaining = new AtomicInteger(saves.size());
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        for (PendingSave<T> pending : saves) {
+            Callback<Void> each = new Callback<>() {
+                @Override
+                public void onSuccess(Void result) {
+                    if (pending.callback() != null) {
+                        pending.callback().onSuccess(null);
+                    }
+                    finish();
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    firstFailure.compareAndSet(null, throwable);
+                    if (pending.callback() != null) {
+                        pending.callback().onFailure(throwable);
+                    }
+                    finish();
+                }
+
+                private void finish() {
+                    if (remaining.decrementAndGet() == 0) {
+                        Throwable failure = firstFailure.get();
+                        if (failure == null) {
+                            callback.onSuccess(null);
+                        } else {
+                            callback.onFailure(failure);
+                        }
+                    }
+                }
+            };
+            if (pending.isFull()) {
+                save(pending.entity(), each);
+            } else {
+                saveFields(pending.entity(), pending.fields(), each);
+            }
+        }
+    }
+
     void load(UUID uuid, Callback<T> callback);
+
+    /**
+     * Read-modify-write of one stored entity: loads it, hands it to {@code change}, then writes
+     * the keys {@code change} reports back (none skips the write). Repositories that order calls
+     * per id run the whole update as one step, so no other call for the id runs in between.
+     *
+     * @param uuid     The entity to update.
+     * @param change   Modifies the loaded entity and reports the changed @Persist keys.
+     * @param callback Called once the write is done.
+     */
+    default void update(UUID uuid, BiConsumer<T, Callback<Collection<String>>> change, Callback<Void> callback) {
+        load(uuid, new Callback<>() {
+            @Override
+            public void onSuccess(T entity) {
+                change.accept(entity, new Callback<>() {
+                    @Override
+                    public void onSuccess(Collection<String> fields) {
+                        if (fields.isEmpty()) {
+                            callback.onSuccess(null);
+                        } else {
+                            saveFields(entity, fields, callback);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        callback.onFailure(throwable);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
     void delete(UUID uuid, Callback<Void> callback);
     void loadAll(Callback<List<T>> callback);
 
+    /**
+     * Loads the entities with the highest values of a numeric @Persist field, e.g. for
+     * leaderboards. Implementations with a sorted query return at most {@code limit}
+     * entities, highest first, with only the id and that field populated. The default
+     * implementation loads every entity, so callers must sort and limit the result themselves.
+     *
+     * @param field    The @Persist key to rank by.
+     * @param limit    The number of entities wanted.
+     * @param callback Receives the entities.
+     */
+    default void loadTop(String field, int limit, Callback<List<T>> callback) {
+        loadAll(callback);
+    }
+
     void loadByDiscordId(long discordId, Callback<T> callback);
 }
@@ -1,7 +1,16 @@
 package eu.xaru.mysticrpg.storage.database;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOneModel;
 import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.mongodb.reactivestreams.client.MongoCollection;
@@ -12,6 +21,9 @@ import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 /**
@@ -24,10 +36,29 @@ public class MongoRepository<T> extends BaseRepository<T> {
     private final MongoCollection<Document> collection;
     private final String idField;
 
+    /**
+     * Maximum number of write models per bulkWrite.
+     */
+    private final int bulkBatchSize;
+    /**
+     * Maximum number of bulkWrites running at once; further batches wait in {@link #queuedBatches}.
+     */
+    private final int maxInFlightBatches;
+
+    private final Deque<Runnable> queuedBatches = new ArrayDeque<>();
+    private int inFlightBatches;
+
     public MongoRepository(Class<T> type, MongoCollection<Document> collection, String idField) {
+        this(type, collection, idField, 500, 4);
+    }
+
+    public MongoRepository(Class<T> type, MongoCollection<Document> collection, String idField,
+                           int bulkBatchSize, int maxInFlightBatches) {
         super(type);
         this.collection = collection;
         this.idField = idField;
+        this.bulkBatchSize = Math.max(1, bulkBatchSize);
+        this.maxInFlightBatches = Math.max(1, maxInFlightBatches);
     }
 
     @Override
@@ -69,6 +100,283 @@ public class MongoRepository<T> extends BaseRepository<T> {
                 });
     }
 
+    @Override
+    public void saveFields(T entity, Collection<String> fields, Callback<Void> callback) {
+        Map<String, Object> data = serializeFields(entity, fields);
+        data.remove(idField);
+        if (data.isEmpty()) {
+            callback.onSuccess(null);
+            return;
+        }
+        Object idVal = serializeFields(entity, List.of(idField)).get(idField);
+        if (idVal == null) {
+            DebugLogger.getInstance().error("Entity missing ID field: " + idField);
+            callback.onFailure(new IllegalArgumentException("Missing ID field"));
+            return;
+        }
+
+        // $set only the changed keys
+        collection.updateOne(Filters.eq(idField, idVal), new Document("$set", new Document(data)))
+                .subscribe(new Subscriber<UpdateResult>() {
+                    long matched;
+
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(1);
+                    }
+
+                    @Override
+                    public void onNext(UpdateResult updateResult) {
+                        matched = updateResult.getMatchedCount();
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        DebugLogger.getInstance().error("Mongo partial save error: " + t.getMessage(), t);
+                        callback.onFailure(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        if (matched == 0) {
+                            // Document doesn't exist yet, write it whole
+                            save(entity, callback);
+                        } else {
+                            callback.onSuccess(null);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Writes the saves as unordered bulkWrites of at most {@link #bulkBatchSize} models.
+     * Full saves become upserting ReplaceOneModels; partial saves become UpdateOneModels that
+     * only $set the changed keys, and are resent in full if they matched no document. A failed
+     * model only fails its own entry; a write concern error fails the whole batch.
+     */
+    @Override
+    public void saveBatch(Collection<PendingSave<T>> saves, Callback<Void> callback) {
+        List<PendingSave<T>> entries = new ArrayList<>(saves.size());
+        List<WriteModel<Document>> models = new ArrayList<>(saves.size());
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+        for (PendingSave<T> pending : saves) {
+            WriteModel<Document> model = toWriteModel(pending);
+            if (model == null) {
+                Throwable error = new IllegalArgumentException("Missing ID field");
+                firstFailure.compareAndSet(null, error);
+                notifyEntry(pending, error);
+                continue;
+            }
+            entries.add(pending);
+            models.add(model);
+        }
+
+        int batchCount = (models.size() + bulkBatchSize - 1) / bulkBatchSize;
+        if (batchCount == 0) {
+            finishBatch(callback, firstFailure.get());
+            return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(batchCount);
+        for (int from = 0; from < models.size(); from += bulkBatchSize) {
+            int to = Math.min(from + bulkBatchSize, models.size());
+            List<PendingSave<T>> batchEntries = entries.subList(from, to);
+            List<WriteModel<Document>> batchModels = models.subList(from, to);
+            submitBulk(() -> executeBulk(batchEntries, batchModels, error -> {
+                if (error != null) {
+                    firstFailure.compareAndSet(null, error);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    finishBatch(callback, firstFailure.get());
+                }
+            }));
+        }
+    }
+
+    /**
+     * A full save replaces (or inserts) the whole document. A partial save only sends $set of
+     * the changed fields and does not upsert, since an inserted document would only hold those
+     * fields; when it matches nothing, executeBulk writes the entity again in full.
+     */
+    private WriteModel<Document> toWriteModel(PendingSave<T> pending) {
+        if (pending.isFull() || pending.fields().isEmpty()) {
+            Map<String, Object> data = serialize(pending.entity());
+            Object idVal = data.get(idField);
+            if (idVal == null) {
+                DebugLogger.getInstance().error("Entity missing ID field: " + idField);
+                return null;
+            }
+            return new ReplaceOneModel<>(Filters.eq(idField, idVal), new Document(data), new ReplaceOptions().upsert(true));
+        }
+
+        List<String> keys = new ArrayList<>(pending.fields().size() + 1);
+        keys.addAll(pending.fields());
+        keys.add(idField);
+        Map<String, Object> data = serializeFields(pending.entity(), keys);
+        Object idVal = data.remove(idField);
+        if (idVal == null) {
+            DebugLogger.getInstance().error("Entity missing ID field: " + idField);
+            return null;
+        }
+        return new UpdateOneModel<>(Filters.eq(idField, idVal), new Document("$set", new Document(data)));
+    }
+
+    /**
+     * Starts the bulk now if fewer than {@link #maxInFlightBatches} are running, otherwise queues it.
+     */
+    private void submitBulk(Runnable bulk) {
+        synchronized (queuedBatches) {
+            if (inFlightBatches >= maxInFlightBatches) {
+                queuedBatches.addLast(bulk);
+                return;
+            }
+            inFlightBatches++;
+        }
+        bulk.run();
+    }
+
+    private void bulkDone() {
+        Runnable next;
+        synchronized (queuedBatches) {
+            next = queuedBatches.pollFirst();
+            if (next == null) {
+                inFlightBatches--;
+                return;
+            }
+        }
+        // Hand the freed slot straight to the next batch
+        next.run();
+    }
+
+    private void executeBulk(List<PendingSave<T>> entries,
+                             List<WriteModel<Document>> models,
+                             Consumer<Throwable> done) {
+        collection.bulkWrite(models, new BulkWriteOptions().ordered(false))
+                .subscribe(new Subscriber<BulkWriteResult>() {
+                    BulkWriteResult result;
+
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(1);
+                    }
+
+                    @Override
+                    public void onNext(BulkWriteResult result) {
+                        // counts only, per-model errors arrive in onError
+                        this.result = result;
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        if (!(t instanceof MongoBulkWriteException bulkError)
+                                || bulkError.getWriteConcernError() != null) {
+                            // Applied writes may not be durable; fail the whole batch so it is retried
+                            bulkDone();
+                            for (PendingSave<T> entry : entries) {
+                                notifyEntry(entry, t);
+                            }
+                            DebugLogger.getInstance().error("Mongo bulk save error: " + t.getMessage(), t);
+                            done.accept(t);
+                            return;
+                        }
+
+                        // Unordered: everything without its own write error was applied
+                        Map<Integer, Throwable> failed = new HashMap<>();
+                        for (BulkWriteError error : bulkError.getWriteErrors()) {
+                            failed.put(error.getIndex(), new IllegalStateException(
+                                    "Mongo bulk write error " + error.getCode() + ": " + error.getMessage()));
+                        }
+                        Throwable batchError = failed.isEmpty() ? null : t;
+                        if (batchError != null) {
+                            DebugLogger.getInstance().error("Mongo bulk save error: " + t.getMessage(), t);
+                        }
+                        finish(bulkError.getWriteResult(), failed, batchError);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        finish(result, Map.of(), null);
+                    }
+
+                    private void finish(BulkWriteResult result, Map<Integer, Throwable> failed, Throwable batchError) {
+                        boolean resendPartials = partialsMissed(result, entries, failed);
+                        List<PendingSave<T>> resend = new ArrayList<>();
+                        for (int i = 0; i < entries.size(); i++) {
+                            PendingSave<T> entry = entries.get(i);
+                            if (resendPartials && !entry.isFull() && !failed.containsKey(i)) {
+                                resend.add(PendingSave.full(entry.entity(), entry.callback()));
+                            } else {
+                                notifyEntry(entry, failed.get(i));
+                            }
+                        }
+                        if (resend.isEmpty()) {
+                            bulkDone();
+                            done.accept(batchError);
+                            return;
+                        }
+
+                        // The resend keeps this batch's in-flight slot
+                        DebugLogger.getInstance().log(Level.INFO, "Mongo partial save matched no document, "
+                                + "writing " + resend.size() + " entries in full", 0);
+                        List<WriteModel<Document>> fullModels = new ArrayList<>(resend.size());
+                        for (PendingSave<T> entry : resend) {
+                            fullModels.add(toWriteModel(entry));
+                        }
+                        executeBulk(resend, fullModels, error -> done.accept(batchError != null ? batchError : error));
+                    }
+                });
+    }
+
+    /**
+     * The bulk result only has totals, so a partial save that matched no document (deleted,
+     * or its first full save never landed) shows up as fewer matches than applied updates.
+     * Which one missed is unknown, so all applied partial saves of the batch are resent in full.
+     */
+    private boolean partialsMissed(BulkWriteResult result, List<PendingSave<T>> entries,
+                                   Map<Integer, Throwable> failed) {
+        if (result == null || !result.wasAcknowledged()) {
+            return false;
+        }
+        int appliedPartials = 0;
+        int appliedFull = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            if (failed.containsKey(i)) {
+                continue;
+            }
+            if (entries.get(i).isFull()) {
+                appliedFull++;
+            } else {
+                appliedPartials++;
+            }
+        }
+        if (appliedPartials == 0) {
+            return false;
+        }
+        // Full saves either matched their document or were upserted
+        int matchedByFull = appliedFull - result.getUpserts().size();
+        return result.getMatchedCount() - matchedByFull < appliedPartials;
+    }
+
+    private void notifyEntry(PendingSave<T> pending, Throwable error) {
+        if (pending.callback() == null) {
+            return;
+        }
+        if (error == null) {
+            pending.callback().onSuccess(null);
+        } else {
+            pending.callback().onFailure(error);
+        }
+    }
+
+    private void finishBatch(Callback<Void> callback, Throwable failure) {
+        if (failure == null) {
+            callback.onSuccess(null);
+        } else {
+            callback.onFailure(failure);
+        }
+    }
+
     @Override
     public void load(UUID uuid, Callback<T> callback) {
         collection.find(Filters.eq(idField, uuid.toString()))
@@ -158,6 +466,39 @@ public class MongoRepository<T> extends BaseRepository<T> {
         });
     }
 
+    @Override
+    public void loadTop(String field, int limit, Callback<List<T>> callback) {
+        List<T> results = new ArrayList<>();
+        collection.find()
+                .projection(Projections.include(idField, field))
+                .sort(Sorts.descending(field))
+                .limit(limit)
+                .subscribe(new Subscriber<Document>() {
+                    @Override
+                    public void onSubscribe(Subscription s) {
+                        s.request(Long.MAX_VALUE);
+                    }
+
+                    @Override
+                    public void onNext(Document doc) {
+                        T entity = deserialize(doc);
+                        if (entity != null) {
+                            results.add(entity);
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        callback.onFailure(t);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        callback.onSuccess(results);
+                    }
+                });
+    }
+
     @Override
     public void loadByDiscordId(long discordId, Callback<T> callback) {
         collection.find(Filters.eq("discordId", discordId))
@@ -0,0 +1,29 @@
+package eu.xaru.mysticrpg.storage.database;
+
+import eu.xaru.mysticrpg.storage.Callback;
+
+import java.util.Set;
+
+/**
+ * One entry of a batched save: either a full document write or a partial write
+ * of the given @Persist keys, with its own per-entity callback.
+ *
+ * @param entity   The entity to write.
+ * @param fields   The changed keys, or null for a full document write.
+ * @param callback Callback for this entity only.
+ * @param <T>      The data model type.
+ */
+public record PendingSave<T>(T entity, Set<String> fields, Callback<Void> callback) {
+
+    public static <T> PendingSave<T> full(T entity, Callback<Void> callback) {
+        return new PendingSave<>(entity, null, callback);
+    }
+
+    public static <T> PendingSave<T> partial(T entity, Set<String> fields, Callback<Void> callback) {
+        return new PendingSave<>(entity, fields, callback);
+    }
+
+    public boolean isFull() {
+        return fields == null;
+    }
+}
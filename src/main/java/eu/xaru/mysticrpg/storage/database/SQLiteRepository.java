@@ -2,8 +2,10 @@ package eu.xaru.mysticrpg.storage.database;
 
 import com.google.gson.Gson;
 import eu.xaru.mysticrpg.storage.Callback;
+import eu.xaru.mysticrpg.storage.codec.BinaryEntityCodec;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
 import java.sql.*;
@@ -20,17 +22,72 @@ public class SQLiteRepository<T> extends BaseRepository<T> {
     private final String idField;
     private final Gson gson = new Gson();
 
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+
+    private static final Callback<Void> NO_OP = new Callback<>() {
+        @Override
+        public void onSuccess(Void result) {
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+        }
+    };
+
+    /**
+     * Fixed column order for full-row upserts, so one statement serves every save.
+     */
+    private final List<String> columns;
+    private final String upsertSql;
+
+    /**
+     * Prepared statements keyed by SQL (i.e. by column set). Guarded by the connection lock.
+     */
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    /**
+     * Store collection and map columns in the compact binary format instead of JSON text.
+     * Both are readable either way, SQLite does not enforce the declared column type.
+     */
+    private final boolean binaryColumns;
+
     public SQLiteRepository(Class<T> type, String databasePath, String tableName, String idField) {
+        this(type, databasePath, tableName, idField, "WAL", "NORMAL", false);
+    }
+
+    public SQLiteRepository(Class<T> type, String databasePath, String tableName, String idField,
+                            String journalMode, String synchronous, boolean binaryColumns) {
         super(type);
+        this.binaryColumns = binaryColumns;
         this.tableName = tableName;
         this.idField = idField;
-        this.connection = connect(databasePath);
+        this.connection = connect(databasePath, journalMode, synchronous);
         initializeTable();
+        this.columns = new ArrayList<>(persistFields.keySet());
+        this.upsertSql = buildUpsertSql();
     }
 
-    private Connection connect(String path) {
+    private Connection connect(String path, String journalMode, String synchronous) {
         try {
             Connection conn = DriverManager.getConnection("jdbc:sqlite:" + path);
+            try (Statement stmt = conn.createStatement()) {
+                String journal = journalMode.toUpperCase();
+                String sync = synchronous.toUpperCase();
+                if (!JOURNAL_MODES.contains(journal)) {
+                    DebugLogger.getInstance().warning("Unknown SQLite journal mode '" + journalMode + "', using WAL");
+                    journal = "WAL";
+                }
+                if (!SYNCHRONOUS_MODES.contains(sync)) {
+                    DebugLogger.getInstance().warning("Unknown SQLite synchronous mode '" + synchronous + "', using NORMAL");
+                    sync = "NORMAL";
+                }
+                stmt.execute("PRAGMA journal_mode=" + journal + ";");
+                stmt.execute("PRAGMA synchronous=" + sync + ";");
+                // Player and auction repositories each hold a connection to the same file
+                stmt.execute("PRAGMA busy_timeout=5000;");
+                DebugLogger.getInstance().log(Level.INFO, "SQLite pragmas: journal_mode=" + journal + ", synchronous=" + sync, 0);
+            }
             DebugLogger.getInstance().log(Level.INFO, "Connected to SQLite at " + path, 0);
             return conn;
         } catch (SQLException e) {
@@ -89,79 +146,265 @@ public class SQLiteRepository<T> extends BaseRepository<T> {
         } else if (cls == String.class) {
             return "TEXT";
         } else {
-            // for complex types, store JSON
+            // for complex types, store JSON (or binary blobs, see binaryColumns)
             return "TEXT";
         }
     }
 
     @Override
     public void save(T entity, Callback<Void> callback) {
+        saveBatch(List.of(PendingSave.full(entity, callback)), NO_OP);
+    }
+
+    @Override
+    public void saveFields(T entity, Collection<String> fields, Callback<Void> callback) {
+        saveBatch(List.of(PendingSave.partial(entity, new HashSet<>(fields), callback)), NO_OP);
+    }
+
+    /**
+     * Writes the whole batch in a single transaction, so N saves cost one fsync instead of N.
+     * Entries sharing a column set share one cached statement and go through addBatch/executeBatch.
+     */
+    @Override
+    public void saveBatch(Collection<PendingSave<T>> saves, Callback<Void> callback) {
+        List<PendingSave<T>> entries = new ArrayList<>(saves);
+        Throwable[] failures = writeBatch(entries);
+
+        // Fan out outside the connection lock
+        Throwable firstFailure = null;
+        for (int i = 0; i < entries.size(); i++) {
+            Callback<Void> each = entries.get(i).callback();
+            if (failures[i] == null) {
+                if (each != null) {
+                    each.onSuccess(null);
+                }
+            } else {
+                if (firstFailure == null) {
+                    firstFailure = failures[i];
+                }
+                if (each != null) {
+                    each.onFailure(failures[i]);
+                }
+            }
+        }
+        if (firstFailure == null) {
+            callback.onSuccess(null);
+        } else {
+            callback.onFailure(firstFailure);
+        }
+    }
+
+    /**
+     * Executes all entries inside one transaction. An entry that cannot be bound only fails
+     * itself; anything else rolls back the whole batch and fails every entry. Either way the
+     * result covers every entry, so each entry's callback runs.
+     *
+     * @return The failure per entry, null where the entry succeeded.
+     */
+    private Throwable[] writeBatch(List<PendingSave<T>> saves) {
+        Throwable[] failures = new Throwable[saves.size()];
+        if (saves.isEmpty()) {
+            return failures;
+        }
+        synchronized (connection) {
+            // Statements in first-use order, with the entries each one carries
+            Map<PreparedStatement, List<Integer>> batches = new LinkedHashMap<>();
+            try {
+                connection.setAutoCommit(false);
+
+                for (int i = 0; i < saves.size(); i++) {
+                    PendingSave<T> pending = saves.get(i);
+                    try {
+                        PreparedStatement pstmt = pending.isFull()
+                                ? bindUpsert(pending.entity())
+                                : bindUpdate(pending.entity(), pending.fields());
+                        if (pstmt != null) {
+                            pstmt.addBatch();
+                            batches.computeIfAbsent(pstmt, k -> new ArrayList<>()).add(i);
+                        }
+                    } catch (RuntimeException e) {
+                        // e.g. a collection the main thread changed while it was serialized
+                        failures[i] = e;
+                    }
+                }
+
+                List<Integer> missingRows = new ArrayList<>();
+                for (Map.Entry<PreparedStatement, List<Integer>> batch : batches.entrySet()) {
+                    int[] counts = batch.getKey().executeBatch();
+                    for (int j = 0; j < counts.length; j++) {
+                        int index = batch.getValue().get(j);
+                        if (counts[j] == 0 && !saves.get(index).isFull()) {
+                            missingRows.add(index);
+                        }
+                    }
+                }
+
+                // Row doesn't exist yet, a partial write would lose the other columns
+                if (!missingRows.isEmpty()) {
+                    PreparedStatement upsert = cachedStatement(upsertSql);
+                    batches.putIfAbsent(upsert, new ArrayList<>());
+                    for (int index : missingRows) {
+                        try {
+                            bindUpsert(saves.get(index).entity()).addBatch();
+                        } catch (RuntimeException e) {
+                            failures[index] = e;
+                        }
+                    }
+                    upsert.executeBatch();
+                }
+
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                // Cached statements outlive this batch, don't leave queued rows behind
+                for (PreparedStatement pstmt : batches.keySet()) {
+                    try {
+                        pstmt.clearBatch();
+                    } catch (SQLException ignored) {
+                    }
+                }
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    DebugLogger.getInstance().error("Failed to roll back batch on " + tableName, rollbackError);
+                }
+                for (int i = 0; i < failures.length; i++) {
+                    if (failures[i] == null) {
+                        failures[i] = e;
+                    }
+                }
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    DebugLogger.getInstance().error("Failed to restore auto-commit on " + tableName, e);
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Binds a full-row upsert on the cached statement. Caller must hold the connection lock.
+     */
+    private PreparedStatement bindUpsert(T entity) throws SQLException {
         Map<String, Object> data = serialize(entity);
-        if (!data.containsKey(idField)) {
-            callback.onFailure(new IllegalArgumentException("Missing ID field: " + idField));
-            return;
+        if (data.get(idField) == null) {
+            throw new IllegalArgumentException("Missing ID field: " + idField);
+        }
+        PreparedStatement pstmt = cachedStatement(upsertSql);
+        int paramIndex = 1;
+        for (String key : columns) {
+            bindValue(pstmt, paramIndex++, data.get(key));
+        }
+        return pstmt;
+    }
+
+    /**
+     * Binds an UPDATE of only the changed columns on the statement cached for that column set.
+     * Caller must hold the connection lock.
+     *
+     * @return The bound statement, or null if there is nothing to write.
+     */
+    private PreparedStatement bindUpdate(T entity, Set<String> fields) throws SQLException {
+        // Sorted so the same column set always maps to the same cached statement
+        SortedSet<String> changed = new TreeSet<>();
+        for (String key : fields) {
+            if (persistFields.containsKey(key) && !key.equals(idField)) {
+                changed.add(key);
+            }
         }
+        if (changed.isEmpty()) {
+            return null;
+        }
+        List<String> keys = new ArrayList<>(changed);
+        keys.add(idField);
+        Map<String, Object> data = serializeFields(entity, keys);
         Object idVal = data.get(idField);
+        if (idVal == null) {
+            throw new IllegalArgumentException("Missing ID field: " + idField);
+        }
 
-        // Build upsert query
-        StringBuilder fields = new StringBuilder();
-        StringBuilder qs = new StringBuilder();
-        List<String> updates = new ArrayList<>();
+        List<String> assignments = new ArrayList<>(changed.size());
+        for (String key : changed) {
+            assignments.add(key + " = ?");
+        }
+        String sql = "UPDATE " + tableName + " SET " + String.join(", ", assignments)
+                + " WHERE " + idField + " = ?;";
 
-        int size = data.size();
-        int idx = 0;
-        for (String key : data.keySet()) {
-            fields.append(key);
-            qs.append('?');
-            if (idx < size - 1) {
-                fields.append(", ");
-                qs.append(", ");
-            }
+        PreparedStatement pstmt = cachedStatement(sql);
+        int paramIndex = 1;
+        for (String key : changed) {
+            bindValue(pstmt, paramIndex++, data.get(key));
+        }
+        pstmt.setString(paramIndex, idVal.toString());
+        return pstmt;
+    }
+
+    private PreparedStatement cachedStatement(String sql) throws SQLException {
+        PreparedStatement pstmt = statementCache.get(sql);
+        if (pstmt == null) {
+            pstmt = connection.prepareStatement(sql);
+            statementCache.put(sql, pstmt);
+        }
+        return pstmt;
+    }
+
+    private String buildUpsertSql() {
+        List<String> updates = new ArrayList<>();
+        for (String key : columns) {
             if (!key.equals(idField)) {
                 updates.add(key + " = excluded." + key);
             }
-            idx++;
         }
-
-        String sql = "INSERT INTO " + tableName + " (" + fields + ") VALUES (" + qs + ")"
+        return "INSERT INTO " + tableName + " (" + String.join(", ", columns) + ")"
+                + " VALUES (" + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")"
                 + " ON CONFLICT(" + idField + ") DO UPDATE SET "
                 + String.join(", ", updates) + ";";
+    }
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            int paramIndex = 1;
-            for (String key : data.keySet()) {
-                Object value = data.get(key);
-                if (value instanceof Map || value instanceof Collection) {
-                    String json = gson.toJson(value);
-                    pstmt.setString(paramIndex++, json);
-                } else if (value instanceof Boolean) {
-                    pstmt.setInt(paramIndex++, (Boolean) value ? 1 : 0);
-                } else {
-                    pstmt.setObject(paramIndex++, value);
-                }
-            }
-            pstmt.executeUpdate();
-            callback.onSuccess(null);
-        } catch (SQLException e) {
-            callback.onFailure(e);
+    private void bindValue(PreparedStatement pstmt, int paramIndex, Object value) throws SQLException {
+        if ((value instanceof Map || value instanceof Collection) && binaryColumns) {
+            try {
+                pstmt.setBytes(paramIndex, BinaryEntityCodec.encodeValue(value));
+            } catch (IOException e) {
+                throw new SQLException("Failed to encode column value", e);
+            }
+        } else if (value instanceof Map || value instanceof Collection) {
+            pstmt.setString(paramIndex, gson.toJson(value));
+        } else if (value instanceof Boolean) {
+            pstmt.setInt(paramIndex, (Boolean) value ? 1 : 0);
+        } else {
+            pstmt.setObject(paramIndex, value);
         }
     }
 
+    /*
+     * Reads hold the connection lock like writes do: writeBatch runs its transaction on this
+     * same connection, and a read in the middle of it would see rows that may be rolled back.
+     */
+
     @Override
     public void load(UUID uuid, Callback<T> callback) {
         String sql = "SELECT * FROM " + tableName + " WHERE " + idField + " = ?;";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, uuid.toString());
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                Map<String, Object> row = extractFromResultSet(rs);
-                T entity = deserialize(row);
-                callback.onSuccess(entity);
-            } else {
-                callback.onFailure(new NoSuchElementException("Entity not found"));
+        Map<String, Object> row = null;
+        try {
+            synchronized (connection) {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, uuid.toString());
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        row = extractFromResultSet(rs);
+                    }
+                }
             }
         } catch (SQLException e) {
             callback.onFailure(e);
+            return;
+        }
+        if (row != null) {
+            callback.onSuccess(deserialize(row));
+        } else {
+            callback.onFailure(new NoSuchElementException("Entity not found"));
         }
     }
 
@@ -170,7 +413,10 @@ public class SQLiteRepository<T> extends BaseRepository<T> {
         String sql = "DELETE FROM " + tableName + " WHERE " + idField + " = ?;";
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, uuid.toString());
-            int rows = pstmt.executeUpdate();
+            int rows;
+            synchronized (connection) {
+                rows = pstmt.executeUpdate();
+            }
             if (rows > 0) {
                 callback.onSuccess(null);
             } else {
@@ -185,40 +431,82 @@ public class SQLiteRepository<T> extends BaseRepository<T> {
     public void loadAll(Callback<List<T>> callback) {
         List<T> all = new ArrayList<>();
         String sql = "SELECT * FROM " + tableName;
-        try (Statement stmt = connection.createStatement()) {
-            ResultSet rs = stmt.executeQuery(sql);
-            while (rs.next()) {
-                Map<String, Object> row = extractFromResultSet(rs);
-                T entity = deserialize(row);
-                if (entity != null) {
-                    all.add(entity);
+        try {
+            synchronized (connection) {
+                try (Statement stmt = connection.createStatement()) {
+                    ResultSet rs = stmt.executeQuery(sql);
+                    while (rs.next()) {
+                        Map<String, Object> row = extractFromResultSet(rs);
+                        T entity = deserialize(row);
+                        if (entity != null) {
+                            all.add(entity);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            callback.onFailure(e);
+            return;
+        }
+        callback.onSuccess(all);
+    }
+
+    @Override
+    public void loadTop(String field, int limit, Callback<List<T>> callback) {
+        if (!persistFields.containsKey(field)) {
+            callback.onFailure(new IllegalArgumentException("Unknown field: " + field));
+            return;
+        }
+        // Only the id and the ranked column, the leaderboard doesn't need the rest of the row
+        String sql = "SELECT " + idField + ", " + field + " FROM " + tableName
+                + " ORDER BY " + field + " DESC LIMIT ?;";
+        List<T> top = new ArrayList<>();
+        try {
+            synchronized (connection) {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, limit);
+                    ResultSet rs = pstmt.executeQuery();
+                    while (rs.next()) {
+                        Map<String, Object> row = new HashMap<>();
+                        row.put(idField, rs.getString(1));
+                        row.put(field, rs.getObject(2));
+                        T entity = deserialize(row);
+                        if (entity != null) {
+                            top.add(entity);
+                        }
+                    }
                 }
             }
-            callback.onSuccess(all);
         } catch (SQLException e) {
             callback.onFailure(e);
+            return;
         }
+        callback.onSuccess(top);
     }
 
     @Override
     public void loadByDiscordId(long discordId, Callback<T> callback) {
         String sql = "SELECT * FROM " + tableName + " WHERE discordId = ? LIMIT 1;";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setLong(1, discordId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                Map<String, Object> row = extractFromResultSet(rs);
-                T entity = deserialize(row);
-                if (entity != null) {
-                    callback.onSuccess(entity);
-                } else {
-                    callback.onFailure(new NoSuchElementException("No entity found for discordId=" + discordId));
+        Map<String, Object> row = null;
+        try {
+            synchronized (connection) {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setLong(1, discordId);
+                    ResultSet rs = pstmt.executeQuery();
+                    if (rs.next()) {
+                        row = extractFromResultSet(rs);
+                    }
                 }
-            } else {
-                callback.onFailure(new NoSuchElementException("No entity found for discordId=" + discordId));
             }
         } catch (SQLException e) {
             callback.onFailure(e);
+            return;
+        }
+        T entity = row != null ? deserialize(row) : null;
+        if (entity != null) {
+            callback.onSuccess(entity);
+        } else {
+            callback.onFailure(new NoSuchElementException("No entity found for discordId=" + discordId));
         }
     }
 
@@ -226,7 +514,14 @@ public class SQLiteRepository<T> extends BaseRepository<T> {
         Map<String, Object> data = new HashMap<>();
         for (String key : persistFields.keySet()) {
             Object val = rs.getObject(key);
-            if (val instanceof String && isComplexType(persistFields.get(key).getType())) {
+            if (val instanceof byte[] && isComplexType(persistFields.get(key).getType())) {
+                // Binary -> complex
+                try {
+                    data.put(key, BinaryEntityCodec.decodeValue((byte[]) val, persistFields.get(key).getGenericType()));
+                } catch (IOException e) {
+                    throw new SQLException("Failed to decode column " + key, e);
+                }
+            } else if (val instanceof String && isComplexType(persistFields.get(key).getType())) {
                 // JSON -> complex
                 String json = (String) val;
                 Field f = persistFields.get(key);
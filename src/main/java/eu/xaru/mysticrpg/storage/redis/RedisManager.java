@@ -6,8 +6,11 @@ import org.bukkit.configuration.file.FileConfiguration;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 /**
@@ -22,6 +25,8 @@ public class RedisManager {
 
     private JedisPool jedisPool;
     private final Map<String, String> mockData = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> mockSets = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> mockBlobs = new ConcurrentHashMap<>();
 
     private RedisManager(boolean enabled, boolean mock, String host, int port, String password) {
         this.redisEnabled = enabled;
@@ -88,6 +93,39 @@ public class RedisManager {
         return mockData.get(key);
     }
 
+    public void setBytes(String key, byte[] value) {
+        if (isRedisFullyEnabled()) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.set(key.getBytes(StandardCharsets.UTF_8), value);
+            } catch (Exception e) {
+                DebugLogger.getInstance().error("RedisManager: setBytes failed, fallback to mock", e);
+                mockBlobs.put(key, value);
+            }
+        } else {
+            mockBlobs.put(key, value);
+        }
+    }
+
+    /**
+     * Reads a value as raw bytes. Also returns values written with {@link #set(String, String)}
+     * (as UTF-8) so callers can migrate from string values.
+     */
+    public byte[] getBytes(String key) {
+        if (isRedisFullyEnabled()) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                return jedis.get(key.getBytes(StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                DebugLogger.getInstance().error("RedisManager: getBytes failed, fallback to mock", e);
+            }
+        }
+        byte[] blob = mockBlobs.get(key);
+        if (blob == null) {
+            String value = mockData.get(key);
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+        return blob;
+    }
+
     public void delete(String key) {
         if (isRedisFullyEnabled()) {
             try (Jedis jedis = jedisPool.getResource()) {
@@ -95,9 +133,56 @@ public class RedisManager {
             } catch (Exception e) {
                 DebugLogger.getInstance().error("RedisManager: delete failed, fallback to mock", e);
                 mockData.remove(key);
+                mockBlobs.remove(key);
             }
         } else {
             mockData.remove(key);
+            mockBlobs.remove(key);
+        }
+    }
+
+    public void sadd(String key, String member) {
+        if (isRedisFullyEnabled()) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.sadd(key, member);
+            } catch (Exception e) {
+                DebugLogger.getInstance().error("RedisManager: sadd failed, fallback to mock", e);
+                mockSets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(member);
+            }
+        } else {
+            mockSets.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(member);
+        }
+    }
+
+    public void srem(String key, String member) {
+        if (isRedisFullyEnabled()) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.srem(key, member);
+            } catch (Exception e) {
+                DebugLogger.getInstance().error("RedisManager: srem failed, fallback to mock", e);
+                removeMockMember(key, member);
+            }
+        } else {
+            removeMockMember(key, member);
+        }
+    }
+
+    public Set<String> smembers(String key) {
+        if (isRedisFullyEnabled()) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                return jedis.smembers(key);
+            } catch (Exception e) {
+                DebugLogger.getInstance().error("RedisManager: smembers failed, fallback to mock", e);
+            }
+        }
+        Set<String> members = mockSets.get(key);
+        return members == null ? new HashSet<>() : new HashSet<>(members);
+    }
+
+    private void removeMockMember(String key, String member) {
+        Set<String> members = mockSets.get(key);
+        if (members != null) {
+            members.remove(member);
         }
     }
 }
@@ -1,68 +1,137 @@
 package eu.xaru.mysticrpg.storage.redis;
 
 import eu.xaru.mysticrpg.storage.Callback;
-import eu.xaru.mysticrpg.storage.annotations.Persist;
+import eu.xaru.mysticrpg.storage.codec.BinaryEntityCodec;
+import eu.xaru.mysticrpg.storage.codec.EntityCodec;
+import eu.xaru.mysticrpg.storage.codec.JsonEntityCodec;
 import eu.xaru.mysticrpg.storage.database.BaseRepository;
 import eu.xaru.mysticrpg.storage.database.IRepository;
+import eu.xaru.mysticrpg.storage.database.PendingSave;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
-import java.util.List;
-import java.util.UUID;
 
 /**
- * Wraps a final repository in Redis caching. Reads/writes go to Redis first.
- * Scheduled flush (if you want it) can occur externally, or partial updates, etc.
+ * Wraps a final repository in a Redis write-behind cache. Saves go to Redis as binary or
+ * JSON blobs (see {@link EntityCodec}) and are remembered in a dirty-key set; a background
+ * flusher coalesces them and batch-writes the latest state to the final repository within
+ * the configured max staleness.
+ *
+ * The dirty-key set lives in Redis too, so entries that were saved but never flushed
+ * (crash, Redis-only restart of the server) are replayed into the final repository on startup.
  */
 public class RedisRepository<T> extends BaseRepository<T> {
 
+    /**
+     * How long one flush batch may take before it is considered failed and retried.
+     */
+    private static final long BATCH_TIMEOUT_SECONDS = 30L;
+
     private final IRepository<T> finalRepo;
     private final String idField;
+    private final String dirtySetKey;
+    private final long maxStalenessMs;
+    private final int batchSize;
+
+    // Blobs are written with the configured codec; both are kept to read older blobs
+    private final BinaryEntityCodec<T> binaryCodec;
+    private final JsonEntityCodec<T> jsonCodec;
+    private final EntityCodec<T> codec;
+
+    // Latest unflushed entity per id, replaced on every save so repeated saves coalesce
+    private final Map<String, DirtyEntry<T>> dirty = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    // Metrics
+    private final AtomicLong flushedEntries = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastStalenessWarning;
+
+    /**
+     * One pending write. Every save gets a new sequence number, so an entry saved again while it
+     * was being flushed never equals the flushed one, even with the same entity and dirtySince.
+     */
+    private record DirtyEntry<T>(T entity, long dirtySince, long sequence) {
+    }
+
+    private final AtomicLong dirtySequence = new AtomicLong();
 
     public RedisRepository(Class<T> type, IRepository<T> finalRepo, String idField) {
+        this(type, finalRepo, idField, 5000L, 500, true);
+    }
+
+    /**
+     * @param maxStalenessMs How long a save may live only in Redis before it must reach the final repository.
+     * @param batchSize      Maximum number of entities written to the final repository in one batch.
+     * @param binaryBlobs    Write blobs in the compact binary format instead of JSON.
+     */
+    public RedisRepository(Class<T> type, IRepository<T> finalRepo, String idField,
+                           long maxStalenessMs, int batchSize, boolean binaryBlobs) {
         super(type);
+        this.binaryCodec = new BinaryEntityCodec<>(type);
+        this.jsonCodec = new JsonEntityCodec<>(mapper);
+        this.codec = binaryBlobs ? binaryCodec : jsonCodec;
         this.finalRepo = finalRepo;
         this.idField = idField;
+        this.dirtySetKey = type.getSimpleName().toLowerCase() + ":dirty";
+        this.maxStalenessMs = Math.max(200L, maxStalenessMs);
+        this.batchSize = Math.max(1, batchSize);
+
+        recoverUnflushed();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MysticRPG-RedisFlush-" + type.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Flushing twice per staleness window keeps every entry below the limit
+        long interval = this.maxStalenessMs / 2;
+        flusher.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void save(T entity, Callback<Void> callback) {
-        Map<String, Object> data = serialize(entity);
-        if (!data.containsKey(idField)) {
+        String idVal = idOf(entity);
+        if (idVal == null) {
             callback.onFailure(new IllegalArgumentException("Missing ID field: " + idField));
             return;
         }
-        String idVal = data.get(idField).toString();
-        // Write to Redis
-        String json = gson.toJson(data);
-        RedisManager.getInstance().set(buildKey(idVal), json);
-
-        // We do not forcibly flush to final repository right now,
-        // but you could call finalRepo.save(...) if you want immediate sync
+        // Write to Redis, then remember the id until the flusher has persisted it
+        try {
+            RedisManager.getInstance().setBytes(buildKey(idVal), codec.encode(entity));
+        } catch (IOException e) {
+            callback.onFailure(e);
+            return;
+        }
+        markDirty(idVal, entity);
         callback.onSuccess(null);
     }
 
     @Override
     public void load(UUID uuid, Callback<T> callback) {
         String key = buildKey(uuid.toString());
-        String json = RedisManager.getInstance().get(key);
-        if (json != null) {
-            Map<String, Object> map = gson.fromJson(json, Map.class);
-            T entity = deserialize(map);
-            if (entity != null) {
-                callback.onSuccess(entity);
-                return;
-            }
+        T cached = readBlob(key);
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
         }
         // fallback to final repo
         finalRepo.load(uuid, new Callback<>() {
             @Override
             public void onSuccess(T loaded) {
                 // optionally cache in Redis
-                Map<String, Object> data = serialize(loaded);
-                RedisManager.getInstance().set(key, gson.toJson(data));
+                try {
+                    RedisManager.getInstance().setBytes(key, codec.encode(loaded));
+                } catch (IOException e) {
+                    DebugLogger.getInstance().error("RedisRepository: failed to cache " + key, e);
+                }
                 callback.onSuccess(loaded);
             }
 
@@ -75,7 +144,10 @@ public class RedisRepository<T> extends BaseRepository<T> {
 
     @Override
     public void delete(UUID uuid, Callback<Void> callback) {
-        RedisManager.getInstance().delete(buildKey(uuid.toString()));
+        String idVal = uuid.toString();
+        dirty.remove(idVal);
+        RedisManager.getInstance().srem(dirtySetKey, idVal);
+        RedisManager.getInstance().delete(buildKey(idVal));
         // also remove from final
         finalRepo.delete(uuid, callback);
     }
@@ -83,8 +155,63 @@ public class RedisRepository<T> extends BaseRepository<T> {
     @Override
     public void loadAll(Callback<List<T>> callback) {
         // For large sets, reading from Redis alone is not trivial if you haven't stored a keyset.
-        // We'll just do finalRepo.loadAll for now.
-        finalRepo.loadAll(callback);
+        // Load from the final repo and overlay everything that has not been flushed yet.
+        finalRepo.loadAll(new Callback<>() {
+            @Override
+            public void onSuccess(List<T> loaded) {
+                if (dirty.isEmpty()) {
+                    callback.onSuccess(loaded);
+                    return;
+                }
+                Map<String, DirtyEntry<T>> pending = new HashMap<>(dirty);
+                List<T> merged = new ArrayList<>(loaded.size() + pending.size());
+                for (T entity : loaded) {
+                    DirtyEntry<T> newer = pending.remove(idOf(entity));
+                    merged.add(newer != null ? newer.entity() : entity);
+                }
+                for (DirtyEntry<T> entry : pending.values()) {
+                    merged.add(entry.entity());
+                }
+                callback.onSuccess(merged);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
+    }
+
+    @Override
+    public void loadTop(String field, int limit, Callback<List<T>> callback) {
+        // Unflushed entities replace their stored versions and are added as candidates, so the
+        // result is neither sorted nor limited. Asking for one extra row per unflushed entity
+        // keeps at least limit stored rows that no row left out can outrank.
+        finalRepo.loadTop(field, limit + dirty.size(), new Callback<>() {
+            @Override
+            public void onSuccess(List<T> loaded) {
+                if (dirty.isEmpty()) {
+                    callback.onSuccess(loaded);
+                    return;
+                }
+                Map<String, DirtyEntry<T>> pending = new HashMap<>(dirty);
+                List<T> merged = new ArrayList<>(loaded.size() + pending.size());
+                for (T entity : loaded) {
+                    if (!pending.containsKey(idOf(entity))) {
+                        merged.add(entity);
+                    }
+                }
+                for (DirtyEntry<T> entry : pending.values()) {
+                    merged.add(entry.entity());
+                }
+                callback.onSuccess(merged);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                callback.onFailure(throwable);
+            }
+        });
     }
 
     @Override
@@ -93,6 +220,205 @@ public class RedisRepository<T> extends BaseRepository<T> {
         finalRepo.loadByDiscordId(discordId, callback);
     }
 
+    /* ===========================
+       ======= WRITE-BEHIND =======
+       =========================== */
+
+    private void markDirty(String idVal, T entity) {
+        long now = System.currentTimeMillis();
+        long sequence = dirtySequence.incrementAndGet();
+        dirty.compute(idVal, (key, old) -> new DirtyEntry<>(entity, old == null ? now : old.dirtySince(), sequence));
+        RedisManager.getInstance().sadd(dirtySetKey, idVal);
+    }
+
+    /**
+     * Replays entities that were saved to Redis but never reached the final repository.
+     */
+    private void recoverUnflushed() {
+        Set<String> ids = RedisManager.getInstance().smembers(dirtySetKey);
+        if (ids.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (String idVal : ids) {
+            T entity = readBlob(buildKey(idVal));
+            if (entity == null) {
+                // Nothing left to replay for this id
+                RedisManager.getInstance().srem(dirtySetKey, idVal);
+                continue;
+            }
+            dirty.put(idVal, new DirtyEntry<>(entity, now, dirtySequence.incrementAndGet()));
+        }
+        DebugLogger.getInstance().log(Level.INFO, "RedisRepository: replaying " + dirty.size()
+                + " unflushed " + type.getSimpleName() + " entries", 0);
+        flush();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            DebugLogger.getInstance().error("RedisRepository: flush of " + type.getSimpleName() + " failed", t);
+        }
+    }
+
+    /**
+     * Writes every dirty entity to the final repository in batches and clears the ones
+     * that were not saved again in the meantime. Blocks until done; failed entries stay dirty.
+     */
+    public void flush() {
+        if (dirty.isEmpty() || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<String, DirtyEntry<T>>> snapshot = new ArrayList<>(dirty.entrySet());
+            for (int from = 0; from < snapshot.size(); from += batchSize) {
+                List<Map.Entry<String, DirtyEntry<T>>> batch =
+                        snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+                if (!writeBatch(batch)) {
+                    // Final repository is struggling; retry everything on the next run
+                    break;
+                }
+            }
+            checkStaleness();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    private boolean writeBatch(List<Map.Entry<String, DirtyEntry<T>>> batch) {
+        List<PendingSave<T>> saves = new ArrayList<>(batch.size());
+        for (Map.Entry<String, DirtyEntry<T>> entry : batch) {
+            String idVal = entry.getKey();
+            DirtyEntry<T> flushed = entry.getValue();
+            saves.add(PendingSave.full(flushed.entity(), new Callback<>() {
+                @Override
+                public void onSuccess(Void result) {
+                    flushedEntries.incrementAndGet();
+                    // Only clear if nobody saved this id again while we were writing
+                    if (dirty.remove(idVal, flushed)) {
+                        RedisManager.getInstance().srem(dirtySetKey, idVal);
+                        if (dirty.containsKey(idVal)) {
+                            RedisManager.getInstance().sadd(dirtySetKey, idVal);
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    failedFlushes.incrementAndGet();
+                }
+            }));
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean success = new AtomicBoolean();
+        finalRepo.saveBatch(saves, new Callback<>() {
+            @Override
+            public void onSuccess(Void result) {
+                success.set(true);
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                DebugLogger.getInstance().error("RedisRepository: failed to flush " + type.getSimpleName() + " batch", throwable);
+                done.countDown();
+            }
+        });
+        try {
+            if (!done.await(BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                DebugLogger.getInstance().log(Level.WARNING, "RedisRepository: flush batch of " + type.getSimpleName() + " timed out", 0);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return success.get();
+    }
+
+    private void checkStaleness() {
+        long oldestAge = getOldestDirtyAgeMs();
+        long now = System.currentTimeMillis();
+        if (oldestAge > maxStalenessMs && now - lastStalenessWarning > 60_000L) {
+            lastStalenessWarning = now;
+            DebugLogger.getInstance().log(Level.WARNING, "RedisRepository: " + dirty.size() + " " + type.getSimpleName()
+                    + " entries are only in Redis, oldest for " + oldestAge + " ms (max " + maxStalenessMs + " ms)", 0);
+        }
+    }
+
+    /**
+     * Stops the background flusher and writes everything still dirty to the final repository.
+     * Whatever cannot be written stays in the Redis dirty set and is replayed on next startup.
+     */
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!dirty.isEmpty()) {
+            DebugLogger.getInstance().log(Level.WARNING, "RedisRepository: " + dirty.size() + " " + type.getSimpleName()
+                    + " entries could not be flushed"
+                    + (RedisManager.getInstance().isRedisFullyEnabled() ? " and will be replayed on startup" : " and are lost"), 0);
+        }
+    }
+
+    public int getDirtyCount() {
+        return dirty.size();
+    }
+
+    public long getOldestDirtyAgeMs() {
+        long oldest = Long.MAX_VALUE;
+        for (DirtyEntry<T> entry : dirty.values()) {
+            oldest = Math.min(oldest, entry.dirtySince());
+        }
+        return oldest == Long.MAX_VALUE ? 0L : System.currentTimeMillis() - oldest;
+    }
+
+    public long getFlushedEntries() {
+        return flushedEntries.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    private String idOf(T entity) {
+        Field field = persistFields.get(idField);
+        try {
+            Object value = field == null ? null : field.get(entity);
+            return value == null ? null : value.toString();
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads and decodes a cached entity, whichever codec wrote it.
+     *
+     * @return The entity, or null if missing or unreadable.
+     */
+    private T readBlob(String key) {
+        byte[] blob = RedisManager.getInstance().getBytes(key);
+        if (blob == null) {
+            return null;
+        }
+        try {
+            return BinaryEntityCodec.isBinary(blob) ? binaryCodec.decode(blob) : jsonCodec.decode(blob);
+        } catch (IOException e) {
+            DebugLogger.getInstance().error("RedisRepository: unreadable blob at " + key, e);
+            return null;
+        }
+    }
+
+    public EntityCodec<T> getCodec() {
+        return codec;
+    }
+
     private String buildKey(String idVal) {
         // e.g. "playerData:UUID"
         return type.getSimpleName().toLowerCase() + ":" + idVal;
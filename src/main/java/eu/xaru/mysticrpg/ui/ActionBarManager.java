@@ -4,6 +4,7 @@ import eu.xaru.mysticrpg.cores.MysticCore;
 import eu.xaru.mysticrpg.managers.ModuleManager;
 import eu.xaru.mysticrpg.player.stats.PlayerStats;
 import eu.xaru.mysticrpg.player.stats.PlayerStatsManager;
+import eu.xaru.mysticrpg.player.stats.StatSnapshot;
 import eu.xaru.mysticrpg.player.stats.StatType;
 import eu.xaru.mysticrpg.player.stats.StatsModule; // Ensure this import matches your package structure
 import eu.xaru.mysticrpg.player.stats.events.PlayerStatsChangedEvent;
@@ -49,21 +50,23 @@ public class ActionBarManager implements Listener {
             return;
         }
 
-        // Recalculate player's stats to include temp stats from equipment
-        PlayerStats stats;
+        // Cached stats include temp stats from equipment
+        int maxHp;
+        int mana;
         if (statsModule != null) {
-            // Use the recalculation method to get up-to-date temp stats
-            stats = statsModule.recalculatePlayerStatsFor(player);
+            StatSnapshot stats = statsModule.getCachedStats(player);
+            maxHp = (int) stats.get(StatType.HEALTH);
+            mana = (int) stats.get(StatType.MANA);
         } else {
             // Fallback if StatsModule is not available (Not recommended)
             // This will only show base stats
             DebugLogger.getInstance().log(Level.WARNING, "StatsModule is null, cannot recalc stats for ActionBar.");
-            stats = statsManager.loadStats(player);
+            PlayerStats stats = statsManager.loadStats(player);
+            maxHp = (int) stats.getEffectiveStat(StatType.HEALTH);
+            mana = (int) stats.getEffectiveStat(StatType.MANA);
         }
 
         int currentHp = data.getCurrentHp();
-        int maxHp = (int) stats.getEffectiveStat(StatType.HEALTH);
-        int mana = (int) stats.getEffectiveStat(StatType.MANA);
 
         String actionBarText = String.format("§c❤ %d/%d §b❀ %d", currentHp, maxHp, mana);
         player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(Utils.getInstance().$(actionBarText)));
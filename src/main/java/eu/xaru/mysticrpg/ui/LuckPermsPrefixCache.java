@@ -0,0 +1,98 @@
+package eu.xaru.mysticrpg.ui;
+
+import eu.xaru.mysticrpg.utils.DebugLogger;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.model.user.User;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Colour-translated LuckPerms prefixes per player.
+ *
+ * A prefix is looked up once and kept until LuckPerms recalculates the user's data
+ * ({@link UserDataRecalculateEvent}, fired on rank or meta changes), so the scoreboard can
+ * read it every update without touching LuckPerms. The event arrives on a LuckPerms thread;
+ * the change listener must only record the player for the next main-thread update.
+ */
+public class LuckPermsPrefixCache {
+
+    private final Map<UUID, String> prefixes = new ConcurrentHashMap<>();
+    private final LuckPerms luckPerms;
+    private EventSubscription<UserDataRecalculateEvent> subscription;
+
+    public LuckPermsPrefixCache() {
+        LuckPerms provider;
+        try {
+            provider = LuckPermsProvider.get();
+        } catch (IllegalStateException e) {
+            provider = null;
+            DebugLogger.getInstance().warning("[MysticRPG] LuckPerms not found. Prefixes will be empty.");
+        }
+        this.luckPerms = provider;
+    }
+
+    /**
+     * Subscribes to LuckPerms data recalculation.
+     *
+     * @param onChange Called with the player's UUID after their cached prefix was dropped.
+     */
+    public void subscribe(JavaPlugin plugin, Consumer<UUID> onChange) {
+        if (luckPerms == null || subscription != null) {
+            return;
+        }
+        subscription = luckPerms.getEventBus().subscribe(plugin, UserDataRecalculateEvent.class, event -> {
+            UUID uuid = event.getUser().getUniqueId();
+            prefixes.remove(uuid);
+            onChange.accept(uuid);
+        });
+    }
+
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+        prefixes.clear();
+    }
+
+    /**
+     * @return The player's prefix with colour codes translated, or an empty string.
+     */
+    public String getPrefix(Player player) {
+        String prefix = prefixes.get(player.getUniqueId());
+        if (prefix == null) {
+            prefix = lookup(player);
+            prefixes.put(player.getUniqueId(), prefix);
+        }
+        return prefix;
+    }
+
+    public void invalidate(UUID uuid) {
+        prefixes.remove(uuid);
+    }
+
+    private String lookup(Player player) {
+        if (luckPerms == null) {
+            return "";
+        }
+        User user = luckPerms.getUserManager().getUser(player.getUniqueId());
+        if (user == null) {
+            user = luckPerms.getUserManager().loadUser(player.getUniqueId()).join();
+            if (user == null) {
+                DebugLogger.getInstance().warning("[MysticRPG] Could not load LuckPerms user data for " + player.getName());
+                return "";
+            }
+        }
+        String prefix = user.getCachedData().getMetaData().getPrefix();
+        return prefix != null ? ChatColor.translateAlternateColorCodes('&', prefix) : "";
+    }
+}
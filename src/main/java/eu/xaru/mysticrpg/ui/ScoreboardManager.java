@@ -14,22 +14,35 @@ import eu.xaru.mysticrpg.storage.PlayerData;
 import eu.xaru.mysticrpg.storage.PlayerDataCache;
 import eu.xaru.mysticrpg.storage.SaveModule;
 import eu.xaru.mysticrpg.utils.DebugLogger;
-import net.luckperms.api.LuckPerms;
-import net.luckperms.api.LuckPermsProvider;
-import net.luckperms.api.model.user.User;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.*;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 
+/**
+ * Per-player sidebar and name tag teams.
+ *
+ * Every player is refreshed once per second, spread over the 20 ticks of that second and
+ * capped at a number of players per tick. Sidebar lines and name tag teams are only written
+ * when their text changed: lines are compared against {@code playerLineCache}, teams against
+ * the prefix and suffix last pushed to every scoreboard. LuckPerms prefixes are cached until
+ * LuckPerms recalculates the user, so an idle server costs no packets and no LuckPerms lookups.
+ */
 public class ScoreboardManager {
 
+    private static final int UPDATE_PERIOD_TICKS = 20;
+
+    private record TeamState(String prefix, String suffix) {
+    }
+
     private enum ScoreboardLine {
         SEPARATOR_1, EMPTY_1, YOUR_STATS, LEVEL, XP, BALANCE, EMPTY_2, INFORMATION, RANK, PET, QUEST, EMPTY_3, SEPARATOR_2, WEBSITE,
         DUNGEON_NAME, MONSTERS, TIME, PARTY_LABEL, PARTY_MEMBER_1, PARTY_MEMBER_2, PARTY_MEMBER_3, PARTY_MEMBER_4, PARTY_MEMBER_5
@@ -40,7 +53,7 @@ public class ScoreboardManager {
     private final EconomyHelper economyHelper;
     private final QuestManager questManager;
     private final PlayerDataCache playerDataCache;
-    private ChatFormatter chatFormatter;
+    private final LuckPermsPrefixCache prefixCache = new LuckPermsPrefixCache();
     private DungeonManager dungeonManager;
 
     private final Map<UUID, Scoreboard> playerScoreboards = new HashMap<>();
@@ -50,6 +63,17 @@ public class ScoreboardManager {
     private final AtomicBoolean isScheduled = new AtomicBoolean(false);
     private static final ChatColor[] ENTRY_COLORS = ChatColor.values();
 
+    // Name tag team state currently shown on every scoreboard, per player
+    private final Map<UUID, TeamState> pushedTeams = new HashMap<>();
+    // Players whose prefix changed in LuckPerms, filled from the LuckPerms event thread
+    private final Set<UUID> dirtyTeams = ConcurrentHashMap.newKeySet();
+
+    private final int updateBudgetPerTick;
+    private BukkitTask updaterTask;
+    private List<UUID> updateCycle = List.of();
+    private int cycleIndex;
+    private int cycleTick = UPDATE_PERIOD_TICKS;
+
     public ScoreboardManager() {
         this.plugin = JavaPlugin.getPlugin(MysticCore.class);
         DungeonModule dungeonModule = ModuleManager.getInstance().getModuleInstance(DungeonModule.class);
@@ -78,7 +102,9 @@ public class ScoreboardManager {
             this.playerDataCache = null;
             DebugLogger.getInstance().warning("[MysticRPG] SaveModule not found. Player data will not be loaded.");
         }
-        this.chatFormatter = new ChatFormatter();
+        this.updateBudgetPerTick = Math.max(1,
+                MysticCore.getInstance().getMysticConfig().getInt("scoreboard.updateBudgetPerTick", 25));
+        prefixCache.subscribe(plugin, dirtyTeams::add);
 
         for (Player player : Bukkit.getOnlinePlayers()) {
             onlinePlayerUUIDs.add(player.getUniqueId());
@@ -92,19 +118,54 @@ public class ScoreboardManager {
 
     private void startScoreboardUpdater() {
         if (isScheduled.compareAndSet(false, true)) {
-            new BukkitRunnable() {
+            updaterTask = new BukkitRunnable() {
                 @Override
                 public void run() {
-                    for (Player player : Bukkit.getOnlinePlayers()) {
-                        createOrUpdateTeam(player);
-                        updatePlayerScoreboard(player);
-                    }
+                    tick();
                 }
-            }.runTaskTimer(plugin, 0L, 20L);
+            }.runTaskTimer(plugin, 0L, 1L);
             DebugLogger.getInstance().log("[MysticRPG] Scoreboard updater started, updating scoreboards every second.");
         }
     }
 
+    /**
+     * Applies LuckPerms prefix changes, then refreshes this tick's share of the players.
+     * A cycle covers every online player once and lasts 20 ticks, or longer if the per-tick
+     * budget is not enough.
+     */
+    private void tick() {
+        if (!dirtyTeams.isEmpty()) {
+            Iterator<UUID> iterator = dirtyTeams.iterator();
+            while (iterator.hasNext()) {
+                UUID uuid = iterator.next();
+                iterator.remove();
+                Player player = Bukkit.getPlayer(uuid);
+                if (player != null && onlinePlayerUUIDs.contains(uuid)) {
+                    createOrUpdateTeam(player);
+                }
+            }
+        }
+
+        if (cycleTick >= UPDATE_PERIOD_TICKS && cycleIndex >= updateCycle.size()) {
+            updateCycle = new ArrayList<>(onlinePlayerUUIDs);
+            cycleIndex = 0;
+            cycleTick = 0;
+        }
+        cycleTick++;
+        int target = (int) Math.min(updateCycle.size(),
+                (long) updateCycle.size() * cycleTick / UPDATE_PERIOD_TICKS);
+        int processed = 0;
+        while (cycleIndex < target && processed < updateBudgetPerTick) {
+            Player player = Bukkit.getPlayer(updateCycle.get(cycleIndex++));
+            if (player == null || !onlinePlayerUUIDs.contains(player.getUniqueId())) {
+                continue;
+            }
+            createOrUpdateTeam(player);
+            updatePlayerScoreboard(player);
+            processed++;
+        }
+    }
+
     public void createScoreboardForPlayer(Player player) {
         UUID uuid = player.getUniqueId();
         if (!playerScoreboards.containsKey(uuid)) {
@@ -179,11 +240,12 @@ public class ScoreboardManager {
             DebugLogger.getInstance().log("[MysticRPG] Created new team '" + teamName + "' in scoreboard.");
         }
 
-        String prefix = getPrefixFromLuckPerms(player);
-        String suffix = ChatColor.BLACK + " [" + ChatColor.GREEN + "LVL" + ChatColor.RED + getPlayerLevel(uuid) + ChatColor.BLACK + "]";
-
-        team.setPrefix(prefix + " ");
-        team.setSuffix(suffix);
+        TeamState state = pushedTeams.get(uuid);
+        if (state == null) {
+            state = currentTeamState(player);
+        }
+        team.setPrefix(state.prefix());
+        team.setSuffix(state.suffix());
 
         if (!team.hasEntry(player.getName())) {
             team.addEntry(player.getName());
@@ -224,10 +286,11 @@ public class ScoreboardManager {
             updateRegularScoreboard(player, scoreboard);
         }
 
-        if (player.getWorld().getName().equals("world")) {
-            player.setScoreboard(scoreboard);
-        } else {
-            player.setScoreboard(Bukkit.getScoreboardManager().getMainScoreboard());
+        Scoreboard shown = player.getWorld().getName().equals("world")
+                ? scoreboard
+                : Bukkit.getScoreboardManager().getMainScoreboard();
+        if (player.getScoreboard() != shown) {
+            player.setScoreboard(shown);
         }
     }
 
@@ -263,7 +326,7 @@ public class ScoreboardManager {
 
         updateLine(teams, cache, ScoreboardLine.EMPTY_2, "   ");
         updateLine(teams, cache, ScoreboardLine.INFORMATION, "ぇ INFORMATION");
-        updateLine(teams, cache, ScoreboardLine.RANK, "   え " + chatFormatter.getPrefixFromLuckPerms(player));
+        updateLine(teams, cache, ScoreboardLine.RANK, "   え " + prefixCache.getPrefix(player));
 
         String petText = "   シ " + (playerData.getEquippedPet() != null ?
                 formatPetName(playerData.getEquippedPet()) : ChatColor.RED + "No Pet");
@@ -341,24 +404,9 @@ public class ScoreboardManager {
         return questManager.getCurrentObjective(player.getUniqueId());
     }
 
-    private String getPrefixFromLuckPerms(Player player) {
-        LuckPerms luckPerms = LuckPermsProvider.get();
-        if (luckPerms == null) {
-            DebugLogger.getInstance().warning("[MysticRPG] LuckPerms not found. Unable to retrieve prefix for " + player.getName());
-            return "";
-        }
-
-        User user = luckPerms.getUserManager().getUser(player.getUniqueId());
-        if (user == null) {
-            user = luckPerms.getUserManager().loadUser(player.getUniqueId()).join();
-            if (user == null) {
-                DebugLogger.getInstance().warning("[MysticRPG] Could not load LuckPerms user data for " + player.getName());
-                return "";
-            }
-        }
-
-        String prefix = user.getCachedData().getMetaData().getPrefix();
-        return prefix != null ? ChatColor.translateAlternateColorCodes('&', prefix) : "";
+    private TeamState currentTeamState(Player player) {
+        return new TeamState(prefixCache.getPrefix(player),
+                ChatColor.BLACK + " [LVL" + getPlayerLevel(player.getUniqueId()) + "]");
     }
 
     public int getPlayerLevel(UUID uuid) {
@@ -384,6 +432,12 @@ public class ScoreboardManager {
     }
 
     public void cleanup() {
+        if (updaterTask != null) {
+            updaterTask.cancel();
+            updaterTask = null;
+            isScheduled.set(false);
+        }
+        prefixCache.unsubscribe();
         for (Scoreboard scoreboard : playerScoreboards.values()) {
             for (Team team : scoreboard.getTeams()) {
                 team.unregister();
@@ -396,6 +450,9 @@ public class ScoreboardManager {
         playerLineTeams.clear();
         playerLineCache.clear();
         onlinePlayerUUIDs.clear();
+        pushedTeams.clear();
+        dirtyTeams.clear();
+        updateCycle = List.of();
         DebugLogger.getInstance().log("[MysticRPG] ScoreboardManager cleanup completed.");
     }
 
@@ -403,19 +460,9 @@ public class ScoreboardManager {
         UUID newUUID = newPlayer.getUniqueId();
         onlinePlayerUUIDs.add(newUUID);
         createScoreboardForPlayer(newPlayer);
+        // Not pushed yet, so this registers the new player's team on every scoreboard
+        pushedTeams.remove(newUUID);
         createOrUpdateTeam(newPlayer);
-
-        for (Map.Entry<UUID, Scoreboard> entry : playerScoreboards.entrySet()) {
-            UUID targetUUID = entry.getKey();
-            Scoreboard scoreboard = entry.getValue();
-
-            if (targetUUID.equals(newUUID)) continue;
-
-            Player targetPlayer = Bukkit.getPlayer(targetUUID);
-            if (targetPlayer != null && targetPlayer.isOnline()) {
-                addPlayerToScoreboard(scoreboard, newPlayer);
-            }
-        }
     }
 
     public void removePlayer(Player departingPlayer) {
@@ -446,26 +493,47 @@ public class ScoreboardManager {
         }
         playerLineTeams.remove(departingUUID);
         playerLineCache.remove(departingUUID);
+        pushedTeams.remove(departingUUID);
+        dirtyTeams.remove(departingUUID);
+        prefixCache.invalidate(departingUUID);
     }
 
+    /**
+     * Pushes the player's name tag team to every scoreboard if its prefix or suffix changed
+     * since the last push. Unchanged teams cost two map lookups and no packets.
+     */
     public void createOrUpdateTeam(Player player) {
         UUID uuid = player.getUniqueId();
-        String teamName = "team_" + uuid;
-        String prefix = getPrefixFromLuckPerms(player);
-        String suffix = ChatColor.BLACK + " [LVL" + getPlayerLevel(uuid) + "]";
+        TeamState state = currentTeamState(player);
+        if (state.equals(pushedTeams.get(uuid))) {
+            return;
+        }
+        pushedTeams.put(uuid, state);
 
+        String teamName = "team_" + uuid;
         for (Scoreboard scoreboard : playerScoreboards.values()) {
             Team team = scoreboard.getTeam(teamName);
             if (team == null) {
                 team = scoreboard.registerNewTeam(teamName);
             }
-            if (!team.getPrefix().equals(prefix) || !team.getSuffix().equals(suffix)) {
-                team.setPrefix(prefix);
-                team.setSuffix(suffix);
+            if (!team.getPrefix().equals(state.prefix()) || !team.getSuffix().equals(state.suffix())) {
+                team.setPrefix(state.prefix());
+                team.setSuffix(state.suffix());
             }
             if (!team.hasEntry(player.getName())) {
                 team.addEntry(player.getName());
             }
         }
     }
+
+    /**
+     * Looks the player's prefix up again and re-pushes their team and sidebar.
+     */
+    public void refreshPlayer(Player player) {
+        UUID uuid = player.getUniqueId();
+        prefixCache.invalidate(uuid);
+        pushedTeams.remove(uuid);
+        createOrUpdateTeam(player);
+        updatePlayerScoreboard(player);
+    }
 }
\ No newline at end of file
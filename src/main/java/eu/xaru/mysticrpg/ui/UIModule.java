@@ -15,6 +15,7 @@ import eu.xaru.mysticrpg.quests.QuestModule;
 import eu.xaru.mysticrpg.storage.PlayerDataCache;
 import eu.xaru.mysticrpg.storage.SaveModule;
 import eu.xaru.mysticrpg.utils.DebugLogger;
+import eu.xaru.mysticrpg.utils.TextBenchCommand;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -120,8 +121,7 @@ public class UIModule implements IBaseModule {
                 .executes((sender, args) -> {
                     Player target = (Player) args.get("target");
                     if (scoreboardManager != null) {
-                        scoreboardManager.createOrUpdateTeam(target);
-                        scoreboardManager.updatePlayerScoreboard(target);
+                        scoreboardManager.refreshPlayer(target);
                         sender.sendMessage(ChatColor.GREEN + "Refreshed scoreboard for " + target.getName());
                         target.sendMessage(ChatColor.GREEN + "Your scoreboard has been refreshed by " + sender.getName());
                     } else {
@@ -129,6 +129,8 @@ public class UIModule implements IBaseModule {
                     }
                 })
                 .register();
+
+        TextBenchCommand.register();
     }
 
     private void registerEventListeners() {
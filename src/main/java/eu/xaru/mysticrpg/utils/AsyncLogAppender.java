@@ -0,0 +1,244 @@
+package eu.xaru.mysticrpg.utils;
+
+import eu.xaru.mysticrpg.cores.MysticCore;
+import org.bukkit.ChatColor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Background thread behind {@link DebugLogger}: drains the ring buffer in batches, formats
+ * and colours the lines, and writes them to the console and an optional rolling log file.
+ */
+final class AsyncLogAppender implements Runnable {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final String DEFAULT_CATEGORY = "general";
+
+    private final LogRingBuffer buffer;
+    private final DateTimeFormatter dtFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Rolling file output, guarded by this
+    private File logFile;
+    private long maxFileBytes;
+    private int maxFiles;
+    private BufferedWriter fileWriter;
+    private long fileBytes;
+
+    AsyncLogAppender(LogRingBuffer buffer) {
+        this.buffer = buffer;
+        this.thread = new Thread(this, "MysticRPG-Logger");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void run() {
+        List<LogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            boolean stopping = !running;
+            buffer.drainTo(batch, BATCH_SIZE);
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            if (stopping) {
+                break;
+            }
+            reportDropped();
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        reportDropped();
+        closeFile();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void countDropped() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Writes an entry on the calling thread, for warnings that did not fit into the buffer
+     * and for calls after shutdown.
+     */
+    void writeDirect(LogEntry entry) {
+        write(List.of(entry));
+    }
+
+    /**
+     * Enables or disables the rolling log file. Files are named debug.log, debug.1.log, ...
+     */
+    synchronized void configureFile(File folder, boolean enabled, long maxFileBytes, int maxFiles) {
+        closeFile();
+        this.maxFileBytes = Math.max(1024, maxFileBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.logFile = null;
+        if (!enabled) {
+            return;
+        }
+        if (!folder.exists() && !folder.mkdirs()) {
+            System.err.println("[MysticRPG] Could not create log folder " + folder);
+            return;
+        }
+        this.logFile = new File(folder, "debug.log");
+        openFile();
+    }
+
+    /**
+     * Stops the thread after the queued entries are written.
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void reportDropped() {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            write(List.of(new LogEntry(System.currentTimeMillis(), Level.WARNING, DEFAULT_CATEGORY,
+                    count + " log messages dropped, the log buffer was full.", null)));
+        }
+    }
+
+    private synchronized void write(List<LogEntry> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        for (LogEntry entry : batch) {
+            String prefix = formatPrefix(entry);
+            if (entry.message() != null) {
+                lines.add(prefix + entry.message());
+            }
+            if (entry.throwable() != null) {
+                lines.add(prefix + stackTraceOf(entry.throwable()));
+            }
+        }
+
+        String[] coloured = new String[lines.size()];
+        for (int i = 0; i < coloured.length; i++) {
+            // Log lines are one-off text: colours only, without lookups or template caching
+            coloured[i] = Utils.getInstance().translateColours(lines.get(i));
+        }
+
+        MysticCore plugin = MysticCore.getInstance();
+        if (plugin != null) {
+            plugin.getServer().getConsoleSender().sendMessage(coloured);
+        } else {
+            for (String line : coloured) {
+                System.out.println(ChatColor.stripColor(line));
+            }
+        }
+
+        if (fileWriter != null) {
+            try {
+                for (String line : coloured) {
+                    String plain = ChatColor.stripColor(line);
+                    fileWriter.write(plain);
+                    fileWriter.newLine();
+                    fileBytes += plain.length() + 1;
+                }
+                fileWriter.flush();
+                if (fileBytes >= maxFileBytes) {
+                    roll();
+                }
+            } catch (IOException e) {
+                System.err.println("[MysticRPG] Failed to write log file, disabling it: " + e.getMessage());
+                closeFile();
+                logFile = null;
+            }
+        }
+    }
+
+    private String formatPrefix(LogEntry entry) {
+        Level level = entry.level();
+        String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp()), ZoneId.systemDefault())
+                .format(dtFormatter);
+
+        StringBuilder sb = new StringBuilder(96);
+        sb.append(ChatColor.DARK_GRAY).append(ChatColor.BOLD).append(" [").append(timestamp).append("] ");
+        if (level == Level.WARNING) {
+            sb.append("&8[&eWarning &8| ").append(ChatColor.YELLOW);
+        } else if (level == Level.SEVERE) {
+            sb.append("&8[&cError &8| ").append(ChatColor.RED);
+        } else if (level.intValue() < Level.INFO.intValue()) {
+            sb.append("&8[&bDebug &8| ").append(ChatColor.AQUA);
+        } else { // INFO and others
+            sb.append("&8[&aInfo &8| ").append(ChatColor.GREEN);
+        }
+        sb.append(level.getName()).append("&8] ");
+        if (!DEFAULT_CATEGORY.equals(entry.category())) {
+            sb.append("&7(").append(entry.category()).append(") ");
+        }
+        sb.append(": ").append(ChatColor.RESET);
+        return sb.toString();
+    }
+
+    private static String stackTraceOf(Throwable throwable) {
+        StringWriter sw = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+
+    private void openFile() {
+        try {
+            fileWriter = new BufferedWriter(new FileWriter(logFile, StandardCharsets.UTF_8, true));
+            fileBytes = logFile.length();
+        } catch (IOException e) {
+            System.err.println("[MysticRPG] Could not open log file " + logFile + ": " + e.getMessage());
+            fileWriter = null;
+        }
+    }
+
+    private void closeFile() {
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } catch (IOException ignored) {
+            }
+            fileWriter = null;
+        }
+    }
+
+    private void roll() {
+        closeFile();
+        File folder = logFile.getParentFile();
+        File oldest = new File(folder, "debug." + maxFiles + ".log");
+        if (oldest.exists() && !oldest.delete()) {
+            System.err.println("[MysticRPG] Could not delete old log file " + oldest);
+        }
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File from = new File(folder, "debug." + i + ".log");
+            if (from.exists()) {
+                from.renameTo(new File(folder, "debug." + (i + 1) + ".log"));
+            }
+        }
+        logFile.renameTo(new File(folder, "debug.1.log"));
+        openFile();
+    }
+}
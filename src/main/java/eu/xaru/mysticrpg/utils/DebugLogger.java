@@ -1,38 +1,51 @@
 package eu.xaru.mysticrpg.utils;
 
-import eu.xaru.mysticrpg.cores.MysticCore;
-import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
-import org.bukkit.entity.Player;
+import eu.xaru.mysticrpg.config.DynamicConfig;
+import org.bukkit.configuration.ConfigurationSection;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.File;
 import java.lang.reflect.Field;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
  * DebugLogger is a singleton class that handles comprehensive logging functionalities for the plugin.
  * It provides various overloaded methods to log messages, warnings, errors, debug information,
  * and object states with enhanced formatting.
+ *
+ * Calls are filtered by level (globally and per category) before any message is built, then queued
+ * on a lock-free ring buffer. A background thread formats, colours and writes them to the console
+ * and a rolling file, so logging never blocks the calling thread. Use the {@link Supplier}
+ * overloads on hot paths so disabled messages are not even concatenated.
  */
 public class DebugLogger {
 
+    /**
+     * Category of all calls that do not name one.
+     */
+    public static final String DEFAULT_CATEGORY = "general";
+
+    private static final int BUFFER_CAPACITY = 8192;
+
     // Singleton instance
     private static DebugLogger instance;
 
     // Flag to enable or disable debugging globally
     private volatile boolean debuggingEnabled;
 
-    // DateTimeFormatter for timestamps
-    private final DateTimeFormatter dtFormatter;
+    // Lowest level that is logged, and per-category overrides
+    private volatile int minLevel = Level.INFO.intValue();
+    private volatile Map<String, Integer> categoryLevels = Map.of();
+
+    private final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+    private final AsyncLogAppender appender = new AsyncLogAppender(buffer);
 
     // Private constructor to prevent external instantiation
     private DebugLogger() {
         this.debuggingEnabled = true; // Default to enabled; can be toggled via methods
-        this.dtFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     }
 
     /**
@@ -72,6 +85,96 @@ public class DebugLogger {
         return this.debuggingEnabled;
     }
 
+    /**
+     * Checks whether a message of this level would be logged, before building it.
+     */
+    public boolean isLoggable(Level level) {
+        return debuggingEnabled && level.intValue() >= minLevel;
+    }
+
+    /**
+     * Checks whether a message of this level and category would be logged, before building it.
+     */
+    public boolean isLoggable(String category, Level level) {
+        if (!debuggingEnabled) return false;
+        Integer threshold = categoryLevels.get(category);
+        return level.intValue() >= (threshold != null ? threshold : minLevel);
+    }
+
+    /**
+     * @return True if debug-level ({@link Level#FINE}) messages of this category are logged.
+     */
+    public boolean isDebugEnabled(String category) {
+        return isLoggable(category, Level.FINE);
+    }
+
+    /**
+     * Sets the lowest logged level, for categories without their own threshold.
+     */
+    public void setLevel(Level level) {
+        this.minLevel = level.intValue();
+    }
+
+    /**
+     * Sets the lowest logged level of one category, or clears it when level is null.
+     */
+    public void setCategoryLevel(String category, Level level) {
+        Map<String, Integer> levels = new HashMap<>(categoryLevels);
+        if (level == null) {
+            levels.remove(category);
+        } else {
+            levels.put(category, level.intValue());
+        }
+        categoryLevels = Map.copyOf(levels);
+    }
+
+    /**
+     * Applies the "logging" section of the config: debug switch, levels and the rolling log file.
+     */
+    public void configure(DynamicConfig config, File dataFolder) {
+        this.debuggingEnabled = config.getBoolean("logging.debug", true);
+        setLevel(parseLevel(config.getString("logging.level", "INFO"), Level.INFO));
+
+        Map<String, Integer> levels = new HashMap<>();
+        if (config.get("logging.categories") instanceof ConfigurationSection section) {
+            for (String category : section.getKeys(false)) {
+                levels.put(category, parseLevel(section.getString(category), Level.INFO).intValue());
+            }
+        }
+        this.categoryLevels = Map.copyOf(levels);
+
+        appender.configureFile(new File(dataFolder, "logs"),
+                config.getBoolean("logging.file.enabled", true),
+                config.getLong("logging.file.maxSizeMb", 10) * 1024L * 1024L,
+                config.getInt("logging.file.maxFiles", 5));
+    }
+
+    /**
+     * Writes all queued messages and stops the logging thread. Later calls are written synchronously.
+     */
+    public void shutdown() {
+        appender.shutdown(5000L);
+    }
+
+    /**
+     * Parses a level name; also accepts DEBUG, TRACE, WARN and ERROR.
+     */
+    public static Level parseLevel(String name, Level fallback) {
+        if (name == null) return fallback;
+        switch (name.trim().toUpperCase(Locale.ROOT)) {
+            case "DEBUG": return Level.FINE;
+            case "TRACE": return Level.FINEST;
+            case "WARN": return Level.WARNING;
+            case "ERROR": return Level.SEVERE;
+            default:
+                try {
+                    return Level.parse(name.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    return fallback;
+                }
+        }
+    }
+
     /* ===========================
        ======== LOG METHODS ========
        =========================== */
@@ -82,7 +185,7 @@ public class DebugLogger {
      * @param message The message to log.
      */
     public void log(String message) {
-        send(Level.INFO, message, 2, null);
+        send(Level.INFO, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -92,7 +195,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void log(String format, Object... args) {
-        send(Level.INFO, formatMessage(format, args), 2, null);
+        if (!isLoggable(Level.INFO)) return;
+        send(Level.INFO, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -101,7 +205,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void log(Throwable throwable) {
-        send(Level.INFO, getStackTraceAsString(throwable), 2, throwable);
+        send(Level.INFO, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -111,7 +215,7 @@ public class DebugLogger {
      * @param message The message to log.
      */
     public void log(Level level, String message) {
-        send(level, message, 2, null);
+        send(level, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -122,7 +226,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void log(Level level, String format, Object... args) {
-        send(level, formatMessage(format, args), 2, null);
+        if (!isLoggable(level)) return;
+        send(level, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -132,7 +237,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void log(Level level, Throwable throwable) {
-        send(level, getStackTraceAsString(throwable), 2, throwable);
+        send(level, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -143,8 +248,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void log(Level level, String message, Throwable throwable) {
-        send(level, message, 2, throwable);
-        send(level, getStackTraceAsString(throwable), 3, throwable);
+        send(level, DEFAULT_CATEGORY, message, throwable);
     }
 
     /**
@@ -154,8 +258,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void log(String message, Throwable throwable) {
-        send(Level.INFO, message, 2, throwable);
-        send(Level.INFO, getStackTraceAsString(throwable), 3, throwable);
+        send(Level.INFO, DEFAULT_CATEGORY, message, throwable);
     }
 
     /**
@@ -197,7 +300,7 @@ public class DebugLogger {
      * @param message The warning message.
      */
     public void warning(String message) {
-        send(Level.WARNING, message, 2, null);
+        send(Level.WARNING, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -207,7 +310,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void warning(String format, Object... args) {
-        send(Level.WARNING, formatMessage(format, args), 2, null);
+        if (!isLoggable(Level.WARNING)) return;
+        send(Level.WARNING, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -216,7 +320,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void warning(Throwable throwable) {
-        send(Level.WARNING, getStackTraceAsString(throwable), 2, throwable);
+        send(Level.WARNING, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -226,7 +330,7 @@ public class DebugLogger {
      * @param message The message to log.
      */
     public void warning(Level level, String message) {
-        send(level, message, 2, null);
+        send(level, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -237,7 +341,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void warning(Level level, String format, Object... args) {
-        send(level, formatMessage(format, args), 2, null);
+        if (!isLoggable(level)) return;
+        send(level, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -247,7 +352,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void warning(Level level, Throwable throwable) {
-        send(level, getStackTraceAsString(throwable), 2, throwable);
+        send(level, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -258,8 +363,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void warning(Level level, String message, Throwable throwable) {
-        send(level, message, 2, throwable);
-        send(level, getStackTraceAsString(throwable), 3, throwable);
+        send(level, DEFAULT_CATEGORY, message, throwable);
     }
 
     /**
@@ -269,8 +373,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void warning(String message, Throwable throwable) {
-        send(Level.WARNING, message, 2, throwable);
-        send(Level.WARNING, getStackTraceAsString(throwable), 3, throwable);
+        send(Level.WARNING, DEFAULT_CATEGORY, message, throwable);
     }
 
     /* ===========================
@@ -283,7 +386,7 @@ public class DebugLogger {
      * @param message The error message.
      */
     public void error(String message) {
-        send(Level.SEVERE, message, 2, null);
+        send(Level.SEVERE, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -293,7 +396,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void error(String format, Object... args) {
-        send(Level.SEVERE, formatMessage(format, args), 2, null);
+        if (!isLoggable(Level.SEVERE)) return;
+        send(Level.SEVERE, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -302,7 +406,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void error(Throwable throwable) {
-        send(Level.SEVERE, getStackTraceAsString(throwable), 2, throwable);
+        send(Level.SEVERE, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -312,7 +416,7 @@ public class DebugLogger {
      * @param message The message to log.
      */
     public void error(Level level, String message) {
-        send(level, message, 2, null);
+        send(level, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -323,7 +427,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void error(Level level, String format, Object... args) {
-        send(level, formatMessage(format, args), 2, null);
+        if (!isLoggable(level)) return;
+        send(level, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -333,7 +438,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void error(Level level, Throwable throwable) {
-        send(level, getStackTraceAsString(throwable), 2, throwable);
+        send(level, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -344,8 +449,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void error(Level level, String message, Throwable throwable) {
-        send(level, message, 2, throwable);
-        send(level, getStackTraceAsString(throwable), 3, throwable);
+        send(level, DEFAULT_CATEGORY, message, throwable);
     }
 
     /**
@@ -355,8 +459,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void error(String message, Throwable throwable) {
-        send(Level.SEVERE, message, 2, throwable);
-        send(Level.SEVERE, getStackTraceAsString(throwable), 3, throwable);
+        send(Level.SEVERE, DEFAULT_CATEGORY, message, throwable);
     }
 
     /* ===========================
@@ -369,7 +472,7 @@ public class DebugLogger {
      * @param message The severe error message.
      */
     public void severe(String message) {
-        send(Level.SEVERE, message, 2, null);
+        send(Level.SEVERE, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -379,7 +482,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void severe(String format, Object... args) {
-        send(Level.SEVERE, formatMessage(format, args), 2, null);
+        if (!isLoggable(Level.SEVERE)) return;
+        send(Level.SEVERE, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -388,7 +492,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void severe(Throwable throwable) {
-        send(Level.SEVERE, getStackTraceAsString(throwable), 2, throwable);
+        send(Level.SEVERE, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -398,7 +502,7 @@ public class DebugLogger {
      * @param message The message to log.
      */
     public void severe(Level level, String message) {
-        send(level, message, 2, null);
+        send(level, DEFAULT_CATEGORY, message, null);
     }
 
     /**
@@ -409,7 +513,8 @@ public class DebugLogger {
      * @param args   The arguments for formatting.
      */
     public void severe(Level level, String format, Object... args) {
-        send(level, formatMessage(format, args), 2, null);
+        if (!isLoggable(level)) return;
+        send(level, DEFAULT_CATEGORY, formatMessage(format, args), null);
     }
 
     /**
@@ -419,7 +524,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void severe(Level level, Throwable throwable) {
-        send(level, getStackTraceAsString(throwable), 2, throwable);
+        send(level, DEFAULT_CATEGORY, null, throwable);
     }
 
     /**
@@ -430,8 +535,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void severe(Level level, String message, Throwable throwable) {
-        send(level, message, 2, throwable);
-        send(level, getStackTraceAsString(throwable), 3, throwable);
+        send(level, DEFAULT_CATEGORY, message, throwable);
     }
 
     /**
@@ -441,8 +545,7 @@ public class DebugLogger {
      * @param throwable The throwable to log.
      */
     public void severe(String message, Throwable throwable) {
-        send(Level.SEVERE, message, 2, throwable);
-        send(Level.SEVERE, getStackTraceAsString(throwable), 3, throwable);
+        send(Level.SEVERE, DEFAULT_CATEGORY, message, throwable);
     }
 
     /* ===========================
@@ -534,75 +637,91 @@ public class DebugLogger {
        =========================== */
 
     /**
-     * Logs a debug message.
+     * Logs a debug message ({@link Level#FINE}).
      *
      * @param message The debug message.
      */
     public void debug(String message) {
-        if (!debuggingEnabled) return;
-        send(Level.INFO, message, 2, null);
+        if (!isLoggable(Level.FINE)) return;
+        send(Level.FINE, DEFAULT_CATEGORY, message, null);
     }
 
     /**
-     * Logs a formatted debug message.
+     * Logs a formatted debug message ({@link Level#FINE}).
      *
      * @param format The message format.
      * @param args   The arguments for formatting.
      */
     public void debug(String format, Object... args) {
-        if (!debuggingEnabled) return;
-        send(Level.INFO, formatMessage(format, args), 2, null);
+        if (!isLoggable(Level.FINE)) return;
+        send(Level.FINE, DEFAULT_CATEGORY, formatMessage(format, args), null);
+    }
+
+    /**
+     * Logs a debug message of a category, built only if that category logs debug messages.
+     *
+     * @param category The category, e.g. "combat" or "world".
+     * @param message  Supplies the debug message.
+     */
+    public void debug(String category, Supplier<String> message) {
+        if (!isLoggable(category, Level.FINE)) return;
+        send(Level.FINE, category, message.get(), null);
     }
 
     /* ===========================
-       ====== CORE METHODS =========
+       ====== LAZY METHODS ========
        =========================== */
 
     /**
-     * Core method to handle sending log messages to the console.
+     * Logs a message with a specific log level, built only if that level is logged.
      *
-     * @param level     The logging level.
-     * @param message   The message to log.
-     * @param depth     The stack trace depth to identify the caller.
-     * @param throwable The throwable to log (can be null).
+     * @param level   The logging level.
+     * @param message Supplies the message to log.
      */
-    private void send(Level level, String message, int depth, Throwable throwable) {
-        if (!debuggingEnabled) return;
-
-        String className = getCallerClassName(depth);
-        String timestamp = LocalDateTime.now().format(dtFormatter);
-        String formattedMessage = formatLogMessage(level, timestamp, className, message);
+    public void log(Level level, Supplier<String> message) {
+        if (!isLoggable(level)) return;
+        send(level, DEFAULT_CATEGORY, message.get(), null);
+    }
 
-        // Send message to Bukkit console with colors via Utils.$()
-        MysticCore.getInstance().getServer().getConsoleSender().sendMessage(Utils.getInstance().$(formattedMessage));
+    /**
+     * Logs a message of a category with a specific log level, built only if it is logged.
+     *
+     * @param category The category, e.g. "combat" or "world".
+     * @param level    The logging level.
+     * @param message  Supplies the message to log.
+     */
+    public void log(String category, Level level, Supplier<String> message) {
+        if (!isLoggable(category, level)) return;
+        send(level, category, message.get(), null);
     }
 
+    /* ===========================
+       ====== CORE METHODS =========
+       =========================== */
+
     /**
-     * Formats the log message with color codes, prefixes, and timestamps.
+     * Core method to queue log messages for the logging thread.
+     * Messages below the configured level are discarded here, before anything is allocated.
      *
      * @param level     The logging level.
-     * @param timestamp The current timestamp.
-     * @param className The name of the class logging the message.
-     * @param message   The message to format.
-     * @return The formatted log message.
-     */
-    private String formatLogMessage(Level level, String timestamp, String className, String message) {
-        String prefix;
-        ChatColor levelColor;
-
-        if (level == Level.WARNING) {
-            levelColor = ChatColor.YELLOW;
-            prefix = "&8[&eWarning &8| " + levelColor + level.getName() + "&8] ";
-        } else if (level == Level.SEVERE) {
-            levelColor = ChatColor.RED;
-            prefix = "&8[&cError &8| " + levelColor + level.getName() + "&8] ";
-        } else { // INFO and others
-            levelColor = ChatColor.GREEN;
-            prefix = "&8[&aInfo &8| " + levelColor + level.getName() + "&8] ";
+     * @param category  The log category.
+     * @param message   The message to log (can be null if only the throwable is logged).
+     * @param throwable The throwable to log (can be null).
+     */
+    private void send(Level level, String category, String message, Throwable throwable) {
+        if (!isLoggable(category, level)) return;
+
+        LogEntry entry = new LogEntry(System.currentTimeMillis(), level, category, message, throwable);
+        if (!appender.isRunning()) {
+            appender.writeDirect(entry);
+        } else if (!buffer.offer(entry)) {
+            // Never block the caller; only warnings and errors are worth writing inline
+            if (level.intValue() >= Level.WARNING.intValue()) {
+                appender.writeDirect(entry);
+            } else {
+                appender.countDropped();
+            }
         }
-
-        String formattedPrefix = String.format("%s%s [%s] %s: ", ChatColor.DARK_GRAY, ChatColor.BOLD, timestamp, prefix);
-        return String.format("%s%s%s", formattedPrefix, ChatColor.RESET, message);
     }
 
     /**
@@ -614,6 +733,8 @@ public class DebugLogger {
      */
     private String formatMessage(String format, Object... args) {
         if (format == null) return "null";
+        // Most calls pass a plain message plus a legacy depth argument; skip the format parser
+        if (format.indexOf('%') < 0 && !format.contains("{}")) return format;
         // Replace '{}' with '%s'
         String formatted = format.replace("{}", "%s");
         try {
@@ -669,38 +790,4 @@ public class DebugLogger {
         sb.append("\n}");
         return sb.toString();
     }
-
-    /**
-     * Converts a throwable's stack trace to a string.
-     *
-     * @param throwable The throwable to convert.
-     * @return The stack trace as a string.
-     */
-    private String getStackTraceAsString(Throwable throwable) {
-        if (throwable == null) {
-            return "";
-        }
-
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        throwable.printStackTrace(pw);
-        return sw.toString();
-    }
-
-    /**
-     * Retrieves the caller's class name based on the stack trace depth using StackWalker.
-     *
-     * @param stackTraceDepth The depth in the stack trace.
-     * @return The caller's class name without package.
-     */
-    private String getCallerClassName(int stackTraceDepth) {
-        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
-                .walk(stream -> stream.skip(3 + stackTraceDepth).findFirst())
-                .map(StackWalker.StackFrame::getClassName)
-                .map(fullClassName -> {
-                    int lastDot = fullClassName.lastIndexOf(".");
-                    return lastDot != -1 ? fullClassName.substring(lastDot + 1) : fullClassName;
-                })
-                .orElse("UnknownClass");
-    }
 }
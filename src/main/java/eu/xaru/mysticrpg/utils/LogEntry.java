@@ -0,0 +1,10 @@
+package eu.xaru.mysticrpg.utils;
+
+import java.util.logging.Level;
+
+/**
+ * One queued log call. The message is already built; timestamps, colours and stack traces
+ * are rendered later on the logging thread.
+ */
+record LogEntry(long timestamp, Level level, String category, String message, Throwable throwable) {
+}
@@ -0,0 +1,251 @@
+package eu.xaru.mysticrpg.utils;
+
+/**
+ * Single-pass colour translator used by {@link MessageTemplate}.
+ *
+ * Produces the same output as the regex chain in {@link Utils#translateMessageLegacy(String)}
+ * (the &amp;# / {#RRGGBB} / &amp;x fix-ups, both gradient forms, #RRGGBB and &amp;-codes) while
+ * walking the message once. Input where the legacy chain rewrites one construct into another
+ * (e.g. {@code <&#FF0000>}, a gradient whose text contains hex codes) is rare and not worth
+ * replicating; {@link #translate} returns null for it and the caller falls back to the legacy chain.
+ */
+final class MessageColours {
+
+    private static final String COLOUR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+    private static final char SECTION = '§';
+
+    private MessageColours() {
+    }
+
+    /**
+     * @return The translated message, or null if the message needs the legacy translator.
+     */
+    static String translate(String s) {
+        int n = s.length();
+        StringBuilder sb = null;
+        int copied = 0; // start of the pending unmodified run
+        int i = 0;
+        while (i < n) {
+            char c = s.charAt(i);
+            if (c != '&' && c != '#' && c != '{' && c != '<') {
+                i++;
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(n + 32);
+            }
+            sb.append(s, copied, i);
+
+            int next;
+            switch (c) {
+                case '&' -> next = ampersand(s, i, sb);
+                case '#' -> next = hash(s, i, sb);
+                case '{' -> next = brace(s, i, sb);
+                default -> next = angle(s, i, sb);
+            }
+            if (next < 0) {
+                return null;
+            }
+            i = next;
+            copied = next;
+        }
+        if (sb == null) {
+            return s;
+        }
+        return sb.append(s, copied, n).toString();
+    }
+
+    // &#..., &x&R&R&G&G&B&B, &c
+    private static int ampersand(String s, int i, StringBuilder sb) {
+        int n = s.length();
+        if (i + 1 >= n) {
+            sb.append('&');
+            return i + 1;
+        }
+        char next = s.charAt(i + 1);
+        if (next == '#') {
+            // "&#" always loses its ampersand
+            return i + 1;
+        }
+        if (next == 'x' && isLegacyHexRun(s, i + 2)) {
+            if (i > 0 && (s.charAt(i - 1) == '<' || s.charAt(i - 1) == '{')) {
+                return -1;
+            }
+            for (int k = i + 3; k <= i + 13; k += 2) {
+                if (!isHex(s.charAt(k))) {
+                    return -1;
+                }
+            }
+            sb.append(SECTION).append('x');
+            for (int k = i + 3; k <= i + 13; k += 2) {
+                sb.append(SECTION).append(s.charAt(k));
+            }
+            return i + 14;
+        }
+        if (COLOUR_CODES.indexOf(next) >= 0) {
+            sb.append(SECTION).append(Character.toLowerCase(next));
+            return i + 2;
+        }
+        sb.append('&');
+        return i + 1;
+    }
+
+    // #RRGGBB
+    private static int hash(String s, int i, StringBuilder sb) {
+        if (isHexRun(s, i + 1, 6)) {
+            appendHex(sb, s, i + 1);
+            return i + 7;
+        }
+        sb.append('#');
+        return i + 1;
+    }
+
+    // {#RRGGBB}, {#RRGGBB>}text{#RRGGBB<}
+    private static int brace(String s, int i, StringBuilder sb) {
+        int n = s.length();
+        if (s.startsWith("&#", i + 1)) {
+            return -1;
+        }
+        if (i + 1 >= n || s.charAt(i + 1) != '#' || !isHexRun(s, i + 2, 6)) {
+            sb.append('{');
+            return i + 1;
+        }
+        int afterHex = i + 8;
+        if (afterHex < n && s.charAt(afterHex) == '}') {
+            if (i > 0 && s.charAt(i - 1) == '{') {
+                // "{{#RRGGBB}..." turns into another tag in the legacy chain
+                return -1;
+            }
+            appendHex(sb, s, i + 2);
+            return afterHex + 1;
+        }
+        if (s.startsWith(">}", afterHex)) {
+            int textStart = afterHex + 2;
+            int stop = s.indexOf('{', textStart);
+            if (stop >= 0) {
+                if (stop + 9 < n && s.charAt(stop + 1) == '#' && isHexRun(s, stop + 2, 6)
+                        && s.charAt(stop + 8) == '<' && s.charAt(stop + 9) == '}') {
+                    if (!appendGradient(sb, s, i + 2, textStart, stop, stop + 2)) {
+                        return -1;
+                    }
+                    return stop + 10;
+                }
+                if (s.startsWith("#", stop + 1) || s.startsWith("&#", stop + 1)) {
+                    return -1;
+                }
+            }
+        }
+        // Unmatched tag: only the hex code inside is translated
+        sb.append('{');
+        return i + 1;
+    }
+
+    // <#RRGGBB>text</#RRGGBB>
+    private static int angle(String s, int i, StringBuilder sb) {
+        int n = s.length();
+        if (s.startsWith("&#", i + 1) || s.startsWith("{", i + 1) || s.startsWith("&x", i + 1)) {
+            return -1;
+        }
+        if (i + 8 < n && s.charAt(i + 1) == '#' && isHexRun(s, i + 2, 6) && s.charAt(i + 8) == '>') {
+            int textStart = i + 9;
+            int stop = s.indexOf('<', textStart);
+            if (stop >= 0 && s.startsWith("/", stop + 1)) {
+                if (stop + 9 < n && s.charAt(stop + 2) == '#' && isHexRun(s, stop + 3, 6)
+                        && s.charAt(stop + 9) == '>') {
+                    if (!appendGradient(sb, s, i + 2, textStart, stop, stop + 3)) {
+                        return -1;
+                    }
+                    return stop + 10;
+                }
+                return -1;
+            }
+        }
+        sb.append('<');
+        return i + 1;
+    }
+
+    /**
+     * Appends the gradient between the colours at {@code startHex} and {@code endHex} over
+     * s[textStart, textEnd), using the same arithmetic as the legacy translator.
+     *
+     * @return false if the text contains something the legacy chain would rewrite first.
+     */
+    private static boolean appendGradient(StringBuilder sb, String s, int startHex, int textStart, int textEnd,
+                                          int endHex) {
+        for (int k = textStart; k < textEnd; k++) {
+            char c = s.charAt(k);
+            if (c == '#' || (c == '&' && k + 1 < textEnd && s.charAt(k + 1) == 'x')) {
+                return false;
+            }
+        }
+        if (textEnd == textStart || s.charAt(textEnd - 1) == '&') {
+            // Joins its neighbours into a new &-code in the legacy chain
+            return false;
+        }
+        int startRed = hexByte(s, startHex);
+        int startGreen = hexByte(s, startHex + 2);
+        int startBlue = hexByte(s, startHex + 4);
+        int endRed = hexByte(s, endHex);
+        int endGreen = hexByte(s, endHex + 2);
+        int endBlue = hexByte(s, endHex + 4);
+
+        int length = textEnd - textStart;
+        for (int k = 0; k < length; k++) {
+            int red = (int) (startRed + (float) (endRed - startRed) / (length - 1) * k);
+            int green = (int) (startGreen + (float) (endGreen - startGreen) / (length - 1) * k);
+            int blue = (int) (startBlue + (float) (endBlue - startBlue) / (length - 1) * k);
+            String hex = Integer.toHexString((red << 16) + (green << 8) + blue);
+            sb.append(SECTION).append('x');
+            for (int pad = hex.length(); pad < 6; pad++) {
+                sb.append(SECTION).append('0');
+            }
+            for (int h = 0; h < hex.length(); h++) {
+                sb.append(SECTION).append(hex.charAt(h));
+            }
+            sb.append(s.charAt(textStart + k));
+        }
+        return true;
+    }
+
+    private static void appendHex(StringBuilder sb, String s, int from) {
+        sb.append(SECTION).append('x');
+        for (int k = from; k < from + 6; k++) {
+            sb.append(SECTION).append(s.charAt(k));
+        }
+    }
+
+    // The 12 characters after "&x" as matched by the legacy "&x[&0-9a-fA-F]{12}"
+    private static boolean isLegacyHexRun(String s, int from) {
+        if (from + 12 > s.length()) {
+            return false;
+        }
+        for (int k = from; k < from + 12; k++) {
+            char c = s.charAt(k);
+            if (c != '&' && !isHex(c)) {
+                return false;
+            }
+        }
+        // A trailing '&' in front of '#' is removed by the "&#" fix-up before this run is matched
+        return !(s.charAt(from + 11) == '&' && from + 12 < s.length() && s.charAt(from + 12) == '#');
+    }
+
+    private static boolean isHexRun(String s, int from, int count) {
+        if (from < 0 || from + count > s.length()) {
+            return false;
+        }
+        for (int k = from; k < from + count; k++) {
+            if (!isHex(s.charAt(k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static int hexByte(String s, int from) {
+        return Character.digit(s.charAt(from), 16) * 16 + Character.digit(s.charAt(from + 1), 16);
+    }
+}
@@ -0,0 +1,182 @@
+package eu.xaru.mysticrpg.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A message parsed once into literal segments, {placeholder} lookups and config: lookups,
+ * for {@link Utils#translateMessage(String)} and {@link Utils#translateTemplate(String)}.
+ *
+ * Messages without lookups are translated when compiled and rendering them only returns the
+ * stored result. Messages with lookups are rendered by appending the literals and the current
+ * values into one builder, followed by a single colour pass ({@link MessageColours}), since
+ * values may carry colour codes of their own. Only templates requested through {@link #of} are
+ * cached, up to a fixed number of entries.
+ */
+final class MessageTemplate {
+
+    private static final int CACHE_SIZE = 4096;
+
+    // Only explicit templates are cached, so this fills up with static text and then stays put
+    private static final Map<String, MessageTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private static final String CONFIG_PREFIX = "config:";
+
+    private enum TokenType {
+        LITERAL,
+        PLACEHOLDER,
+        CONFIG
+    }
+
+    private record Token(TokenType type, String value) {
+    }
+
+    private final Token[] tokens;
+    private final boolean hasConfig;
+    private final int literalLength;
+    private final String staticResult; // set when there is nothing to look up
+
+    private MessageTemplate(List<Token> tokens, String source) {
+        this.tokens = tokens.toArray(new Token[0]);
+        boolean config = false;
+        int length = 0;
+        for (Token token : this.tokens) {
+            if (token.type() == TokenType.CONFIG) {
+                config = true;
+            } else if (token.type() == TokenType.LITERAL) {
+                length += token.value().length();
+            }
+        }
+        this.hasConfig = config;
+        this.literalLength = length;
+        this.staticResult = this.tokens.length == 1 && this.tokens[0].type() == TokenType.LITERAL
+                ? colour(source)
+                : (this.tokens.length == 0 ? "" : null);
+    }
+
+    /**
+     * @return The cached template for the message, compiling it on first use. Once the cache is
+     * full, new messages are compiled without being cached.
+     */
+    static MessageTemplate of(String message) {
+        MessageTemplate template = CACHE.get(message);
+        if (template == null) {
+            template = compile(message);
+            if (CACHE.size() < CACHE_SIZE) {
+                CACHE.putIfAbsent(message, template);
+            }
+        }
+        return template;
+    }
+
+    static MessageTemplate compile(String message) {
+        return new MessageTemplate(tokenize(message, true), message);
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    String render(Utils utils) {
+        if (staticResult != null) {
+            return staticResult;
+        }
+        StringBuilder sb = new StringBuilder(literalLength + 16 * tokens.length);
+        if (!hasConfig) {
+            appendTokens(sb, tokens, utils);
+            return colour(sb.toString());
+        }
+
+        // Config values are substituted first and may themselves contain placeholders
+        for (Token token : tokens) {
+            if (token.type() == TokenType.CONFIG) {
+                sb.append(utils.getConfigValue(token.value()));
+            } else if (token.type() == TokenType.PLACEHOLDER) {
+                sb.append('{').append(token.value()).append('}');
+            } else {
+                sb.append(token.value());
+            }
+        }
+        List<Token> expanded = tokenize(sb.toString(), false);
+        sb.setLength(0);
+        appendTokens(sb, expanded.toArray(new Token[0]), utils);
+        return colour(sb.toString());
+    }
+
+    private static void appendTokens(StringBuilder sb, Token[] tokens, Utils utils) {
+        for (Token token : tokens) {
+            if (token.type() == TokenType.PLACEHOLDER) {
+                sb.append(utils.resolvePlaceholder(token.value()));
+            } else {
+                sb.append(token.value());
+            }
+        }
+    }
+
+    private static String colour(String text) {
+        return Utils.getInstance().translateColours(text);
+    }
+
+    /**
+     * Splits a message into literals, {key} placeholders and (optionally) config:path lookups,
+     * using the same token grammar as the legacy regular expressions.
+     */
+    private static List<Token> tokenize(String message, boolean withConfig) {
+        List<Token> tokens = new ArrayList<>(4);
+        int n = message.length();
+        int literalStart = 0;
+        int i = 0;
+        while (i < n) {
+            char c = message.charAt(i);
+            if (c == '{') {
+                int end = i + 1;
+                while (end < n && isPlaceholderChar(message.charAt(end))) {
+                    end++;
+                }
+                if (end > i + 1 && end < n && message.charAt(end) == '}') {
+                    addLiteral(tokens, message, literalStart, i);
+                    tokens.add(new Token(TokenType.PLACEHOLDER, message.substring(i + 1, end)));
+                    i = end + 1;
+                    literalStart = i;
+                    continue;
+                }
+            } else if (withConfig && c == 'c' && message.startsWith(CONFIG_PREFIX, i)) {
+                int start = i + CONFIG_PREFIX.length();
+                int end = start;
+                while (end < n && isConfigChar(message.charAt(end))) {
+                    end++;
+                }
+                if (end > start) {
+                    addLiteral(tokens, message, literalStart, i);
+                    tokens.add(new Token(TokenType.CONFIG, message.substring(start, end)));
+                    i = end;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        addLiteral(tokens, message, literalStart, n);
+        return tokens;
+    }
+
+    private static void addLiteral(List<Token> tokens, String message, int from, int to) {
+        if (to > from) {
+            tokens.add(new Token(TokenType.LITERAL, message.substring(from, to)));
+        }
+    }
+
+    private static boolean isPlaceholderChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    private static boolean isConfigChar(char c) {
+        return isPlaceholderChar(c) || c == '.';
+    }
+}
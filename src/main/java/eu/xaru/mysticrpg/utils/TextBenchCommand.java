@@ -0,0 +1,108 @@
+package eu.xaru.mysticrpg.utils;
+
+import dev.jorel.commandapi.CommandAPICommand;
+import dev.jorel.commandapi.arguments.IntegerArgument;
+import org.bukkit.command.CommandSender;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Registers /textbench command that compares the regex-based message translation with the
+ * compiled templates on typical lore and scoreboard lines, and checks that both agree.
+ * "/textbench cache" shows or clears the template cache.
+ */
+public class TextBenchCommand {
+
+    private static final List<String> LORE_LINES = List.of(
+            "&7Damage: &c+42",
+            "&7Strength: &c+15 &8(&c+5&8)",
+            "&#FFAA00&lLEGENDARY SWORD",
+            "<#FF5555>Mystic Blade of Embers</#FFAA00>",
+            "&8Power Stones: &a2&8/&a3",
+            "{#55FFFF>}Set Bonus: Frostguard{#5555FF<}",
+            "&x&F&F&5&5&F&FEnchanted",
+            "&7Tier: &6{tier}");
+
+    private static final List<String> SCOREBOARD_LINES = List.of(
+            "&c   あ &fXP &a1250&f/&62000",
+            "&e   い &f15,420&6 held Gold",
+            "&aSlay 10 Skeletons &7(4/10)",
+            "&bParty Members:",
+            "&7 - {player}",
+            "&8さ");
+
+    private static volatile Object benchmarkSink;
+
+    public static void register() {
+        new CommandAPICommand("textbench")
+                .withPermission("mysticrpg.debug")
+                .withArguments(new IntegerArgument("iterations", 1, 10_000_000))
+                .executes((sender, args) -> {
+                    int iterations = (int) args.get("iterations");
+                    Utils utils = Utils.getInstance();
+                    checkEquivalence(sender, utils);
+                    sender.sendMessage(utils.$("&aLore lines:"));
+                    sender.sendMessage(utils.$(benchmarkLine("legacy", iterations, LORE_LINES, utils::translateMessageLegacy)));
+                    sender.sendMessage(utils.$(benchmarkLine("compiled", iterations, LORE_LINES, utils::translateTemplate)));
+                    sender.sendMessage(utils.$("&aScoreboard lines:"));
+                    sender.sendMessage(utils.$(benchmarkLine("legacy", iterations, SCOREBOARD_LINES, utils::translateMessageLegacy)));
+                    sender.sendMessage(utils.$(benchmarkLine("compiled", iterations, SCOREBOARD_LINES, utils::translateTemplate)));
+                })
+                .withSubcommand(new CommandAPICommand("cache")
+                        .executes((sender, args) -> {
+                            sender.sendMessage(Utils.getInstance().$("&eCompiled message templates: &f"
+                                    + MessageTemplate.cacheSize()));
+                        })
+                        .withSubcommand(new CommandAPICommand("clear")
+                                .executes((sender, args) -> {
+                                    MessageTemplate.clearCache();
+                                    sender.sendMessage(Utils.getInstance().$("Message template cache cleared."));
+                                })))
+                .register();
+    }
+
+    private static void checkEquivalence(CommandSender sender, Utils utils) {
+        for (List<String> lines : List.of(LORE_LINES, SCOREBOARD_LINES)) {
+            for (String line : lines) {
+                if (!utils.translateMessageLegacy(line).equals(utils.translateTemplate(line))) {
+                    sender.sendMessage(utils.$("&cOutput differs for: &f") + line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Translates every line per iteration after a warm-up pass and reports time and heap
+     * allocation per line on the current thread.
+     */
+    private static String benchmarkLine(String label, int iterations, List<String> lines,
+                                        Function<String, String> translator) {
+        for (int i = 0; i < Math.min(iterations, 10_000); i++) {
+            for (String line : lines) {
+                translator.apply(line);
+            }
+        }
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() ? bean : null;
+        long threadId = Thread.currentThread().getId();
+
+        long bytesBefore = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        Object sink = null;
+        for (int i = 0; i < iterations; i++) {
+            for (String line : lines) {
+                sink = translator.apply(line);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocations == null ? 0 : allocations.getThreadAllocatedBytes(threadId);
+        benchmarkSink = sink; // keep the results observable so the JIT cannot drop the calls
+
+        long operations = (long) iterations * lines.size();
+        String bytes = allocations == null ? "n/a" : String.valueOf((bytesAfter - bytesBefore) / operations);
+        return "&e" + label + ": &f" + (elapsed / operations) + " ns/op, " + bytes + " B/op";
+    }
+}
@@ -120,8 +120,31 @@ public class Utils {
     }
 
 
-    // Updated translateMessage method to use the optimized caching
+    /**
+     * Resolves config: lookups and {placeholders}, then translates colour codes, hex colours and
+     * gradients. Nothing is cached, so this is meant for one-off text (chat, messages built with
+     * changing numbers); messages without lookups only take the colour pass.
+     */
     public String translateMessage(String message) {
+        if (message.indexOf('{') < 0 && !message.contains("config:")) {
+            return translateColours(message);
+        }
+        return MessageTemplate.compile(message).render(this);
+    }
+
+    /**
+     * Same as {@link #translateMessage(String)} for static text that is rendered over and over,
+     * such as lore and names from item configs: the template is compiled once and cached.
+     */
+    public String translateTemplate(String template) {
+        return MessageTemplate.of(template).render(this);
+    }
+
+    /**
+     * The original regex-based translation, kept as the reference for the compiled templates
+     * and for /textbench.
+     */
+    public String translateMessageLegacy(String message) {
         Matcher matcher = CONFIG_PATTERN.matcher(message);
         while (matcher.find()) {
             String configPath = matcher.group(1);
@@ -134,6 +157,27 @@ public class Utils {
         return message;
     }
 
+    // Colour part of the legacy translation, used for input the single-pass translator does not handle
+    String translateColoursLegacy(String message) {
+        return ChatColor.translateAlternateColorCodes('&', hexColor(message));
+    }
+
+    // Colour codes, hex colours and gradients only; no placeholder or config lookups
+    String translateColours(String message) {
+        String coloured = MessageColours.translate(message);
+        return coloured != null ? coloured : translateColoursLegacy(message);
+    }
+
+    // Current value of a placeholder; class placeholders of the plugin win over global ones
+    String resolvePlaceholder(String key) {
+        Map<String, String> pluginPlaceholders = classPlaceholders.get(MysticCore.getInstance().getClass());
+        String value = pluginPlaceholders != null ? pluginPlaceholders.get(key) : null;
+        if (value == null) {
+            value = placeholders.get(key);
+        }
+        return value != null ? value : "";
+    }
+
     // Apply placeholders
     private String applyPlaceholders(String message) {
         Map<String, String> combinedPlaceholders = new HashMap<>(placeholders);
@@ -0,0 +1,160 @@
+package eu.xaru.mysticrpg.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Answers "which players are within R blocks of this location" without scanning every player.
+ *
+ * Once per tick the online players are bucketed by the chunk they stand in, together with a
+ * snapshot of their position. A query only visits the buckets of the chunks the radius can
+ * reach, so its cost depends on the players nearby rather than on the player count.
+ * Positions are at most one tick old. Main thread only.
+ */
+public class PlayerProximityService {
+
+    private static PlayerProximityService instance;
+
+    private static final class Entry {
+        final Player player;
+        final double x;
+        final double y;
+        final double z;
+
+        Entry(Player player, Location loc) {
+            this.player = player;
+            this.x = loc.getX();
+            this.y = loc.getY();
+            this.z = loc.getZ();
+        }
+    }
+
+    /** Buckets per world UUID, then per chunk key. Rebuilt in place so the lists are reused. */
+    private final Map<UUID, Map<Long, List<Entry>>> buckets = new HashMap<>();
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private BukkitTask task;
+
+    private PlayerProximityService() {
+    }
+
+    public static synchronized PlayerProximityService getInstance() {
+        if (instance == null) {
+            instance = new PlayerProximityService();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts rebuilding the buckets every tick. Calling it again has no effect, so every
+     * system that relies on the service can call it when it starts.
+     */
+    public void start(JavaPlugin plugin) {
+        if (task != null) {
+            return;
+        }
+        rebuild();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::rebuild, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        buckets.clear();
+    }
+
+    private void rebuild() {
+        for (Map<Long, List<Entry>> worldBuckets : buckets.values()) {
+            worldBuckets.values().removeIf(List::isEmpty);
+            for (List<Entry> bucket : worldBuckets.values()) {
+                bucket.clear();
+            }
+        }
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location loc = player.getLocation(scratch);
+            World world = loc.getWorld();
+            if (world == null) {
+                continue;
+            }
+            long key = chunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+            buckets.computeIfAbsent(world.getUID(), w -> new HashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayList<>(4))
+                    .add(new Entry(player, loc));
+        }
+    }
+
+    /**
+     * @return True if any online player in the location's world is within {@code radius} blocks.
+     */
+    public boolean hasPlayerWithin(Location center, double radius) {
+        return collect(center, radius, null, true);
+    }
+
+    /**
+     * Adds every online player within {@code radius} blocks of the location to {@code out}.
+     * The collection is not cleared first, so callers can reuse one across queries.
+     */
+    public void playersWithin(Location center, double radius, Collection<Player> out) {
+        collect(center, radius, out, false);
+    }
+
+    private boolean collect(Location center, double radius, Collection<Player> out, boolean stopAtFirst) {
+        World world = center.getWorld();
+        if (world == null) {
+            return false;
+        }
+        Map<Long, List<Entry>> worldBuckets = buckets.get(world.getUID());
+        if (worldBuckets == null || worldBuckets.isEmpty()) {
+            return false;
+        }
+        double cx = center.getX();
+        double cy = center.getY();
+        double cz = center.getZ();
+        double radiusSq = radius * radius;
+        int minChunkX = (int) Math.floor(cx - radius) >> 4;
+        int maxChunkX = (int) Math.floor(cx + radius) >> 4;
+        int minChunkZ = (int) Math.floor(cz - radius) >> 4;
+        int maxChunkZ = (int) Math.floor(cz + radius) >> 4;
+
+        boolean found = false;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<Entry> bucket = worldBuckets.get(chunkKey(chunkX, chunkZ));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size(); i++) {
+                    Entry entry = bucket.get(i);
+                    double dx = entry.x - cx;
+                    double dy = entry.y - cy;
+                    double dz = entry.z - cz;
+                    if (dx * dx + dy * dy + dz * dz > radiusSq || !entry.player.isOnline()) {
+                        continue;
+                    }
+                    if (stopAtFirst) {
+                        return true;
+                    }
+                    found = true;
+                    out.add(entry.player);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
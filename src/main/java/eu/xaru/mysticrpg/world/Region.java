@@ -9,6 +9,7 @@ import java.util.Map;
 /**
  * Represents a defined rectangular cuboid region in the world. A region can have its own flags,
  * potion effects (with strength), and a custom title/subtitle that show when players enter it.
+ * Where regions overlap, the one with the higher priority applies.
  */
 public class Region {
 
@@ -16,10 +17,17 @@ public class Region {
     private Location pos1;
     private Location pos2;
     private final Map<String, Boolean> flags = new HashMap<>();
+    // Same values for the known flags, indexed by RegionFlag ordinal
+    private final Boolean[] knownFlags = new Boolean[RegionFlag.values().length];
     // Now store effects as a map from PotionEffectType to amplifier
     private final Map<PotionEffectType, Integer> effects = new HashMap<>();
     private String title;
     private String subtitle;
+    private int priority;
+
+    // Block bounds (inclusive), recomputed whenever a corner changes
+    private String worldName;
+    private int minX, minY, minZ, maxX, maxY, maxZ;
 
     public Region(String id) {
         this.id = id;
@@ -31,10 +39,26 @@ public class Region {
 
     public void setPos1(Location pos1) {
         this.pos1 = pos1;
+        updateBounds();
     }
 
     public void setPos2(Location pos2) {
         this.pos2 = pos2;
+        updateBounds();
+    }
+
+    private void updateBounds() {
+        if (pos1 == null || pos2 == null || pos1.getWorld() == null) {
+            worldName = null;
+            return;
+        }
+        worldName = pos1.getWorld().getName();
+        minX = Math.min(pos1.getBlockX(), pos2.getBlockX());
+        maxX = Math.max(pos1.getBlockX(), pos2.getBlockX());
+        minY = Math.min(pos1.getBlockY(), pos2.getBlockY());
+        maxY = Math.max(pos1.getBlockY(), pos2.getBlockY());
+        minZ = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
+        maxZ = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
     }
 
     public Location getPos1() {
@@ -46,27 +70,94 @@ public class Region {
     }
 
     public boolean contains(Location loc) {
-        if (pos1 == null || pos2 == null) return false;
-        if (!loc.getWorld().equals(pos1.getWorld())) return false;
-        int x1 = Math.min(pos1.getBlockX(), pos2.getBlockX());
-        int x2 = Math.max(pos1.getBlockX(), pos2.getBlockX());
-        int y1 = Math.min(pos1.getBlockY(), pos2.getBlockY());
-        int y2 = Math.max(pos1.getBlockY(), pos2.getBlockY());
-        int z1 = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
-        int z2 = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
-        return loc.getBlockX() >= x1 && loc.getBlockX() <= x2
-                && loc.getBlockY() >= y1 && loc.getBlockY() <= y2
-                && loc.getBlockZ() >= z1 && loc.getBlockZ() <= z2;
+        if (worldName == null || loc.getWorld() == null) return false;
+        if (!loc.getWorld().getName().equals(worldName)) return false;
+        return contains(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+
+    /**
+     * Block check against the precomputed bounds, ignoring the world.
+     */
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    /**
+     * @return The world of both corners, or null while the region is incomplete.
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    public long getVolume() {
+        return (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
     }
 
     public void setFlag(String flag, boolean value) {
         flags.put(flag.toLowerCase(), value);
+        RegionFlag known = RegionFlag.fromKey(flag);
+        if (known != null) {
+            knownFlags[known.ordinal()] = value;
+        }
     }
 
     public Boolean getFlag(String flag) {
         return flags.get(flag.toLowerCase());
     }
 
+    /**
+     * @return The region's override for the flag, or null if it uses the global value.
+     */
+    public Boolean getFlag(RegionFlag flag) {
+        return knownFlags[flag.ordinal()];
+    }
+
+    /**
+     * @return Whether the region covers every block of the given box.
+     */
+    public boolean covers(int x1, int y1, int z1, int x2, int y2, int z2) {
+        return x1 >= minX && x2 <= maxX && y1 >= minY && y2 <= maxY && z1 >= minZ && z2 <= maxZ;
+    }
+
+    /**
+     * @return Whether the region shares at least one block with the given box.
+     */
+    public boolean intersects(int x1, int y1, int z1, int x2, int y2, int z2) {
+        return x1 <= maxX && x2 >= minX && y1 <= maxY && y2 >= minY && z1 <= maxZ && z2 >= minZ;
+    }
+
     public Map<String, Boolean> getFlags() {
         return flags;
     }
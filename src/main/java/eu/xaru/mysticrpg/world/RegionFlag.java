@@ -0,0 +1,47 @@
+package eu.xaru.mysticrpg.world;
+
+import java.util.Locale;
+
+/**
+ * Flags checked by {@link WorldManager#isAllowed(RegionFlag, org.bukkit.Location)}.
+ * The key is the name used in regions.yml and the /worldflag and /regions flag commands.
+ */
+public enum RegionFlag {
+    BREAK("break"),
+    PVP("pvp"),
+    PLACE("place");
+
+    private static final RegionFlag[] VALUES = values();
+
+    private final String key;
+    private final int bit;
+
+    RegionFlag(String key) {
+        this.key = key;
+        this.bit = 1 << ordinal();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return This flag's bit in a mask of allowed flags.
+     */
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * @return The flag with the given key (case-insensitive), or null for unknown keys.
+     */
+    public static RegionFlag fromKey(String key) {
+        String lower = key.toLowerCase(Locale.ROOT);
+        for (RegionFlag flag : VALUES) {
+            if (flag.key.equals(lower)) {
+                return flag;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,51 @@
+package eu.xaru.mysticrpg.world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolved flags per 16x16x16 cell (chunk section) of the main world, for
+ * {@link WorldManager#isAllowed(RegionFlag, org.bukkit.Location)}.
+ *
+ * A cell stores a mask of allowed {@link RegionFlag} bits when every block in it resolves
+ * to the same region (or to none), or {@link #BOUNDARY} when a region edge crosses it and
+ * the block has to be checked exactly. Cells are filled on first use and the whole cache is
+ * dropped when regions or global flags change. Main thread only.
+ */
+final class RegionFlagCache {
+
+    static final int BOUNDARY = -1;
+
+    private static final int MAX_CELLS = 65_536;
+
+    private final Map<Long, Integer> cells = new HashMap<>();
+
+    /**
+     * @return The cached mask, {@link #BOUNDARY}, or null if the cell was not resolved yet.
+     */
+    Integer get(int sectionX, int sectionY, int sectionZ) {
+        return cells.get(key(sectionX, sectionY, sectionZ));
+    }
+
+    void put(int sectionX, int sectionY, int sectionZ, int mask) {
+        if (cells.size() >= MAX_CELLS) {
+            cells.clear();
+        }
+        cells.put(key(sectionX, sectionY, sectionZ), mask);
+    }
+
+    void invalidate() {
+        cells.clear();
+    }
+
+    int size() {
+        return cells.size();
+    }
+
+    // 26 bits per horizontal section coordinate cover the whole world border, 12 bits the build height
+    private static long key(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFFF) << 38)
+                | ((long) (sectionY & 0xFFF) << 26)
+                | (sectionZ & 0x3FFFFFF);
+    }
+}
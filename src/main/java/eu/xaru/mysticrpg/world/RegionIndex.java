@@ -0,0 +1,169 @@
+package eu.xaru.mysticrpg.world;
+
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable lookup structure for {@link RegionManager#getRegionAt(Location)}.
+ *
+ * Per world, regions are bucketed into a grid of 16x16 block columns keyed by cell
+ * coordinates; each bucket holds the regions touching it, highest priority first. Regions
+ * covering more than {@link #MAX_CELLS_PER_REGION} cells are kept in a separate per-world
+ * list instead of being copied into every cell. A lookup therefore tests only the few regions
+ * of one cell plus the large ones, however many regions exist.
+ *
+ * The index is never modified: the region manager builds a new one after every change and
+ * swaps the reference, so lookups need no locking.
+ */
+final class RegionIndex {
+
+    static final RegionIndex EMPTY = new RegionIndex(Map.of());
+
+    private static final int CELL_SHIFT = 4;
+    private static final int MAX_CELLS_PER_REGION = 4096;
+    private static final Region[] NONE = new Region[0];
+
+    /**
+     * Overlapping regions resolve to the highest priority, then the smallest volume
+     * (the most specific region), then the id so the result never depends on load order.
+     */
+    static final Comparator<Region> RESOLUTION_ORDER = Comparator.comparingInt(Region::getPriority).reversed()
+            .thenComparingLong(Region::getVolume)
+            .thenComparing(Region::getId);
+
+    private static final class WorldGrid {
+        final Map<Long, Region[]> cells;
+        final Region[] large;
+
+        WorldGrid(Map<Long, Region[]> cells, Region[] large) {
+            this.cells = cells;
+            this.large = large;
+        }
+    }
+
+    private final Map<String, WorldGrid> worlds;
+
+    private RegionIndex(Map<String, WorldGrid> worlds) {
+        this.worlds = worlds;
+    }
+
+    static RegionIndex build(Collection<Region> regions) {
+        Map<String, Map<Long, List<Region>>> cellLists = new HashMap<>();
+        Map<String, List<Region>> largeLists = new HashMap<>();
+
+        for (Region region : regions) {
+            String world = region.getWorldName();
+            if (world == null) {
+                continue;
+            }
+            int cx1 = region.getMinX() >> CELL_SHIFT;
+            int cx2 = region.getMaxX() >> CELL_SHIFT;
+            int cz1 = region.getMinZ() >> CELL_SHIFT;
+            int cz2 = region.getMaxZ() >> CELL_SHIFT;
+            long cellCount = (long) (cx2 - cx1 + 1) * (cz2 - cz1 + 1);
+            if (cellCount > MAX_CELLS_PER_REGION) {
+                largeLists.computeIfAbsent(world, w -> new ArrayList<>()).add(region);
+                continue;
+            }
+            Map<Long, List<Region>> cells = cellLists.computeIfAbsent(world, w -> new HashMap<>());
+            for (int cx = cx1; cx <= cx2; cx++) {
+                for (int cz = cz1; cz <= cz2; cz++) {
+                    cells.computeIfAbsent(cellKey(cx, cz), k -> new ArrayList<>(2)).add(region);
+                }
+            }
+        }
+
+        Set<String> worldNames = new HashSet<>(cellLists.keySet());
+        worldNames.addAll(largeLists.keySet());
+        Map<String, WorldGrid> worlds = new HashMap<>();
+        for (String world : worldNames) {
+            Map<Long, Region[]> cells = new HashMap<>();
+            for (Map.Entry<Long, List<Region>> entry : cellLists.getOrDefault(world, Map.of()).entrySet()) {
+                cells.put(entry.getKey(), sorted(entry.getValue()));
+            }
+            worlds.put(world, new WorldGrid(cells, sorted(largeLists.getOrDefault(world, List.of()))));
+        }
+        return new RegionIndex(worlds);
+    }
+
+    /**
+     * @return The applying region at the location, or null if it is in no region.
+     */
+    Region find(Location loc) {
+        if (loc.getWorld() == null) {
+            return null;
+        }
+        return find(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+
+    Region find(String world, int x, int y, int z) {
+        WorldGrid grid = worlds.get(world);
+        if (grid == null) {
+            return null;
+        }
+        Region best = firstContaining(grid.cells.getOrDefault(cellKey(x >> CELL_SHIFT, z >> CELL_SHIFT), NONE), x, y, z);
+        Region large = firstContaining(grid.large, x, y, z);
+        if (best == null) {
+            return large;
+        }
+        if (large != null && RESOLUTION_ORDER.compare(large, best) < 0) {
+            return large;
+        }
+        return best;
+    }
+
+    /**
+     * @return The region that resolves first among those touching the box, or null if none
+     *         does. The box must lie within one 16x16 column of the grid.
+     */
+    Region firstIntersecting(String world, int x1, int y1, int z1, int x2, int y2, int z2) {
+        WorldGrid grid = worlds.get(world);
+        if (grid == null) {
+            return null;
+        }
+        Region best = null;
+        for (Region region : grid.cells.getOrDefault(cellKey(x1 >> CELL_SHIFT, z1 >> CELL_SHIFT), NONE)) {
+            if (region.intersects(x1, y1, z1, x2, y2, z2)) {
+                best = region;
+                break;
+            }
+        }
+        for (Region region : grid.large) {
+            if (region.intersects(x1, y1, z1, x2, y2, z2)) {
+                if (best == null || RESOLUTION_ORDER.compare(region, best) < 0) {
+                    best = region;
+                }
+                break;
+            }
+        }
+        return best;
+    }
+
+    private static Region firstContaining(Region[] candidates, int x, int y, int z) {
+        for (Region region : candidates) {
+            if (region.contains(x, y, z)) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    private static Region[] sorted(List<Region> regions) {
+        Region[] array = regions.toArray(NONE);
+        Arrays.sort(array, RESOLUTION_ORDER);
+        return array;
+    }
+
+    static long cellKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -37,6 +37,8 @@ public class RegionManager {
     private final WorldManager worldManager;
 
     private final Map<String, Region> regions = new HashMap<>();
+    // Rebuilt from regions after every change, read by getRegionAt
+    private volatile RegionIndex regionIndex = RegionIndex.EMPTY;
     private final Map<UUID, RegionSetup> setupMap = new HashMap<>();
     private final Map<UUID, String> viewingRegion = new HashMap<>();
 
@@ -60,6 +62,7 @@ public class RegionManager {
         this.worldManager = worldManager;
 
         loadRegions();
+        rebuildIndex();
         registerCommands();
         registerEvents();
         startBorderTask();
@@ -133,6 +136,8 @@ public class RegionManager {
                     r.setTitle(title, subtitle);
                 }
 
+                r.setPriority(parseInt(rMap.get("priority"), 0));
+
                 regions.put(id, r);
                 DebugLogger.getInstance().log("Loaded region: " + id);
             }
@@ -194,6 +199,10 @@ public class RegionManager {
                 }
             }
 
+            if (r.getPriority() != 0) {
+                rMap.put("priority", r.getPriority());
+            }
+
             newRegionsMap.put(id, rMap);
         }
 
@@ -260,9 +269,26 @@ public class RegionManager {
                                 return;
                             }
                             r.setFlag(flag, val);
+                            worldManager.invalidateFlagCache();
                             player.sendMessage("Set flag " + flag + " to " + val + " for region " + id);
                             saveRegions();
                         }))
+                .withSubcommand(new CommandAPICommand("priority")
+                        .withArguments(new StringArgument("id"))
+                        .withArguments(new IntegerArgument("priority"))
+                        .executesPlayer((player, args) -> {
+                            String id = (String) args.get("id");
+                            int priority = (int) args.get("priority");
+                            Region r = regions.get(id);
+                            if (r == null) {
+                                player.sendMessage("No such region");
+                                return;
+                            }
+                            r.setPriority(priority);
+                            rebuildIndex();
+                            player.sendMessage("Set priority of region " + id + " to " + priority);
+                            saveRegions();
+                        }))
                 .withSubcommand(new CommandAPICommand("seteffect")
                         .withArguments(new StringArgument("id"))
                         .withArguments(new StringArgument("effect"))
@@ -348,8 +374,8 @@ public class RegionManager {
                                 player.sendMessage("No regions defined.");
                             } else {
                                 player.sendMessage("Current regions:");
-                                for (String regionId : regions.keySet()) {
-                                    player.sendMessage("- " + regionId);
+                                for (Region region : regions.values()) {
+                                    player.sendMessage("- " + region.getId() + " (priority " + region.getPriority() + ")");
                                 }
                             }
                         }))
@@ -358,6 +384,7 @@ public class RegionManager {
                         .executesPlayer((player, args) -> {
                             String id = (String) args.get("id");
                             if (regions.remove(id) != null) {
+                                rebuildIndex();
                                 player.sendMessage("Removed region " + id);
                                 saveRegions();
                             } else {
@@ -392,6 +419,7 @@ public class RegionManager {
                 r.setPos1(rs.pos1);
                 r.setPos2(rs.pos2);
                 regions.put(rs.id, r);
+                rebuildIndex();
                 setupMap.remove(p.getUniqueId());
                 p.sendMessage("Region " + rs.id + " created!");
                 saveRegions();
@@ -451,15 +479,23 @@ public class RegionManager {
 
     /**
      * Finds which region the loc is inside, or null if none.
-     * If multiple overlap, returns the first found.
+     * If multiple overlap, the highest priority wins, then the smallest region.
      */
     public Region getRegionAt(Location loc) {
-        for (Region r : regions.values()) {
-            if (r.contains(loc)) {
-                return r;
-            }
-        }
-        return null;
+        return regionIndex.find(loc);
+    }
+
+    /**
+     * Swaps in a fresh index of the current regions. Called after regions are added, removed
+     * or re-prioritised.
+     */
+    private void rebuildIndex() {
+        regionIndex = RegionIndex.build(new ArrayList<>(regions.values()));
+        worldManager.invalidateFlagCache();
+    }
+
+    RegionIndex getRegionIndex() {
+        return regionIndex;
     }
 
     private void startBorderTask() {
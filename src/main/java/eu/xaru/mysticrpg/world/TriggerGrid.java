@@ -0,0 +1,369 @@
+package eu.xaru.mysticrpg.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Shared grid of location triggers (quest targets, and later region or NPC proximity).
+ *
+ * Each radius trigger is registered in every chunk its radius reaches. A player is only
+ * checked when they move into another block, and then only against the triggers of the chunk
+ * they stand in, so the cost of a step does not depend on how many triggers exist. Entering a
+ * trigger's radius calls its {@link EnterListener} once; the player has to leave the radius
+ * before it fires again.
+ *
+ * Triggers are either global or only fire for players subscribed to them. Owners keep the
+ * subscriptions up to date; a {@link SubscriptionSource} is asked once per player, on their
+ * first step, for the subscriptions that existed before the grid knew the player.
+ * Main thread only.
+ */
+public class TriggerGrid implements Listener {
+
+    private static TriggerGrid instance;
+
+    /**
+     * Called when a player enters a trigger's radius.
+     */
+    public interface EnterListener {
+        void onEnter(Player player, Trigger trigger);
+    }
+
+    /**
+     * Subscribes a player the grid has not seen yet to the owner's triggers.
+     */
+    public interface SubscriptionSource {
+        /**
+         * @return False if the player's data is not available yet; the source is asked again
+         *         on the player's next step.
+         */
+        boolean resolve(Player player);
+    }
+
+    public static final class Trigger {
+        private final String id;
+        private final String worldName;
+        private final double x;
+        private final double y;
+        private final double z;
+        private final double radius;
+        private final boolean global;
+        private final EnterListener listener;
+
+        private Trigger(String id, String worldName, double x, double y, double z,
+                        double radius, boolean global, EnterListener listener) {
+            this.id = id;
+            this.worldName = worldName;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+            this.global = global;
+            this.listener = listener;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getWorldName() {
+            return worldName;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        public double getRadius() {
+            return radius;
+        }
+
+        public boolean isGlobal() {
+            return global;
+        }
+
+        boolean contains(String world, double px, double py, double pz) {
+            if (!worldName.equals(world)) {
+                return false;
+            }
+            double dx = px - x;
+            double dy = py - y;
+            double dz = pz - z;
+            return dx * dx + dy * dy + dz * dz < radius * radius;
+        }
+    }
+
+    private static final class PlayerState {
+        final Set<String> subscriptions = new HashSet<>();
+        final List<Trigger> inside = new ArrayList<>(2);
+        boolean resolved;
+    }
+
+    private final Map<String, Trigger> triggers = new HashMap<>();
+    /** Triggers per world name, then per chunk key. Cell lists are replaced, never modified. */
+    private final Map<String, Map<Long, List<Trigger>>> cells = new HashMap<>();
+    private final Map<UUID, PlayerState> players = new HashMap<>();
+    private final List<SubscriptionSource> sources = new CopyOnWriteArrayList<>();
+    private final List<Trigger> enteredScratch = new ArrayList<>();
+    private JavaPlugin plugin;
+
+    private TriggerGrid() {
+    }
+
+    public static synchronized TriggerGrid getInstance() {
+        if (instance == null) {
+            instance = new TriggerGrid();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts following player movement. Calling it again has no effect, so every system that
+     * registers triggers can call it when it starts.
+     */
+    public void start(JavaPlugin plugin) {
+        if (this.plugin != null) {
+            return;
+        }
+        this.plugin = plugin;
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+    }
+
+    public void stop() {
+        if (plugin != null) {
+            HandlerList.unregisterAll(this);
+            plugin = null;
+        }
+        triggers.clear();
+        cells.clear();
+        players.clear();
+        sources.clear();
+    }
+
+    /**
+     * Adds a trigger that fires when a player comes within {@code radius} blocks of the point.
+     * A trigger with the same id is replaced.
+     *
+     * @param global True to fire for every player, false to fire only for subscribed players
+     */
+    public Trigger addRadiusTrigger(String id, String worldName, double x, double y, double z,
+                                    double radius, boolean global, EnterListener listener) {
+        removeTrigger(id);
+        Trigger trigger = new Trigger(id, worldName, x, y, z, radius, global, listener);
+        triggers.put(id, trigger);
+        Map<Long, List<Trigger>> worldCells = cells.computeIfAbsent(worldName, w -> new HashMap<>());
+        forEachChunk(trigger, key -> {
+            List<Trigger> cell = worldCells.get(key);
+            List<Trigger> updated = new ArrayList<>(cell != null ? cell.size() + 1 : 1);
+            if (cell != null) {
+                updated.addAll(cell);
+            }
+            updated.add(trigger);
+            worldCells.put(key, List.copyOf(updated));
+        });
+        return trigger;
+    }
+
+    public void removeTrigger(String id) {
+        Trigger trigger = triggers.remove(id);
+        if (trigger == null) {
+            return;
+        }
+        Map<Long, List<Trigger>> worldCells = cells.get(trigger.worldName);
+        if (worldCells != null) {
+            forEachChunk(trigger, key -> {
+                List<Trigger> cell = worldCells.get(key);
+                if (cell == null) {
+                    return;
+                }
+                List<Trigger> updated = new ArrayList<>(cell);
+                updated.remove(trigger);
+                if (updated.isEmpty()) {
+                    worldCells.remove(key);
+                } else {
+                    worldCells.put(key, List.copyOf(updated));
+                }
+            });
+            if (worldCells.isEmpty()) {
+                cells.remove(trigger.worldName);
+            }
+        }
+        for (PlayerState state : players.values()) {
+            state.inside.remove(trigger);
+        }
+    }
+
+    /**
+     * Removes every trigger whose id starts with the prefix, e.g. all of one owner's triggers.
+     */
+    public void removeTriggers(String idPrefix) {
+        for (String id : new ArrayList<>(triggers.keySet())) {
+            if (id.startsWith(idPrefix)) {
+                removeTrigger(id);
+            }
+        }
+    }
+
+    public Trigger getTrigger(String id) {
+        return triggers.get(id);
+    }
+
+    public void addSubscriptionSource(SubscriptionSource source) {
+        sources.add(source);
+    }
+
+    public void removeSubscriptionSource(SubscriptionSource source) {
+        sources.remove(source);
+    }
+
+    public void subscribe(UUID player, String triggerId) {
+        players.computeIfAbsent(player, p -> new PlayerState()).subscriptions.add(triggerId);
+    }
+
+    public void unsubscribe(UUID player, String triggerId) {
+        PlayerState state = players.get(player);
+        if (state != null && state.subscriptions.remove(triggerId)) {
+            state.inside.removeIf(trigger -> trigger.id.equals(triggerId));
+        }
+    }
+
+    /**
+     * Drops all of the player's subscriptions whose trigger id starts with the prefix.
+     */
+    public void unsubscribeAll(UUID player, String idPrefix) {
+        PlayerState state = players.get(player);
+        if (state == null) {
+            return;
+        }
+        state.subscriptions.removeIf(id -> id.startsWith(idPrefix));
+        state.inside.removeIf(trigger -> !trigger.global && trigger.id.startsWith(idPrefix));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getUniqueId());
+    }
+
+    private void handleMove(Player player, Location from, Location to) {
+        if (to == null) {
+            return;
+        }
+        World toWorld = to.getWorld();
+        if (toWorld == null) {
+            return;
+        }
+        int blockX = to.getBlockX();
+        int blockY = to.getBlockY();
+        int blockZ = to.getBlockZ();
+        if (from.getWorld() == toWorld && from.getBlockX() == blockX
+                && from.getBlockY() == blockY && from.getBlockZ() == blockZ) {
+            // Rotation or movement within the same block
+            return;
+        }
+
+        PlayerState state = players.get(player.getUniqueId());
+        String world = toWorld.getName();
+        Map<Long, List<Trigger>> worldCells = cells.get(world);
+        List<Trigger> cell = worldCells != null ? worldCells.get(chunkKey(blockX >> 4, blockZ >> 4)) : null;
+        if (cell == null && (state == null || state.inside.isEmpty())) {
+            return;
+        }
+
+        if (state == null) {
+            state = new PlayerState();
+            players.put(player.getUniqueId(), state);
+        }
+        if (!state.resolved) {
+            boolean resolved = true;
+            for (SubscriptionSource source : sources) {
+                resolved &= source.resolve(player);
+            }
+            state.resolved = resolved;
+        }
+
+        double x = to.getX();
+        double y = to.getY();
+        double z = to.getZ();
+        for (Iterator<Trigger> it = state.inside.iterator(); it.hasNext(); ) {
+            if (!it.next().contains(world, x, y, z)) {
+                it.remove();
+            }
+        }
+        if (cell == null) {
+            return;
+        }
+
+        List<Trigger> entered = enteredScratch;
+        entered.clear();
+        for (int i = 0; i < cell.size(); i++) {
+            Trigger trigger = cell.get(i);
+            if (!trigger.global && !state.subscriptions.contains(trigger.id)) continue;
+            if (!trigger.contains(world, x, y, z) || state.inside.contains(trigger)) continue;
+            state.inside.add(trigger);
+            entered.add(trigger);
+        }
+        // Listeners may change triggers and subscriptions, so they run after the scan
+        for (int i = 0; i < entered.size(); i++) {
+            Trigger trigger = entered.get(i);
+            trigger.listener.onEnter(player, trigger);
+        }
+        entered.clear();
+    }
+
+    private interface ChunkVisitor {
+        void visit(long key);
+    }
+
+    private static void forEachChunk(Trigger trigger, ChunkVisitor visitor) {
+        int minChunkX = (int) Math.floor(trigger.x - trigger.radius) >> 4;
+        int maxChunkX = (int) Math.floor(trigger.x + trigger.radius) >> 4;
+        int minChunkZ = (int) Math.floor(trigger.z - trigger.radius) >> 4;
+        int maxChunkZ = (int) Math.floor(trigger.z + trigger.radius) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                visitor.visit(chunkKey(chunkX, chunkZ));
+            }
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
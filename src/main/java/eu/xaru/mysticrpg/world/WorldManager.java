@@ -9,6 +9,7 @@ import eu.xaru.mysticrpg.managers.EventManager;
 import eu.xaru.mysticrpg.managers.ModuleManager;
 import eu.xaru.mysticrpg.utils.DebugLogger;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventPriority;
@@ -17,23 +18,30 @@ import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 public class WorldManager {
 
+    private static final String MAIN_WORLD = "world";
+
     private final JavaPlugin plugin;
     private final EventManager eventManager;
     private final Map<String, Boolean> globalFlags = new HashMap<>();
+    // Allowed bits of the known global flags, kept in sync with globalFlags
+    private int globalFlagMask;
+    private final RegionFlagCache flagCache = new RegionFlagCache();
+    private World mainWorld;
     private AdminModule adminModule;
     private RegionManager regionManager;
 
     public WorldManager(JavaPlugin plugin, EventManager eventManager) {
         this.plugin = plugin;
         this.eventManager = eventManager;
-        globalFlags.put("break", false);
-        globalFlags.put("pvp", false);
-        globalFlags.put("place", false);
+        for (RegionFlag flag : RegionFlag.values()) {
+            setGlobalFlag(flag.getKey(), false);
+        }
 
         adminModule = ModuleManager.getInstance().getModuleInstance(AdminModule.class);
 
@@ -43,35 +51,43 @@ public class WorldManager {
 
     public void setRegionManager(RegionManager regionManager) {
         this.regionManager = regionManager;
+        invalidateFlagCache();
+    }
+
+    /**
+     * Drops all resolved flag cells. Called when regions, region flags or global flags change.
+     */
+    public void invalidateFlagCache() {
+        flagCache.invalidate();
     }
 
     private void registerEvents() {
         eventManager.registerEvent(BlockBreakEvent.class, event -> {
             Location blockLoc = event.getBlock().getLocation();
-            DebugLogger.getInstance().log("BlockBreakEvent: Player=" + event.getPlayer().getName() +
+            DebugLogger.getInstance().debug("world", () -> "BlockBreakEvent: Player=" + event.getPlayer().getName() +
                     " Block=" + event.getBlock().getType() + " Loc=" + formatLoc(blockLoc));
             if (!isMainWorld(blockLoc)) {
                 // Not in "world", allow by default
-                DebugLogger.getInstance().log("Not in main world, allowing break by default.");
+                DebugLogger.getInstance().debug("world", () -> "Not in main world, allowing break by default.");
                 return;
             }
-            if (!playerBypasses(event.getPlayer()) && !isAllowed("break", blockLoc)) {
-                DebugLogger.getInstance().log("Block breaking disallowed for non-admin, cancelling event.");
+            if (!playerBypasses(event.getPlayer()) && !isAllowed(RegionFlag.BREAK, blockLoc)) {
+                DebugLogger.getInstance().debug("world", () -> "Block breaking disallowed for non-admin, cancelling event.");
                 event.setCancelled(true);
             }
         }, EventPriority.HIGHEST);
 
         eventManager.registerEvent(BlockPlaceEvent.class, event -> {
             Location blockLoc = event.getBlock().getLocation();
-            DebugLogger.getInstance().log("BlockPlaceEvent: Player=" + event.getPlayer().getName() +
+            DebugLogger.getInstance().debug("world", () -> "BlockPlaceEvent: Player=" + event.getPlayer().getName() +
                     " Block=" + event.getBlock().getType() + " Loc=" + formatLoc(blockLoc));
             if (!isMainWorld(blockLoc)) {
                 // Not in "world", allow by default
-                DebugLogger.getInstance().log("Not in main world, allowing place by default.");
+                DebugLogger.getInstance().debug("world", () -> "Not in main world, allowing place by default.");
                 return;
             }
-            if (!playerBypasses(event.getPlayer()) && !isAllowed("place", blockLoc)) {
-                DebugLogger.getInstance().log("Block placing disallowed for non-admin, cancelling event.");
+            if (!playerBypasses(event.getPlayer()) && !isAllowed(RegionFlag.PLACE, blockLoc)) {
+                DebugLogger.getInstance().debug("world", () -> "Block placing disallowed for non-admin, cancelling event.");
                 event.setCancelled(true);
             }
         }, EventPriority.HIGHEST);
@@ -81,18 +97,18 @@ public class WorldManager {
             Entity victim = event.getEntity();
             if (damager instanceof Player dPlayer && victim instanceof Player vPlayer) {
                 Location victimLoc = victim.getLocation();
-                DebugLogger.getInstance().log("EntityDamageByEntityEvent (PVP): " +
+                DebugLogger.getInstance().debug("world", () -> "EntityDamageByEntityEvent (PVP): " +
                         dPlayer.getName() + " -> " + vPlayer.getName() +
                         " Loc=" + formatLoc(victimLoc));
 
                 if (!isMainWorld(victimLoc)) {
                     // Not in "world", allow by default
-                    DebugLogger.getInstance().log("Not in main world, allowing PVP by default.");
+                    DebugLogger.getInstance().debug("world", () -> "Not in main world, allowing PVP by default.");
                     return;
                 }
 
-                if (!playerBypasses(dPlayer) && !isAllowed("pvp", victimLoc)) {
-                    DebugLogger.getInstance().log("PVP disallowed for non-admin, cancelling event.");
+                if (!playerBypasses(dPlayer) && !isAllowed(RegionFlag.PVP, victimLoc)) {
+                    DebugLogger.getInstance().debug("world", () -> "PVP disallowed for non-admin, cancelling event.");
                     event.setCancelled(true);
                 }
             }
@@ -109,7 +125,8 @@ public class WorldManager {
                 .executes((sender, args) -> {
                     String flag = (String) args.get("flag");
                     boolean value = (boolean) args.get("value");
-                    globalFlags.put(flag.toLowerCase(), value);
+                    setGlobalFlag(flag, value);
+                    invalidateFlagCache();
                     sender.sendMessage("Global flag " + flag + " set to " + value);
                     DebugLogger.getInstance().log("Global flag " + flag + " set to " + value);
                 })
@@ -119,11 +136,67 @@ public class WorldManager {
     /**
      * Checks if action is allowed at a given location. If in main world, we apply global/region logic.
      * If not in the main world "world", always return true (allowed).
+     *
+     * Answers from the per-section flag cache where the whole section resolves alike; only
+     * sections crossed by a region edge are checked block by block.
+     */
+    public boolean isAllowed(RegionFlag flag, Location loc) {
+        if (!isMainWorld(loc)) {
+            return true;
+        }
+        int sectionX = loc.getBlockX() >> 4;
+        int sectionY = loc.getBlockY() >> 4;
+        int sectionZ = loc.getBlockZ() >> 4;
+        Integer mask = flagCache.get(sectionX, sectionY, sectionZ);
+        if (mask == null) {
+            mask = resolveSection(loc.getWorld().getName(), sectionX, sectionY, sectionZ);
+            flagCache.put(sectionX, sectionY, sectionZ, mask);
+        }
+        if (mask != RegionFlagCache.BOUNDARY) {
+            return (mask & flag.bit()) != 0;
+        }
+        Region region = regionManager.getRegionAt(loc);
+        Boolean regionVal = region != null ? region.getFlag(flag) : null;
+        return regionVal != null ? regionVal : (globalFlagMask & flag.bit()) != 0;
+    }
+
+    /**
+     * @return The allowed-flag mask shared by every block of the section, or
+     *         {@link RegionFlagCache#BOUNDARY} if blocks in it resolve to different regions.
+     */
+    private int resolveSection(String world, int sectionX, int sectionY, int sectionZ) {
+        if (regionManager == null) {
+            return globalFlagMask;
+        }
+        int x1 = sectionX << 4, y1 = sectionY << 4, z1 = sectionZ << 4;
+        int x2 = x1 + 15, y2 = y1 + 15, z2 = z1 + 15;
+        Region region = regionManager.getRegionIndex().firstIntersecting(world, x1, y1, z1, x2, y2, z2);
+        if (region == null) {
+            return globalFlagMask;
+        }
+        // The first region in resolution order wins wherever it applies, so if it covers the
+        // whole section no other region can win anywhere in it
+        if (!region.covers(x1, y1, z1, x2, y2, z2)) {
+            return RegionFlagCache.BOUNDARY;
+        }
+        int mask = 0;
+        for (RegionFlag flag : RegionFlag.values()) {
+            Boolean regionVal = region.getFlag(flag);
+            boolean allowed = regionVal != null ? regionVal : (globalFlagMask & flag.bit()) != 0;
+            if (allowed) {
+                mask |= flag.bit();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Exact, uncached check for any flag name, including ones without a {@link RegionFlag}.
      */
     public boolean isAllowed(String flag, Location loc) {
         // If not main world, allow by default
         if (!isMainWorld(loc)) {
-            DebugLogger.getInstance().log("Location not in main world, " + flag + " allowed by default at " + formatLoc(loc));
+            DebugLogger.getInstance().debug("world", () -> "Location not in main world, " + flag + " allowed by default at " + formatLoc(loc));
             return true;
         }
 
@@ -132,30 +205,49 @@ public class WorldManager {
             if (r != null) {
                 Boolean regionVal = r.getFlag(flag);
                 if (regionVal != null) {
-                    DebugLogger.getInstance().log("Region override: " + flag + " = " + regionVal + " in region " + r.getId());
+                    DebugLogger.getInstance().debug("world", () -> "Region override: " + flag + " = " + regionVal + " in region " + r.getId());
                     return regionVal;
                 }
-                DebugLogger.getInstance().log("Region found but no specific flag override for " + flag);
+                DebugLogger.getInstance().debug("world", () -> "Region found but no specific flag override for " + flag);
             } else {
-                DebugLogger.getInstance().log("No region at " + formatLoc(loc));
+                DebugLogger.getInstance().debug("world", () -> "No region at " + formatLoc(loc));
             }
         }
 
         boolean allowed = globalFlags.getOrDefault(flag, false);
-        DebugLogger.getInstance().log("No region override, global: " + flag + " = " + allowed + " at " + formatLoc(loc));
+        DebugLogger.getInstance().debug("world", () -> "No region override, global: " + flag + " = " + allowed + " at " + formatLoc(loc));
         return allowed;
     }
 
     private boolean playerBypasses(Player player) {
         if (adminModule != null && adminModule.isInAdminMode(player)) {
-            DebugLogger.getInstance().log("Player " + player.getName() + " is admin, bypassing all flags.");
+            DebugLogger.getInstance().debug("world", () -> "Player " + player.getName() + " is admin, bypassing all flags.");
             return true;
         }
         return false;
     }
 
     private boolean isMainWorld(Location loc) {
-        return loc.getWorld() != null && loc.getWorld().getName().equals("world");
+        World world = loc.getWorld();
+        if (world == null) {
+            return false;
+        }
+        if (world == mainWorld) {
+            return true;
+        }
+        if (world.getName().equals(MAIN_WORLD)) {
+            mainWorld = world;
+            return true;
+        }
+        return false;
+    }
+
+    private void setGlobalFlag(String flag, boolean value) {
+        globalFlags.put(flag.toLowerCase(), value);
+        RegionFlag known = RegionFlag.fromKey(flag);
+        if (known != null) {
+            globalFlagMask = value ? globalFlagMask | known.bit() : globalFlagMask & ~known.bit();
+        }
     }
 
     private String formatLoc(Location loc) {
@@ -163,6 +255,6 @@ public class WorldManager {
     }
 
     public Map<String, Boolean> getGlobalFlags() {
-        return globalFlags;
+        return Collections.unmodifiableMap(globalFlags);
     }
 }